@@ -2,22 +2,81 @@ package main.rice;
 
 import main.rice.basegen.BaseSetGenerator;
 import main.rice.concisegen.ConciseSetGenerator;
+import main.rice.concisegen.TestCaseShrinker;
+import main.rice.corpus.CatchHistory;
+import main.rice.corpus.CorpusReader;
+import main.rice.corpus.CorpusWriter;
+import main.rice.monitor.MetricsExporter;
+import main.rice.monitor.MetricsRegistry;
+import main.rice.monitor.TraceRecorder;
 import main.rice.parse.ConfigFile;
 import main.rice.parse.ConfigFileParser;
 import main.rice.parse.InvalidConfigException;
+import main.rice.test.AdaptiveRandomRunner;
+import main.rice.test.ConcurrencyController;
+import main.rice.test.CostAwarePruner;
+import main.rice.test.CoverageSelector;
+import main.rice.test.FirstFailureSweep;
+import main.rice.test.LazyGrader;
+import main.rice.test.OutputDiversityFilter;
+import main.rice.test.ProbeClusterGrader;
+import main.rice.test.ResourceMatrix;
+import main.rice.test.SampledGrader;
 import main.rice.test.TestCase;
+import main.rice.test.TestResults;
 import main.rice.test.Tester;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class Main {
+    /**
+     * How often the metrics file is rewritten while a run is in progress, in milliseconds.
+     */
+    private static final long METRICS_PERIOD_MILLIS = 5000;
+
+    /**
+     * The number of bytes in a megabyte, the unit of the --budget flag.
+     */
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    /**
+     * The default value of the --patience flag: the number of consecutive adaptive rounds catching nothing new
+     * after which random generation stops.
+     */
+    private static final String DEFAULT_PATIENCE = "3";
+
+    /**
+     * The default value of the --shrink flag: the number of variants each concise test case proposes per round.
+     */
+    private static final int DEFAULT_SHRINK_BATCH = 16;
+
+    /**
+     * The names of the supported flags, as documented in parseOptions().
+     */
+    private static final Set<String> FLAGS = Set.of("workers", "adaptive", "resources", "trace", "metrics",
+            "metrics-port", "dry-run", "budget", "strength", "seed", "coverage", "diverse", "time-budget",
+            "adaptive-random", "patience", "sample", "lazy-cover", "probe", "python-equality", "history",
+            "first-failure", "shrink", "save-corpus", "load-corpus");
+
+    /**
+     * The flags choosing how the base set is graded, of which at most one may be given.
+     */
+    private static final List<String> GRADING_FLAGS = List.of("sample", "lazy-cover", "probe", "first-failure");
+
     /**
      * main() delegates to generateTests() in order to compute the concise test set. It prints the result of calling
      * generateTests() to the console, along with an appropriate message explaining what's being printed.
      * @param args a String array containing three pieces of information: A String containing the path to the config
      *             file; A String containing the path to the reference solution; A String containing the path to the
-     *             directory containing the buggy implementations.
+     *             directory containing the buggy implementations. These may be followed by optional flags,
+     *             as described in parseOptions().
      * @throws IOException if a file does not exist or could not be read
      * @throws InvalidConfigException if there is something run with the config file format
      * @throws InterruptedException if the function is interrupted unexpectedly
@@ -43,7 +102,8 @@ public class Main {
      * set.
      * @param args a String array containing three pieces of information: A String containing the path to the config
      *             file; A String containing the path to the reference solution; A String containing the path to the
-     *             directory containing the buggy implementations.
+     *             directory containing the buggy implementations. These may be followed by optional flags,
+     *             as described in parseOptions().
      * @return the concise set of testcases for the function under test
      * @throws IOException if a file does not exist or could not be read
      * @throws InvalidConfigException if there is something run with the config file format
@@ -55,7 +115,36 @@ public class Main {
         String configPath = args[0];
         String solPath = args[1];
         String buggyPath = args[2];
+        Map<String, String> options = parseOptions(args);
 
+        // Publish live metrics for the duration of the run, if requested.
+        MetricsRegistry metrics = new MetricsRegistry();
+        try (MetricsExporter exporter = new MetricsExporter(metrics)) {
+            if (options.containsKey("metrics")) {
+                exporter.startFile(options.get("metrics"), METRICS_PERIOD_MILLIS);
+            }
+            if (options.containsKey("metrics-port")) {
+                exporter.startServer(Integer.parseInt(options.get("metrics-port")));
+            }
+            return generateTests(configPath, solPath, buggyPath, options, metrics);
+        }
+    }
+
+    /**
+     * Helper for generateTests() which runs the pipeline once the arguments have been parsed.
+     * @param configPath the path to the config file
+     * @param solPath the path to the reference solution
+     * @param buggyPath the path to the directory containing the buggy implementations
+     * @param options the parsed optional flags
+     * @param metrics the registry to update as the run progresses
+     * @return the concise set of testcases for the function under test
+     * @throws IOException if a file does not exist or could not be read
+     * @throws InvalidConfigException if there is something run with the config file format
+     * @throws InterruptedException if the function is interrupted unexpectedly
+     */
+    private static Set<TestCase> generateTests(String configPath, String solPath, String buggyPath,
+                                               Map<String, String> options, MetricsRegistry metrics)
+            throws IOException, InvalidConfigException, InterruptedException {
         // Use the configFileParser to find the name of the function under test, a List of PyNodes that will
         // be used to generate TestCases for the function under test, and the number of random test cases to be
         // generated, encapsulated in a ConfigFile.
@@ -63,10 +152,312 @@ public class Main {
 
         // Generate the baseSetGenerator using the info from the configFile.
         BaseSetGenerator baseGen = new BaseSetGenerator(configFile.getNodes(), configFile.getNumRand());
+        if (options.containsKey("budget")) {
+            baseGen.setMemoryBudget(Long.parseLong(options.get("budget")) * BYTES_PER_MB);
+        }
+        if (options.containsKey("seed")) {
+            baseGen.setSeed(Long.parseLong(options.get("seed")));
+        }
+        baseGen.setConstraints(configFile.getConstraints());
+        baseGen.setSymmetricGroups(configFile.getSymmetricGroups());
+        if (options.containsKey("strength")) {
+            baseGen.setStrength(Integer.parseInt(options.get("strength")));
+        }
+        baseGen.setPythonEquality(options.containsKey("python-equality"));
+        if (options.containsKey("coverage")) {
+            baseGen.setRandomSelector(new CoverageSelector(configFile.getFuncName(), solPath),
+                    Integer.parseInt(options.get("coverage")));
+        }
+
+        // On a dry run, report the size of the base set without generating or running anything.
+        if (options.containsKey("dry-run")) {
+            System.out.println("Base set plan for " + configFile.getFuncName() + ":");
+            System.out.println(baseGen.estimate());
+            return new HashSet<>();
+        }
+
+        // Generate the base test set (or reload a frozen one) and test it, either all at once or, in adaptive mode,
+        // growing its random part in rounds until they stop catching anything new.
+        TraceRecorder trace = options.containsKey("trace") ? new TraceRecorder() : null;
+        List<ResourceMatrix> matrices = new ArrayList<>();
+        TestResults results;
+        try {
+            if (options.containsKey("adaptive-random")) {
+                AdaptiveRandomRunner runner = new AdaptiveRandomRunner(baseGen,
+                        Integer.parseInt(options.get("adaptive-random")),
+                        Integer.parseInt(options.getOrDefault("patience", DEFAULT_PATIENCE)),
+                        configFile.getNumRand());
+                results = runner.run(tests -> runTester(configFile.getFuncName(), solPath, buggyPath, tests,
+                        options, metrics, trace, matrices));
+                metrics.gauge("feat_random_rounds", "Rounds of adaptive random generation.")
+                        .set(runner.getRoundYields().size());
+                metrics.gauge("feat_base_set_size", "Test cases in the base set.")
+                        .set(results.getCaseToFiles().size());
+                if (options.containsKey("save-corpus")) {
+                    List<TestCase> generated = new ArrayList<>();
+                    for (int i = 0; i < results.getCaseToFiles().size(); i++) {
+                        generated.add(results.getTestCase(i));
+                    }
+                    CorpusWriter.writeAll(options.get("save-corpus"), generated);
+                }
+            } else {
+                List<TestCase> baseSet = options.containsKey("load-corpus")
+                        ? CorpusReader.readAll(options.get("load-corpus")) : baseGen.genBaseSet();
+                if (options.containsKey("python-equality") && options.containsKey("load-corpus")) {
+                    baseSet = BaseSetGenerator.dropPythonDuplicates(baseSet);
+                }
+                if (options.containsKey("save-corpus")) {
+                    CorpusWriter.writeAll(options.get("save-corpus"), baseSet);
+                }
+                metrics.gauge("feat_base_set_size", "Test cases in the base set.").set(baseSet.size());
+                results = runTester(configFile.getFuncName(), solPath, buggyPath, baseSet, options, metrics, trace,
+                        matrices);
+            }
+        } catch (UncheckedIOException e) {
+            // Raised when the coverage selector fails to trace the reference solution
+            throw e.getCause();
+        }
+        metrics.gauge("feat_wrong_impls", "Implementations caught by the base set.")
+                .set(results.getWrongSet().size());
+
+        // Summarize the resources of every round at once, in the same order as the results
+        if (options.containsKey("resources")) {
+            ResourceMatrix matrix = matrices.get(0);
+            for (int i = 1; i < matrices.size(); i++) {
+                matrix = matrix.merge(matrices.get(i));
+            }
+            printResourceSummary(matrix);
+        }
+
+        // Trace the set cover as a phase of its own, then write out the whole timeline.
+        long coverStart = trace == null ? 0 : trace.now();
+        Set<TestCase> conciseSet = ConciseSetGenerator.setCover(results);
+        if (trace != null) {
+            trace.addSpan("setCover", "phase", coverStart, trace.now(), Map.of("selected", conciseSet.size()));
+            trace.write(options.get("trace"));
+        }
+        metrics.gauge("feat_concise_set_size", "Test cases in the concise set.").set(conciseSet.size());
 
-        // Generate the base test set and then the concise test set based upon above.
-        Tester tester = new Tester(configFile.getFuncName(), solPath, buggyPath, baseGen.genBaseSet());
+        // Shrink each concise test case as far as it still catches the same implementations
+        if (options.containsKey("shrink")) {
+            String maxBatch = options.get("shrink");
+            TestCaseShrinker shrinker = new TestCaseShrinker(configFile.getNodes(),
+                    maxBatch.isEmpty() ? DEFAULT_SHRINK_BATCH : Integer.parseInt(maxBatch));
+            shrinker.setConstraints(configFile.getConstraints());
+            conciseSet = new HashSet<>(shrinker.shrinkAll(conciseSet, tests -> {
+                Tester tester = new Tester(configFile.getFuncName(), solPath, buggyPath, tests);
+                tester.setConcurrency(buildConcurrency(options));
+                tester.computeExpectedResults();
+                return tester.runTests();
+            }).values());
+            metrics.gauge("feat_shrink_rounds", "Rounds of variants run while shrinking the concise set.")
+                    .set(shrinker.getNumRounds());
+        }
+        return conciseSet;
+    }
+
+    /**
+     * Helper for generateTests() which runs a batch of test cases on the buggy implementations, narrowing it first
+     * as requested by the --diverse and --time-budget flags.
+     * @param funcName the name of the function under test
+     * @param solPath the path to the reference solution
+     * @param buggyPath the path to the directory containing the buggy implementations
+     * @param tests the test cases to be run
+     * @param options the parsed optional flags
+     * @param metrics the registry to update as the run progresses
+     * @param trace the recorder for the timeline of the run, or null if it is not being traced
+     * @param matrices the list to which the resources consumed by the batch are added
+     * @return the results of testing
+     * @throws IOException if a file does not exist or could not be read
+     * @throws InterruptedException if the function is interrupted unexpectedly
+     */
+    private static TestResults runTester(String funcName, String solPath, String buggyPath, List<TestCase> tests,
+                                         Map<String, String> options, MetricsRegistry metrics, TraceRecorder trace,
+                                         List<ResourceMatrix> matrices)
+            throws IOException, InterruptedException {
+        Tester tester = new Tester(funcName, solPath, buggyPath, tests);
+        tester.setMetrics(metrics);
+        tester.setConcurrency(buildConcurrency(options));
+        tester.setTraceRecorder(trace);
         tester.computeExpectedResults();
-        return ConciseSetGenerator.setCover(tester.runTests());
+        if (options.containsKey("diverse")) {
+            String maxTests = options.get("diverse");
+            List<TestCase> diverseSet = tester.retainDiverseTests(
+                    new OutputDiversityFilter(maxTests.isEmpty() ? 0 : Integer.parseInt(maxTests)));
+            metrics.gauge("feat_diverse_set_size", "Test cases kept by the output-diversity filter.")
+                    .set(diverseSet.size());
+        }
+        if (options.containsKey("time-budget")) {
+            List<TestCase> affordableSet = tester.retainAffordableTests(
+                    new CostAwarePruner(Double.parseDouble(options.get("time-budget"))));
+            metrics.gauge("feat_affordable_set_size", "Test cases kept within the time budget.")
+                    .set(affordableSet.size());
+        }
+        // Unless a grader skips cells, every test case runs on every implementation; the tester counts the cells
+        // actually run, which are all the history ever records
+        CatchHistory history = options.containsKey("history") ? CatchHistory.load(options.get("history")) : null;
+        TestResults results;
+        TestResults observed = null;
+        if (options.containsKey("sample")) {
+            long seed = options.containsKey("seed") ? Long.parseLong(options.get("seed")) : System.nanoTime();
+            SampledGrader grader = new SampledGrader(Integer.parseInt(options.get("sample")), seed);
+            results = grader.grade(tester);
+            metrics.gauge("feat_cells_run", "Implementation-test cells run by sampled grading.")
+                    .set(tester.getNumCellsRun());
+        } else if (options.containsKey("lazy-cover")) {
+            LazyGrader grader = new LazyGrader();
+            results = grader.grade(tester);
+            metrics.gauge("feat_cells_run", "Implementation-test cells run by lazy set cover.")
+                    .set(tester.getNumCellsRun());
+        } else if (options.containsKey("probe")) {
+            long seed = options.containsKey("seed") ? Long.parseLong(options.get("seed")) : System.nanoTime();
+            ProbeClusterGrader grader = new ProbeClusterGrader(Integer.parseInt(options.get("probe")), seed);
+            results = grader.grade(tester);
+            // Propagated catches were never observed, so they stay out of the history
+            observed = grader.getObservedResults();
+            metrics.gauge("feat_cells_run", "Implementation-test cells run by probe clustering.")
+                    .set(tester.getNumCellsRun());
+            metrics.gauge("feat_impl_clusters", "Clusters of implementations with the same probe verdicts.")
+                    .set(grader.getClusters().size());
+            metrics.gauge("feat_flagged_clusters", "Clusters whose audit member disagreed with the representative.")
+                    .set(grader.getFlaggedClusters().size());
+        } else if (options.containsKey("first-failure")) {
+            // Without a history, every test case ties and they run in their original order
+            CatchHistory ranking = history == null ? new CatchHistory() : history;
+            FirstFailureSweep sweep = new FirstFailureSweep(ranking.prioritize(tester.getTests()));
+            TestResults swept = sweep.sweep(tester);
+
+            // The sweep credits each implementation to its first catcher only, so the cells the set cover still
+            // needs are run lazily on top of it, for the concise set to be the same as from the full matrix
+            LazyGrader cover = new LazyGrader();
+            cover.setKnownCells(sweep.getRanFiles(), swept);
+            results = cover.grade(tester);
+            metrics.gauge("feat_cells_run", "Implementation-test cells run by the first-failure sweep.")
+                    .set(tester.getNumCellsRun());
+        } else {
+            results = tester.runTests();
+        }
+        if (history != null) {
+            history.record(observed == null ? results : observed, tester.getRunsPerTest());
+            history.save(options.get("history"));
+        }
+        matrices.add(tester.getResourceMatrix());
+        return results;
+    }
+
+    /**
+     * Prints the per-implementation and per-test percentile summaries of the resources consumed while testing.
+     * @param matrix the resources consumed by each (implementation, test) execution
+     */
+    private static void printResourceSummary(ResourceMatrix matrix) {
+        System.out.println("Resource usage per implementation:");
+        for (int i = 0; i < matrix.getFilenames().size(); i++) {
+            System.out.println("  " + matrix.getFilenames().get(i) + ": " + matrix.summarizeImpl(i));
+        }
+        System.out.println("Resource usage per test case:");
+        for (int i = 0; i < matrix.getNumTests(); i++) {
+            System.out.println("  Test Case" + i + ": " + matrix.summarizeTest(i));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Parses the optional flags that follow the three positional arguments. Each flag is of the form --name or
+     * --name=value; a flag without a value maps to the empty string. Supported flags:
+     * --workers=N runs up to N buggy implementation processes at once (default: sequential);
+     * --adaptive tunes the number of concurrent processes while running, between 1 and --workers (default: twice
+     * the number of available cores);
+     * --resources prints percentile summaries of the CPU time, peak memory and wall time of every execution;
+     * --trace=PATH writes the timeline of the run to PATH as a Chrome trace-event JSON file;
+     * --metrics=PATH rewrites PATH with Prometheus text-format metrics every few seconds and at the end of the run;
+     * --metrics-port=N serves the same metrics at http://127.0.0.1:N/metrics while the run is in progress;
+     * --dry-run prints the size of each parameter's exhaustive domain, of the base set and its projected heap, and
+     * stops without generating anything;
+     * --budget=MB caps the projected heap of the base set at MB megabytes, down-sampling the exhaustive test cases
+     * (or refusing to run) when the plan exceeds it;
+     * --strength=T replaces the full exhaustive product with a covering array in which every combination of values
+     * of any T parameters appears at least once;
+     * --seed=N makes the base set reproducible, generating the same test cases for the same seed;
+     * --coverage=K generates K times as many random test cases as requested, and keeps those that add the most line
+     * and branch coverage of the reference solution;
+     * --diverse[=N] runs the implementations only on the test cases whose expected results differ in shape or value,
+     * or which lie at the boundaries of an argument, keeping at most N of them if given;
+     * --time-budget=MS keeps only as many test cases as the solution ran in MS milliseconds, dropping the most
+     * expensive first, and those whose output or input structure a cheaper test case shares before any others;
+     * --adaptive-random=R generates random test cases in rounds of R, up to the number in the config file, until
+     * --patience=P consecutive rounds (default: 3) catch no new implementation and no new combination of them;
+     * --sample=N runs the whole base set on only N randomly chosen implementations, and the rest only on the concise
+     * set of that sample, falling back to the other test cases for implementations the concise set does not catch;
+     * --lazy-cover runs only the implementation-test cells that the greedy set cover asks for, skipping
+     * implementations that are already covered and test cases that can no longer be selected;
+     * --probe=N runs a diverse probe of at most N test cases on every implementation, clusters implementations the
+     * probe catches identically, and runs the rest only on each cluster's representative and one audit member;
+     * --python-equality drops test cases that Python cannot tell apart, since True == 1 == 1.0 and equal set members
+     * and dict keys collapse, from the generated or reloaded base set;
+     * --history=PATH adds each test case's catches to the catch statistics kept at PATH across runs;
+     * --first-failure finds the buggy implementations by running the test cases on each one only until the first
+     * catches it, historically strongest catchers first when --history is given, then runs only the further cells
+     * the set cover needs to select the same concise set as from the full matrix;
+     * --shrink[=N] shrinks each concise test case, proposing up to N (default: 16) smaller variants per round, for
+     * as long as one still catches the same implementations;
+     * --save-corpus=PATH writes the base set to PATH as a binary corpus once it has been generated;
+     * --load-corpus=PATH uses the base set frozen in the corpus at PATH instead of generating one, and so cannot be
+     * combined with --adaptive-random or --patience.
+     * Any other flag is rejected rather than ignored, as is giving more than one of --sample, --lazy-cover, --probe
+     * and --first-failure, each of which grades the base set its own way.
+     * @param args the full array of command-line arguments
+     * @return a map from each flag name (without the leading dashes) to its value
+     * @throws IllegalArgumentException if an argument is not a supported flag, or the flags conflict
+     */
+    public static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 3; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eqIndex = arg.indexOf("=");
+            String name = eqIndex < 0 ? arg.substring(2) : arg.substring(2, eqIndex);
+            if (!FLAGS.contains(name)) {
+                throw new IllegalArgumentException("Unknown flag: --" + name);
+            }
+            options.put(name, eqIndex < 0 ? "" : arg.substring(eqIndex + 1));
+        }
+
+        // Each grading mode runs a different subset of the cells, so only one may be chosen
+        List<String> gradingModes = new ArrayList<>();
+        for (String flag : GRADING_FLAGS) {
+            if (options.containsKey(flag)) {
+                gradingModes.add("--" + flag);
+            }
+        }
+        if (gradingModes.size() > 1) {
+            throw new IllegalArgumentException("Conflicting grading modes: " + String.join(", ", gradingModes));
+        }
+
+        // A reloaded base set has no random part to grow
+        if (options.containsKey("load-corpus")
+                && (options.containsKey("adaptive-random") || options.containsKey("patience"))) {
+            throw new IllegalArgumentException(
+                    "--load-corpus cannot be combined with --adaptive-random or --patience");
+        }
+        return options;
+    }
+
+    /**
+     * Builds the concurrency controller requested by the --workers and --adaptive flags.
+     * @param options the parsed optional flags
+     * @return the controller to hand to the Tester, or null if tests should run sequentially
+     */
+    private static ConcurrencyController buildConcurrency(Map<String, String> options) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (options.containsKey("adaptive")) {
+            int maxWorkers = options.containsKey("workers")
+                    ? Integer.parseInt(options.get("workers")) : 2 * cores;
+            return new ConcurrencyController(1, maxWorkers);
+        } else if (options.containsKey("workers")) {
+            return new ConcurrencyController(Integer.parseInt(options.get("workers")));
+        }
+        return null;
     }
 }
\ No newline at end of file
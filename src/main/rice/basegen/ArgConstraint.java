@@ -0,0 +1,322 @@
+package main.rice.basegen;
+
+import main.rice.obj.*;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A relation that every generated test case must satisfy, comparing two operands drawn
+ * from its arguments, e.g. "arg0 <= arg1" or "len(arg2) == arg0". Numbers (including
+ * bools and lengths) are compared by value, as in Python; other arguments may only be
+ * compared for equality. Since a constraint only depends on the arguments up to
+ * getLastArg(), generators may check it as soon as those are chosen, and prune every
+ * combination that shares the failing prefix.
+ */
+public class ArgConstraint {
+
+    /**
+     * The comparison operators a constraint may use.
+     */
+    public enum Comparison {
+        LT("<"), LE("<="), GT(">"), GE(">="), EQ("=="), NE("!=");
+
+        /**
+         * The Python spelling of the operator.
+         */
+        private final String symbol;
+
+        /**
+         * Constructor for a Comparison.
+         *
+         * @param symbol the Python spelling of the operator
+         */
+        Comparison(String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * Returns the comparison spelled by the given symbol.
+         *
+         * @param symbol the Python spelling of an operator
+         * @return the comparison
+         * @throws IllegalArgumentException if the symbol is not a supported operator
+         */
+        public static Comparison fromSymbol(String symbol) {
+            for (Comparison comparison : values()) {
+                if (comparison.symbol.equals(symbol)) {
+                    return comparison;
+                }
+            }
+            throw new IllegalArgumentException("Unknown comparison: " + symbol);
+        }
+
+        /**
+         * Returns whether this is an ordering (rather than an equality) comparison.
+         *
+         * @return true for <, <=, > and >=; false for == and !=
+         */
+        public boolean isOrdering() {
+            return this != EQ && this != NE;
+        }
+
+        /**
+         * Applies this comparison to the result of comparing two operands.
+         *
+         * @param cmp negative, zero or positive as the left operand is less than, equal
+         *            to or greater than the right
+         * @return whether the comparison holds
+         */
+        private boolean holds(int cmp) {
+            return switch (this) {
+                case LT -> cmp < 0;
+                case LE -> cmp <= 0;
+                case GT -> cmp > 0;
+                case GE -> cmp >= 0;
+                case EQ -> cmp == 0;
+                case NE -> cmp != 0;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return this.symbol;
+        }
+    }
+
+    /**
+     * One side of a constraint: an argument, the length of an argument, or a numeric
+     * literal.
+     */
+    public static class Operand {
+
+        /**
+         * The index of the argument this operand refers to; -1 for a literal.
+         */
+        private final int argIndex;
+
+        /**
+         * Whether this operand is the length of the argument rather than the argument
+         * itself.
+         */
+        private final boolean isLength;
+
+        /**
+         * The value of this operand, if it is a literal.
+         */
+        private final double literal;
+
+        /**
+         * Constructor for an Operand.
+         *
+         * @param argIndex the index of the argument, or -1 for a literal
+         * @param isLength whether the operand is the length of the argument
+         * @param literal  the value of the literal, if any
+         */
+        private Operand(int argIndex, boolean isLength, double literal) {
+            this.argIndex = argIndex;
+            this.isLength = isLength;
+            this.literal = literal;
+        }
+
+        /**
+         * Returns an operand referring to an argument.
+         *
+         * @param index the index of the argument
+         * @return the operand
+         */
+        public static Operand arg(int index) {
+            return new Operand(index, false, 0);
+        }
+
+        /**
+         * Returns an operand referring to the length of an argument, which must be a
+         * string, list, tuple, set or dict.
+         *
+         * @param index the index of the argument
+         * @return the operand
+         */
+        public static Operand length(int index) {
+            return new Operand(index, true, 0);
+        }
+
+        /**
+         * Returns a numeric literal operand.
+         *
+         * @param value the value of the literal
+         * @return the operand
+         */
+        public static Operand literal(double value) {
+            return new Operand(-1, false, value);
+        }
+
+        /**
+         * Returns the index of the argument this operand refers to.
+         *
+         * @return the index of the argument, or -1 for a literal
+         */
+        public int getArgIndex() {
+            return this.argIndex;
+        }
+
+        /**
+         * Returns whether this operand is the length of an argument.
+         *
+         * @return true if this operand is the length of an argument; false otherwise
+         */
+        public boolean isLength() {
+            return this.isLength;
+        }
+
+        /**
+         * Helper for ArgConstraint.test(); evaluates this operand.
+         *
+         * @param args the arguments of a test case, of which at least those up to
+         *             argIndex have been chosen
+         * @return the value as a Double if it is numeric; otherwise the argument itself
+         */
+        private Object resolve(List<? extends APyObj<?>> args) {
+            if (this.argIndex < 0) {
+                return this.literal;
+            }
+            APyObj<?> arg = args.get(this.argIndex);
+            if (this.isLength) {
+                if (arg instanceof AIterablePyObj<?> iterable) {
+                    return (double) iterable.getValue().size();
+                } else if (arg instanceof PyDictObj<?, ?> dict) {
+                    return (double) dict.getValue().size();
+                }
+                throw new IllegalArgumentException("len() of unsized argument " + arg);
+            }
+            if (arg instanceof PyIntObj intObj) {
+                return intObj.getValue().doubleValue();
+            } else if (arg instanceof PyFloatObj floatObj) {
+                return floatObj.getValue();
+            } else if (arg instanceof PyBoolObj boolObj) {
+                return boolObj.getValue() ? 1.0 : 0.0;
+            }
+            return arg;
+        }
+
+        @Override
+        public String toString() {
+            if (this.argIndex < 0) {
+                return this.literal == Math.rint(this.literal)
+                        ? String.valueOf((long) this.literal) : String.valueOf(this.literal);
+            }
+            return this.isLength ? "len(arg" + this.argIndex + ")" : "arg" + this.argIndex;
+        }
+    }
+
+    /**
+     * The left and right operands and the comparison between them.
+     */
+    private final Operand left;
+    private final Comparison comparison;
+    private final Operand right;
+
+    /**
+     * Constructor for an ArgConstraint.
+     *
+     * @param left       the left operand
+     * @param comparison the comparison between the operands
+     * @param right      the right operand
+     * @throws IllegalArgumentException if neither operand refers to an argument
+     */
+    public ArgConstraint(Operand left, Comparison comparison, Operand right) {
+        if (left.argIndex < 0 && right.argIndex < 0) {
+            throw new IllegalArgumentException("Constraint " + left + " " + comparison + " "
+                    + right + " does not refer to any argument");
+        }
+        this.left = left;
+        this.comparison = comparison;
+        this.right = right;
+    }
+
+    /**
+     * Returns the left operand.
+     *
+     * @return the left operand
+     */
+    public Operand getLeft() {
+        return this.left;
+    }
+
+    /**
+     * Returns the comparison between the operands.
+     *
+     * @return the comparison
+     */
+    public Comparison getComparison() {
+        return this.comparison;
+    }
+
+    /**
+     * Returns the right operand.
+     *
+     * @return the right operand
+     */
+    public Operand getRight() {
+        return this.right;
+    }
+
+    /**
+     * Returns the index of the last argument this constraint depends on; the constraint
+     * can be checked as soon as the arguments up to and including it have been chosen.
+     *
+     * @return the largest argument index referred to by either operand
+     */
+    public int getLastArg() {
+        return Math.max(this.left.argIndex, this.right.argIndex);
+    }
+
+    /**
+     * Returns whether the given arguments satisfy this constraint.
+     *
+     * @param args the arguments of a test case, of which at least those up to
+     *             getLastArg() have been chosen
+     * @return true if the constraint holds; false otherwise
+     * @throws IllegalArgumentException if the constraint orders arguments that are not
+     *                                  numbers, or takes the length of one that is not
+     *                                  sized
+     */
+    public boolean test(List<? extends APyObj<?>> args) {
+        Object leftVal = this.left.resolve(args);
+        Object rightVal = this.right.resolve(args);
+        if (leftVal instanceof Double l && rightVal instanceof Double r) {
+            // Not Double.compare(), which would tell -0.0 and 0.0 apart
+            return this.comparison.holds(l < r ? -1 : l > r ? 1 : 0);
+        }
+        if (this.comparison.isOrdering()) {
+            throw new IllegalArgumentException("Cannot order " + leftVal + " and " + rightVal);
+        }
+        return this.comparison.holds(Objects.equals(leftVal, rightVal) ? 0 : 1);
+    }
+
+    /**
+     * Returns whether the given arguments satisfy every one of the given constraints.
+     *
+     * @param constraints the constraints
+     * @param args        the arguments of a test case
+     * @return true if every constraint holds; false otherwise
+     */
+    public static boolean testAll(List<ArgConstraint> constraints,
+                                  List<? extends APyObj<?>> args) {
+        for (ArgConstraint constraint : constraints) {
+            if (!constraint.test(args)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the constraint in the syntax of the config file.
+     *
+     * @return a string representation of this constraint
+     */
+    @Override
+    public String toString() {
+        return this.left + " " + this.comparison + " " + this.right;
+    }
+}
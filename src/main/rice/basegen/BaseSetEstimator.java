@@ -0,0 +1,305 @@
+package main.rice.basegen;
+
+import main.rice.node.*;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Computes the size of the exhaustive domain of each parameter, and of the Cartesian
+ * product of those domains, directly from the node trees -- without generating any
+ * values. Also projects the heap needed to hold the base set, so that a plan too large
+ * to generate can be refused or down-sampled before the JVM runs out of memory.
+ *
+ * <p>The estimate is an upper bound on what BaseSetGenerator generates: it does not
+ * account for constraints, symmetric groups or Python equality, each of which can only
+ * shrink the exhaustive space.
+ */
+public class BaseSetEstimator {
+
+    /**
+     * Approximate heap cost, in bytes, of a leaf object (the APyObj plus its boxed value).
+     */
+    private static final long LEAF_BYTES = 32;
+
+    /**
+     * Approximate heap cost, in bytes, of an empty compound object (the APyObj plus its
+     * backing collection).
+     */
+    private static final long CONTAINER_BYTES = 64;
+
+    /**
+     * Approximate heap cost, in bytes, of each element of a list, tuple or string.
+     */
+    private static final long SEQUENCE_ELEMENT_BYTES = 8;
+
+    /**
+     * Approximate heap cost, in bytes, of each element of a set or dict (hash table slot
+     * plus entry).
+     */
+    private static final long HASHED_ELEMENT_BYTES = 48;
+
+    /**
+     * Approximate heap cost, in bytes, of a test case with no arguments, including its
+     * entries in the set and list that hold the base set.
+     */
+    private static final long TEST_CASE_BYTES = 96;
+
+    /**
+     * The number of exhaustive values of each parameter.
+     */
+    private final List<BigInteger> paramSizes = new ArrayList<>();
+
+    /**
+     * The number of test cases in the exhaustive space.
+     */
+    private final BigInteger exhaustiveSize;
+
+    /**
+     * The projected heap needed to hold the exhaustive values of every parameter.
+     */
+    private final BigInteger valueBytes;
+
+    /**
+     * The projected heap needed to hold one test case.
+     */
+    private final long caseBytes;
+
+    /**
+     * The number of random test cases in the plan.
+     */
+    private final int numRand;
+
+    /**
+     * Constructor for a BaseSetEstimator; estimates the base set that a BaseSetGenerator
+     * with the same arguments would generate.
+     *
+     * @param nodes   the nodes that will be used to perform generation
+     * @param numRand the number of random cases to generate
+     */
+    public BaseSetEstimator(List<APyNode<?>> nodes, int numRand) {
+        BigInteger size = BigInteger.ONE;
+        BigInteger bytes = BigInteger.ZERO;
+        for (APyNode<?> node : nodes) {
+            BigInteger paramSize = countExVals(node);
+            this.paramSizes.add(paramSize);
+            size = size.multiply(paramSize);
+            bytes = bytes.add(estimateValueBytes(node));
+        }
+        this.exhaustiveSize = size;
+        this.valueBytes = bytes;
+        this.caseBytes = TEST_CASE_BYTES + SEQUENCE_ELEMENT_BYTES * nodes.size();
+        this.numRand = numRand;
+    }
+
+    /**
+     * Returns the number of exhaustive values of each parameter.
+     *
+     * @return a list whose i-th element is the size of the i-th parameter's domain
+     */
+    public List<BigInteger> getParamSizes() {
+        return this.paramSizes;
+    }
+
+    /**
+     * Returns the number of test cases in the exhaustive space, before constraints,
+     * symmetric groups and Python equality reduce it.
+     *
+     * @return the product of the parameters' domain sizes
+     */
+    public BigInteger getExhaustiveSize() {
+        return this.exhaustiveSize;
+    }
+
+    /**
+     * Returns the projected heap needed to hold each parameter's exhaustive values.
+     *
+     * @return the projected size of the per-parameter values, in bytes
+     */
+    public BigInteger getValueBytes() {
+        return this.valueBytes;
+    }
+
+    /**
+     * Returns the projected heap needed to hold a single test case.
+     *
+     * @return the projected size of a test case, in bytes
+     */
+    public long getCaseBytes() {
+        return this.caseBytes;
+    }
+
+    /**
+     * Returns the projected heap needed to generate the full base set: the exhaustive
+     * values of every parameter, plus every exhaustive and random test case.
+     *
+     * @return the projected size of the base set, in bytes
+     */
+    public BigInteger getHeapBytes() {
+        BigInteger numCases = this.exhaustiveSize.add(BigInteger.valueOf(this.numRand));
+        return this.valueBytes.add(numCases.multiply(BigInteger.valueOf(this.caseBytes)));
+    }
+
+    /**
+     * Returns the number of exhaustive test cases that can be generated (along with the
+     * random ones) within the given heap budget.
+     *
+     * @param budgetBytes the heap budget, in bytes
+     * @return the number of exhaustive test cases that fit, which is the full exhaustive
+     * size if the whole plan fits, or negative if not even the per-parameter values and
+     * random test cases fit
+     */
+    public BigInteger exhaustiveCasesWithin(long budgetBytes) {
+        BigInteger remaining = BigInteger.valueOf(budgetBytes).subtract(this.valueBytes)
+                .subtract(BigInteger.valueOf(this.numRand).multiply(BigInteger.valueOf(this.caseBytes)));
+        if (remaining.signum() < 0) {
+            return BigInteger.ONE.negate();
+        }
+        return remaining.divide(BigInteger.valueOf(this.caseBytes)).min(this.exhaustiveSize);
+    }
+
+    /**
+     * Returns a multi-line description of the plan: the size of each parameter's domain,
+     * the size of the exhaustive space and the projected heap.
+     *
+     * @return a string representation of this estimate
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < this.paramSizes.size(); i++) {
+            sb.append("  arg").append(i).append(": ").append(this.paramSizes.get(i))
+                    .append(" exhaustive values\n");
+        }
+        sb.append("  exhaustive test cases: ").append(this.exhaustiveSize).append("\n");
+        sb.append("  random test cases: ").append(this.numRand).append("\n");
+        sb.append("  projected heap: ").append(this.getHeapBytes()).append(" bytes");
+        return sb.toString();
+    }
+
+    /**
+     * Counts the values in a node's exhaustive domain without generating them: a
+     * leaf has one value per distinct element of its domain; a list, tuple or string of
+     * length L over n element values has n^L values; a set has C(n, L); and a dict with
+     * K keys and V values has C(K, L) * V^L.
+     *
+     * @param node the root of the tree describing one parameter
+     * @return the number of distinct values that node.genExVals() would return
+     */
+    public static BigInteger countExVals(APyNode<?> node) {
+        BigInteger count = BigInteger.ZERO;
+        for (BigInteger lengthCount : countByLength(node).values()) {
+            count = count.add(lengthCount);
+        }
+        return count;
+    }
+
+    /**
+     * Helper for countExVals() and estimateValueBytes(); counts a node's exhaustive
+     * values by length. Leaves report all of their values under length 0.
+     *
+     * @param node the root of the tree describing one parameter
+     * @return a map from each length in the exhaustive domain to the number of values of
+     * that length
+     */
+    private static Map<Integer, BigInteger> countByLength(APyNode<?> node) {
+        Map<Integer, BigInteger> counts = new TreeMap<>();
+        if (node instanceof PyIntNode || node instanceof PyFloatNode || node instanceof PyBoolNode) {
+            counts.put(0, BigInteger.valueOf(new HashSet<>(leafKeys(node)).size()));
+            return counts;
+        }
+
+        Set<Integer> lengths = new TreeSet<>();
+        for (Number length : node.getExDomain()) {
+            lengths.add(length.intValue());
+        }
+        if (node instanceof PyDictNode) {
+            BigInteger numKeys = countExVals(node.getLeftChild());
+            BigInteger numVals = countExVals(node.getRightChild());
+            for (int length : lengths) {
+                counts.put(length, choose(numKeys, length).multiply(numVals.pow(length)));
+            }
+        } else if (node instanceof AIterablePyNode) {
+            BigInteger numElems = node instanceof PyStringNode stringNode
+                    ? BigInteger.valueOf(stringNode.getCharDomain().size())
+                    : countExVals(node.getLeftChild());
+            for (int length : lengths) {
+                counts.put(length, node instanceof PySetNode
+                        ? choose(numElems, length) : numElems.pow(length));
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown node type: "
+                    + node.getClass().getSimpleName());
+        }
+        return counts;
+    }
+
+    /**
+     * Projects the heap needed to hold a node's exhaustive values, including those of its
+     * descendants (which the node's values refer to, rather than copy).
+     *
+     * @param node the root of the tree describing one parameter
+     * @return the projected size of the node's exhaustive values, in bytes
+     */
+    private static BigInteger estimateValueBytes(APyNode<?> node) {
+        Map<Integer, BigInteger> counts = countByLength(node);
+        if (node instanceof PyIntNode || node instanceof PyFloatNode || node instanceof PyBoolNode) {
+            return counts.get(0).multiply(BigInteger.valueOf(LEAF_BYTES));
+        }
+
+        long elementBytes = node instanceof PySetNode || node instanceof PyDictNode
+                ? HASHED_ELEMENT_BYTES : SEQUENCE_ELEMENT_BYTES;
+        BigInteger bytes = BigInteger.ZERO;
+        for (Map.Entry<Integer, BigInteger> entry : counts.entrySet()) {
+            long valueBytes = CONTAINER_BYTES + elementBytes * entry.getKey();
+            bytes = bytes.add(entry.getValue().multiply(BigInteger.valueOf(valueBytes)));
+        }
+        if (node.getLeftChild() != null) {
+            bytes = bytes.add(estimateValueBytes(node.getLeftChild()));
+        }
+        if (node.getRightChild() != null) {
+            bytes = bytes.add(estimateValueBytes(node.getRightChild()));
+        }
+        return bytes;
+    }
+
+    /**
+     * Helper for countByLength(); maps each element of a leaf's exhaustive domain to the
+     * value it generates, so that elements generating equal values are counted once.
+     *
+     * @param node a leaf node
+     * @return the generated value of each element of the exhaustive domain
+     */
+    private static List<Object> leafKeys(APyNode<?> node) {
+        List<Object> keys = new ArrayList<>();
+        for (Number value : node.getExDomain()) {
+            if (node instanceof PyIntNode) {
+                keys.add(value.intValue());
+            } else if (node instanceof PyFloatNode) {
+                keys.add(value.doubleValue());
+            } else {
+                keys.add(value.intValue() > 0);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Computes the binomial coefficient C(n, k).
+     *
+     * @param n the number of items to choose from
+     * @param k the number of items chosen
+     * @return the number of k-element subsets of n items; 0 if k > n
+     */
+    private static BigInteger choose(BigInteger n, int k) {
+        if (k < 0 || n.compareTo(BigInteger.valueOf(k)) < 0) {
+            return BigInteger.ZERO;
+        }
+        BigInteger result = BigInteger.ONE;
+        for (int i = 0; i < k; i++) {
+            result = result.multiply(n.subtract(BigInteger.valueOf(i)))
+                    .divide(BigInteger.valueOf(i + 1));
+        }
+        return result;
+    }
+}
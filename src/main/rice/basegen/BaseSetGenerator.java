@@ -1,9 +1,15 @@
 package main.rice.basegen;
 
+import main.rice.monitor.BaseSetEvent;
 import main.rice.node.APyNode;
-import main.rice.obj.APyObj;
+import main.rice.obj.*;
 import main.rice.test.TestCase;
+import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A class that is used to generate a "base" set of test cases, comprised of the union
@@ -12,6 +18,25 @@ import java.util.*;
  */
 public class BaseSetGenerator {
 
+    /**
+     * The number of candidates genRandTests() generates before judging whether too many
+     * of them are duplicates.
+     */
+    private static final int MIN_REJECTION_WINDOW = 32;
+
+    /**
+     * The number of candidates each shard of seeded random generation produces.
+     */
+    private static final int SHARD_SIZE = 64;
+
+    /**
+     * The number of candidates per requested random test that genRandTests() generates
+     * before giving up, whether by rejection sampling a space too large to index or by
+     * walking an indexable one without replacement, which only runs out when nearly every
+     * candidate violates a constraint.
+     */
+    private static final int MAX_TRIES_PER_RANDOM_TEST = 1000;
+
     /**
      * The nodes that will be used to perform generation.
      */
@@ -22,6 +47,67 @@ public class BaseSetGenerator {
      */
     private final int numRand;
 
+    /**
+     * The constraints that every generated test case must satisfy.
+     */
+    private List<ArgConstraint> constraints = List.of();
+
+    /**
+     * Disjoint groups of interchangeable parameters, each a list of parameter indices.
+     */
+    private List<List<Integer>> symmetricGroups = List.of();
+
+    /**
+     * The exhaustive values of each parameter, where the i-th list holds the values of
+     * the i-th parameter; computed on first use.
+     */
+    private List<List<? extends APyObj<?>>> exValues;
+
+    /**
+     * The heap budget for the base set, in bytes; 0 if there is no budget.
+     */
+    private long memoryBudget;
+
+    /**
+     * The strength of the covering array used in place of the full exhaustive product;
+     * 0 to generate the full product.
+     */
+    private int strength;
+
+    /**
+     * The selector choosing the random test cases from a larger pool; null to keep the
+     * first numRand generated.
+     */
+    private RandomTestSelector selector;
+
+    /**
+     * How many times numRand candidates the selector chooses from.
+     */
+    private int poolFactor;
+
+    /**
+     * The RNG used to down-sample the exhaustive space and to sample the random space
+     * without replacement.
+     */
+    private RandomGenerator rand = new Random();
+
+    /**
+     * The root of every random stream when generation is seeded; null if it is not.
+     */
+    private SplittableRandom seededRand;
+
+    /**
+     * The number of threads used for seeded random generation; 0 to use the common
+     * ForkJoin pool.
+     */
+    private int parallelism;
+
+    /**
+     * Whether test cases Python cannot tell apart (e.g. because True == 1 == 1.0) are
+     * dropped from the base set.
+     */
+    private boolean pythonEquality;
+
     /**
      * Constructor for a BaseSetGenerator, which initializes the fields.
      *
@@ -33,6 +119,156 @@ public class BaseSetGenerator {
         this.numRand = numRand;
     }
 
+    /**
+     * Sets the heap budget for the base set. When the projected size of the base set
+     * exceeds the budget, genBaseSet() generates a uniform sample of the exhaustive space
+     * that fits instead, or refuses to generate anything if even the per-parameter
+     * values and random test cases don't fit.
+     *
+     * @param bytes the budget, in bytes; 0 for no budget
+     */
+    public void setMemoryBudget(long bytes) {
+        this.memoryBudget = bytes;
+    }
+
+    /**
+     * Sets the constraints that every generated test case must satisfy. Exhaustive
+     * generation checks each constraint as soon as the arguments it depends on have been
+     * chosen, pruning every combination that extends a failing prefix; sampled,
+     * covering-array and random test cases that violate a constraint are discarded.
+     *
+     * @param constraints the constraints
+     * @throws IllegalArgumentException if a constraint refers to a parameter that doesn't
+     *                                  exist
+     */
+    public void setConstraints(List<ArgConstraint> constraints) {
+        for (ArgConstraint constraint : constraints) {
+            if (constraint.getLastArg() >= this.nodes.size()) {
+                throw new IllegalArgumentException("Constraint " + constraint + " refers to "
+                        + "a parameter that doesn't exist; there are " + this.nodes.size());
+            }
+        }
+        this.constraints = constraints;
+    }
+
+    /**
+     * Declares groups of interchangeable parameters, e.g. both arguments of a commutative
+     * function. Exhaustive generation then emits a single ordering of the arguments in
+     * each group, visiting only the canonical assignments (those whose values appear in
+     * the same order as in the group's shared list of exhaustive values, which is sorted
+     * as Python would) rather than filtering the full product: a group of k parameters
+     * with n values each contributes C(n + k - 1, k) combinations instead of n^k. When
+     * the canonical assignment violates a constraint, the first other ordering of the
+     * same values that satisfies it is emitted instead. Sampled, covering-array and
+     * random test cases are not affected.
+     *
+     * @param groups disjoint groups of parameter indices, each of at least two
+     *               parameters with the same type and exhaustive domain
+     * @throws IllegalArgumentException if a group is too small, refers to a parameter
+     *                                  that doesn't exist or is in another group, or
+     *                                  mixes parameters with different exhaustive values
+     */
+    public void setSymmetricGroups(List<List<Integer>> groups) {
+        Set<Integer> grouped = new HashSet<>();
+        for (List<Integer> group : groups) {
+            if (group.size() < 2) {
+                throw new IllegalArgumentException("Symmetric group " + group
+                        + " must have at least two parameters");
+            }
+            for (int index : group) {
+                if (index < 0 || index >= this.nodes.size() || !grouped.add(index)) {
+                    throw new IllegalArgumentException("Symmetric group " + group
+                            + " refers to a missing or already grouped parameter " + index);
+                }
+                if (!this.nodes.get(index).hasSameExDomain(this.nodes.get(group.get(0)))) {
+                    throw new IllegalArgumentException("Parameters in symmetric group " + group
+                            + " have different exhaustive values");
+                }
+            }
+        }
+        this.symmetricGroups = groups;
+        this.exValues = null;
+    }
+
+    /**
+     * Sets whether generation treats values as Python does, dropping those Python cannot
+     * tell apart with == (see PyEquality). Each parameter's exhaustive values are
+     * deduplicated before the product is taken, and genRandTests() rejects candidates
+     * equal to an exhaustive or earlier random test case (drawing more in their place),
+     * so the base set never holds two test cases that Python would see as the same call.
+     *
+     * @param pythonEquality true to deduplicate under Python's equality; false to use
+     *                       that of .equals()
+     */
+    public void setPythonEquality(boolean pythonEquality) {
+        this.pythonEquality = pythonEquality;
+        this.exValues = null;
+    }
+
+    /**
+     * Makes genBaseSet() generate poolFactor times numRand random candidates, and keep
+     * only the (at most numRand) of them chosen by the given selector.
+     *
+     * @param selector   the selector; null to keep the first numRand candidates
+     * @param poolFactor how many times numRand candidates to generate; must be positive
+     * @throws IllegalArgumentException if poolFactor is not positive
+     */
+    public void setRandomSelector(RandomTestSelector selector, int poolFactor) {
+        if (poolFactor < 1) {
+            throw new IllegalArgumentException("Pool factor must be positive, got " + poolFactor);
+        }
+        this.selector = selector;
+        this.poolFactor = poolFactor;
+    }
+
+    /**
+     * Makes generation reproducible: every random choice is drawn from streams split
+     * off a SplittableRandom with the given seed, so the same seed (and the same sequence
+     * of calls) always yields the same test cases. Seeded random test cases are
+     * generated in shards on a ForkJoin pool, each shard and each parameter within it
+     * drawing from its own stream; the result does not depend on the number of threads.
+     *
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.seededRand = new SplittableRandom(seed);
+        this.rand = this.seededRand;
+    }
+
+    /**
+     * Sets the number of threads used for seeded random generation.
+     *
+     * @param threads the number of threads; 0 to use the common ForkJoin pool
+     */
+    public void setParallelism(int threads) {
+        this.parallelism = threads;
+    }
+
+    /**
+     * Sets the strength t of the covering array generated in place of the full
+     * exhaustive product: every combination of exhaustive values of any t parameters
+     * still appears in some test case, but far fewer test cases are needed when there
+     * are more than t parameters.
+     *
+     * @param strength the strength of the covering array; 0 to generate the full product
+     * @throws IllegalArgumentException if strength is negative
+     */
+    public void setStrength(int strength) {
+        if (strength < 0) {
+            throw new IllegalArgumentException("Strength must not be negative, got " + strength);
+        }
+        this.strength = strength;
+    }
+
+    /**
+     * Estimates the base set that genBaseSet() would generate, without generating it.
+     *
+     * @return the size and projected heap of the base set
+     */
+    public BaseSetEstimator estimate() {
+        return new BaseSetEstimator(this.nodes, this.numRand);
+    }
+
     /**
      * Generates a the base test set (the union of the semi-exhaustive and random test
      * sets) according to the type and domain specifications in the input list of nodes.
@@ -40,119 +276,572 @@ public class BaseSetGenerator {
      * argument is typified by the i-th element in nodes.
      *
      * @return the base test set (as a List, so that we can use indices in the Tester)
+     * @throws IllegalStateException if the base set cannot be generated within the
+     *                               memory budget, even after down-sampling
      */
     public List<TestCase> genBaseSet() {
-        Set<TestCase> exTests = this.genExTests();
-        Set<TestCase> randTests = this.genRandTests(exTests);
+        BaseSetEvent event = new BaseSetEvent();
+        event.begin();
+        Set<TestCase> exTests = this.genBudgetedExTests();
+        Set<TestCase> randTests;
+        if (this.selector == null) {
+            randTests = this.genRandTests(exTests);
+        } else {
+            int poolSize = (int) Math.min(Integer.MAX_VALUE, (long) this.numRand * this.poolFactor);
+            List<TestCase> pool = new ArrayList<>(this.genRandTests(exTests, poolSize));
+            randTests = new LinkedHashSet<>(this.selector.select(
+                    new ArrayList<>(exTests), pool, this.numRand));
+        }
 
         // Convert to a list so that we can use indices in testing
         List<TestCase> allTests = new ArrayList<>();
         allTests.addAll(exTests);
         allTests.addAll(randTests);
+
+        event.numExhaustive = exTests.size();
+        event.numRandom = allTests.size() - exTests.size();
+        event.commit();
         return allTests;
     }
 
+    /**
+     * Generates the exhaustive part of the base set, as genBaseSet() does: all of the
+     * exhaustive test cases (or a covering array of them), down-sampled if a memory
+     * budget has been set and they would not fit within it.
+     *
+     * @return a set of valid test cases according to the given specifications
+     * @throws IllegalStateException if the base set cannot be generated within the
+     *                               memory budget, even after down-sampling, or the
+     *                               budget admits more test cases than a set can hold
+     */
+    public Set<TestCase> genBudgetedExTests() {
+        if (this.memoryBudget <= 0) {
+            return this.genExTests();
+        }
+        BaseSetEstimator estimate = this.estimate();
+        BigInteger fit = estimate.exhaustiveCasesWithin(this.memoryBudget);
+        if (fit.signum() < 0) {
+            throw new IllegalStateException("Base set needs " + estimate.getHeapBytes()
+                    + " bytes, which cannot be reduced to fit within the budget of "
+                    + this.memoryBudget + " bytes");
+        }
+        // A covering array is already a small subset of the exhaustive space
+        if (this.strength > 0) {
+            return this.genExTests();
+        }
+        if (fit.compareTo(BigInteger.valueOf(Integer.MAX_VALUE)) > 0) {
+            throw new IllegalStateException("Budget of " + this.memoryBudget + " bytes admits "
+                    + fit + " exhaustive test cases, more than a set can hold");
+        }
+        // The estimate may overstate the real space, which sampleExTests() allows for
+        return fit.equals(estimate.getExhaustiveSize())
+                ? this.genExTests() : this.sampleExTests(fit.intValueExact());
+    }
+
     /**
      * Exbaustively generates a set of all valid test cases within the exhaustive
-     * domains stored within the nodes.
+     * domains stored within the nodes; if a covering-array strength has been set, only
+     * generates enough of them to cover every t-way combination of values. Test cases
+     * violating a constraint are never generated.
      *
      * @return a set of valid test cases according to the given specifications
      */
     public Set<TestCase> genExTests() {
-        // For each parameter, generate the set of all possible arguments
-        List<Set<? extends APyObj<?>>> possibleArgs = new ArrayList<>();
-        for (APyNode<?> node : this.nodes) {
-            Set<? extends APyObj<?>> args = node.genExVals();
-            possibleArgs.add(args);
+        if (this.strength > 0) {
+            return this.genCoveringTests(this.strength);
+        }
+        Set<TestCase> tests = new HashSet<>();
+        Iterator<TestCase> iter = this.iterExTests();
+        while (iter.hasNext()) {
+            tests.add(iter.next());
+        }
+        return tests;
+    }
+
+    /**
+     * Generates a covering array of the given strength over the exhaustive values of each
+     * parameter: a set of test cases in which every combination of values of any t
+     * parameters appears at least once. Rows violating a constraint are dropped, so the
+     * combinations only they covered may be missing.
+     *
+     * @param strength the strength t of the covering array; must be positive
+     * @return a set of test cases covering every t-way combination of exhaustive values
+     */
+    public Set<TestCase> genCoveringTests(int strength) {
+        List<List<? extends APyObj<?>>> values = this.getExValues();
+        List<Integer> sizes = new ArrayList<>();
+        for (List<? extends APyObj<?>> paramValues : values) {
+            sizes.add(paramValues.size());
         }
 
-        // Generate all possible combinations of arguments (selecting one valid argument
-        // for each parameter)
-        List<List<APyObj<?>>> combos = generateArgCombos(possibleArgs, 0);
         Set<TestCase> tests = new HashSet<>();
+        for (int[] row : new CoveringArrayGenerator(sizes, strength).generate()) {
+            List<APyObj<?>> args = new ArrayList<>(row.length);
+            for (int i = 0; i < row.length; i++) {
+                args.add(values.get(i).get(row[i]));
+            }
+            if (ArgConstraint.testAll(this.constraints, args)) {
+                tests.add(new TestCase(args));
+            }
+        }
+        return tests;
+    }
 
-        // Encapsulate the results within TestCase objects and return
-        for (List<APyObj<?>> combo : combos) {
-            tests.add(new TestCase(combo));
+    /**
+     * Lazily generates every valid test case within the exhaustive domains stored within
+     * the nodes, one at a time, without materializing the intermediate combinations.
+     * Each test case is produced exactly once.
+     *
+     * @return an iterator over the exhaustive test cases
+     */
+    public Iterator<TestCase> iterExTests() {
+        return new ExhaustiveIterator(this.getExValues(), this.constraints,
+                this.symmetricGroups);
+    }
+
+    /**
+     * Lazily generates every valid test case within the exhaustive domains stored within
+     * the nodes, as a sequential stream; e.g. it may be collected straight into the list
+     * of tests handed to a Tester.
+     *
+     * @return a stream of the exhaustive test cases
+     */
+    public Stream<TestCase> streamExTests() {
+        Spliterator<TestCase> spliterator = Spliterators.spliteratorUnknownSize(
+                this.iterExTests(), Spliterator.ORDERED | Spliterator.DISTINCT
+                        | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Draws a uniform sample (without replacement) of the given size from the exhaustive
+     * space, by choosing each parameter's value independently at random. Drawn test
+     * cases that violate a constraint are discarded rather than replaced, so the sample
+     * holds fewer than numTests test cases when there are constraints. If numTests is at
+     * least the size of the exhaustive space, which Python equality may make smaller than
+     * BaseSetEstimator projects, every exhaustive test case is generated instead.
+     *
+     * @param numTests the number of test cases to draw
+     * @return a set of at most numTests distinct exhaustive test cases
+     */
+    public Set<TestCase> sampleExTests(int numTests) {
+        long spaceSize;
+        try {
+            spaceSize = this.exhaustiveSize();
+        } catch (ArithmeticException e) {
+            spaceSize = Long.MAX_VALUE;
+        }
+        if (numTests >= spaceSize) {
+            Set<TestCase> tests = new HashSet<>();
+            this.iterExTests().forEachRemaining(tests::add);
+            return tests;
+        }
+
+        List<List<? extends APyObj<?>>> values = this.getExValues();
+        Set<TestCase> tests = new HashSet<>();
+        FingerprintSet seen = new FingerprintSet(numTests, false);
+        while (seen.size() < numTests) {
+            List<APyObj<?>> args = new ArrayList<>(values.size());
+            for (List<? extends APyObj<?>> paramValues : values) {
+                args.add(paramValues.get(this.rand.nextInt(paramValues.size())));
+            }
+            TestCase test = new TestCase(args);
+            if (seen.add(test.fingerprint()) && ArgConstraint.testAll(this.constraints, args)) {
+                tests.add(test);
+            }
         }
         return tests;
     }
 
+    /**
+     * Returns the number of test cases in the exhaustive space, i.e. the product of the
+     * number of exhaustive values of each parameter, without generating any test cases.
+     * Neither constraints nor symmetric groups are taken into account.
+     *
+     * @return the number of exhaustive test cases
+     * @throws ArithmeticException if the number of test cases exceeds Long.MAX_VALUE
+     */
+    public long exhaustiveSize() {
+        long size = 1;
+        for (List<? extends APyObj<?>> paramValues : this.getExValues()) {
+            size = Math.multiplyExact(size, paramValues.size());
+        }
+        return size;
+    }
+
+    /**
+     * Returns the test case at the given index in the exhaustive space, without
+     * generating any of the others. Indices follow the order of iterExTests(): the index
+     * is decoded as a mixed-radix number whose last (least significant) digit selects
+     * the value of the last parameter. Workers may thus generate disjoint slices of the
+     * space, or draw a uniform sample of it, independently. Neither constraints nor
+     * symmetric groups are taken into account; the caller may check the result with
+     * ArgConstraint.testAll().
+     *
+     * @param index the index of the test case, in [0, exhaustiveSize())
+     * @return the test case at that index
+     * @throws IndexOutOfBoundsException if index is outside the exhaustive space
+     */
+    public TestCase exhaustiveCaseAt(long index) {
+        long size = this.exhaustiveSize();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index
+                    + " out of bounds for exhaustive space of size " + size);
+        }
+        List<List<? extends APyObj<?>>> values = this.getExValues();
+        APyObj<?>[] args = new APyObj<?>[values.size()];
+        for (int i = values.size() - 1; i >= 0; i--) {
+            List<? extends APyObj<?>> paramValues = values.get(i);
+            args[i] = paramValues.get((int) (index % paramValues.size()));
+            index /= paramValues.size();
+        }
+        return new TestCase(Arrays.asList(args));
+    }
+
     /**
      * Randomly generates a list of valid test cases of size numTests, according to the
      * random domains stored within the nodes. Each output test case encapsulates a list
      * of arguments (APyObjs), where the i-th argument is typified by the i-th element in
-     * nodes.
+     * nodes. Candidates violating a constraint are discarded. If fewer than numRand
+     * distinct, valid test cases exist outside of exTests (or none can be found), returns
+     * all of those found and prints a warning.
      *
      * @param exTests the set of exhaustive tests that have been generated previously
      * @return a list of valid test cases, according to the given specifications
      */
     public Set<TestCase> genRandTests(Set<TestCase> exTests) {
-        int numAccepted = 0;
+        return this.genRandTests(exTests, this.numRand);
+    }
+
+    /**
+     * Randomly generates a set of the given number of distinct, valid test cases outside
+     * of exTests, in the same way as genRandTests(exTests) does for numRand of them.
+     * Under Python equality, test cases are only distinct if Python can tell them apart.
+     *
+     * @param exTests the set of exhaustive tests that have been generated previously
+     * @param count   the number of random test cases to generate
+     * @return a set of valid test cases, according to the given specifications
+     */
+    public Set<TestCase> genRandTests(Set<TestCase> exTests, int count) {
         Set<TestCase> randTests = new HashSet<>();
+        if (count == 0) {
+            return randTests;
+        }
+        long spaceSize = this.ranSpaceSize();
+
+        // Deduplicate by fingerprint, so that rejected candidates can be dropped at once
+        FingerprintSet seen = new FingerprintSet(exTests.size() + count, true);
+        for (TestCase test : exTests) {
+            seen.add(this.dedupKey(test));
+        }
+
+        // Randomly generate batches of tests until we've generated enough, or until so
+        // many candidates are duplicates that it's cheaper to sample the random space
+        // without replacement. A space too large to index is never worth switching for.
+        long numTried = 0;
+        boolean indexable = spaceSize < Long.MAX_VALUE;
+        while (randTests.size() < count && (indexable
+                ? !this.isRejectingTooOften(numTried, randTests.size(), count, spaceSize)
+                : numTried < (long) MAX_TRIES_PER_RANDOM_TEST * count)) {
+
+            // Add each candidate to the base set in order, making sure that it isn't a
+            // duplicate of an object in the exhaustive set or an earlier candidate
+            for (TestCase test : this.genRandCandidates(count - randTests.size())) {
+                if (randTests.size() == count) {
+                    break;
+                }
+                if (seen.add(this.dedupKey(test))
+                        && ArgConstraint.testAll(this.constraints, test.getArgs())) {
+                    randTests.add(test);
+                }
+                numTried++;
+            }
+        }
+
+        if (randTests.size() < count && indexable) {
+            this.sampleRanSpace(seen, randTests, count, spaceSize);
+        }
+        if (randTests.size() < count) {
+            System.err.println("Warning: only " + randTests.size() + " distinct random test "
+                    + "cases satisfying the constraints were found outside the exhaustive "
+                    + "set; " + count + " were requested");
+        }
+        return randTests;
+    }
 
-        // Randomly generate one test at a time until we've generated enough. Need to
-        // continually check the size in case we randomly generate the same test twice
-        while (numAccepted < this.numRand) {
+    /**
+     * Helper for genRandTests(); randomly generates the given number of candidate test
+     * cases, which may include duplicates. When generation is seeded, the candidates are
+     * split into shards whose streams are split off the seeded root in order, and the
+     * shards are generated in parallel and concatenated in order.
+     *
+     * @param count the number of candidates to generate
+     * @return the candidates
+     */
+    private List<TestCase> genRandCandidates(int count) {
+        if (this.seededRand == null) {
+            List<TestCase> candidates = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                // Randomly generate each argument
+                List<APyObj<?>> args = new ArrayList<>();
+                for (APyNode<?> node : this.nodes) {
+                    APyObj<?> arg = node.genRandVal();
+                    args.add(arg);
+                }
+                candidates.add(new TestCase(args));
+            }
+            return candidates;
+        }
+
+        List<SplittableRandom> shardRands = new ArrayList<>();
+        for (int start = 0; start < count; start += SHARD_SIZE) {
+            shardRands.add(this.seededRand.split());
+        }
+        ForkJoinPool pool = this.parallelism > 0
+                ? new ForkJoinPool(this.parallelism) : ForkJoinPool.commonPool();
+        try {
+            List<List<TestCase>> shards = pool.submit(() -> shardRands.parallelStream()
+                    .map(this::genRandShard).toList()).join();
+            List<TestCase> candidates = new ArrayList<>();
+            for (List<TestCase> shard : shards) {
+                candidates.addAll(shard);
+            }
+            return candidates;
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) {
+                pool.shutdown();
+            }
+        }
+    }
 
-            // Randomly generate each argument
+    /**
+     * Helper for genRandCandidates(); generates one shard of candidates, where each
+     * parameter draws from its own stream split off the shard's.
+     *
+     * @param shardRand the root of the shard's streams
+     * @return SHARD_SIZE candidate test cases
+     */
+    private List<TestCase> genRandShard(SplittableRandom shardRand) {
+        List<SplittableRandom> paramRands = new ArrayList<>();
+        for (int i = 0; i < this.nodes.size(); i++) {
+            paramRands.add(shardRand.split());
+        }
+        List<TestCase> shard = new ArrayList<>(SHARD_SIZE);
+        for (int i = 0; i < SHARD_SIZE; i++) {
             List<APyObj<?>> args = new ArrayList<>();
-            for (APyNode<?> node : this.nodes) {
-                APyObj<?> arg = node.genRandVal();
-                args.add(arg);
+            for (int j = 0; j < this.nodes.size(); j++) {
+                args.add(this.nodes.get(j).genRandVal(paramRands.get(j)));
             }
+            shard.add(new TestCase(args));
+        }
+        return shard;
+    }
 
-            // Wrap arguments in a TestCase object and add to the base set, making sure
-            // that it isn't a duplicate of an object in the exhaustive set
-            TestCase test = new TestCase(args);
-            if (!exTests.contains(test) && !randTests.contains(test)) {
-                randTests.add(test);
-                numAccepted++;
+    /**
+     * Returns the number of distinct test cases that random generation can produce.
+     *
+     * @return the product of the sizes of the parameters' random spaces, or
+     * Long.MAX_VALUE if it is at least that large
+     */
+    public long ranSpaceSize() {
+        long size = 1;
+        for (APyNode<?> node : this.nodes) {
+            long paramSize = node.countRanVals();
+            if (paramSize != 0 && size > Long.MAX_VALUE / paramSize) {
+                return Long.MAX_VALUE;
             }
+            size *= paramSize;
         }
-        return randTests;
+        return size;
+    }
+
+    /**
+     * Returns the test case at the given index of the random space, without generating
+     * any of the others; the index is decoded as a mixed-radix number whose last (least
+     * significant) digit selects the value of the last parameter.
+     *
+     * @param index the index of the test case, in [0, ranSpaceSize())
+     * @return the test case at that index
+     */
+    public TestCase ranCaseAt(long index) {
+        APyObj<?>[] args = new APyObj<?>[this.nodes.size()];
+        for (int i = this.nodes.size() - 1; i >= 0; i--) {
+            long paramSize = this.nodes.get(i).countRanVals();
+            args[i] = this.nodes.get(i).genRanValAt(index % paramSize);
+            index /= paramSize;
+        }
+        return new TestCase(Arrays.asList(args));
+    }
+
+    /**
+     * Helper for genRandTests() and sampleRanSpace(); returns the fingerprint random test
+     * cases are deduplicated by, which is that of PyEquality under Python equality.
+     *
+     * @param test the test case
+     * @return the fingerprint of its arguments
+     */
+    private long dedupKey(TestCase test) {
+        return this.pythonEquality ? PyEquality.fingerprint(test.getArgs()) : test.fingerprint();
+    }
+
+    /**
+     * Helper for genRandTests(); decides whether rejection sampling has become too
+     * wasteful: either fewer than half of the candidates have been new, or the random
+     * space is too small to hold the requested number of tests.
+     *
+     * @param numTried    the number of candidates generated so far
+     * @param numAccepted the number of distinct, non-exhaustive tests found so far
+     * @param count       the number of tests requested
+     * @param spaceSize   the size of the random space
+     * @return true if genRandTests() should switch to sampling without replacement
+     */
+    private boolean isRejectingTooOften(long numTried, int numAccepted, int count,
+                                        long spaceSize) {
+        if (spaceSize < count) {
+            return true;
+        }
+        return numTried >= MIN_REJECTION_WINDOW && numAccepted * 2 < numTried;
     }
 
     /**
-     * Helper function for generateTest; a recursive algorithm for generating all possible
-     * combinations of arguments across multiple parameters. Uses an additional input,
-     * index, to keep track of which arguments have already been combined.
+     * Helper for genRandTests(); adds test cases drawn uniformly without replacement
+     * from the random space to randTests, skipping those already seen, until there are
+     * count of them, the space is exhausted, or MAX_TRIES_PER_RANDOM_TEST indices per
+     * requested test have been drawn. Draws a lazy Fisher-Yates shuffle of the indices,
+     * so each index is visited at most once.
      *
-     * @param possibleArgs a list of sets, where the i-th set contains all possible
-     *                     arguments (as PyObjs) for the i-th parameter
-     * @param index        the next index within possibleArgs for which we need to
-     *                     generate all possible combinations
-     * @return all possible combinations of args, where the i-th element in each sublist
-     * within the returned list is an element of the i-th set in possibleArgs
+     * @param seen      the fingerprints of the exhaustive and random tests generated so
+     *                  far; added to in place
+     * @param randTests the random tests generated so far; added to in place
+     * @param count     the number of tests requested
+     * @param spaceSize the size of the random space
      */
-    private static List<List<APyObj<?>>> generateArgCombos(
-            List<Set<? extends APyObj<?>>> possibleArgs, int index) {
+    private void sampleRanSpace(FingerprintSet seen, Set<TestCase> randTests, int count,
+                                long spaceSize) {
+        // Bound the walk (and the swaps it records) when a selective constraint rejects
+        // nearly every index of a large space
+        long maxDraws = Math.min(spaceSize, (long) MAX_TRIES_PER_RANDOM_TEST * count);
+        Map<Long, Long> swapped = new HashMap<>();
+        for (long drawn = 0; drawn < maxDraws && randTests.size() < count; drawn++) {
+            long pick = drawn + this.rand.nextLong(spaceSize - drawn);
+            long index = swapped.getOrDefault(pick, pick);
+            swapped.put(pick, swapped.getOrDefault(drawn, drawn));
 
-        // BASE CASE: index is greater than the last index in possibleArgs ->
-        // no args remain -> return one empty combination
-        if (index == possibleArgs.size()) {
-            List<List<APyObj<?>>> combos = new ArrayList<>();
-            combos.add(new ArrayList<APyObj<?>>());
-            return combos;
+            TestCase test = this.ranCaseAt(index);
+            if (seen.add(this.dedupKey(test))
+                    && ArgConstraint.testAll(this.constraints, test.getArgs())) {
+                randTests.add(test);
+            }
         }
+    }
+
+    /**
+     * Helper function for the exhaustive generators; computes (once) the list of all
+     * possible arguments for each parameter. The members of a symmetric group share the
+     * list of the group's first member, sorted by pythonOrder(), so that their canonical
+     * assignments list the values in increasing order.
+     *
+     * @return a list of lists, where the i-th list contains all possible arguments (as
+     * PyObjs) for the i-th parameter
+     */
+    private List<List<? extends APyObj<?>>> getExValues() {
+        if (this.exValues == null) {
+            Map<Integer, Integer> sharedWith = new HashMap<>();
+            for (List<Integer> group : this.symmetricGroups) {
+                for (int index : group) {
+                    sharedWith.put(index, Collections.min(group));
+                }
+            }
+            this.exValues = new ArrayList<>();
+            for (int i = 0; i < this.nodes.size(); i++) {
+                int source = sharedWith.getOrDefault(i, i);
+                if (source < i) {
+                    this.exValues.add(this.exValues.get(source));
+                    continue;
+                }
+                List<? extends APyObj<?>> paramValues = this.pythonEquality
+                        ? dropPythonDuplicateValues(this.nodes.get(i).genExVals())
+                        : new ArrayList<>(this.nodes.get(i).genExVals());
+                if (sharedWith.containsKey(i)) {
+                    paramValues.sort(BaseSetGenerator::pythonOrder);
+                }
+                this.exValues.add(paramValues);
+            }
+        }
+        return this.exValues;
+    }
+
+    /**
+     * Helper for getExValues(); orders two values as Python would where constraints can
+     * compare them: numbers (including bools) by value, and strings, lists, tuples, sets
+     * and dicts by length. Ties are broken by the Python representation of the values,
+     * so that the order does not depend on the iteration order of genExVals().
+     *
+     * @param first  a value
+     * @param second another value
+     * @return negative, zero or positive as first comes before, with or after second
+     */
+    private static int pythonOrder(APyObj<?> first, APyObj<?> second) {
+        int cmp = Double.compare(orderKey(first), orderKey(second));
+        return cmp != 0 ? cmp : first.toString().compareTo(second.toString());
+    }
 
-        // RECURSIVE CASE: index is within the bounds of possibleArgs ->
-        // Get all combinations of the later args
-        List<List<APyObj<?>>> laterCombos = generateArgCombos(possibleArgs, index + 1);
+    /**
+     * Helper for pythonOrder(); returns the number a value is ordered by.
+     *
+     * @param obj the value
+     * @return its value if it is a number, its length if it is sized, and 0 otherwise
+     */
+    private static double orderKey(APyObj<?> obj) {
+        if (obj instanceof PyIntObj intObj) {
+            return intObj.getValue();
+        } else if (obj instanceof PyFloatObj floatObj) {
+            // -0.0 and 0.0 are tied, as in Python
+            return floatObj.getValue() == 0 ? 0.0 : floatObj.getValue();
+        } else if (obj instanceof PyBoolObj boolObj) {
+            return boolObj.getValue() ? 1 : 0;
+        } else if (obj instanceof AIterablePyObj<?> iterable) {
+            return iterable.getValue().size();
+        } else if (obj instanceof PyDictObj<?, ?> dict) {
+            return dict.getValue().size();
+        }
+        return 0;
+    }
 
-        // Get all possible args for the current index
-        Set<? extends APyObj<?>> currArgs = possibleArgs.get(index);
+    /**
+     * Drops every test case that Python cannot tell apart from an earlier one (see
+     * PyEquality), e.g. a base set reloaded from a corpus.
+     *
+     * @param tests the test cases
+     * @return the first of each group of test cases Python considers equal, in order
+     */
+    public static List<TestCase> dropPythonDuplicates(List<TestCase> tests) {
+        FingerprintSet seen = new FingerprintSet();
+        List<TestCase> kept = new ArrayList<>();
+        for (TestCase test : tests) {
+            if (seen.add(PyEquality.fingerprint(test.getArgs()))) {
+                kept.add(test);
+            }
+        }
+        return kept;
+    }
 
-        // For every existing combination, add every possible arg in currArs
-        List<List<APyObj<?>>> allCombos = new ArrayList<>();
-        for (APyObj<?> arg : currArgs) {
-            for (List<APyObj<?>> combo : laterCombos) {
-                // Make sure to clone so as to not mutate the original
-                List<APyObj<?>> comboClone = new ArrayList<>(combo);
-                comboClone.add(0, arg);
-                allCombos.add(comboClone);
+    /**
+     * Helper for getExValues(); drops every value that Python cannot tell apart from an
+     * earlier one.
+     *
+     * @param values the exhaustive values of a parameter
+     * @param <T>    the type of the values
+     * @return the first of each group of values Python considers equal
+     */
+    private static <T extends APyObj<?>> List<T> dropPythonDuplicateValues(Set<T> values) {
+        FingerprintSet seen = new FingerprintSet();
+        List<T> kept = new ArrayList<>();
+        for (T value : values) {
+            if (seen.add(PyEquality.fingerprint(value))) {
+                kept.add(value);
             }
         }
-        return allCombos;
+        return kept;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,310 @@
+package main.rice.basegen;
+
+import java.util.*;
+
+/**
+ * Builds a covering array of strength t over a list of parameters: a set of rows, each
+ * choosing one value index per parameter, such that every combination of values of
+ * every t parameters appears in at least one row. Uses the in-parameter-order (IPOG)
+ * strategy: starts from the full product of the first t parameters, then adds one
+ * parameter at a time, first extending the existing rows with the value that covers
+ * the most new combinations (horizontal growth), and then adding rows for whatever is
+ * still uncovered (vertical growth).
+ */
+public class CoveringArrayGenerator {
+
+    /**
+     * Marks a position in a row that has not been assigned a value yet.
+     */
+    private static final int DONT_CARE = -1;
+
+    /**
+     * The number of values of each parameter.
+     */
+    private final int[] sizes;
+
+    /**
+     * The strength of the array, i.e. the number of parameters whose combinations must
+     * all be covered.
+     */
+    private final int strength;
+
+    /**
+     * Constructor for a CoveringArrayGenerator.
+     *
+     * @param sizes    the number of values of each parameter
+     * @param strength the strength of the array; must be positive
+     * @throws IllegalArgumentException if strength is not positive
+     */
+    public CoveringArrayGenerator(List<Integer> sizes, int strength) {
+        if (strength < 1) {
+            throw new IllegalArgumentException("Strength must be positive, got " + strength);
+        }
+        this.sizes = new int[sizes.size()];
+        for (int i = 0; i < this.sizes.length; i++) {
+            this.sizes[i] = sizes.get(i);
+        }
+        this.strength = strength;
+    }
+
+    /**
+     * Generates the covering array. If there are no more parameters than the strength,
+     * this is the full product of their values.
+     *
+     * @return the rows of the array, where the i-th element of each row is the index of
+     * the value of the i-th parameter
+     */
+    public List<int[]> generate() {
+        for (int size : this.sizes) {
+            if (size == 0) {
+                return new ArrayList<>();
+            }
+        }
+
+        int initial = Math.min(this.strength, this.sizes.length);
+        List<int[]> rows = this.product(initial);
+        for (int param = initial; param < this.sizes.length; param++) {
+            List<int[]> subsets = subsets(param, this.strength - 1);
+            List<boolean[]> covered = new ArrayList<>();
+            for (int[] subset : subsets) {
+                covered.add(new boolean[this.numCombos(subset, param)]);
+            }
+            this.growHorizontally(rows, param, subsets, covered);
+            this.growVertically(rows, param, subsets, covered);
+        }
+
+        // Any position still unassigned may take any value
+        for (int[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (row[i] == DONT_CARE) {
+                    row[i] = 0;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Helper for generate(); builds every combination of values of the first numParams
+     * parameters, leaving the remaining parameters unassigned.
+     *
+     * @param numParams the number of leading parameters to combine
+     * @return the rows of the product
+     */
+    private List<int[]> product(int numParams) {
+        List<int[]> rows = new ArrayList<>();
+        int[] digits = new int[numParams];
+        while (true) {
+            int[] row = new int[this.sizes.length];
+            Arrays.fill(row, DONT_CARE);
+            System.arraycopy(digits, 0, row, 0, numParams);
+            rows.add(row);
+
+            int pos = numParams - 1;
+            while (pos >= 0 && ++digits[pos] == this.sizes[pos]) {
+                digits[pos] = 0;
+                pos--;
+            }
+            if (pos < 0) {
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Helper for generate(); assigns the new parameter a value in every existing row,
+     * choosing for each row the value that covers the most uncovered combinations.
+     *
+     * @param rows    the rows built so far
+     * @param param   the index of the parameter being added
+     * @param subsets every set of earlier parameters that combines with param
+     * @param covered for each subset, which of its combinations are already covered
+     */
+    private void growHorizontally(List<int[]> rows, int param, List<int[]> subsets,
+                                  List<boolean[]> covered) {
+        for (int[] row : rows) {
+            int bestValue = 0;
+            int bestGain = -1;
+            for (int value = 0; value < this.sizes[param]; value++) {
+                row[param] = value;
+                int gain = 0;
+                for (int s = 0; s < subsets.size(); s++) {
+                    int combo = this.comboIndex(row, subsets.get(s), param);
+                    if (combo >= 0 && !covered.get(s)[combo]) {
+                        gain++;
+                    }
+                }
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    bestValue = value;
+                }
+            }
+            row[param] = bestValue;
+            this.markCovered(row, param, subsets, covered);
+        }
+    }
+
+    /**
+     * Helper for generate(); covers every combination that horizontal growth missed,
+     * filling unassigned positions of an existing row where possible and adding a new
+     * row otherwise.
+     *
+     * @param rows    the rows built so far
+     * @param param   the index of the parameter being added
+     * @param subsets every set of earlier parameters that combines with param
+     * @param covered for each subset, which of its combinations are already covered
+     */
+    private void growVertically(List<int[]> rows, int param, List<int[]> subsets,
+                                List<boolean[]> covered) {
+        for (int s = 0; s < subsets.size(); s++) {
+            int[] subset = subsets.get(s);
+            for (int combo = 0; combo < covered.get(s).length; combo++) {
+                if (covered.get(s)[combo]) {
+                    continue;
+                }
+                int[] values = this.decodeCombo(combo, subset, param);
+                int[] target = null;
+                for (int[] row : rows) {
+                    if (this.isCompatible(row, subset, param, values)) {
+                        target = row;
+                        break;
+                    }
+                }
+                if (target == null) {
+                    target = new int[this.sizes.length];
+                    Arrays.fill(target, DONT_CARE);
+                    rows.add(target);
+                }
+                for (int i = 0; i < subset.length; i++) {
+                    target[subset[i]] = values[i];
+                }
+                target[param] = values[subset.length];
+                this.markCovered(target, param, subsets, covered);
+            }
+        }
+    }
+
+    /**
+     * Marks every combination covered by a row as covered.
+     *
+     * @param row     the row
+     * @param param   the index of the parameter being added
+     * @param subsets every set of earlier parameters that combines with param
+     * @param covered for each subset, which of its combinations are already covered
+     */
+    private void markCovered(int[] row, int param, List<int[]> subsets,
+                             List<boolean[]> covered) {
+        for (int s = 0; s < subsets.size(); s++) {
+            int combo = this.comboIndex(row, subsets.get(s), param);
+            if (combo >= 0) {
+                covered.get(s)[combo] = true;
+            }
+        }
+    }
+
+    /**
+     * Returns whether a row can be made to cover the given combination, i.e. whether
+     * each of the combination's positions is either unassigned or already equal.
+     *
+     * @param row    the row
+     * @param subset the earlier parameters of the combination
+     * @param param  the index of the parameter being added
+     * @param values the values of the subset's parameters, followed by that of param
+     * @return true if the row is compatible with the combination; false otherwise
+     */
+    private boolean isCompatible(int[] row, int[] subset, int param, int[] values) {
+        for (int i = 0; i < subset.length; i++) {
+            if (row[subset[i]] != DONT_CARE && row[subset[i]] != values[i]) {
+                return false;
+            }
+        }
+        return row[param] == DONT_CARE || row[param] == values[subset.length];
+    }
+
+    /**
+     * Returns the number of combinations of values of a subset of parameters plus the
+     * parameter being added.
+     *
+     * @param subset the earlier parameters
+     * @param param  the index of the parameter being added
+     * @return the product of their sizes
+     */
+    private int numCombos(int[] subset, int param) {
+        int count = this.sizes[param];
+        for (int p : subset) {
+            count = Math.multiplyExact(count, this.sizes[p]);
+        }
+        return count;
+    }
+
+    /**
+     * Encodes the combination of values a row assigns to a subset of parameters plus the
+     * parameter being added, as a mixed-radix number.
+     *
+     * @param row    the row
+     * @param subset the earlier parameters
+     * @param param  the index of the parameter being added
+     * @return the index of the combination, or -1 if any of its positions is unassigned
+     */
+    private int comboIndex(int[] row, int[] subset, int param) {
+        int index = 0;
+        for (int p : subset) {
+            if (row[p] == DONT_CARE) {
+                return -1;
+            }
+            index = index * this.sizes[p] + row[p];
+        }
+        if (row[param] == DONT_CARE) {
+            return -1;
+        }
+        return index * this.sizes[param] + row[param];
+    }
+
+    /**
+     * Decodes a combination index produced by comboIndex().
+     *
+     * @param combo  the index of the combination
+     * @param subset the earlier parameters
+     * @param param  the index of the parameter being added
+     * @return the values of the subset's parameters, followed by that of param
+     */
+    private int[] decodeCombo(int combo, int[] subset, int param) {
+        int[] values = new int[subset.length + 1];
+        values[subset.length] = combo % this.sizes[param];
+        combo /= this.sizes[param];
+        for (int i = subset.length - 1; i >= 0; i--) {
+            values[i] = combo % this.sizes[subset[i]];
+            combo /= this.sizes[subset[i]];
+        }
+        return values;
+    }
+
+    /**
+     * Lists every k-element subset of {0, ..., n - 1}, each in ascending order.
+     *
+     * @param n the number of elements to choose from
+     * @param k the size of each subset
+     * @return the subsets
+     */
+    private static List<int[]> subsets(int n, int k) {
+        List<int[]> subsets = new ArrayList<>();
+        int[] subset = new int[k];
+        for (int i = 0; i < k; i++) {
+            subset[i] = i;
+        }
+        while (true) {
+            subsets.add(subset.clone());
+            int pos = k - 1;
+            while (pos >= 0 && subset[pos] == n - k + pos) {
+                pos--;
+            }
+            if (pos < 0) {
+                return subsets;
+            }
+            subset[pos]++;
+            for (int i = pos + 1; i < k; i++) {
+                subset[i] = subset[i - 1] + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package main.rice.basegen;
+
+import main.rice.obj.APyObj;
+import main.rice.test.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over every combination of arguments (one value per parameter) as a
+ * mixed-radix odometer: the last parameter's digit turns fastest, and each digit that
+ * wraps around carries into the one before it. Only the emitted TestCases are
+ * allocated, so the exhaustive space never has to be held in memory at once.
+ *
+ * <p>Combinations violating any of a list of constraints are skipped. Each constraint is
+ * checked as soon as the digits it depends on are set, so a failing prefix skips every
+ * combination that extends it without visiting them.
+ *
+ * <p>Parameters may also be declared interchangeable in groups, in which case only the
+ * canonical combination of each group (the one whose digits never decrease within the
+ * group) is visited; the members of a group must share the same list of values. The
+ * reduced space is walked directly, by never letting a digit fall below that of the
+ * previous member of its group. Constraints on a grouped parameter cannot prune the
+ * canonical prefixes, since another ordering of the group may satisfy them; they are
+ * checked once every digit is set, and the first ordering of the groups' values (in
+ * lexicographic order of their digits) that satisfies them is emitted instead.
+ */
+public class ExhaustiveIterator implements Iterator<TestCase> {
+
+    /**
+     * The possible values of each parameter, where the i-th list holds the values of the
+     * i-th parameter.
+     */
+    private final List<? extends List<? extends APyObj<?>>> values;
+
+    /**
+     * The current digit of each parameter, i.e. the index of its value in the next
+     * combination to be emitted.
+     */
+    private final int[] digits;
+
+    /**
+     * The constraints to check once each digit is set, where the i-th list holds those
+     * whose last argument is the i-th.
+     */
+    private final List<List<ArgConstraint>> checksAt = new ArrayList<>();
+
+    /**
+     * The constraints that depend on a grouped parameter, checked against the orderings
+     * of each complete combination.
+     */
+    private final List<ArgConstraint> groupChecks = new ArrayList<>();
+
+    /**
+     * The previous member of each parameter's symmetric group, whose digit bounds its
+     * own from below; -1 for the first member of a group, or a parameter in none.
+     */
+    private final int[] floorOf;
+
+    /**
+     * The members of each symmetric group, in increasing order.
+     */
+    private final List<int[]> groups = new ArrayList<>();
+
+    /**
+     * The values selected by the digits checked so far, as seen by the constraints; once
+     * a combination is complete, in the ordering to be emitted.
+     */
+    private final APyObj<?>[] current;
+
+    /**
+     * Whether there is a combination left to emit.
+     */
+    private boolean hasNext;
+
+    /**
+     * Constructor for an ExhaustiveIterator, which starts at the first combination.
+     *
+     * @param values a list of lists, where the i-th list contains all possible values
+     *               of the i-th parameter
+     */
+    public ExhaustiveIterator(List<? extends List<? extends APyObj<?>>> values) {
+        this(values, List.of());
+    }
+
+    /**
+     * Constructor for an ExhaustiveIterator, which starts at the first combination that
+     * satisfies every constraint.
+     *
+     * @param values      a list of lists, where the i-th list contains all possible
+     *                    values of the i-th parameter
+     * @param constraints the constraints every emitted combination must satisfy
+     */
+    public ExhaustiveIterator(List<? extends List<? extends APyObj<?>>> values,
+                              List<ArgConstraint> constraints) {
+        this(values, constraints, List.of());
+    }
+
+    /**
+     * Constructor for an ExhaustiveIterator, which starts at the first combination that
+     * is canonical within every symmetric group and satisfies every constraint.
+     *
+     * @param values          a list of lists, where the i-th list contains all possible
+     *                        values of the i-th parameter
+     * @param constraints     the constraints every emitted combination must satisfy
+     * @param symmetricGroups disjoint groups of interchangeable parameters, each given
+     *                        as a list of parameter indices whose value lists are the same
+     */
+    public ExhaustiveIterator(List<? extends List<? extends APyObj<?>>> values,
+                              List<ArgConstraint> constraints,
+                              List<List<Integer>> symmetricGroups) {
+        this.values = values;
+        this.digits = new int[values.size()];
+        this.floorOf = new int[values.size()];
+        Arrays.fill(this.floorOf, -1);
+        boolean[] grouped = new boolean[values.size()];
+        for (List<Integer> group : symmetricGroups) {
+            List<Integer> sorted = new ArrayList<>(group);
+            Collections.sort(sorted);
+            for (int i = 1; i < sorted.size(); i++) {
+                this.floorOf[sorted.get(i)] = sorted.get(i - 1);
+            }
+            int[] members = new int[sorted.size()];
+            for (int i = 0; i < members.length; i++) {
+                members[i] = sorted.get(i);
+                grouped[members[i]] = true;
+            }
+            this.groups.add(members);
+        }
+        this.current = new APyObj<?>[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            this.checksAt.add(new ArrayList<>());
+        }
+        for (ArgConstraint constraint : constraints) {
+            int leftArg = constraint.getLeft().getArgIndex();
+            int rightArg = constraint.getRight().getArgIndex();
+            if ((leftArg >= 0 && grouped[leftArg]) || (rightArg >= 0 && grouped[rightArg])) {
+                this.groupChecks.add(constraint);
+            } else {
+                this.checksAt.get(constraint.getLastArg()).add(constraint);
+            }
+        }
+
+        this.hasNext = true;
+        for (List<? extends APyObj<?>> paramValues : values) {
+            if (paramValues.isEmpty()) {
+                this.hasNext = false;
+            }
+        }
+        if (this.hasNext) {
+            this.seek(0);
+        }
+    }
+
+    /**
+     * Returns whether there is another combination to emit.
+     *
+     * @return true if next() will return a TestCase; false otherwise
+     */
+    @Override
+    public boolean hasNext() {
+        return this.hasNext;
+    }
+
+    /**
+     * Returns the current combination as a TestCase, and advances the odometer.
+     *
+     * @return the next combination of arguments
+     */
+    @Override
+    public TestCase next() {
+        if (!this.hasNext) {
+            throw new NoSuchElementException();
+        }
+        List<APyObj<?>> args = new ArrayList<>(Arrays.asList(this.current));
+
+        // Turn the last digit, then move on to the next valid combination
+        this.seek(this.turn(this.digits.length - 1));
+        return new TestCase(args);
+    }
+
+    /**
+     * Helper for the constructor and next(); advances the odometer, starting at the
+     * given digit, to the next combination satisfying every constraint. Each digit from
+     * pos onward is checked in turn; a digit whose constraints fail is turned at once,
+     * skipping every combination that shares the prefix up to it. A complete combination
+     * none of whose orderings satisfies the constraints on grouped parameters is skipped
+     * too.
+     *
+     * @param pos the first digit that has not been checked against the constraints, or
+     *            -1 if the odometer has already wrapped around
+     */
+    private void seek(int pos) {
+        while (pos >= 0) {
+            if (pos == this.digits.length) {
+                if (this.arrange()) {
+                    break;
+                }
+                pos = this.turn(this.digits.length - 1);
+                continue;
+            }
+            this.current[pos] = this.values.get(pos).get(this.digits[pos]);
+            pos = this.satisfies(pos) ? pos + 1 : this.turn(pos);
+        }
+        this.hasNext = pos >= 0;
+    }
+
+    /**
+     * Helper for seek(); finds the first ordering of the values of each symmetric group
+     * that satisfies the constraints on grouped parameters, starting from the canonical
+     * one, and puts it in current.
+     *
+     * @return true if some ordering satisfies them; false otherwise
+     */
+    private boolean arrange() {
+        if (this.groupChecks.isEmpty()) {
+            return true;
+        }
+        List<int[]> orderings = new ArrayList<>();
+        for (int[] members : this.groups) {
+            int[] ordering = new int[members.length];
+            for (int i = 0; i < members.length; i++) {
+                ordering[i] = this.digits[members[i]];
+            }
+            orderings.add(ordering);
+        }
+        while (true) {
+            for (int g = 0; g < this.groups.size(); g++) {
+                int[] members = this.groups.get(g);
+                for (int i = 0; i < members.length; i++) {
+                    this.current[members[i]] = this.values.get(members[i])
+                            .get(orderings.get(g)[i]);
+                }
+            }
+            if (ArgConstraint.testAll(this.groupChecks, Arrays.asList(this.current))) {
+                return true;
+            }
+
+            // Move on to the next ordering, the last group's turning fastest
+            int g = this.groups.size() - 1;
+            while (g >= 0 && !nextPermutation(orderings.get(g))) {
+                g--;
+            }
+            if (g < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Helper for arrange(); rearranges digits into the next permutation in lexicographic
+     * order, skipping those equal to one already visited.
+     *
+     * @param digits the digits; rearranged in place
+     * @return true if there was a next permutation; false if digits were the last one, in
+     * which case they are reset to the first (non-decreasing) one
+     */
+    private static boolean nextPermutation(int[] digits) {
+        int i = digits.length - 2;
+        while (i >= 0 && digits[i] >= digits[i + 1]) {
+            i--;
+        }
+        if (i >= 0) {
+            int j = digits.length - 1;
+            while (digits[j] <= digits[i]) {
+                j--;
+            }
+            swap(digits, i, j);
+        }
+        for (int lo = i + 1, hi = digits.length - 1; lo < hi; lo++, hi--) {
+            swap(digits, lo, hi);
+        }
+        return i >= 0;
+    }
+
+    /**
+     * Helper for nextPermutation(); swaps two digits.
+     *
+     * @param digits the digits
+     * @param i      the index of one digit
+     * @param j      the index of the other
+     */
+    private static void swap(int[] digits, int i, int j) {
+        int tmp = digits[i];
+        digits[i] = digits[j];
+        digits[j] = tmp;
+    }
+
+    /**
+     * Helper for seek() and next(); turns the given digit, carrying into earlier digits
+     * as they wrap around.
+     *
+     * @param pos the digit to turn
+     * @return the earliest digit that changed without wrapping (every later digit is now
+     * as low as its group allows), or -1 if the first digit wrapped, i.e. every
+     * combination has been visited
+     */
+    private int turn(int pos) {
+        while (pos >= 0 && ++this.digits[pos] == this.values.get(pos).size()) {
+            pos--;
+        }
+        for (int i = pos + 1; pos >= 0 && i < this.digits.length; i++) {
+            this.digits[i] = this.floorOf[i] < 0 ? 0 : this.digits[this.floorOf[i]];
+        }
+        return pos;
+    }
+
+    /**
+     * Helper for seek(); checks the constraints that become decidable at a digit.
+     *
+     * @param pos the digit just set, all earlier digits having been checked already
+     * @return true if every constraint whose last argument is pos holds; false otherwise
+     */
+    private boolean satisfies(int pos) {
+        return ArgConstraint.testAll(this.checksAt.get(pos), Arrays.asList(this.current));
+    }
+}
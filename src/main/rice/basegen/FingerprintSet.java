@@ -0,0 +1,209 @@
+package main.rice.basegen;
+
+/**
+ * A set of 64-bit fingerprints, stored in a primitive open-addressing table so that
+ * each member costs a few bytes rather than a whole object graph. Used to deduplicate
+ * test cases by fingerprint during generation. May optionally consult a Bloom filter
+ * before probing the table, which answers most queries for absent fingerprints from a
+ * much smaller bit array.
+ */
+public class FingerprintSet {
+
+    /**
+     * Marks an empty slot in the table; a fingerprint equal to it is recorded by
+     * containsEmpty rather than in the table.
+     */
+    private static final long EMPTY = 0;
+
+    /**
+     * The number of Bloom filter bits per expected member, and the number of bits set
+     * per member.
+     */
+    private static final int BLOOM_BITS_PER_MEMBER = 8;
+    private static final int BLOOM_HASHES = 3;
+
+    /**
+     * The slots of the table, whose length is always a power of two.
+     */
+    private long[] table;
+
+    /**
+     * The number of fingerprints in the set.
+     */
+    private int size;
+
+    /**
+     * Whether the fingerprint EMPTY is in the set.
+     */
+    private boolean containsEmpty;
+
+    /**
+     * The bits of the Bloom filter; null if there is no filter.
+     */
+    private final long[] bloom;
+
+    /**
+     * Constructor for an empty FingerprintSet without a Bloom filter.
+     */
+    public FingerprintSet() {
+        this(16, false);
+    }
+
+    /**
+     * Constructor for an empty FingerprintSet.
+     *
+     * @param expectedSize   the number of fingerprints expected to be added; the table
+     *                       grows past it if necessary
+     * @param useBloomFilter whether to check a Bloom filter, sized for expectedSize,
+     *                       before probing the table
+     */
+    public FingerprintSet(int expectedSize, boolean useBloomFilter) {
+        int capacity = 16;
+        while (capacity < 2L * expectedSize) {
+            capacity *= 2;
+        }
+        this.table = new long[capacity];
+        this.bloom = useBloomFilter
+                ? new long[Math.max(1, (expectedSize * BLOOM_BITS_PER_MEMBER + 63) / 64)] : null;
+    }
+
+    /**
+     * Adds a fingerprint to the set.
+     *
+     * @param fingerprint the fingerprint to be added
+     * @return true if the fingerprint was not already in the set; false otherwise
+     */
+    public boolean add(long fingerprint) {
+        if (fingerprint == EMPTY) {
+            if (this.containsEmpty) {
+                return false;
+            }
+            this.containsEmpty = true;
+            this.size++;
+            return true;
+        }
+        if (this.bloomMightContain(fingerprint) && this.probe(fingerprint) >= 0) {
+            return false;
+        }
+        if (2 * (this.size + 1) > this.table.length) {
+            this.grow();
+        }
+        this.insert(fingerprint);
+        this.bloomAdd(fingerprint);
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Returns whether a fingerprint is in the set.
+     *
+     * @param fingerprint the fingerprint to look up
+     * @return true if the fingerprint is in the set; false otherwise
+     */
+    public boolean contains(long fingerprint) {
+        if (fingerprint == EMPTY) {
+            return this.containsEmpty;
+        }
+        return this.bloomMightContain(fingerprint) && this.probe(fingerprint) >= 0;
+    }
+
+    /**
+     * Returns the number of fingerprints in the set.
+     *
+     * @return the number of fingerprints
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Helper for add() and contains(); finds the slot holding a key by linear probing.
+     *
+     * @param key the key to look up
+     * @return the index of the key's slot, or -1 if it isn't in the table
+     */
+    private int probe(long key) {
+        int mask = this.table.length - 1;
+        for (int i = (int) key & mask; this.table[i] != EMPTY; i = (i + 1) & mask) {
+            if (this.table[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Helper for add() and grow(); stores a key known not to be in the table.
+     *
+     * @param key the key to be stored
+     */
+    private void insert(long key) {
+        int mask = this.table.length - 1;
+        int i = (int) key & mask;
+        while (this.table[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        this.table[i] = key;
+    }
+
+    /**
+     * Helper for add(); doubles the size of the table, keeping it at most half full.
+     */
+    private void grow() {
+        long[] old = this.table;
+        this.table = new long[old.length * 2];
+        for (long key : old) {
+            if (key != EMPTY) {
+                this.insert(key);
+            }
+        }
+    }
+
+    /**
+     * Helper for add(); sets a key's bits in the Bloom filter, if there is one.
+     *
+     * @param key the key being added
+     */
+    private void bloomAdd(long key) {
+        if (this.bloom == null) {
+            return;
+        }
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = this.bloomBit(key, i);
+            this.bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Helper for the Bloom filter methods; picks the i-th bit for a key. Since keys are
+     * already well-mixed fingerprints, each bit is taken from a different rotation of the
+     * key.
+     *
+     * @param key the key
+     * @param i   which of the key's BLOOM_HASHES bits to pick
+     * @return the index of the bit
+     */
+    private int bloomBit(long key, int i) {
+        return (int) Long.remainderUnsigned(Long.rotateRight(key, i * 21), this.bloom.length * 64L);
+    }
+
+    /**
+     * Helper for add() and contains(); checks a key's bits in the Bloom filter.
+     *
+     * @param key the key to look up
+     * @return false if the key is certainly not in the set; true if it might be (or if
+     * there is no filter)
+     */
+    private boolean bloomMightContain(long key) {
+        if (this.bloom == null) {
+            return true;
+        }
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = this.bloomBit(key, i);
+            if ((this.bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,25 @@
+package main.rice.basegen;
+
+import main.rice.test.TestCase;
+
+import java.util.List;
+
+/**
+ * Chooses which random test cases to keep from a larger pool of candidates, so that the
+ * base set spends its random budget on the most useful probes rather than the first ones
+ * generated.
+ */
+public interface RandomTestSelector {
+
+    /**
+     * Selects up to numTests of the candidates.
+     *
+     * @param kept       the test cases already in the base set, which the selection
+     *                   should complement
+     * @param candidates the pool of random test cases to choose from
+     * @param numTests   the maximum number of test cases to select
+     * @return the selected test cases, a subset of candidates; may be smaller than
+     * numTests if the rest would add nothing
+     */
+    List<TestCase> select(List<TestCase> kept, List<TestCase> candidates, int numTests);
+}
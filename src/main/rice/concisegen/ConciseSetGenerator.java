@@ -1,12 +1,11 @@
 package main.rice.concisegen;
 
+import main.rice.monitor.SetCoverEvent;
 import main.rice.test.TestCase;
 import main.rice.test.TestResults;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.io.IOException;
+import java.util.*;
 
 /**
  * Stateless class that is a wrapper for a greedy approximation of the set cover
@@ -16,6 +15,25 @@ import java.util.Set;
  */
 public class ConciseSetGenerator {
 
+    /**
+     * Runs some of the cells of the result matrix on demand, for lazySetCover().
+     */
+    @FunctionalInterface
+    public interface CellOracle {
+
+        /**
+         * Runs one test case on the given files.
+         *
+         * @param testIndex the index of the test case to be run
+         * @param files     the indices of the files to run it on
+         * @return the subset of files that the test case catches
+         * @throws IOException if a file cannot be accessed
+         * @throws InterruptedException if the process is interrupted
+         */
+        Set<Integer> catches(int testIndex, Set<Integer> files)
+                throws IOException, InterruptedException;
+    }
+
     /**
      * A greedy approximation of the set cover algorithm. Given a set of incorrect
      * implementations (S), a set of test cases (B), and list "mapping" each test case
@@ -27,6 +45,8 @@ public class ConciseSetGenerator {
      * @return M, a set of test cases that is an approximately minimal set covering
      */
     public static Set<TestCase> setCover(TestResults results) {
+        SetCoverEvent event = new SetCoverEvent();
+        event.begin();
 
         // Initialize the structure to return
         HashSet<TestCase> hittingSet = new HashSet<>();
@@ -69,6 +89,108 @@ public class ConciseSetGenerator {
         }
 
         // Return the hitting set
+        event.numCandidates = results.getCaseToFiles().size();
+        event.numWrong = results.getWrongSet().size();
+        event.numSelected = hittingSet.size();
+        event.commit();
+        return hittingSet;
+    }
+
+    /**
+     * The same greedy approximation as setCover(), but computing the result matrix
+     * lazily: instead of being handed every (test, file) cell, it asks the oracle for
+     * cells as the greedy choice needs them. Each test case keeps an upper bound on how
+     * many uncovered files it could still catch (the files it is known to catch plus the
+     * files not yet run on it), and test cases are examined in order of that bound. The
+     * test case on top is run on as many of its unknown uncovered files as it would have
+     * to miss to fall below the next bound -- cells that must be run whichever way it goes
+     * -- and re-queued, and is selected once its gain is exact and still on top. Files
+     * that are already covered are never run again, and a test case whose bound falls to
+     * zero is dropped, so the only cells run are those that could change the selection.
+     * The selected set is exactly the one setCover() would select from the full matrix,
+     * ties included.
+     *
+     * @param tests    B, the test cases, indexed as the oracle expects
+     * @param numFiles the number of files, indexed from 0
+     * @param oracle   the runner of cells on demand
+     * @return M, a set of test cases that is an approximately minimal set covering
+     * @throws IOException if a file cannot be accessed
+     * @throws InterruptedException if the process is interrupted
+     */
+    public static Set<TestCase> lazySetCover(List<TestCase> tests, int numFiles,
+                                             CellOracle oracle)
+            throws IOException, InterruptedException {
+        SetCoverEvent event = new SetCoverEvent();
+        event.begin();
+
+        // Initially nothing is known, so every test case might catch every file
+        Set<Integer> uncovered = new HashSet<>();
+        for (int file = 0; file < numFiles; file++) {
+            uncovered.add(file);
+        }
+        List<Set<Integer>> known = new ArrayList<>();
+        List<Set<Integer>> unknown = new ArrayList<>();
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) ->
+                a[0] != b[0] ? Integer.compare(b[0], a[0]) : Integer.compare(a[1], b[1]));
+        for (int caseIndex = 0; caseIndex < tests.size(); caseIndex++) {
+            known.add(new HashSet<>());
+            unknown.add(new HashSet<>(uncovered));
+            queue.add(new int[]{numFiles, caseIndex});
+        }
+
+        HashSet<TestCase> hittingSet = new HashSet<>();
+        int numWrong = 0;
+        while (!queue.isEmpty()) {
+            int[] top = queue.poll();
+            int caseIndex = top[1];
+
+            // Tighten the bound by forgetting files covered since it was computed
+            Set<Integer> caught = known.get(caseIndex);
+            Set<Integer> untested = unknown.get(caseIndex);
+            caught.retainAll(uncovered);
+            untested.retainAll(uncovered);
+            int bound = caught.size() + untested.size();
+            if (bound == 0) {
+                // Can never catch anything new
+                continue;
+            }
+            if (bound < top[0]) {
+                queue.add(new int[]{bound, caseIndex});
+                continue;
+            }
+            if (!untested.isEmpty()) {
+                // Run it on as many more files as it would have to miss to fall below the
+                // next bound, then re-queue it
+                int nextBound = queue.isEmpty() ? 0 : queue.peek()[0];
+                int batchSize = Math.max(1, bound - nextBound);
+                Set<Integer> files = new TreeSet<>();
+                for (int file : new TreeSet<>(untested)) {
+                    if (files.size() == batchSize) {
+                        break;
+                    }
+                    files.add(file);
+                }
+                for (int file : oracle.catches(caseIndex, files)) {
+                    if (files.contains(file)) {
+                        caught.add(file);
+                    }
+                }
+                untested.removeAll(files);
+                queue.add(new int[]{caught.size() + untested.size(), caseIndex});
+                continue;
+            }
+
+            // Its exact gain is at least every other bound, so the eager algorithm would
+            // select it too
+            uncovered.removeAll(caught);
+            numWrong += caught.size();
+            hittingSet.add(tests.get(caseIndex));
+        }
+
+        event.numCandidates = tests.size();
+        event.numWrong = numWrong;
+        event.numSelected = hittingSet.size();
+        event.commit();
         return hittingSet;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,431 @@
+package main.rice.concisegen;
+
+import main.rice.basegen.ArgConstraint;
+import main.rice.node.APyNode;
+import main.rice.obj.*;
+import main.rice.test.TestCase;
+import main.rice.test.TestResults;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Shrinks the test cases of a concise set, delta-debugging style, so that they are
+ * cheaper to run and to store. In each round, every test case that is still shrinking
+ * proposes a batch of structurally smaller variants within the domains of its nodes:
+ * shorter strings, lists, tuples and sets, dicts with fewer entries, and numbers of
+ * smaller magnitude, down to the elements of iterables and the keys and values of dicts.
+ * The batches of all test cases are run together, and each test case moves to its first
+ * (most aggressive) variant that catches exactly the same implementations it did; a
+ * test case stops once none of its variants does.
+ */
+public class TestCaseShrinker {
+
+    /**
+     * Runs a batch of candidate test cases on the implementations.
+     */
+    @FunctionalInterface
+    public interface CandidateRunner {
+
+        /**
+         * Runs the given test cases on the implementations.
+         *
+         * @param tests the test cases to be run
+         * @return the results of testing, with files indexed the same way in every batch
+         * @throws IOException if a file cannot be accessed
+         * @throws InterruptedException if the process is interrupted
+         */
+        TestResults run(List<TestCase> tests) throws IOException, InterruptedException;
+    }
+
+    /**
+     * The nodes the test cases were generated from, one per argument.
+     */
+    private final List<APyNode<?>> nodes;
+
+    /**
+     * The maximum number of variants each test case proposes per round.
+     */
+    private final int maxBatch;
+
+    /**
+     * The constraints that every variant must satisfy.
+     */
+    private List<ArgConstraint> constraints = List.of();
+
+    /**
+     * The number of rounds of variants run by the most recent call to shrinkAll().
+     */
+    private int numRounds;
+
+    /**
+     * Constructor for a TestCaseShrinker.
+     *
+     * @param nodes    the nodes the test cases were generated from, one per argument
+     * @param maxBatch the maximum number of variants each test case proposes per round;
+     *                 must be positive
+     * @throws IllegalArgumentException if maxBatch is not positive
+     */
+    public TestCaseShrinker(List<APyNode<?>> nodes, int maxBatch) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, got "
+                    + maxBatch);
+        }
+        this.nodes = nodes;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Sets the constraints that every variant must satisfy, as for the base set.
+     *
+     * @param constraints the constraints
+     */
+    public void setConstraints(List<ArgConstraint> constraints) {
+        this.constraints = constraints;
+    }
+
+    /**
+     * Shrinks each of the given test cases as far as it will go while still catching the
+     * same implementations.
+     *
+     * @param tests  the test cases to be shrunk
+     * @param runner the runner of each batch of candidates
+     * @return a map from each distinct input test case to its shrunk form (which may be
+     * itself), in input order
+     * @throws IOException if a file cannot be accessed
+     * @throws InterruptedException if the process is interrupted
+     */
+    public Map<TestCase, TestCase> shrinkAll(Collection<TestCase> tests,
+                                             CandidateRunner runner)
+            throws IOException, InterruptedException {
+        this.numRounds = 0;
+        Map<TestCase, TestCase> shrunk = new LinkedHashMap<>();
+        for (TestCase test : tests) {
+            shrunk.put(test, test);
+        }
+        if (shrunk.isEmpty()) {
+            return shrunk;
+        }
+
+        // Find what each test case catches, which its variants must match
+        List<TestCase> originals = new ArrayList<>(shrunk.keySet());
+        TestResults baseline = runner.run(originals);
+        Map<TestCase, Set<Integer>> targets = new HashMap<>();
+        for (int i = 0; i < originals.size(); i++) {
+            targets.put(originals.get(i), baseline.getCaseToFiles().get(i));
+        }
+
+        Set<TestCase> active = new LinkedHashSet<>(originals);
+        while (!active.isEmpty()) {
+            List<TestCase> batch = new ArrayList<>();
+            List<TestCase> owners = new ArrayList<>();
+            for (TestCase original : active) {
+                for (TestCase variant : this.variants(shrunk.get(original))) {
+                    batch.add(variant);
+                    owners.add(original);
+                }
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            TestResults results = runner.run(batch);
+            this.numRounds++;
+
+            // Keep each test case's first variant that catches the same implementations
+            Set<TestCase> improved = new HashSet<>();
+            for (int i = 0; i < batch.size(); i++) {
+                TestCase owner = owners.get(i);
+                if (!improved.contains(owner)
+                        && results.getCaseToFiles().get(i).equals(targets.get(owner))) {
+                    shrunk.put(owner, batch.get(i));
+                    improved.add(owner);
+                }
+            }
+            active.retainAll(improved);
+        }
+        return shrunk;
+    }
+
+    /**
+     * Returns the number of rounds of variants run by the most recent call to
+     * shrinkAll(), not counting the run of the original test cases.
+     *
+     * @return the number of rounds
+     */
+    public int getNumRounds() {
+        return this.numRounds;
+    }
+
+    /**
+     * Proposes the variants of a test case, taking the most aggressive variant of each
+     * argument in turn, then the next most aggressive, and so on.
+     *
+     * @param test the test case
+     * @return up to maxBatch distinct variants, each smaller than the test case and
+     * satisfying the constraints
+     */
+    public List<TestCase> variants(TestCase test) {
+        List<APyObj<?>> args = test.getArgs();
+        List<List<APyObj<?>>> argVariants = new ArrayList<>();
+        int maxRank = 0;
+        for (int i = 0; i < args.size(); i++) {
+            argVariants.add(shrinkObj(args.get(i), this.nodes.get(i)));
+            maxRank = Math.max(maxRank, argVariants.get(i).size());
+        }
+
+        double[] weight = weigh(args);
+        Set<TestCase> variants = new LinkedHashSet<>();
+        for (int rank = 0; rank < maxRank && variants.size() < this.maxBatch; rank++) {
+            for (int i = 0; i < args.size() && variants.size() < this.maxBatch; i++) {
+                if (rank >= argVariants.get(i).size()) {
+                    continue;
+                }
+                List<APyObj<?>> newArgs = new ArrayList<>(args);
+                newArgs.set(i, argVariants.get(i).get(rank));
+                if (isLighter(weigh(newArgs), weight)
+                        && ArgConstraint.testAll(this.constraints, newArgs)) {
+                    variants.add(new TestCase(newArgs));
+                }
+            }
+        }
+        return new ArrayList<>(variants);
+    }
+
+    /**
+     * Helper for variants(); proposes smaller versions of a single object within the
+     * domains of its node, most aggressive first.
+     *
+     * @param obj  the object
+     * @param node the node the object was generated from
+     * @return the smaller versions of the object
+     */
+    private static List<APyObj<?>> shrinkObj(APyObj<?> obj, APyNode<?> node) {
+        List<APyObj<?>> shrunk = new ArrayList<>();
+        if (obj instanceof PyIntObj intObj) {
+            for (Number value : smallerValues(node, Math.abs((double) intObj.getValue()))) {
+                shrunk.add(new PyIntObj(value.intValue()));
+            }
+        } else if (obj instanceof PyFloatObj floatObj) {
+            for (Number value : smallerValues(node, Math.abs(floatObj.getValue()))) {
+                shrunk.add(new PyFloatObj(value.doubleValue()));
+            }
+        } else if (obj instanceof PyBoolObj boolObj) {
+            if (boolObj.getValue() && !smallerValues(node, 1).isEmpty()) {
+                shrunk.add(new PyBoolObj(false));
+            }
+        } else if (obj instanceof PyStringObj stringObj) {
+            for (List<PyCharObj> chars : removals(new ArrayList<>(stringObj.getValue()), node)) {
+                shrunk.add(new PyStringObj(chars));
+            }
+        } else if (obj instanceof PyListObj<?> listObj) {
+            List<APyObj<?>> elems = new ArrayList<>(listObj.getValue());
+            for (List<APyObj<?>> variant : removals(elems, node)) {
+                shrunk.add(new PyListObj<>(variant));
+            }
+            for (List<APyObj<?>> variant : elementShrinks(elems, node.getLeftChild())) {
+                shrunk.add(new PyListObj<>(variant));
+            }
+        } else if (obj instanceof PyTupleObj<?> tupleObj) {
+            List<APyObj<?>> elems = new ArrayList<>(tupleObj.getValue());
+            for (List<APyObj<?>> variant : removals(elems, node)) {
+                shrunk.add(new PyTupleObj<>(variant));
+            }
+            for (List<APyObj<?>> variant : elementShrinks(elems, node.getLeftChild())) {
+                shrunk.add(new PyTupleObj<>(variant));
+            }
+        } else if (obj instanceof PySetObj<?> setObj) {
+            List<APyObj<?>> elems = new ArrayList<>(setObj.getValue());
+            for (List<APyObj<?>> variant : removals(elems, node)) {
+                shrunk.add(new PySetObj<>(new HashSet<>(variant)));
+            }
+            for (List<APyObj<?>> variant : elementShrinks(elems, node.getLeftChild())) {
+                // A shrunk element that collides with another would change the size
+                Set<APyObj<?>> set = new HashSet<>(variant);
+                if (set.size() == elems.size()) {
+                    shrunk.add(new PySetObj<>(set));
+                }
+            }
+        } else if (obj instanceof PyDictObj<?, ?> dictObj) {
+            Map<APyObj<?>, APyObj<?>> entries = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : dictObj.getValue().entrySet()) {
+                entries.put((APyObj<?>) entry.getKey(), (APyObj<?>) entry.getValue());
+            }
+            List<APyObj<?>> keys = new ArrayList<>(entries.keySet());
+            for (List<APyObj<?>> variant : removals(keys, node)) {
+                Map<APyObj<?>, APyObj<?>> map = new LinkedHashMap<>();
+                for (APyObj<?> key : variant) {
+                    map.put(key, entries.get(key));
+                }
+                shrunk.add(new PyDictObj<>(map));
+            }
+            for (APyObj<?> key : keys) {
+                for (APyObj<?> newKey : shrinkObj(key, node.getLeftChild())) {
+                    // A shrunk key that collides with another would drop an entry
+                    if (!entries.containsKey(newKey)) {
+                        Map<APyObj<?>, APyObj<?>> map = new LinkedHashMap<>();
+                        for (APyObj<?> oldKey : keys) {
+                            map.put(oldKey.equals(key) ? newKey : oldKey, entries.get(oldKey));
+                        }
+                        shrunk.add(new PyDictObj<>(map));
+                    }
+                }
+                for (APyObj<?> value : shrinkObj(entries.get(key), node.getRightChild())) {
+                    Map<APyObj<?>, APyObj<?>> map = new LinkedHashMap<>(entries);
+                    map.put(key, value);
+                    shrunk.add(new PyDictObj<>(map));
+                }
+            }
+        }
+        return shrunk;
+    }
+
+    /**
+     * Helper for shrinkObj(); finds the values in a node's domains that are smaller in
+     * magnitude than the given one, and picks the smallest, the median and the largest of
+     * them, so that repeated shrinking behaves like a binary search.
+     *
+     * @param node      the node
+     * @param magnitude the magnitude to go below
+     * @return up to three values, smallest first
+     */
+    private static List<Number> smallerValues(APyNode<?> node, double magnitude) {
+        TreeMap<Double, Number> smaller = new TreeMap<>();
+        for (Number value : domainOf(node)) {
+            double abs = Math.abs(value.doubleValue());
+            if (abs < magnitude) {
+                // Prefer the non-negative value of each magnitude
+                smaller.merge(abs, value, (a, b) -> a.doubleValue() >= 0 ? a : b);
+            }
+        }
+        List<Number> values = new ArrayList<>(smaller.values());
+        List<Number> picked = new ArrayList<>();
+        for (int index : new int[]{0, values.size() / 2, values.size() - 1}) {
+            if (index >= 0 && index < values.size() && !picked.contains(values.get(index))) {
+                picked.add(values.get(index));
+            }
+        }
+        return picked;
+    }
+
+    /**
+     * Helper for shrinkObj(); removes contiguous chunks of elements, delta-debugging
+     * style, down to the smallest, the median and the largest length in the node's
+     * domains that is shorter than the current one.
+     *
+     * @param elems the elements
+     * @param node  the node, whose domains are lengths
+     * @param <E>   the type of the elements
+     * @return the shorter lists of elements, shortest first
+     */
+    private static <E> List<List<E>> removals(List<E> elems, APyNode<?> node) {
+        int size = elems.size();
+        Set<List<E>> variants = new LinkedHashSet<>();
+        for (Number value : smallerValues(node, size)) {
+            int length = value.intValue();
+            if (length < 0) {
+                continue;
+            }
+            int chunk = size - length;
+            for (int start = 0; start < size; start += chunk) {
+                int from = Math.min(start, size - chunk);
+                List<E> variant = new ArrayList<>(elems.subList(0, from));
+                variant.addAll(elems.subList(from + chunk, size));
+                variants.add(variant);
+            }
+        }
+        return new ArrayList<>(variants);
+    }
+
+    /**
+     * Helper for shrinkObj(); shrinks one element at a time, within the domains of the
+     * node the elements were generated from.
+     *
+     * @param elems the elements
+     * @param child the node the elements were generated from
+     * @return the lists of elements with one of them shrunk
+     */
+    private static List<List<APyObj<?>>> elementShrinks(List<APyObj<?>> elems,
+                                                         APyNode<?> child) {
+        List<List<APyObj<?>>> variants = new ArrayList<>();
+        for (int i = 0; i < elems.size(); i++) {
+            for (APyObj<?> elem : shrinkObj(elems.get(i), child)) {
+                List<APyObj<?>> variant = new ArrayList<>(elems);
+                variant.set(i, elem);
+                variants.add(variant);
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Helper for smallerValues(); collects a node's exhaustive and random domains.
+     *
+     * @param node the node
+     * @return the values in either domain
+     */
+    private static List<Number> domainOf(APyNode<?> node) {
+        List<Number> domain = new ArrayList<>();
+        if (node.getExDomain() != null) {
+            domain.addAll(node.getExDomain());
+        }
+        if (node.getRanDomain() != null) {
+            domain.addAll(node.getRanDomain());
+        }
+        return domain;
+    }
+
+    /**
+     * Helper for variants(); weighs a list of arguments by the number of objects in it
+     * (counting every element, key and value) and then by the total magnitude of its
+     * numbers, so that every accepted variant strictly decreases the weight and shrinking
+     * terminates.
+     *
+     * @param args the arguments
+     * @return the number of objects and the total magnitude
+     */
+    private static double[] weigh(List<APyObj<?>> args) {
+        double[] weight = new double[2];
+        for (APyObj<?> arg : args) {
+            weighObj(arg, weight);
+        }
+        return weight;
+    }
+
+    /**
+     * Helper for weigh(); adds the weight of a single object, recursing into its
+     * elements.
+     *
+     * @param obj    the object
+     * @param weight the running number of objects and total magnitude
+     */
+    private static void weighObj(APyObj<?> obj, double[] weight) {
+        weight[0]++;
+        if (obj instanceof PyIntObj intObj) {
+            weight[1] += Math.abs((double) intObj.getValue());
+        } else if (obj instanceof PyFloatObj floatObj) {
+            weight[1] += Math.abs(floatObj.getValue());
+        } else if (obj instanceof PyBoolObj boolObj) {
+            weight[1] += boolObj.getValue() ? 1 : 0;
+        } else if (obj instanceof AIterablePyObj<?> iterableObj) {
+            for (APyObj<?> elem : iterableObj.getValue()) {
+                weighObj(elem, weight);
+            }
+        } else if (obj instanceof PyDictObj<?, ?> dictObj) {
+            for (Map.Entry<?, ?> entry : dictObj.getValue().entrySet()) {
+                weighObj((APyObj<?>) entry.getKey(), weight);
+                weighObj((APyObj<?>) entry.getValue(), weight);
+            }
+        }
+    }
+
+    /**
+     * Helper for variants(); compares two weights.
+     *
+     * @param weight the weight of a variant
+     * @param other  the weight of the test case it came from
+     * @return true if weight has fewer objects, or as many and a smaller magnitude
+     */
+    private static boolean isLighter(double[] weight, double[] other) {
+        return weight[0] < other[0] || (weight[0] == other[0] && weight[1] < other[1]);
+    }
+}
@@ -0,0 +1,157 @@
+package main.rice.corpus;
+
+import main.rice.test.TestCase;
+import main.rice.test.TestResults;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Per-test catch statistics that persist across runs, keyed by the fingerprint of each
+ * test case so that the same input is recognized whichever base set it appears in. For
+ * each test case, the history counts how many times it has been run on an implementation
+ * and how many of those runs caught a bug, and ranks test cases by their smoothed catch
+ * rate so that historically strong catchers can be run first.
+ *
+ * <p>A history file consists of a header (MAGIC and VERSION), the number of entries, and
+ * then each entry as its fingerprint, run count and catch count.
+ */
+public class CatchHistory {
+
+    /**
+     * Identifies a history file, and the version of the format it was written in.
+     */
+    static final long MAGIC = 0x4645415448495354L;
+    static final int VERSION = 1;
+
+    /**
+     * The number of runs and of catches of each test case, by fingerprint.
+     */
+    private final Map<Long, long[]> counts = new HashMap<>();
+
+    /**
+     * Loads the history stored at the given path, or starts an empty one if there is no
+     * file there yet.
+     *
+     * @param path the path of the history file
+     * @return the history
+     * @throws IOException if the file exists but cannot be read or is not a valid history
+     */
+    public static CatchHistory load(String path) throws IOException {
+        CatchHistory history = new CatchHistory();
+        if (!Files.exists(Path.of(path))) {
+            return history;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(path)))) {
+            if (in.readLong() != MAGIC) {
+                throw new IOException(path + " is not a history file");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported history version " + version + " in "
+                        + path);
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                history.counts.put(in.readLong(), new long[]{in.readLong(), in.readLong()});
+            }
+        } catch (EOFException e) {
+            throw new IOException(path + " is truncated", e);
+        }
+        return history;
+    }
+
+    /**
+     * Writes this history to the given path, replacing any file there.
+     *
+     * @param path the path of the history file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(path)))) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(this.counts.size());
+            for (Map.Entry<Long, long[]> entry : this.counts.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeLong(entry.getValue()[0]);
+                out.writeLong(entry.getValue()[1]);
+            }
+        }
+    }
+
+    /**
+     * Adds the outcome of a run to the history.
+     *
+     * @param results     the results of testing
+     * @param runsPerTest the number of implementations each test case was run on, in the
+     *                    same order as the test cases in results
+     * @throws IllegalArgumentException if runsPerTest does not match the results in size
+     */
+    public void record(TestResults results, List<Integer> runsPerTest) {
+        if (runsPerTest.size() != results.getCaseToFiles().size()) {
+            throw new IllegalArgumentException(results.getCaseToFiles().size()
+                    + " test cases but " + runsPerTest.size() + " run counts");
+        }
+        for (int i = 0; i < runsPerTest.size(); i++) {
+            long[] entry = this.counts.computeIfAbsent(results.getTestCase(i).fingerprint(),
+                    key -> new long[2]);
+            entry[0] += runsPerTest.get(i);
+            entry[1] += results.getCaseToFiles().get(i).size();
+        }
+    }
+
+    /**
+     * Returns the number of times the given test case has been run on an implementation.
+     *
+     * @param test the test case
+     * @return its run count, or 0 if it has no history
+     */
+    public long getRuns(TestCase test) {
+        long[] entry = this.counts.get(test.fingerprint());
+        return entry == null ? 0 : entry[0];
+    }
+
+    /**
+     * Returns the number of times the given test case has caught a bug.
+     *
+     * @param test the test case
+     * @return its catch count, or 0 if it has no history
+     */
+    public long getCatches(TestCase test) {
+        long[] entry = this.counts.get(test.fingerprint());
+        return entry == null ? 0 : entry[1];
+    }
+
+    /**
+     * Estimates the probability that the given test case catches a bug, smoothed so that
+     * test cases without history fall between the strong and the weak catchers.
+     *
+     * @param test the test case
+     * @return (catches + 1) / (runs + 2)
+     */
+    public double getCatchRate(TestCase test) {
+        return (this.getCatches(test) + 1.0) / (this.getRuns(test) + 2.0);
+    }
+
+    /**
+     * Orders the given test cases from the historically strongest catcher to the weakest.
+     *
+     * @param tests the test cases
+     * @return the indices of the test cases, by decreasing catch rate and then by index
+     */
+    public List<Integer> prioritize(List<TestCase> tests) {
+        double[] rates = new double[tests.size()];
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < tests.size(); i++) {
+            rates[i] = this.getCatchRate(tests.get(i));
+            order.add(i);
+        }
+        order.sort((a, b) -> Double.compare(rates[b], rates[a]));
+        return order;
+    }
+}
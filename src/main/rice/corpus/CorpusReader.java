@@ -0,0 +1,289 @@
+package main.rice.corpus;
+
+import main.rice.obj.*;
+import main.rice.test.TestCase;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads a corpus file written by a CorpusWriter. Only the offset table is loaded up
+ * front, so any test case can be read by its index without decoding those before it, and
+ * the whole corpus can be streamed without holding more than one record at a time.
+ * Safe for use by multiple threads.
+ */
+public class CorpusReader implements Closeable, Iterable<TestCase> {
+
+    /**
+     * The open corpus file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The position of each record, followed by the position of the offset table (where
+     * the last record ends).
+     */
+    private final long[] offsets;
+
+    /**
+     * Constructor for a CorpusReader; opens the corpus file and loads its offset table.
+     *
+     * @param path the path of the corpus file to be read
+     * @throws IOException if the file cannot be read or is not a valid corpus
+     */
+    public CorpusReader(String path) throws IOException {
+        this.channel = FileChannel.open(Path.of(path), StandardOpenOption.READ);
+        try {
+            long fileSize = this.channel.size();
+            if (fileSize < CorpusWriter.HEADER_BYTES + CorpusWriter.TRAILER_BYTES) {
+                throw new IOException(path + " is not a corpus file");
+            }
+            ByteBuffer header = this.readAt(0, CorpusWriter.HEADER_BYTES);
+            if (header.getLong() != CorpusWriter.MAGIC) {
+                throw new IOException(path + " is not a corpus file");
+            }
+            int version = header.getInt();
+            if (version != CorpusWriter.VERSION) {
+                throw new IOException("Unsupported corpus version " + version + " in " + path);
+            }
+
+            ByteBuffer trailer = this.readAt(fileSize - CorpusWriter.TRAILER_BYTES,
+                    CorpusWriter.TRAILER_BYTES);
+            long size = trailer.getLong();
+            long tableOffset = trailer.getLong();
+            if (size < 0 || size > Integer.MAX_VALUE - 1
+                    || tableOffset + size * Long.BYTES + CorpusWriter.TRAILER_BYTES != fileSize) {
+                throw new IOException(path + " has a corrupt offset table");
+            }
+
+            ByteBuffer table = this.readAt(tableOffset, (int) size * Long.BYTES);
+            this.offsets = new long[(int) size + 1];
+            for (int i = 0; i < size; i++) {
+                this.offsets[i] = table.getLong();
+            }
+            this.offsets[(int) size] = tableOffset;
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of test cases in the corpus.
+     *
+     * @return the number of test cases
+     */
+    public int size() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * Reads the test case at the given index.
+     *
+     * @param index the index of the test case, in the order it was written
+     * @return the test case
+     * @throws IndexOutOfBoundsException if index is negative or at least size()
+     * @throws IOException               if the file cannot be read or is corrupt
+     */
+    public TestCase get(int index) throws IOException {
+        Objects.checkIndex(index, this.size());
+        long length = this.offsets[index + 1] - this.offsets[index];
+        if (length < Integer.BYTES || length > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt record " + index);
+        }
+        ByteBuffer record = this.readAt(this.offsets[index], (int) length);
+        return readTestCase(new DataInputStream(new ByteArrayInputStream(
+                record.array(), 0, record.limit())));
+    }
+
+    /**
+     * Reads every test case in the corpus, streaming through the file once.
+     *
+     * @return the test cases, in the order they were written
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public synchronized List<TestCase> readAll() throws IOException {
+        // Not closed, since that would close the channel; the buffer is simply dropped
+        this.channel.position(CorpusWriter.HEADER_BYTES);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(this.channel)));
+        List<TestCase> testCases = new ArrayList<>(this.size());
+        for (int i = 0; i < this.size(); i++) {
+            testCases.add(readTestCase(in));
+        }
+        return testCases;
+    }
+
+    /**
+     * Returns an iterator over the test cases in the corpus, which reads each one only
+     * when it is reached. Since iterators cannot throw IOException, read failures are
+     * rethrown as UncheckedIOException.
+     *
+     * @return an iterator over the test cases, in the order they were written
+     */
+    @Override
+    public Iterator<TestCase> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < CorpusReader.this.size();
+            }
+
+            @Override
+            public TestCase next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return CorpusReader.this.get(this.next++);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Closes the corpus file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Reads a whole corpus file into memory.
+     *
+     * @param path the path of the corpus file to be read
+     * @return the test cases, in the order they were written
+     * @throws IOException if the file cannot be read or is not a valid corpus
+     */
+    public static List<TestCase> readAll(String path) throws IOException {
+        try (CorpusReader reader = new CorpusReader(path)) {
+            return reader.readAll();
+        }
+    }
+
+    /**
+     * Helper for the constructor and get(); reads a range of the file without moving the
+     * channel's position.
+     *
+     * @param position the position of the first byte to read
+     * @param length   the number of bytes to read
+     * @return a buffer holding the bytes, ready to be read
+     * @throws IOException if the file cannot be read or ends early
+     */
+    private ByteBuffer readAt(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Corpus ends unexpectedly");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Helper for get() and readAll(); decodes one record.
+     *
+     * @param in the stream positioned at the start of the record
+     * @return the test case
+     * @throws IOException if the record is corrupt
+     */
+    private static TestCase readTestCase(DataInputStream in) throws IOException {
+        int numArgs = readCount(in);
+        List<APyObj<?>> args = new ArrayList<>(numArgs);
+        for (int i = 0; i < numArgs; i++) {
+            args.add(readObj(in));
+        }
+        return new TestCase(args);
+    }
+
+    /**
+     * Helper for readTestCase(); decodes a single object, recursing into its elements.
+     *
+     * @param in the stream positioned at the object's tag
+     * @return the object
+     * @throws IOException if the object is corrupt
+     */
+    private static APyObj<?> readObj(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case CorpusWriter.TAG_INT:
+                return new PyIntObj(in.readInt());
+            case CorpusWriter.TAG_FLOAT:
+                return new PyFloatObj(in.readDouble());
+            case CorpusWriter.TAG_BOOL:
+                return new PyBoolObj(in.readBoolean());
+            case CorpusWriter.TAG_CHAR:
+                return new PyCharObj(in.readChar());
+            case CorpusWriter.TAG_STRING: {
+                int length = readCount(in);
+                List<PyCharObj> chars = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    chars.add(new PyCharObj(in.readChar()));
+                }
+                return new PyStringObj(chars);
+            }
+            case CorpusWriter.TAG_LIST:
+                return new PyListObj<>(readElems(in, new ArrayList<>()));
+            case CorpusWriter.TAG_TUPLE:
+                return new PyTupleObj<>(readElems(in, new ArrayList<>()));
+            case CorpusWriter.TAG_SET:
+                return new PySetObj<>(readElems(in, new HashSet<>()));
+            case CorpusWriter.TAG_DICT: {
+                int size = readCount(in);
+                Map<APyObj<?>, APyObj<?>> map = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    APyObj<?> key = readObj(in);
+                    map.put(key, readObj(in));
+                }
+                return new PyDictObj<>(map);
+            }
+            default:
+                throw new IOException("Unknown object tag " + tag);
+        }
+    }
+
+    /**
+     * Helper for readObj(); decodes the elements of a list, tuple or set.
+     *
+     * @param in    the stream positioned at the element count
+     * @param elems the empty collection to which the elements are added
+     * @param <C>   the type of the collection
+     * @return elems
+     * @throws IOException if an element is corrupt
+     */
+    private static <C extends Collection<APyObj<?>>> C readElems(DataInputStream in, C elems)
+            throws IOException {
+        int size = readCount(in);
+        for (int i = 0; i < size; i++) {
+            elems.add(readObj(in));
+        }
+        return elems;
+    }
+
+    /**
+     * Helper for the decoding methods; reads an element or argument count.
+     *
+     * @param in the stream positioned at the count
+     * @return the count
+     * @throws IOException if the count is negative
+     */
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupt element count " + count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,205 @@
+package main.rice.corpus;
+
+import main.rice.obj.*;
+import main.rice.test.TestCase;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a list of test cases to a compact binary corpus file, one test case at a time,
+ * so that a base set can be frozen and later reloaded (in whole or by index) with a
+ * CorpusReader instead of being regenerated.
+ *
+ * <p>A corpus consists of a header (MAGIC and VERSION), then one record per test case,
+ * then an offset table giving the position of each record, and finally a trailer holding
+ * the number of records and the position of the offset table. A record is the number of
+ * arguments followed by each argument, encoded as a one-byte tag and its contents: an int,
+ * a double or a byte for a leaf; an element count followed by the elements for a string,
+ * list, tuple or set; and an entry count followed by alternating keys and values for a
+ * dict.
+ */
+public class CorpusWriter implements Closeable {
+
+    /**
+     * Identifies a corpus file, and the version of the format it was written in.
+     */
+    static final long MAGIC = 0x4645415443525053L;
+    static final int VERSION = 1;
+
+    /**
+     * The size of the header and of the trailer, in bytes.
+     */
+    static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+    static final int TRAILER_BYTES = Long.BYTES + Long.BYTES;
+
+    /**
+     * The tag preceding each encoded object, identifying its type.
+     */
+    static final byte TAG_INT = 1;
+    static final byte TAG_FLOAT = 2;
+    static final byte TAG_BOOL = 3;
+    static final byte TAG_CHAR = 4;
+    static final byte TAG_STRING = 5;
+    static final byte TAG_LIST = 6;
+    static final byte TAG_TUPLE = 7;
+    static final byte TAG_SET = 8;
+    static final byte TAG_DICT = 9;
+
+    /**
+     * The stream the corpus is written to.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * The position at which each record written so far begins.
+     */
+    private final List<Long> offsets = new ArrayList<>();
+
+    /**
+     * The number of bytes written so far; tracked here because DataOutputStream.size()
+     * saturates at 2GB.
+     */
+    private long position;
+
+    /**
+     * Holds the encoding of the record being written, so that its length is known
+     * before it reaches the file.
+     */
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final DataOutputStream recordOut = new DataOutputStream(this.record);
+
+    /**
+     * Constructor for a CorpusWriter; creates (or truncates) the corpus file and writes
+     * its header.
+     *
+     * @param path the path of the corpus file to be written
+     * @throws IOException if the file cannot be written
+     */
+    public CorpusWriter(String path) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)));
+        this.out.writeLong(MAGIC);
+        this.out.writeInt(VERSION);
+        this.position = HEADER_BYTES;
+    }
+
+    /**
+     * Appends a test case to the corpus.
+     *
+     * @param testCase the test case to be written
+     * @throws IOException if the file cannot be written
+     */
+    public void write(TestCase testCase) throws IOException {
+        this.record.reset();
+        this.recordOut.writeInt(testCase.getArgs().size());
+        for (APyObj<?> arg : testCase.getArgs()) {
+            this.writeObj(arg);
+        }
+        this.offsets.add(this.position);
+        this.record.writeTo(this.out);
+        this.position += this.record.size();
+    }
+
+    /**
+     * Returns the number of test cases written so far.
+     *
+     * @return the number of test cases
+     */
+    public int getNumWritten() {
+        return this.offsets.size();
+    }
+
+    /**
+     * Writes the offset table and trailer, completing the corpus, and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        long tableOffset = this.position;
+        for (long offset : this.offsets) {
+            this.out.writeLong(offset);
+        }
+        this.out.writeLong(this.offsets.size());
+        this.out.writeLong(tableOffset);
+        this.out.close();
+    }
+
+    /**
+     * Writes a whole list of test cases to a new corpus file.
+     *
+     * @param path      the path of the corpus file to be written
+     * @param testCases the test cases to be written, in order
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeAll(String path, List<TestCase> testCases) throws IOException {
+        try (CorpusWriter writer = new CorpusWriter(path)) {
+            for (TestCase testCase : testCases) {
+                writer.write(testCase);
+            }
+        }
+    }
+
+    /**
+     * Helper for write(); encodes a single object, recursing into its elements.
+     *
+     * @param obj the object to be encoded
+     * @throws IOException never, since the record is held in memory
+     */
+    private void writeObj(APyObj<?> obj) throws IOException {
+        if (obj instanceof PyIntObj intObj) {
+            this.recordOut.writeByte(TAG_INT);
+            this.recordOut.writeInt(intObj.getValue());
+        } else if (obj instanceof PyFloatObj floatObj) {
+            this.recordOut.writeByte(TAG_FLOAT);
+            this.recordOut.writeDouble(floatObj.getValue());
+        } else if (obj instanceof PyBoolObj boolObj) {
+            this.recordOut.writeByte(TAG_BOOL);
+            this.recordOut.writeBoolean(boolObj.getValue());
+        } else if (obj instanceof PyCharObj charObj) {
+            this.recordOut.writeByte(TAG_CHAR);
+            this.recordOut.writeChar(charObj.getValue());
+        } else if (obj instanceof PyStringObj stringObj) {
+            // Strings are stored as bare chars rather than tagged PyCharObjs
+            this.recordOut.writeByte(TAG_STRING);
+            this.recordOut.writeInt(stringObj.getValue().size());
+            for (PyCharObj character : stringObj.getValue()) {
+                this.recordOut.writeChar(character.getValue());
+            }
+        } else if (obj instanceof PyListObj<?> listObj) {
+            this.writeElems(TAG_LIST, listObj.getValue());
+        } else if (obj instanceof PyTupleObj<?> tupleObj) {
+            this.writeElems(TAG_TUPLE, tupleObj.getValue());
+        } else if (obj instanceof PySetObj<?> setObj) {
+            this.writeElems(TAG_SET, setObj.getValue());
+        } else if (obj instanceof PyDictObj<?, ?> dictObj) {
+            this.recordOut.writeByte(TAG_DICT);
+            this.recordOut.writeInt(dictObj.getValue().size());
+            for (Map.Entry<?, ?> entry : dictObj.getValue().entrySet()) {
+                this.writeObj((APyObj<?>) entry.getKey());
+                this.writeObj((APyObj<?>) entry.getValue());
+            }
+        } else {
+            throw new IllegalArgumentException("Cannot encode object of type "
+                    + obj.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Helper for writeObj(); encodes a list, tuple or set.
+     *
+     * @param tag   the tag identifying the type of the object
+     * @param elems the elements of the object
+     * @throws IOException never, since the record is held in memory
+     */
+    private void writeElems(byte tag, Collection<? extends APyObj<?>> elems) throws IOException {
+        this.recordOut.writeByte(tag);
+        this.recordOut.writeInt(elems.size());
+        for (APyObj<?> elem : elems) {
+            this.writeObj(elem);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package main.rice.monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event spanning one call to BaseSetGenerator.genBaseSet().
+ */
+@Name("main.rice.BaseSetGeneration")
+@Label("Base Set Generation")
+@Category({"FEAT", "Pipeline"})
+@Description("Generation of the exhaustive and random test cases of the base set")
+public class BaseSetEvent extends jdk.jfr.Event {
+
+    /**
+     * The number of exhaustive test cases generated.
+     */
+    @Label("Exhaustive Tests")
+    public int numExhaustive;
+
+    /**
+     * The number of random test cases generated.
+     */
+    @Label("Random Tests")
+    public int numRandom;
+}
@@ -0,0 +1,114 @@
+package main.rice.monitor;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes a MetricsRegistry while a run is in progress, by periodically rewriting a
+ * Prometheus text-exposition file and/or serving the exposition over HTTP on a localhost
+ * port. Closing the exporter writes the file one last time and stops the server.
+ */
+public class MetricsExporter implements AutoCloseable {
+
+    /**
+     * The registry being published.
+     */
+    private final MetricsRegistry registry;
+
+    /**
+     * The path of the metrics file; null if no file is being written.
+     */
+    private String path;
+
+    /**
+     * The background thread that rewrites the metrics file; null if no file is being
+     * written.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * The HTTP server exposing the metrics; null if no server is running.
+     */
+    private HttpServer server;
+
+    /**
+     * Constructor for a MetricsExporter; nothing is published until startFile() or
+     * startServer() is called.
+     *
+     * @param registry the registry to be published
+     */
+    public MetricsExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Starts rewriting the metrics file at the given path every periodMillis
+     * milliseconds. Failed writes are skipped; the next period tries again.
+     *
+     * @param path         the path of the metrics file
+     * @param periodMillis the time between writes, in milliseconds
+     */
+    public void startFile(String path, long periodMillis) {
+        this.path = path;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(() -> {
+            try {
+                this.registry.writeTo(path);
+            } catch (IOException e) {
+                // Leave the previous file in place; the next period will try again
+            }
+        }, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts serving the metrics at http://127.0.0.1:port/metrics.
+     *
+     * @param port the port to listen on; 0 picks a free port
+     * @return the port actually being listened on
+     * @throws IOException if the server cannot be started
+     */
+    public int startServer(int port) throws IOException {
+        this.server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/metrics", exchange -> {
+            byte[] body = this.registry.expose().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type",
+                    "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body);
+            out.close();
+        });
+        this.server.start();
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Stops publishing, writing the metrics file one final time so that it reflects the
+     * end of the run.
+     *
+     * @throws IOException if the final write fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.registry.writeTo(this.path);
+        }
+        if (this.server != null) {
+            this.server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package main.rice.monitor;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * An in-process registry of counters, gauges and histograms describing a grading run,
+ * which can be rendered in the Prometheus text exposition format. Metrics are created on
+ * first use and shared on later lookups by the same name and label, so independent
+ * components may update the same metric. Safe for use by multiple threads.
+ */
+public class MetricsRegistry {
+
+    /**
+     * The metric families registered so far, keyed by name, in registration order.
+     */
+    private final Map<String, Family> families = new LinkedHashMap<>();
+
+    /**
+     * Returns the unlabeled counter with the given name, creating it if necessary.
+     *
+     * @param name the name of the counter
+     * @param help a description of the counter
+     * @return the counter
+     */
+    public Counter counter(String name, String help) {
+        return this.counter(name, help, null, null);
+    }
+
+    /**
+     * Returns the counter with the given name and label, creating it if necessary.
+     *
+     * @param name       the name of the counter
+     * @param help       a description of the counter
+     * @param labelName  the name of the label distinguishing this counter from others in
+     *                   its family, or null for none
+     * @param labelValue the value of that label, or null for none
+     * @return the counter
+     */
+    public Counter counter(String name, String help, String labelName, String labelValue) {
+        return (Counter) this.lookup(name, help, "counter",
+                labelName == null ? "" : labelName + "=\"" + labelValue + "\"",
+                Counter::new);
+    }
+
+    /**
+     * Returns the gauge with the given name, creating it if necessary.
+     *
+     * @param name the name of the gauge
+     * @param help a description of the gauge
+     * @return the gauge
+     */
+    public Gauge gauge(String name, String help) {
+        return (Gauge) this.lookup(name, help, "gauge", "", Gauge::new);
+    }
+
+    /**
+     * Returns the histogram with the given name, creating it with the given bucket upper
+     * bounds if necessary.
+     *
+     * @param name    the name of the histogram
+     * @param help    a description of the histogram
+     * @param buckets the upper bounds of the buckets, in ascending order
+     * @return the histogram
+     */
+    public Histogram histogram(String name, String help, double... buckets) {
+        return (Histogram) this.lookup(name, help, "histogram", "",
+                () -> new Histogram(buckets));
+    }
+
+    /**
+     * Renders every registered metric in the Prometheus text exposition format.
+     *
+     * @return the text exposition of this registry
+     */
+    public synchronized String expose() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Family> entry : this.families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            sb.append("# HELP ").append(name).append(" ").append(family.help).append("\n");
+            sb.append("# TYPE ").append(name).append(" ").append(family.type).append("\n");
+            for (Map.Entry<String, Metric> child : family.children.entrySet()) {
+                child.getValue().expose(sb, name, child.getKey());
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the text exposition of this registry to the given file, replacing it
+     * atomically so that a scraper never reads a half-written file.
+     *
+     * @param path the path of the metrics file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(String path) throws IOException {
+        File target = new File(path).getAbsoluteFile();
+        File temp = new File(target.getParentFile(), target.getName() + ".tmp");
+        FileWriter writer = new FileWriter(temp);
+        writer.write(this.expose());
+        writer.close();
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Helper for the lookup methods: returns the metric with the given name and label,
+     * creating its family and/or the metric itself if necessary.
+     *
+     * @param name    the name of the metric family
+     * @param help    a description of the metric family
+     * @param type    the Prometheus type of the metric family
+     * @param label   the rendered label of the metric within its family
+     * @param factory creates the metric if it doesn't exist yet
+     * @return the metric
+     */
+    private synchronized Metric lookup(String name, String help, String type, String label,
+                                       Supplier<Metric> factory) {
+        Family family = this.families.computeIfAbsent(name, key -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException(name + " is already registered as a "
+                    + family.type);
+        }
+        return family.children.computeIfAbsent(label, key -> factory.get());
+    }
+
+    /**
+     * A family of metrics sharing a name, description and type.
+     */
+    private static class Family {
+
+        /**
+         * The description and Prometheus type of the family.
+         */
+        private final String help;
+        private final String type;
+
+        /**
+         * The metrics in this family, keyed by their rendered label.
+         */
+        private final Map<String, Metric> children = new LinkedHashMap<>();
+
+        /**
+         * Constructor for a Family; initializes its description and type.
+         *
+         * @param help a description of the family
+         * @param type the Prometheus type of the family
+         */
+        private Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    /**
+     * A single metric that can render its current value(s).
+     */
+    private interface Metric {
+
+        /**
+         * Appends the sample line(s) for this metric.
+         *
+         * @param sb    the exposition being built
+         * @param name  the name of the metric's family
+         * @param label the rendered label of the metric, or the empty string
+         */
+        void expose(StringBuilder sb, String name, String label);
+    }
+
+    /**
+     * A monotonically increasing count.
+     */
+    public static class Counter implements Metric {
+
+        /**
+         * The current count.
+         */
+        private final DoubleAdder value = new DoubleAdder();
+
+        /**
+         * Increments the count by one.
+         */
+        public void inc() {
+            this.value.add(1);
+        }
+
+        /**
+         * Increments the count by the given non-negative amount.
+         *
+         * @param amount the amount to add
+         */
+        public void inc(double amount) {
+            this.value.add(amount);
+        }
+
+        /**
+         * Returns the current count.
+         *
+         * @return the current count
+         */
+        public double get() {
+            return this.value.sum();
+        }
+
+        @Override
+        public void expose(StringBuilder sb, String name, String label) {
+            sb.append(name).append(label.isEmpty() ? "" : "{" + label + "}").append(" ")
+                    .append(format(this.get())).append("\n");
+        }
+    }
+
+    /**
+     * A value that can go up and down.
+     */
+    public static class Gauge implements Metric {
+
+        /**
+         * The current value.
+         */
+        private final AtomicLong value = new AtomicLong();
+
+        /**
+         * Increments the value by one.
+         */
+        public void inc() {
+            this.value.incrementAndGet();
+        }
+
+        /**
+         * Decrements the value by one.
+         */
+        public void dec() {
+            this.value.decrementAndGet();
+        }
+
+        /**
+         * Sets the value.
+         *
+         * @param value the new value
+         */
+        public void set(long value) {
+            this.value.set(value);
+        }
+
+        /**
+         * Returns the current value.
+         *
+         * @return the current value
+         */
+        public long get() {
+            return this.value.get();
+        }
+
+        @Override
+        public void expose(StringBuilder sb, String name, String label) {
+            sb.append(name).append(" ").append(this.get()).append("\n");
+        }
+    }
+
+    /**
+     * A distribution of observations, counted into cumulative buckets.
+     */
+    public static class Histogram implements Metric {
+
+        /**
+         * The upper bounds of the buckets, in ascending order.
+         */
+        private final double[] bounds;
+
+        /**
+         * The number of observations falling into each bucket (non-cumulative); the last
+         * element counts observations above every bound.
+         */
+        private final LongAdder[] counts;
+
+        /**
+         * The sum of all observations.
+         */
+        private final DoubleAdder sum = new DoubleAdder();
+
+        /**
+         * Constructor for a Histogram; initializes its buckets.
+         *
+         * @param bounds the upper bounds of the buckets, in ascending order
+         */
+        private Histogram(double[] bounds) {
+            this.bounds = bounds.clone();
+            this.counts = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < this.counts.length; i++) {
+                this.counts[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records one observation.
+         *
+         * @param value the observed value
+         */
+        public void observe(double value) {
+            int bucket = 0;
+            while (bucket < this.bounds.length && value > this.bounds[bucket]) {
+                bucket++;
+            }
+            this.counts[bucket].increment();
+            this.sum.add(value);
+        }
+
+        /**
+         * Returns the total number of observations.
+         *
+         * @return the number of observations
+         */
+        public long getCount() {
+            long count = 0;
+            for (LongAdder bucket : this.counts) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        @Override
+        public void expose(StringBuilder sb, String name, String label) {
+            long cumulative = 0;
+            for (int i = 0; i < this.bounds.length; i++) {
+                cumulative += this.counts[i].sum();
+                sb.append(name).append("_bucket{le=\"").append(format(this.bounds[i]))
+                        .append("\"} ").append(cumulative).append("\n");
+            }
+            cumulative += this.counts[this.bounds.length].sum();
+            sb.append(name).append("_bucket{le=\"+Inf\"} ").append(cumulative).append("\n");
+            sb.append(name).append("_sum ").append(format(this.sum.sum())).append("\n");
+            sb.append(name).append("_count ").append(cumulative).append("\n");
+        }
+    }
+
+    /**
+     * Formats a sample value, dropping the fractional part of whole numbers.
+     *
+     * @param value the value to be formatted
+     * @return the formatted value
+     */
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+}
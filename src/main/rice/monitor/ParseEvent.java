@@ -0,0 +1,28 @@
+package main.rice.monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event spanning one call to ConfigFileParser.parse().
+ */
+@Name("main.rice.ConfigParse")
+@Label("Config Parse")
+@Category({"FEAT", "Pipeline"})
+@Description("Parsing of a config file into a tree of nodes per parameter")
+public class ParseEvent extends jdk.jfr.Event {
+
+    /**
+     * The name of the function under test, if parsing got far enough to read it.
+     */
+    @Label("Function Name")
+    public String funcName;
+
+    /**
+     * The number of parameters of the function under test.
+     */
+    @Label("Parameters")
+    public int numParams;
+}
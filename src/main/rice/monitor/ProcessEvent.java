@@ -0,0 +1,36 @@
+package main.rice.monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event spanning one test process run by the Tester, from spawn
+ * until its output has been read.
+ */
+@Name("main.rice.TestProcess")
+@Label("Test Process")
+@Category({"FEAT", "Execution"})
+@Description("One Python process running a single test on the solution or an implementation")
+public class ProcessEvent extends jdk.jfr.Event {
+
+    /**
+     * The name of the implementation file under test, or "solution" when computing
+     * expected results.
+     */
+    @Label("Implementation")
+    public String impl;
+
+    /**
+     * The index of the test case being run.
+     */
+    @Label("Test Index")
+    public int testIndex;
+
+    /**
+     * The exit code of the process, or -1 if it could not be run to completion.
+     */
+    @Label("Exit Code")
+    public int exitCode;
+}
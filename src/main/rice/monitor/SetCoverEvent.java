@@ -0,0 +1,34 @@
+package main.rice.monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event spanning one call to ConciseSetGenerator.setCover().
+ */
+@Name("main.rice.SetCover")
+@Label("Set Cover")
+@Category({"FEAT", "Pipeline"})
+@Description("Greedy selection of the concise test set from the results of testing")
+public class SetCoverEvent extends jdk.jfr.Event {
+
+    /**
+     * The number of test cases to choose from.
+     */
+    @Label("Candidate Tests")
+    public int numCandidates;
+
+    /**
+     * The number of implementations that had to be covered.
+     */
+    @Label("Wrong Implementations")
+    public int numWrong;
+
+    /**
+     * The number of test cases selected.
+     */
+    @Label("Selected Tests")
+    public int numSelected;
+}
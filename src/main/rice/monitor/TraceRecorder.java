@@ -0,0 +1,117 @@
+package main.rice.monitor;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the timeline of a run as a list of spans, and writes it out in the Chrome
+ * trace-event format (viewable in Perfetto or chrome://tracing). Each span is placed on
+ * the lane of the thread that recorded it, so that parallel workers show up side by
+ * side. Safe for use by multiple threads.
+ */
+public class TraceRecorder {
+
+    /**
+     * The process id under which all spans are reported.
+     */
+    private static final int PID = 1;
+
+    /**
+     * The time at which this recorder was created, in nanoseconds; all timestamps are
+     * relative to it.
+     */
+    private final long originNanos = System.nanoTime();
+
+    /**
+     * The complete ("X") events recorded so far.
+     */
+    private final List<JSONObject> events = new ArrayList<>();
+
+    /**
+     * A mapping from each thread that has recorded a span to its lane number, assigned
+     * in order of first use.
+     */
+    private final Map<Thread, Integer> lanes = new HashMap<>();
+
+    /**
+     * Returns the current time relative to the creation of this recorder.
+     *
+     * @return the current timestamp, in microseconds
+     */
+    public long now() {
+        return (System.nanoTime() - this.originNanos) / 1000;
+    }
+
+    /**
+     * Records a span on the calling thread's lane.
+     *
+     * @param name        the name shown on the span
+     * @param category    the category of the span (e.g. "phase" or "test")
+     * @param startMicros the start of the span, as returned by now()
+     * @param endMicros   the end of the span, as returned by now()
+     * @param args        extra details shown when the span is selected; may be empty
+     */
+    public void addSpan(String name, String category, long startMicros, long endMicros,
+                        Map<String, ?> args) {
+        JSONObject event = new JSONObject();
+        event.put("name", name);
+        event.put("cat", category);
+        event.put("ph", "X");
+        event.put("ts", startMicros);
+        event.put("dur", Math.max(0, endMicros - startMicros));
+        event.put("pid", PID);
+        event.put("args", new JSONObject(args));
+
+        synchronized (this) {
+            event.put("tid", this.lanes.computeIfAbsent(Thread.currentThread(),
+                    thread -> this.lanes.size()));
+            this.events.add(event);
+        }
+    }
+
+    /**
+     * Returns the number of spans recorded so far.
+     *
+     * @return the number of spans
+     */
+    public synchronized int getNumSpans() {
+        return this.events.size();
+    }
+
+    /**
+     * Writes all spans recorded so far to the given file, along with the name of the
+     * thread behind each lane.
+     *
+     * @param path the path of the trace file to be written
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void write(String path) throws IOException {
+        JSONArray traceEvents = new JSONArray();
+        for (Map.Entry<Thread, Integer> lane : this.lanes.entrySet()) {
+            JSONObject meta = new JSONObject();
+            meta.put("name", "thread_name");
+            meta.put("ph", "M");
+            meta.put("pid", PID);
+            meta.put("tid", lane.getValue());
+            meta.put("args", new JSONObject().put("name", lane.getKey().getName()));
+            traceEvents.put(meta);
+        }
+        for (JSONObject event : this.events) {
+            traceEvents.put(event);
+        }
+
+        JSONObject trace = new JSONObject();
+        trace.put("traceEvents", traceEvents);
+        trace.put("displayTimeUnit", "ms");
+        FileWriter writer = new FileWriter(path);
+        writer.write(trace.toString());
+        writer.close();
+    }
+}
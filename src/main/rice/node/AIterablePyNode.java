@@ -3,6 +3,7 @@ package main.rice.node;
 import main.rice.obj.AIterablePyObj;
 import main.rice.obj.APyObj;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * An abstract class whose instances represent generators for iterable Python objects
@@ -52,28 +53,121 @@ public abstract class AIterablePyNode<OuterType extends AIterablePyObj<InnerType
      * randomly generating a valid length (as constrained by the random domain), and then
      * randomly generates valid elements.
      *
+     * @param rng the RNG to draw from
      * @return a single OuterType object selected from the random domain
      */
-    public OuterType genRandVal() {
+    public OuterType genRandVal(RandomGenerator rng) {
         // Randomly select the size, n
-        int length = this.ranDomainChoice().intValue();
+        int length = this.ranDomainChoice(rng).intValue();
 
         // Randomly select n inner values
         List<InnerType> list = new ArrayList<>();
         for (int idx = 0; idx < length; idx++) {
-            InnerType childVal = this.genRandInnerVal();
+            InnerType childVal = this.genRandInnerVal(rng);
             list.add(childVal);
         }
         return this.genObj(list);
     }
 
+    /**
+     * Counts the distinct OuterType objects that genRandVal() can produce: for each
+     * length in the random domain, the number of distinct objects of that length.
+     *
+     * @return the size of the random space, or Long.MAX_VALUE if it is at least that
+     * large
+     */
+    public long countRanVals() {
+        long numInner = this.countRanInnerVals();
+        long count = 0;
+        for (int length : this.ranDomainLengths()) {
+            count = saturatedAdd(count, this.countRanValsOfLength(length, numInner));
+        }
+        return count;
+    }
+
+    /**
+     * Generates the OuterType object at the given index of the random space. Objects
+     * are ordered by length, and then by the indices of their elements.
+     *
+     * @param index the index of the object, in [0, countRanVals())
+     * @return the OuterType object at that index
+     */
+    public OuterType genRanValAt(long index) {
+        long numInner = this.countRanInnerVals();
+        for (int length : this.ranDomainLengths()) {
+            long count = this.countRanValsOfLength(length, numInner);
+            if (index < count) {
+                List<InnerType> list = new ArrayList<>();
+                for (long innerIndex : this.unrankOfLength(length, numInner, index)) {
+                    list.add(this.genRanInnerValAt(innerIndex));
+                }
+                return this.genObj(list);
+            }
+            index -= count;
+        }
+        throw new IndexOutOfBoundsException("Index out of bounds for random space of size "
+                + this.countRanVals());
+    }
+
+    /**
+     * Helper function for counting the random InnerType objects.
+     *
+     * @return the number of distinct InnerType objects in the random domain
+     */
+    protected long countRanInnerVals() {
+        return this.leftChild.countRanVals();
+    }
+
+    /**
+     * Helper function for generating the InnerType object at the given index of the
+     * random space.
+     *
+     * @param index the index of the InnerType object
+     * @return the InnerType object at that index
+     */
+    protected InnerType genRanInnerValAt(long index) {
+        return this.leftChild.genRanValAt(index);
+    }
+
+    /**
+     * Helper function for countRanVals(); counts the distinct objects of a single
+     * length, where each element is chosen independently. Overridden for sets.
+     *
+     * @param length   the length of the objects
+     * @param numInner the number of distinct InnerType objects
+     * @return the number of distinct objects of that length
+     */
+    protected long countRanValsOfLength(int length, long numInner) {
+        return saturatedPow(numInner, length);
+    }
+
+    /**
+     * Helper function for genRanValAt(); decodes the indices of the elements of the
+     * object at the given index among those of a single length, as a base-numInner
+     * number whose most significant digit is the first element. Overridden for sets.
+     *
+     * @param length   the length of the object
+     * @param numInner the number of distinct InnerType objects
+     * @param index    the index of the object among those of that length
+     * @return the indices of the object's elements
+     */
+    protected long[] unrankOfLength(int length, long numInner, long index) {
+        long[] digits = new long[length];
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = index % numInner;
+            index /= numInner;
+        }
+        return digits;
+    }
+
     /**
      * Helper function for generating one random InnerType object.
      *
+     * @param rng the RNG to draw from
      * @return a randomly-generated object of type InnerType
      */
-    protected InnerType genRandInnerVal() {
-        return this.leftChild.genRandVal();
+    protected InnerType genRandInnerVal(RandomGenerator rng) {
+        return this.leftChild.genRandVal(rng);
     }
 
     /**
@@ -2,6 +2,7 @@ package main.rice.node;
 
 import main.rice.obj.APyObj;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * An abstract class whose instances represent templates for creating Python objects. Each
@@ -82,6 +83,53 @@ public abstract class APyNode<ObjType extends APyObj<?>> {
         return this.ranDomain;
     }
 
+    /**
+     * Returns whether this node generates the same exhaustive values as another, judging
+     * from the types of the nodes and their exhaustive domains alone, so that no values
+     * need to be generated to find out.
+     *
+     * @param other the other node
+     * @return true if both trees have the same shape and every pair of corresponding
+     * nodes has the same exhaustive domain (in any order); false otherwise
+     */
+    public boolean hasSameExDomain(APyNode<?> other) {
+        if (other == null || other.getClass() != this.getClass()
+                || !domainValues(this.exDomain).equals(domainValues(other.exDomain))) {
+            return false;
+        }
+        return sameExDomain(this.getLeftChild(), other.getLeftChild())
+                && sameExDomain(this.getRightChild(), other.getRightChild());
+    }
+
+    /**
+     * Helper for hasSameExDomain(); compares two children, either of which may be
+     * missing.
+     *
+     * @param first  a child node, or null
+     * @param second another child node, or null
+     * @return true if both are missing, or both have the same exhaustive domain
+     */
+    private static boolean sameExDomain(APyNode<?> first, APyNode<?> second) {
+        return first == null ? second == null : first.hasSameExDomain(second);
+    }
+
+    /**
+     * Helper for hasSameExDomain(); collects the values of a domain, so that integer and
+     * floating-point spellings of the same number agree.
+     *
+     * @param domain the domain, or null
+     * @return the set of values in the domain, as doubles
+     */
+    private static Set<Double> domainValues(List<? extends Number> domain) {
+        Set<Double> values = new HashSet<>();
+        if (domain != null) {
+            for (Number value : domain) {
+                values.add(value.doubleValue());
+            }
+        }
+        return values;
+    }
+
     /**
      * Generates all valid PyObjs of type ObjType within the exhaustive domain.
      *
@@ -94,18 +142,168 @@ public abstract class APyNode<ObjType extends APyObj<?>> {
      *
      * @return a single PyObj of type ObjType selected from the random domain
      */
-    public abstract ObjType genRandVal();
+    public ObjType genRandVal() {
+        return this.genRandVal(this.rand);
+    }
+
+    /**
+     * Generates a single valid PyObj of type ObjType within the random domain, drawing
+     * every choice from the given RNG rather than this node's own. Since the node itself
+     * is not modified, distinct threads may generate concurrently from distinct RNGs.
+     *
+     * @param rng the RNG to draw from
+     * @return a single PyObj of type ObjType selected from the random domain
+     */
+    public abstract ObjType genRandVal(RandomGenerator rng);
+
+    /**
+     * Counts the distinct PyObjs that genRandVal() can produce, without generating them.
+     *
+     * @return the size of the random space, or Long.MAX_VALUE if it is at least that
+     * large
+     */
+    public abstract long countRanVals();
+
+    /**
+     * Generates the PyObj at the given index of the random space, without generating any
+     * of the others; each index in [0, countRanVals()) yields a distinct PyObj. Only
+     * meaningful when countRanVals() is less than Long.MAX_VALUE.
+     *
+     * @param index the index of the PyObj within the random space
+     * @return the PyObj of type ObjType at that index
+     */
+    public abstract ObjType genRanValAt(long index);
 
     /**
      * Makes a random choice from the random domain.
      *
+     * @param rng the RNG to draw from
      * @return a random element from the random domain
      */
-    protected Number ranDomainChoice() {
-        int choice = this.rand.nextInt(this.ranDomain.size());
+    protected Number ranDomainChoice(RandomGenerator rng) {
+        int choice = rng.nextInt(this.ranDomain.size());
         return this.ranDomain.get(choice);
     }
 
+    /**
+     * Returns the distinct lengths in the random domain, in ascending order.
+     *
+     * @return the distinct lengths in the random domain
+     */
+    protected List<Integer> ranDomainLengths() {
+        Set<Integer> lengths = new TreeSet<>();
+        for (Number length : this.ranDomain) {
+            lengths.add(length.intValue());
+        }
+        return new ArrayList<>(lengths);
+    }
+
+    /**
+     * Multiplies two non-negative counts, saturating at Long.MAX_VALUE.
+     *
+     * @param a the first count
+     * @param b the second count
+     * @return a * b, or Long.MAX_VALUE if that overflows
+     */
+    protected static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long product = a * b;
+        return (high != 0 || product < 0) ? Long.MAX_VALUE : product;
+    }
+
+    /**
+     * Adds two non-negative counts, saturating at Long.MAX_VALUE.
+     *
+     * @param a the first count
+     * @param b the second count
+     * @return a + b, or Long.MAX_VALUE if that overflows
+     */
+    protected static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * Raises a non-negative count to a power, saturating at Long.MAX_VALUE.
+     *
+     * @param base     the count
+     * @param exponent the power
+     * @return base ^ exponent, or Long.MAX_VALUE if that overflows
+     */
+    protected static long saturatedPow(long base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result = saturatedMultiply(result, base);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the binomial coefficient C(n, k), saturating at Long.MAX_VALUE.
+     *
+     * @param n the number of items to choose from
+     * @param k the number of items chosen
+     * @return the number of k-element subsets of n items; 0 if k > n
+     */
+    protected static long choose(long n, int k) {
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        k = (int) Math.min(k, n - k);
+        long result = 1;
+        for (int i = 0; i < k; i++) {
+            // result * (n - i) is always divisible by (i + 1); divide by the gcd first to
+            // put off overflow
+            long numerator = n - i;
+            long gcd = gcd(result, i + 1);
+            long product = saturatedMultiply(result / gcd, numerator / ((i + 1) / gcd));
+            if (product == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            result = product;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the k-element subset of {0, ..., n - 1} at the given index, in
+     * lexicographic order of the subsets.
+     *
+     * @param n     the number of items to choose from
+     * @param k     the number of items chosen
+     * @param index the index of the subset, in [0, C(n, k))
+     * @return the elements of the subset, in ascending order
+     */
+    protected static long[] unrankSubset(long n, int k, long index) {
+        long[] subset = new long[k];
+        long next = 0;
+        for (int i = 0; i < k; i++) {
+            // Skip past every subset whose i-th element is smaller than the one we want
+            while (true) {
+                long count = choose(n - next - 1, k - i - 1);
+                if (index < count) {
+                    break;
+                }
+                index -= count;
+                next++;
+            }
+            subset[i] = next;
+            next++;
+        }
+        return subset;
+    }
+
+    /**
+     * Helper for choose(); computes the greatest common divisor.
+     *
+     * @param a a positive number
+     * @param b a positive number
+     * @return the greatest common divisor of a and b
+     */
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
     /**
      * Returns true if the exDomain is contiguous starting from 0; false otherwise.
      *
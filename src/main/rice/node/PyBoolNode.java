@@ -2,8 +2,12 @@ package main.rice.node;
 
 import main.rice.obj.PyBoolObj;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.random.RandomGenerator;
 
 /**
  * A representation of a leaf node for generating PyBoolObjs. Assumes that the domains
@@ -28,9 +32,44 @@ public class PyBoolNode extends APyNode<PyBoolObj> {
     /**
      * Generates a single valid PyBoolObj within the random domain.
      *
+     * @param rng the RNG to draw from
      * @return a single PyBoolObj selected from the random domain
      */
-    public PyBoolObj genRandVal() {
-        return new PyBoolObj(this.ranDomainChoice().intValue() > 0);
+    public PyBoolObj genRandVal(RandomGenerator rng) {
+        return new PyBoolObj(this.ranDomainChoice(rng).intValue() > 0);
+    }
+
+    /**
+     * Counts the distinct PyBoolObjs that genRandVal() can produce.
+     *
+     * @return the number of distinct values in the random domain
+     */
+    public long countRanVals() {
+        return this.distinctRanVals().size();
+    }
+
+    /**
+     * Generates the PyBoolObj at the given index of the random space, where the distinct
+     * values of the random domain are indexed in the order they first appear.
+     *
+     * @param index the index of the PyBoolObj, in [0, countRanVals())
+     * @return the PyBoolObj at that index
+     */
+    public PyBoolObj genRanValAt(long index) {
+        return this.distinctRanVals().get((int) index);
+    }
+
+    /**
+     * Helper for countRanVals() and genRanValAt(); lists the distinct values of the random
+     * domain, in the order they first appear.
+     *
+     * @return the distinct values of the random domain
+     */
+    private List<PyBoolObj> distinctRanVals() {
+        Set<PyBoolObj> vals = new LinkedHashSet<>();
+        for (Number value : this.ranDomain) {
+            vals.add(new PyBoolObj((value.intValue() > 0)));
+        }
+        return new ArrayList<>(vals);
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package main.rice.node;
 import main.rice.obj.APyObj;
 import main.rice.obj.PyDictObj;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * A representation of a node for generating PyDictObjs.
@@ -82,24 +83,74 @@ public class PyDictNode<KeyType extends APyObj<?>, ValType extends APyObj<?>>
      * selecting the size, n (number of (key, value) pairs), and then randomly selects
      * valid (key, value) pairs until there are n unique (key, value) pairs.
      *
+     * @param rng the RNG to draw from
      * @return a single PyDictObj selected from the random domain
      */
-    public PyDictObj<KeyType, ValType> genRandVal() {
+    public PyDictObj<KeyType, ValType> genRandVal(RandomGenerator rng) {
         // Randomly select the size, n
-        int size = this.ranDomainChoice().intValue();
+        int size = this.ranDomainChoice(rng).intValue();
 
         // Randomly select n (key, value) pairs; make sure to continuously monitor the
         // size, as we could generate the same key twice resulting in the size not
         // increasing from one iteration to the next
         Map<KeyType, ValType> map = new HashMap<>();
         while (map.size() < size) {
-            KeyType key = this.leftChild.genRandVal();
-            ValType val = this.rightChild.genRandVal();
+            KeyType key = this.leftChild.genRandVal(rng);
+            ValType val = this.rightChild.genRandVal(rng);
             map.put(key, val);
         }
         return new PyDictObj<>(map);
     }
 
+    /**
+     * Counts the distinct PyDictObjs that genRandVal() can produce: for each size L in
+     * the random domain, there are C(K, L) sets of keys and V^L assignments of values,
+     * where K and V are the numbers of distinct keys and values.
+     *
+     * @return the size of the random space, or Long.MAX_VALUE if it is at least that
+     * large
+     */
+    public long countRanVals() {
+        long numKeys = this.leftChild.countRanVals();
+        long numVals = this.rightChild.countRanVals();
+        long count = 0;
+        for (int size : this.ranDomainLengths()) {
+            count = saturatedAdd(count,
+                    saturatedMultiply(choose(numKeys, size), saturatedPow(numVals, size)));
+        }
+        return count;
+    }
+
+    /**
+     * Generates the PyDictObj at the given index of the random space. Dicts are ordered
+     * by size, then by their set of keys, and then by the values assigned to those keys.
+     *
+     * @param index the index of the PyDictObj, in [0, countRanVals())
+     * @return the PyDictObj at that index
+     */
+    public PyDictObj<KeyType, ValType> genRanValAt(long index) {
+        long numKeys = this.leftChild.countRanVals();
+        long numVals = this.rightChild.countRanVals();
+        for (int size : this.ranDomainLengths()) {
+            long numAssignments = saturatedPow(numVals, size);
+            long count = saturatedMultiply(choose(numKeys, size), numAssignments);
+            if (index < count) {
+                long[] keys = unrankSubset(numKeys, size, index / numAssignments);
+                long valIndex = index % numAssignments;
+                Map<KeyType, ValType> map = new HashMap<>();
+                for (int i = size - 1; i >= 0; i--) {
+                    map.put(this.leftChild.genRanValAt(keys[i]),
+                            this.rightChild.genRanValAt(valIndex % numVals));
+                    valIndex /= numVals;
+                }
+                return new PyDictObj<>(map);
+            }
+            index -= count;
+        }
+        throw new IndexOutOfBoundsException("Index out of bounds for random space of size "
+                + this.countRanVals());
+    }
+
     /**
      * Generate all permutations of sets of (key, value) pairs where key is an element of
      * keyVals and value is an element of valVals, of size up to and including the input
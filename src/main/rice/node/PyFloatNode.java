@@ -2,8 +2,12 @@ package main.rice.node;
 
 import main.rice.obj.PyFloatObj;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.random.RandomGenerator;
 
 /**
  * A representation of a leaf node for generating PyFloatObjs.
@@ -26,9 +30,44 @@ public class PyFloatNode extends APyNode<PyFloatObj> {
     /**
      * Generates a single valid PyFloatObj within the random domain.
      *
+     * @param rng the RNG to draw from
      * @return a single PyFloatObj selected from the random domain
      */
-    public PyFloatObj genRandVal() {
-        return new PyFloatObj(this.ranDomainChoice().doubleValue());
+    public PyFloatObj genRandVal(RandomGenerator rng) {
+        return new PyFloatObj(this.ranDomainChoice(rng).doubleValue());
+    }
+
+    /**
+     * Counts the distinct PyFloatObjs that genRandVal() can produce.
+     *
+     * @return the number of distinct values in the random domain
+     */
+    public long countRanVals() {
+        return this.distinctRanVals().size();
+    }
+
+    /**
+     * Generates the PyFloatObj at the given index of the random space, where the distinct
+     * values of the random domain are indexed in the order they first appear.
+     *
+     * @param index the index of the PyFloatObj, in [0, countRanVals())
+     * @return the PyFloatObj at that index
+     */
+    public PyFloatObj genRanValAt(long index) {
+        return this.distinctRanVals().get((int) index);
+    }
+
+    /**
+     * Helper for countRanVals() and genRanValAt(); lists the distinct values of the random
+     * domain, in the order they first appear.
+     *
+     * @return the distinct values of the random domain
+     */
+    private List<PyFloatObj> distinctRanVals() {
+        Set<PyFloatObj> vals = new LinkedHashSet<>();
+        for (Number value : this.ranDomain) {
+            vals.add(new PyFloatObj(value.doubleValue()));
+        }
+        return new ArrayList<>(vals);
     }
 }
\ No newline at end of file
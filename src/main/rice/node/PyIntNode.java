@@ -2,8 +2,12 @@ package main.rice.node;
 
 import main.rice.obj.PyIntObj;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.random.RandomGenerator;
 
 /**
  * A representation of a leaf node for generating PyIntObjs.
@@ -26,9 +30,44 @@ public class PyIntNode extends APyNode<PyIntObj> {
     /**
      * Generates a single valid PyIntObj within the random domain.
      *
+     * @param rng the RNG to draw from
      * @return a single PyIntObj selected from the random domain
      */
-    public PyIntObj genRandVal() {
-        return new PyIntObj(this.ranDomainChoice().intValue());
+    public PyIntObj genRandVal(RandomGenerator rng) {
+        return new PyIntObj(this.ranDomainChoice(rng).intValue());
+    }
+
+    /**
+     * Counts the distinct PyIntObjs that genRandVal() can produce.
+     *
+     * @return the number of distinct values in the random domain
+     */
+    public long countRanVals() {
+        return this.distinctRanVals().size();
+    }
+
+    /**
+     * Generates the PyIntObj at the given index of the random space, where the distinct
+     * values of the random domain are indexed in the order they first appear.
+     *
+     * @param index the index of the PyIntObj, in [0, countRanVals())
+     * @return the PyIntObj at that index
+     */
+    public PyIntObj genRanValAt(long index) {
+        return this.distinctRanVals().get((int) index);
+    }
+
+    /**
+     * Helper for countRanVals() and genRanValAt(); lists the distinct values of the random
+     * domain, in the order they first appear.
+     *
+     * @return the distinct values of the random domain
+     */
+    private List<PyIntObj> distinctRanVals() {
+        Set<PyIntObj> vals = new LinkedHashSet<>();
+        for (Number value : this.ranDomain) {
+            vals.add(new PyIntObj(value.intValue()));
+        }
+        return new ArrayList<>(vals);
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package main.rice.node;
 import main.rice.obj.APyObj;
 import main.rice.obj.PySetObj;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * A representation of a node for generating PySetObjs.
@@ -27,24 +28,52 @@ public class PySetNode<InnerType extends APyObj<?>> extends AIterablePyNode<
      * generating a valid length (as constrained by the random domain), and then randomly
      * generates valid elements. Overridden to disallow duplicates.
      *
+     * @param rng the RNG to draw from
      * @return a single PySetObj selected from the random domain
      */
-    public PySetObj<InnerType> genRandVal() {
+    public PySetObj<InnerType> genRandVal(RandomGenerator rng) {
         // Randomly select the size, n
-        int length = this.ranDomainChoice().intValue();
+        int length = this.ranDomainChoice(rng).intValue();
 
         // Randomly select n elements; make sure to continuously monitor the size, as we
         // could generate the same element twice resulting in the size not increasing
         // from one iteration to the next
         Set<InnerType> set = new HashSet<>();
         while (set.size() < length) {
-            InnerType childVal = this.leftChild.genRandVal();
+            InnerType childVal = this.leftChild.genRandVal(rng);
             set.add(childVal);
         }
 
         return new PySetObj<>(set);
     }
 
+    /**
+     * Helper function for countRanVals(); sets of a given length have distinct
+     * elements, so there are C(numInner, length) of them.
+     *
+     * @param length   the length of the sets
+     * @param numInner the number of distinct InnerType objects
+     * @return the number of distinct sets of that length
+     */
+    @Override
+    protected long countRanValsOfLength(int length, long numInner) {
+        return choose(numInner, length);
+    }
+
+    /**
+     * Helper function for genRanValAt(); decodes the indices of the elements of the set
+     * at the given index, in lexicographic order of the sets of that length.
+     *
+     * @param length   the length of the set
+     * @param numInner the number of distinct InnerType objects
+     * @param index    the index of the set among those of that length
+     * @return the indices of the set's elements, in ascending order
+     */
+    @Override
+    protected long[] unrankOfLength(int length, long numInner, long index) {
+        return unrankSubset(numInner, length, index);
+    }
+
     /**
      * Helper function for generating a PyListObj.
      *
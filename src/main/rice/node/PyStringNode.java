@@ -3,6 +3,7 @@ package main.rice.node;
 import main.rice.obj.PyCharObj;
 import main.rice.obj.PyStringObj;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * A representation of a node for generating PyStringObjs.
@@ -26,6 +27,29 @@ public class PyStringNode extends AIterablePyNode<PyStringObj, PyCharObj> {
         }
     }
 
+    /**
+     * Returns the characters from which valid strings can be constructed.
+     *
+     * @return the character domain
+     */
+    public List<PyCharObj> getCharDomain() {
+        return this.charDomain;
+    }
+
+    /**
+     * Returns whether this node generates the same exhaustive strings as another, which
+     * also requires the same characters.
+     *
+     * @param other the other node
+     * @return true if both nodes have the same character and exhaustive domains; false
+     * otherwise
+     */
+    @Override
+    public boolean hasSameExDomain(APyNode<?> other) {
+        return super.hasSameExDomain(other) && new HashSet<>(this.charDomain).equals(
+                new HashSet<>(((PyStringNode) other).charDomain));
+    }
+
     /**
      * Generates all valid PyStringObjs within the exhaustive domain; begins by generating
      * all valid characters, and then finds all permutations of them of valid length (as
@@ -47,13 +71,36 @@ public class PyStringNode extends AIterablePyNode<PyStringObj, PyCharObj> {
         return new PyStringObj(innerVals);
     }
 
+    /**
+     * Helper function for counting the random PyCharObj objects.
+     *
+     * @return the number of characters in this.charDomain
+     */
+    @Override
+    protected long countRanInnerVals() {
+        return this.charDomain.size();
+    }
+
+    /**
+     * Helper function for generating the PyCharObj at the given index of
+     * this.charDomain.
+     *
+     * @param index the index of the character
+     * @return the PyCharObj at that index
+     */
+    @Override
+    protected PyCharObj genRanInnerValAt(long index) {
+        return this.charDomain.get((int) index);
+    }
+
     /**
      * Helper function for generating one random PyCharObj object.
      *
+     * @param rng the RNG to draw from
      * @return a randomly-generated object of type PyCharObj from this.charDomain
      */
-    protected PyCharObj genRandInnerVal() {
-        int choice = this.rand.nextInt(this.charDomain.size());
+    protected PyCharObj genRandInnerVal(RandomGenerator rng) {
+        int choice = rng.nextInt(this.charDomain.size());
         return this.charDomain.get(choice);
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package main.rice.obj;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * An abstract class whose instances represent specific Python objects.
@@ -49,4 +52,88 @@ public abstract class APyObj<JavaType> {
     public int hashCode() {
         return this.value.hashCode();
     }
+
+    /**
+     * Computes a 64-bit fingerprint of this object's value by streaming over its tree,
+     * such that two objects that are considered equal by .equals() will also have the
+     * same fingerprint. Unlike hashCode(), distinct objects are very unlikely to collide,
+     * so the fingerprint may stand in for the object when deduplicating. The fingerprints
+     * of sets and dicts do not depend on iteration order.
+     *
+     * @return the fingerprint of this object
+     */
+    public long fingerprint() {
+        return fingerprint(this.value);
+    }
+
+    /**
+     * Mixes a 64-bit value so that every input bit affects every output bit (the
+     * finalizer of MurmurHash3).
+     *
+     * @param h the value to be mixed
+     * @return the mixed value
+     */
+    public static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Helper for fingerprint(); fingerprints a sequence by folding each element into a
+     * running hash. Lists, tuples and strings all hold a sequence of elements, so each
+     * passes its own salt to tell them apart.
+     *
+     * @param salt  the tag of the kind of sequence
+     * @param elems the elements, in order
+     * @return the fingerprint of the sequence
+     */
+    protected static long fingerprintSequence(long salt, Collection<?> elems) {
+        long h = salt ^ elems.size();
+        for (Object elem : elems) {
+            h = mix(h * 31 + fingerprint(elem));
+        }
+        return h;
+    }
+
+    /**
+     * Helper for fingerprint(); fingerprints an internal representation. Each kind of
+     * value is salted with its own tag, so that e.g. 1 and True differ, just as they do
+     * under .equals().
+     *
+     * @param value the internal representation of an object, or one of its elements
+     * @return the fingerprint of the value
+     */
+    private static long fingerprint(Object value) {
+        if (value instanceof APyObj<?> obj) {
+            return obj.fingerprint();
+        } else if (value instanceof Integer i) {
+            return mix(0x1000000000000001L ^ i);
+        } else if (value instanceof Double d) {
+            return mix(0x2000000000000002L ^ Double.doubleToLongBits(d));
+        } else if (value instanceof Boolean b) {
+            return mix(b ? 0x3000000000000003L : 0x3000000000000004L);
+        } else if (value instanceof Character c) {
+            return mix(0x4000000000000005L ^ c);
+        } else if (value instanceof List<?> list) {
+            return fingerprintSequence(0x5000000000000006L, list);
+        } else if (value instanceof Set<?> set) {
+            // Unordered: combine the mixed element fingerprints commutatively
+            long sum = 0;
+            for (Object elem : set) {
+                sum += mix(fingerprint(elem));
+            }
+            return mix(0x6000000000000007L ^ set.size() ^ mix(sum));
+        } else if (value instanceof Map<?, ?> map) {
+            long sum = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                sum += mix(fingerprint(entry.getKey()) * 31 + fingerprint(entry.getValue()));
+            }
+            return mix(0x7000000000000008L ^ map.size() ^ mix(sum));
+        }
+        return mix(value.hashCode());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package main.rice.obj;
+
+import java.util.*;
+
+/**
+ * Fingerprints Python objects under Python's own equality rather than that of .equals().
+ * In Python, True == 1 == 1.0 and -0.0 == 0.0, all of which hash the same, so a set
+ * literal such as {1, True} holds a single member and a dict literal such as
+ * {1: 'a', True: 'b'} holds a single entry (the first key with the last value). Each
+ * object is fingerprinted as its canonical form: bools, ints and floats as the number
+ * they denote; sets by their distinct members; and dicts by their distinct keys, each
+ * with the last value written for it. Two objects Python cannot tell apart with == get
+ * the same fingerprint, and distinct objects are very unlikely to collide.
+ */
+public class PyEquality {
+
+    /**
+     * Computes the Python-semantics fingerprint of an object.
+     *
+     * @param obj the object
+     * @return the fingerprint of its canonical form
+     */
+    public static long fingerprint(APyObj<?> obj) {
+        if (obj instanceof PyBoolObj boolObj) {
+            return fingerprintNumber(boolObj.getValue() ? 1 : 0);
+        } else if (obj instanceof PyIntObj intObj) {
+            return fingerprintNumber(intObj.getValue());
+        } else if (obj instanceof PyFloatObj floatObj) {
+            return fingerprintNumber(floatObj.getValue());
+        } else if (obj instanceof PyCharObj charObj) {
+            // A character is passed to Python as a string of length one
+            return fingerprintOrdered(0x4000000000000005L, List.of(charObj));
+        } else if (obj instanceof PyStringObj stringObj) {
+            return fingerprintOrdered(0x4000000000000005L, stringObj.getValue());
+        } else if (obj instanceof PyListObj<?> listObj) {
+            return fingerprintOrdered(0x5000000000000006L, listObj.getValue());
+        } else if (obj instanceof PyTupleObj<?> tupleObj) {
+            return fingerprintOrdered(0x8000000000000009L, tupleObj.getValue());
+        } else if (obj instanceof PySetObj<?> setObj) {
+            // Members Python considers equal collapse into one
+            Set<Long> members = new HashSet<>();
+            for (APyObj<?> elem : setObj.getValue()) {
+                members.add(fingerprint(elem));
+            }
+            long sum = 0;
+            for (long member : members) {
+                sum += APyObj.mix(member);
+            }
+            return APyObj.mix(0x6000000000000007L ^ members.size() ^ APyObj.mix(sum));
+        } else if (obj instanceof PyDictObj<?, ?> dictObj) {
+            // Keys Python considers equal collapse into one, keeping the last value
+            Map<Long, Long> entries = new HashMap<>();
+            for (Map.Entry<?, ?> entry : dictObj.getValue().entrySet()) {
+                entries.put(fingerprint((APyObj<?>) entry.getKey()),
+                        fingerprint((APyObj<?>) entry.getValue()));
+            }
+            long sum = 0;
+            for (Map.Entry<Long, Long> entry : entries.entrySet()) {
+                sum += APyObj.mix(entry.getKey() * 31 + entry.getValue());
+            }
+            return APyObj.mix(0x7000000000000008L ^ entries.size() ^ APyObj.mix(sum));
+        }
+        throw new IllegalArgumentException("Cannot fingerprint object of type "
+                + obj.getClass().getSimpleName());
+    }
+
+    /**
+     * Computes the Python-semantics fingerprint of a list of arguments, in order.
+     *
+     * @param args the arguments
+     * @return the fingerprint of their canonical forms
+     */
+    public static long fingerprint(List<? extends APyObj<?>> args) {
+        long h = args.size();
+        for (APyObj<?> arg : args) {
+            h = APyObj.mix(h * 31 + fingerprint(arg));
+        }
+        return h;
+    }
+
+    /**
+     * Returns whether Python would consider two objects equal, by comparing their
+     * fingerprints.
+     *
+     * @param first  an object
+     * @param second another object
+     * @return true if the objects have the same canonical form
+     */
+    public static boolean equal(APyObj<?> first, APyObj<?> second) {
+        return fingerprint(first) == fingerprint(second);
+    }
+
+    /**
+     * Helper for fingerprint(); fingerprints a number by the value it denotes, so that
+     * True, 1 and 1.0 agree. Every int is exactly representable as a double.
+     *
+     * @param value the number
+     * @return the fingerprint of the number
+     */
+    private static long fingerprintNumber(double value) {
+        // -0.0 == 0.0 in Python, but not bit for bit
+        double canonical = value == 0 ? 0.0 : value;
+        return APyObj.mix(0x1000000000000001L ^ Double.doubleToLongBits(canonical));
+    }
+
+    /**
+     * Helper for fingerprint(); fingerprints a sequence by folding each element into a
+     * running hash.
+     *
+     * @param salt  distinguishes the kind of sequence
+     * @param elems the elements, in order
+     * @return the fingerprint of the sequence
+     */
+    private static long fingerprintOrdered(long salt, Collection<? extends APyObj<?>> elems) {
+        long h = salt ^ elems.size();
+        for (APyObj<?> elem : elems) {
+            h = APyObj.mix(h * 31 + (elem instanceof PyCharObj charObj
+                    ? charObj.getValue() : fingerprint(elem)));
+        }
+        return h;
+    }
+}
@@ -49,6 +49,17 @@ public class PyStringObj extends AIterablePyObj<PyCharObj> {
         return "'" + sb + "'";
     }
 
+    /**
+     * Computes the fingerprint of this string, salted with its own tag so that it differs
+     * from that of a list of characters with the same elements, just as under .equals().
+     *
+     * @return the fingerprint of this object
+     */
+    @Override
+    public long fingerprint() {
+        return fingerprintSequence(0x900000000000000AL, this.value);
+    }
+
     /**
      * Compares this to the input object by value; a wrapper around the implementation
      * in the superclass (APyObj) that first checks that obj is a PyStringObj.
@@ -43,6 +43,17 @@ public class PyTupleObj<InnerType extends APyObj<?>> extends AIterablePyObj<Inne
         return repr.toString();
     }
 
+    /**
+     * Computes the fingerprint of this tuple, salted with its own tag so that it differs
+     * from that of a list with the same elements, just as under .equals().
+     *
+     * @return the fingerprint of this object
+     */
+    @Override
+    public long fingerprint() {
+        return fingerprintSequence(0x8000000000000009L, this.value);
+    }
+
     /**
      * Compares this to the input object by value; a wrapper around the implementation
      * in the superclass (APyObj) that first checks that obj is a PyTupleObj.
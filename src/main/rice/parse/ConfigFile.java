@@ -1,5 +1,6 @@
 package main.rice.parse;
 
+import main.rice.basegen.ArgConstraint;
 import main.rice.node.APyNode;
 
 import java.util.List;
@@ -21,15 +22,51 @@ public class ConfigFile {
     private int numRand;
 
     /**
-     * The constructor for a ConfigFile object.
+     * A List of constraints that every generated TestCase must satisfy.
+     */
+    private List<ArgConstraint> constraints;
+
+    /**
+     * A List of groups of interchangeable parameters, each a list of parameter indices.
+     */
+    private List<List<Integer>> symmetricGroups;
+
+    /**
+     * The constructor for a ConfigFile object without constraints.
      * @param funcName, a string representing the name of the function under test.
      * @param nodes, a list of PyNodes to generate testcases.
      * @param numRand, an integer of random test cases to be generated.
      */
     public ConfigFile(String funcName, List<APyNode<?>> nodes, int numRand) {
+        this(funcName, nodes, numRand, List.of());
+    }
+
+    /**
+     * The constructor for a ConfigFile object.
+     * @param funcName, a string representing the name of the function under test.
+     * @param nodes, a list of PyNodes to generate testcases.
+     * @param numRand, an integer of random test cases to be generated.
+     * @param constraints, a list of constraints that every generated testcase must satisfy.
+     */
+    public ConfigFile(String funcName, List<APyNode<?>> nodes, int numRand, List<ArgConstraint> constraints) {
+        this(funcName, nodes, numRand, constraints, List.of());
+    }
+
+    /**
+     * The constructor for a ConfigFile object.
+     * @param funcName, a string representing the name of the function under test.
+     * @param nodes, a list of PyNodes to generate testcases.
+     * @param numRand, an integer of random test cases to be generated.
+     * @param constraints, a list of constraints that every generated testcase must satisfy.
+     * @param symmetricGroups, a list of groups of interchangeable parameters.
+     */
+    public ConfigFile(String funcName, List<APyNode<?>> nodes, int numRand, List<ArgConstraint> constraints,
+                      List<List<Integer>> symmetricGroups) {
         this.funcName = funcName;
         this.nodes = nodes;
         this.numRand = numRand;
+        this.constraints = constraints;
+        this.symmetricGroups = symmetricGroups;
     }
 
     /**
@@ -55,4 +92,20 @@ public class ConfigFile {
     public int getNumRand() {
         return this.numRand;
     }
+
+    /**
+     * Getter method for constraints field.
+     * @return a list of constraints that every generated testcase must satisfy.
+     */
+    public List<ArgConstraint> getConstraints() {
+        return this.constraints;
+    }
+
+    /**
+     * Getter method for symmetricGroups field.
+     * @return a list of groups of interchangeable parameters, each a list of parameter indices.
+     */
+    public List<List<Integer>> getSymmetricGroups() {
+        return this.symmetricGroups;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package main.rice.parse;
 
+import main.rice.basegen.ArgConstraint;
+import main.rice.monitor.ParseEvent;
 import main.rice.node.*;
 import main.rice.obj.APyObj;
 
@@ -7,8 +9,21 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class ConfigFileParser {
+    /**
+     * Regular expression for one side of a constraint: argN, len(argN), or a number.
+     */
+    private static final String OPERAND = "(arg[0-9]+|len\\( *arg[0-9]+ *\\)|-?[0-9]+(?:\\.[0-9]+)?)";
+
+    /**
+     * Regular expression for a whole constraint, e.g. "arg0 <= arg1" or "len(arg2) == arg0".
+     */
+    private static final Pattern CONSTRAINT = Pattern.compile(
+            " *" + OPERAND + " *(<=|>=|==|!=|<|>) *" + OPERAND + " *");
+
     /**
      * Reads and returns the contents of the file located at the input filepath;
      * throws an IOException if the file does not exist or cannot be read.
@@ -37,6 +52,26 @@ public class ConfigFileParser {
      * @throws InvalidConfigException when there are invalid parameters inside the file.
      */
     public static ConfigFile parse(String contents) throws InvalidConfigException {
+        // Record the parse as a flight recorder event, whether or not it succeeds.
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        try {
+            ConfigFile configFile = parseConfig(contents);
+            event.funcName = configFile.getFuncName();
+            event.numParams = configFile.getNodes().size();
+            return configFile;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Helper function for parse, which does the actual parsing.
+     * @param contents, a string representing the content of the config file.
+     * @return a ConfigFile object that contains the information given by the file.
+     * @throws InvalidConfigException when there are invalid parameters inside the file.
+     */
+    private static ConfigFile parseConfig(String contents) throws InvalidConfigException {
         // Call createMap helper function to create a map from JSON key to value.
         Map<String, String> contentMap = createMap(contents);
         // Check if there's missing key in the config file, if yes, throw an exception.
@@ -69,7 +104,142 @@ public class ConfigFileParser {
             // Call parseHelper here to compute each node; the most important part of parser.
             nodes.add(parseHelper(types[i], exDomain[i], ranDomain[i]));
         }
-        return new ConfigFile(funcName, nodes, numRand);
+
+        // Constraints are optional; an absent or empty list means every testcase is valid.
+        List<ArgConstraint> constraints = new ArrayList<>();
+        String cons = contentMap.get("constraints");
+        if (cons != null) {
+            if (!cons.startsWith("[") || !cons.endsWith("]")) {
+                throw new InvalidConfigException("Invalid constraints.");
+            }
+            cons = cons.substring(1, cons.length() - 1).strip();
+            if (!cons.isEmpty()) {
+                if (!cons.startsWith("\"") || !cons.endsWith("\"")) {
+                    throw new InvalidConfigException("Invalid constraints.");
+                }
+                for (String constraint : cons.substring(1, cons.length() - 1).split("\", \"")) {
+                    constraints.add(parseConstraint(constraint, nodes));
+                }
+            }
+        }
+
+        // Symmetric groups are optional too; an absent or empty list means no parameters are interchangeable.
+        List<List<Integer>> symmetricGroups = new ArrayList<>();
+        String sym = contentMap.get("symmetric");
+        if (sym != null) {
+            symmetricGroups = parseSymmetricGroups(sym, nodes);
+        }
+        return new ConfigFile(funcName, nodes, numRand, constraints, symmetricGroups);
+    }
+
+    /**
+     * Helper function to parse the groups of interchangeable parameters, such as [[0, 1], [2, 3, 4]].
+     * @param groups, a string representing the list of groups, each a list of parameter indices.
+     * @param nodes, the list of PyNodes describing the parameters, used to check the groups make sense.
+     * @return a list of groups, each a list of parameter indices.
+     * @throws InvalidConfigException when the groups cannot be parsed, a group has fewer than two parameters, a
+     * parameter does not exist or is in more than one group, or a group mixes parameters with different exhaustive
+     * domains.
+     */
+    public static List<List<Integer>> parseSymmetricGroups(String groups, List<APyNode<?>> nodes)
+            throws InvalidConfigException {
+        String group = "\\[[0-9]+(, *[0-9]+)*\\]";
+        if (!groups.matches("\\[ *(" + group + "(, *" + group + ")*)? *\\]")) {
+            throw new InvalidConfigException("Invalid symmetric groups.");
+        }
+        List<List<Integer>> result = new ArrayList<>();
+        Set<Integer> grouped = new HashSet<>();
+        Matcher matcher = Pattern.compile(group).matcher(groups);
+        while (matcher.find()) {
+            List<Integer> indices = new ArrayList<>();
+            for (String index : matcher.group().replaceAll("[\\[\\] ]", "").split(",")) {
+                int i = Integer.parseInt(index);
+                if (i >= nodes.size() || !grouped.add(i)) { // Missing or already grouped parameter.
+                    throw new InvalidConfigException("Invalid parameter in symmetric group: " + i);
+                }
+                indices.add(i);
+            }
+            if (indices.size() < 2) {
+                throw new InvalidConfigException("Symmetric group needs at least two parameters.");
+            }
+            // Compare the domains themselves, since generating the values may be too costly
+            for (int i : indices) {
+                if (!nodes.get(i).hasSameExDomain(nodes.get(indices.get(0)))) {
+                    throw new InvalidConfigException("Symmetric parameters must have the same exhaustive domain.");
+                }
+            }
+            result.add(indices);
+        }
+        return result;
+    }
+
+    /**
+     * Helper function to compile one constraint, such as "arg0 <= arg1" or "len(arg2) == arg0", into a predicate
+     * over the arguments of a testcase. Each side is a parameter (argN), the length of a parameter (len(argN)), or
+     * a number; the operator is one of <, <=, >, >=, == and !=.
+     * @param constraint, a string representing the constraint to be parsed.
+     * @param nodes, the list of PyNodes describing the parameters, used to check the constraint makes sense.
+     * @return an ArgConstraint object representing the constraint.
+     * @throws InvalidConfigException when the constraint cannot be parsed, refers to a parameter that does not exist,
+     * takes the length of a parameter that has none, or orders parameters that are not numbers.
+     */
+    public static ArgConstraint parseConstraint(String constraint, List<APyNode<?>> nodes)
+            throws InvalidConfigException {
+        Matcher matcher = CONSTRAINT.matcher(constraint);
+        if (!matcher.matches()) {
+            throw new InvalidConfigException("Invalid constraint: " + constraint);
+        }
+        ArgConstraint.Comparison comparison = ArgConstraint.Comparison.fromSymbol(matcher.group(2));
+        ArgConstraint.Operand left = parseOperand(matcher.group(1), nodes);
+        ArgConstraint.Operand right = parseOperand(matcher.group(3), nodes);
+        if (left.getArgIndex() < 0 && right.getArgIndex() < 0) {
+            throw new InvalidConfigException("Constraint refers to no parameter: " + constraint);
+        }
+
+        // Anything but a number can only be compared for equality with another parameter of the same kind.
+        boolean leftNumeric = left.isLength() || left.getArgIndex() < 0 || isNumeric(nodes.get(left.getArgIndex()));
+        boolean rightNumeric = right.isLength() || right.getArgIndex() < 0
+                || isNumeric(nodes.get(right.getArgIndex()));
+        if (leftNumeric != rightNumeric || (!leftNumeric && comparison.isOrdering())) {
+            throw new InvalidConfigException("Cannot compare these parameters: " + constraint);
+        }
+        return new ArgConstraint(left, comparison, right);
+    }
+
+    /**
+     * Helper function for parseConstraint, which parses one side of a constraint.
+     * @param operand, a string representing one side of the constraint.
+     * @param nodes, the list of PyNodes describing the parameters.
+     * @return an Operand object representing that side.
+     * @throws InvalidConfigException when the operand refers to a parameter that does not exist, or takes the
+     * length of a parameter that has none.
+     */
+    private static ArgConstraint.Operand parseOperand(String operand, List<APyNode<?>> nodes)
+            throws InvalidConfigException {
+        if (!operand.contains("arg")) { // A number.
+            return ArgConstraint.Operand.literal(Double.parseDouble(operand));
+        }
+        int index = Integer.parseInt(operand.replaceAll("[^0-9]", ""));
+        if (index >= nodes.size()) {
+            throw new InvalidConfigException("Constraint refers to missing parameter: " + operand);
+        }
+        if (operand.startsWith("len")) {
+            APyNode<?> node = nodes.get(index);
+            if (!(node instanceof AIterablePyNode) && !(node instanceof PyDictNode)) {
+                throw new InvalidConfigException("Parameter has no length: " + operand);
+            }
+            return ArgConstraint.Operand.length(index);
+        }
+        return ArgConstraint.Operand.arg(index);
+    }
+
+    /**
+     * Helper function for parseConstraint, which checks whether a parameter is a number (int, float or bool).
+     * @param node, the PyNode describing the parameter.
+     * @return true if the parameter is a number; false otherwise.
+     */
+    private static boolean isNumeric(APyNode<?> node) {
+        return node instanceof PyIntNode || node instanceof PyFloatNode || node instanceof PyBoolNode;
     }
 
     /**
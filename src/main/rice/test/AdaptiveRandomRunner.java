@@ -0,0 +1,141 @@
+package main.rice.test;
+
+import main.rice.basegen.BaseSetGenerator;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Grows the random part of the base set in rounds instead of generating a fixed number
+ * of random test cases up front. The exhaustive test cases are run first; then each round
+ * generates a batch of new random test cases and runs them on the implementations, and
+ * its yield is the number of implementations it newly caught plus the number of new
+ * failure signatures (distinct sets of implementations caught by a single test case) it
+ * found. Generation stops once several consecutive rounds yield nothing, the random
+ * space is exhausted, or a ceiling on the number of random test cases is reached.
+ */
+public class AdaptiveRandomRunner {
+
+    /**
+     * Runs a batch of test cases on the implementations, from computing the expected
+     * results to collecting the results of testing.
+     */
+    @FunctionalInterface
+    public interface TestRound {
+
+        /**
+         * Runs the given test cases on the implementations.
+         *
+         * @param tests the test cases to be run
+         * @return the results of testing, with files indexed the same way in every round
+         * @throws IOException if a file cannot be accessed
+         * @throws InterruptedException if the process is interrupted
+         */
+        TestResults run(List<TestCase> tests) throws IOException, InterruptedException;
+    }
+
+    /**
+     * The generator of the exhaustive and random test cases.
+     */
+    private final BaseSetGenerator generator;
+
+    /**
+     * The number of random test cases generated in each round.
+     */
+    private final int roundSize;
+
+    /**
+     * The number of consecutive rounds yielding nothing after which generation stops.
+     */
+    private final int patience;
+
+    /**
+     * The maximum total number of random test cases to generate.
+     */
+    private final int maxRandom;
+
+    /**
+     * The yield of each random round of the most recent call to run().
+     */
+    private final List<Integer> roundYields = new ArrayList<>();
+
+    /**
+     * Constructor for an AdaptiveRandomRunner.
+     *
+     * @param generator the generator of the exhaustive and random test cases
+     * @param roundSize the number of random test cases generated in each round
+     * @param patience  the number of consecutive rounds yielding nothing after which
+     *                  generation stops
+     * @param maxRandom the maximum total number of random test cases to generate
+     * @throws IllegalArgumentException if roundSize or patience is not positive, or
+     *                                  maxRandom is negative
+     */
+    public AdaptiveRandomRunner(BaseSetGenerator generator, int roundSize, int patience,
+                                int maxRandom) {
+        if (roundSize < 1 || patience < 1 || maxRandom < 0) {
+            throw new IllegalArgumentException("Invalid adaptive settings: round size "
+                    + roundSize + ", patience " + patience + ", maximum " + maxRandom);
+        }
+        this.generator = generator;
+        this.roundSize = roundSize;
+        this.patience = patience;
+        this.maxRandom = maxRandom;
+    }
+
+    /**
+     * Runs the exhaustive test cases, then rounds of random test cases until discovery
+     * flattens, and returns the combined results.
+     *
+     * @param round the runner of each batch of test cases
+     * @return the results of every test case run, exhaustive ones first
+     * @throws IOException if a file cannot be accessed
+     * @throws InterruptedException if the process is interrupted
+     */
+    public TestResults run(TestRound round) throws IOException, InterruptedException {
+        this.roundYields.clear();
+        Set<TestCase> seen = new HashSet<>(this.generator.genBudgetedExTests());
+        TestResults results = round.run(new ArrayList<>(seen));
+        Set<Integer> caught = new HashSet<>(results.getWrongSet());
+        Set<Set<Integer>> signatures = new HashSet<>(results.getCaseToFiles());
+
+        int numRandom = 0;
+        int idleRounds = 0;
+        while (idleRounds < this.patience && numRandom < this.maxRandom) {
+            Set<TestCase> batch = this.generator.genRandTests(seen,
+                    Math.min(this.roundSize, this.maxRandom - numRandom));
+            if (batch.isEmpty()) {
+                // The random space has been exhausted
+                break;
+            }
+            seen.addAll(batch);
+            numRandom += batch.size();
+
+            TestResults roundResults = round.run(new ArrayList<>(batch));
+            int yield = 0;
+            for (int file : roundResults.getWrongSet()) {
+                if (caught.add(file)) {
+                    yield++;
+                }
+            }
+            for (Set<Integer> signature : roundResults.getCaseToFiles()) {
+                if (!signature.isEmpty() && signatures.add(signature)) {
+                    yield++;
+                }
+            }
+            this.roundYields.add(yield);
+            idleRounds = yield == 0 ? idleRounds + 1 : 0;
+            results = results.merge(roundResults);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the yield of each random round of the most recent call to run().
+     *
+     * @return a list where the i-th element is the number of implementations newly caught
+     * plus the number of new failure signatures found in the i-th random round
+     */
+    public List<Integer> getRoundYields() {
+        return this.roundYields;
+    }
+}
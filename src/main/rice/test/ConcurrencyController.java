@@ -0,0 +1,234 @@
+package main.rice.test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A gate limiting how many test processes a Tester may have running at once. In fixed
+ * mode the limit never changes; in adaptive mode it is tuned AIMD-style while a run is in
+ * progress, based on the measured throughput (completed tests per second) and the system
+ * load average: the limit grows by one worker per measurement window for as long as
+ * throughput keeps improving, and is cut multiplicatively as soon as throughput drops or
+ * the host becomes overloaded.
+ */
+public class ConcurrencyController {
+
+    /**
+     * The minimum length of a measurement window, in milliseconds.
+     */
+    private static final long WINDOW_MILLIS = 1000;
+
+    /**
+     * The factor by which the limit is multiplied on a decrease.
+     */
+    private static final double DECREASE_FACTOR = 0.5;
+
+    /**
+     * The relative change in throughput that is considered noise rather than a real
+     * improvement or regression.
+     */
+    private static final double TOLERANCE = 0.05;
+
+    /**
+     * The load average (per available core) above which the host is considered
+     * overloaded.
+     */
+    private static final double OVERLOAD_PER_CORE = 1.5;
+
+    /**
+     * The smallest number of concurrent workers the limit may drop to.
+     */
+    private final int minWorkers;
+
+    /**
+     * The largest number of concurrent workers the limit may grow to.
+     */
+    private final int maxWorkers;
+
+    /**
+     * True if the limit is tuned while running; false if it is fixed.
+     */
+    private final boolean adaptive;
+
+    /**
+     * The current number of workers allowed to run at once.
+     */
+    private int limit;
+
+    /**
+     * The number of workers currently running.
+     */
+    private int inFlight;
+
+    /**
+     * The number of tests completed within the current measurement window.
+     */
+    private int windowCompleted;
+
+    /**
+     * The start of the current measurement window, in nanoseconds.
+     */
+    private long windowStart = System.nanoTime();
+
+    /**
+     * The throughput measured in the previous window, or a negative number if there is
+     * none yet.
+     */
+    private double prevThroughput = -1;
+
+    /**
+     * True if the previous adjustment raised the limit.
+     */
+    private boolean lastWasIncrease;
+
+    /**
+     * Constructor for a fixed-size ConcurrencyController, which always allows exactly
+     * the given number of workers.
+     *
+     * @param workers the number of workers allowed to run at once
+     */
+    public ConcurrencyController(int workers) {
+        this(workers, workers, false);
+    }
+
+    /**
+     * Constructor for an adaptive ConcurrencyController; the limit starts at minWorkers
+     * and is tuned within [minWorkers, maxWorkers] while running.
+     *
+     * @param minWorkers the smallest number of workers allowed to run at once
+     * @param maxWorkers the largest number of workers allowed to run at once
+     */
+    public ConcurrencyController(int minWorkers, int maxWorkers) {
+        this(minWorkers, maxWorkers, true);
+    }
+
+    /**
+     * Shared constructor; validates and initializes the bounds.
+     *
+     * @param minWorkers the smallest number of workers allowed to run at once
+     * @param maxWorkers the largest number of workers allowed to run at once
+     * @param adaptive   true if the limit should be tuned while running
+     */
+    private ConcurrencyController(int minWorkers, int maxWorkers, boolean adaptive) {
+        if (minWorkers < 1 || maxWorkers < minWorkers) {
+            throw new IllegalArgumentException("invalid worker bounds: " + minWorkers
+                    + ".." + maxWorkers);
+        }
+        this.minWorkers = minWorkers;
+        this.maxWorkers = maxWorkers;
+        this.adaptive = adaptive;
+        this.limit = minWorkers;
+    }
+
+    /**
+     * Returns the largest number of workers that may ever run at once, i.e. the size of
+     * the thread pool needed to honor any limit this controller may pick.
+     *
+     * @return the maximum number of workers
+     */
+    public int getMaxWorkers() {
+        return this.maxWorkers;
+    }
+
+    /**
+     * Returns the current number of workers allowed to run at once.
+     *
+     * @return the current limit
+     */
+    public synchronized int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Returns the throughput measured in the most recent completed window.
+     *
+     * @return the most recent throughput, in tests per second, or a negative number if
+     * no window has completed yet
+     */
+    public synchronized double getThroughput() {
+        return this.prevThroughput;
+    }
+
+    /**
+     * Blocks until the calling worker may start a test, and then claims a slot.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while (this.inFlight >= this.limit) {
+            this.wait();
+        }
+        this.inFlight++;
+    }
+
+    /**
+     * Releases a slot claimed by acquire(), recording one completed test. In adaptive
+     * mode, closes the measurement window and adjusts the limit once the window is long
+     * enough and has seen at least one completion per allowed worker.
+     */
+    public synchronized void release() {
+        this.inFlight--;
+        this.windowCompleted++;
+
+        long now = System.nanoTime();
+        long elapsed = now - this.windowStart;
+        if (this.adaptive && elapsed >= WINDOW_MILLIS * 1_000_000
+                && this.windowCompleted >= this.limit) {
+            double throughput = this.windowCompleted * 1e9 / elapsed;
+            this.recordWindow(throughput, readLoadAverage());
+            this.windowCompleted = 0;
+            this.windowStart = now;
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * The feedback step: adjusts the limit given the throughput and load average
+     * measured over one window. Decreases multiplicatively if the host is overloaded or
+     * the previous increase made throughput worse; holds if the previous increase did
+     * not help; otherwise probes one worker higher.
+     *
+     * @param throughput  the tests completed per second during the window
+     * @param loadAverage the system load average, or a negative number if unknown
+     */
+    public synchronized void recordWindow(double throughput, double loadAverage) {
+        if (!this.adaptive) {
+            return;
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        boolean overloaded = loadAverage >= 0 && loadAverage > OVERLOAD_PER_CORE * cores;
+        boolean regressed = this.lastWasIncrease
+                && throughput < this.prevThroughput * (1 - TOLERANCE);
+        boolean plateaued = this.lastWasIncrease
+                && throughput < this.prevThroughput * (1 + TOLERANCE);
+
+        if (overloaded || regressed) {
+            this.limit = Math.max(this.minWorkers, (int) (this.limit * DECREASE_FACTOR));
+            this.lastWasIncrease = false;
+        } else if (plateaued || this.limit >= this.maxWorkers) {
+            this.lastWasIncrease = false;
+        } else {
+            this.limit++;
+            this.lastWasIncrease = true;
+        }
+        this.prevThroughput = throughput;
+        this.notifyAll();
+    }
+
+    /**
+     * Reads the one-minute system load average from /proc/loadavg, falling back on the
+     * JVM's view of it where /proc is unavailable.
+     *
+     * @return the one-minute load average, or a negative number if it is unavailable
+     */
+    public static double readLoadAverage() {
+        try {
+            String contents = Files.readString(Path.of("/proc/loadavg"));
+            return Double.parseDouble(contents.strip().split(" ")[0]);
+        } catch (IOException | RuntimeException e) {
+            return ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+        }
+    }
+}
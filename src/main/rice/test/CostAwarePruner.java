@@ -0,0 +1,158 @@
+package main.rice.test;
+
+import main.rice.obj.*;
+
+import java.util.*;
+
+/**
+ * Prunes the base set to fit a total time budget, using how long the reference solution
+ * took on each test case as an estimate of how long every implementation will take. A
+ * test case is redundant if a cheaper one has the same expected output or the same input
+ * signature (the structure of its arguments, ignoring their values); redundant test
+ * cases are only kept once every non-redundant one has been considered. Within each of
+ * the two tiers cheaper test cases come first, so the most expensive are dropped first.
+ */
+public class CostAwarePruner {
+
+    /**
+     * The total time, in milliseconds, the kept test cases may take on the solution.
+     */
+    private final double budgetMillis;
+
+    /**
+     * Constructor for a CostAwarePruner.
+     *
+     * @param budgetMillis the total time, in milliseconds, the kept test cases may take
+     *                     on the solution; must be positive
+     * @throws IllegalArgumentException if budgetMillis is not positive
+     */
+    public CostAwarePruner(double budgetMillis) {
+        if (!(budgetMillis > 0)) {
+            throw new IllegalArgumentException("Time budget must be positive, got "
+                    + budgetMillis);
+        }
+        this.budgetMillis = budgetMillis;
+    }
+
+    /**
+     * Selects the test cases to keep within the budget.
+     *
+     * @param tests    the test cases to choose from
+     * @param expected the expected result of each test case
+     * @param costs    the time, in milliseconds, the solution took on each test case
+     * @return the indices of the selected test cases, in increasing order
+     * @throws IllegalArgumentException if tests, expected and costs differ in size
+     */
+    public List<Integer> select(List<TestCase> tests, List<String> expected,
+                                List<Double> costs) {
+        if (tests.size() != expected.size() || tests.size() != costs.size()) {
+            throw new IllegalArgumentException(tests.size() + " test cases but "
+                    + expected.size() + " expected results and " + costs.size() + " costs");
+        }
+
+        // Visit the test cases from cheapest to most expensive (ties broken by index), so
+        // the first one seen with each output or signature is the cheapest; a test case is
+        // only unique if both its output and its signature are new
+        List<Integer> byCost = new ArrayList<>();
+        for (int i = 0; i < tests.size(); i++) {
+            byCost.add(i);
+        }
+        byCost.sort(Comparator.comparingDouble(costs::get));
+        Set<String> outputsSeen = new HashSet<>();
+        Set<String> signaturesSeen = new HashSet<>();
+        List<Integer> order = new ArrayList<>();
+        List<Integer> redundant = new ArrayList<>();
+        for (int index : byCost) {
+            boolean newOutput = outputsSeen.add(expected.get(index));
+            boolean newSignature = signaturesSeen.add(signatureOf(tests.get(index)));
+            if (newOutput && newSignature) {
+                order.add(index);
+            } else {
+                redundant.add(index);
+            }
+        }
+        order.addAll(redundant);
+
+        // Fill the budget, skipping test cases that no longer fit but still trying the
+        // cheaper redundant ones after them
+        List<Integer> kept = new ArrayList<>();
+        double total = 0;
+        for (int index : order) {
+            double cost = Math.max(0, costs.get(index));
+            if (total + cost <= this.budgetMillis) {
+                total += cost;
+                kept.add(index);
+            }
+        }
+        Collections.sort(kept);
+        return kept;
+    }
+
+    /**
+     * Returns the input signature of a test case: the type of each argument and, for
+     * strings and collections, their lengths and the signatures of their elements,
+     * ignoring the values of numbers, bools and characters. For example, both
+     * ([1, 2], 'ab') and ([3, 4], 'cd') have the signature "list[int,int],str[2]".
+     *
+     * @param test the test case
+     * @return the signature of its arguments
+     */
+    public static String signatureOf(TestCase test) {
+        StringBuilder sb = new StringBuilder();
+        for (APyObj<?> arg : test.getArgs()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            appendSignature(sb, arg);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Helper for signatureOf(); appends the signature of a single object, recursing into
+     * its elements. Since sets and dicts are unordered, the signatures of their elements
+     * (or entries) are sorted.
+     *
+     * @param sb  the builder to append to
+     * @param obj the object
+     */
+    private static void appendSignature(StringBuilder sb, APyObj<?> obj) {
+        if (obj instanceof PyIntObj) {
+            sb.append("int");
+        } else if (obj instanceof PyFloatObj) {
+            sb.append("float");
+        } else if (obj instanceof PyBoolObj) {
+            sb.append("bool");
+        } else if (obj instanceof PyCharObj) {
+            sb.append("char");
+        } else if (obj instanceof PyStringObj stringObj) {
+            sb.append("str[").append(stringObj.getValue().size()).append(']');
+        } else if (obj instanceof PyDictObj<?, ?> dictObj) {
+            List<String> entries = new ArrayList<>();
+            for (Map.Entry<?, ?> entry : dictObj.getValue().entrySet()) {
+                StringBuilder entrySb = new StringBuilder();
+                appendSignature(entrySb, (APyObj<?>) entry.getKey());
+                entrySb.append(':');
+                appendSignature(entrySb, (APyObj<?>) entry.getValue());
+                entries.add(entrySb.toString());
+            }
+            Collections.sort(entries);
+            sb.append("dict{").append(String.join(",", entries)).append('}');
+        } else if (obj instanceof AIterablePyObj<?> iterable) {
+            List<String> elems = new ArrayList<>();
+            for (APyObj<?> elem : iterable.getValue()) {
+                StringBuilder elemSb = new StringBuilder();
+                appendSignature(elemSb, elem);
+                elems.add(elemSb.toString());
+            }
+            if (obj instanceof PySetObj<?>) {
+                Collections.sort(elems);
+            }
+            String type = obj instanceof PySetObj<?> ? "set"
+                    : obj instanceof PyTupleObj<?> ? "tuple" : "list";
+            sb.append(type).append('[').append(String.join(",", elems)).append(']');
+        } else {
+            sb.append(obj.getClass().getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package main.rice.test;
+
+import main.rice.basegen.RandomTestSelector;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Selects random test cases by the coverage they add to the reference solution. A whole
+ * pool of candidates is traced in a single Python process using sys.settrace, recording
+ * for each candidate the lines of the solution it executes and the arcs (jumps from one
+ * line to the next) between them, which stand in for branches. Candidates are then chosen
+ * greedily, each adding the most lines and arcs not yet covered (by the test cases already
+ * kept or by earlier choices), until enough have been chosen or none adds anything.
+ */
+public class CoverageSelector implements RandomTestSelector {
+
+    /**
+     * The prefix of each line on which the tracer reports a candidate's coverage.
+     */
+    private static final String COVERAGE_MARKER = "#FEAT-COVERAGE";
+
+    /**
+     * The name of the function under test.
+     */
+    private final String funcName;
+
+    /**
+     * The absolute path to the file containing the reference solution.
+     */
+    private final String solutionPath;
+
+    /**
+     * Constructor for a CoverageSelector.
+     *
+     * @param funcName     the name of the function under test
+     * @param solutionPath the absolute path to the file containing the reference
+     *                     solution
+     */
+    public CoverageSelector(String funcName, String solutionPath) {
+        this.funcName = funcName;
+        this.solutionPath = solutionPath;
+    }
+
+    /**
+     * Selects up to numTests of the candidates that add the most coverage of the solution
+     * beyond that of the kept test cases, in order of selection.
+     *
+     * @param kept       the test cases already in the base set
+     * @param candidates the pool of random test cases to choose from
+     * @param numTests   the maximum number of test cases to select
+     * @return the selected test cases, stopping early once coverage saturates
+     * @throws UncheckedIOException if the solution cannot be traced
+     */
+    @Override
+    public List<TestCase> select(List<TestCase> kept, List<TestCase> candidates,
+                                 int numTests) {
+        List<TestCase> all = new ArrayList<>(kept);
+        all.addAll(candidates);
+        List<Set<String>> coverage;
+        try {
+            coverage = this.traceCoverage(all);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("tracing interrupted"));
+        }
+
+        Set<String> covered = new HashSet<>();
+        for (int i = 0; i < kept.size(); i++) {
+            covered.addAll(coverage.get(i));
+        }
+        List<Set<String>> remaining = new ArrayList<>(coverage.subList(kept.size(), all.size()));
+        List<TestCase> selected = new ArrayList<>();
+        boolean[] taken = new boolean[candidates.size()];
+        while (selected.size() < numTests) {
+            int best = -1;
+            int bestGain = 0;
+            for (int i = 0; i < candidates.size(); i++) {
+                if (taken[i]) {
+                    continue;
+                }
+                int gain = 0;
+                for (String element : remaining.get(i)) {
+                    if (!covered.contains(element)) {
+                        gain++;
+                    }
+                }
+                if (gain > bestGain) {
+                    best = i;
+                    bestGain = gain;
+                }
+            }
+            if (best < 0) {
+                // Coverage has saturated: no candidate adds anything
+                break;
+            }
+            taken[best] = true;
+            covered.addAll(remaining.get(best));
+            selected.add(candidates.get(best));
+        }
+        return selected;
+    }
+
+    /**
+     * Runs every test case through the reference solution in a single traced Python
+     * process, and returns the coverage of each. An exception raised by the solution is
+     * recorded as coverage too, rather than aborting the batch.
+     *
+     * @param tests the test cases to be traced
+     * @return a list whose i-th element is the set of lines ("L" + line number), arcs
+     * ("A" + from + ">" + to) and exception sites ("E" + line number) of the solution
+     * executed by the i-th test case
+     * @throws IOException if the solution cannot be traced
+     * @throws InterruptedException if the process is interrupted
+     */
+    public List<Set<String>> traceCoverage(List<TestCase> tests)
+            throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("feat-coverage");
+        try {
+            Path script = dir.resolve("tracer.py");
+            Files.writeString(script, this.buildTracer());
+            Path cases = dir.resolve("cases.txt");
+            try (BufferedWriter writer = Files.newBufferedWriter(cases)) {
+                for (TestCase test : tests) {
+                    // Each test case is written as a Python list literal of its arguments
+                    writer.write(test.toString());
+                    writer.newLine();
+                }
+            }
+
+            ProcessBuilder pb = new ProcessBuilder("python", script.toString(),
+                    this.solutionPath, this.funcName, cases.toString());
+            pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+            Process process = pb.start();
+            List<Set<String>> coverage = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(COVERAGE_MARKER)) {
+                        Set<String> elements = new HashSet<>();
+                        for (String element : line.substring(COVERAGE_MARKER.length()).split(" ")) {
+                            if (!element.isEmpty()) {
+                                elements.add(element);
+                            }
+                        }
+                        coverage.add(elements);
+                    }
+                }
+            }
+            int exitCode = process.waitFor();
+            if (exitCode != 0 || coverage.size() != tests.size()) {
+                throw new IOException("tracing the solution failed with exit code " + exitCode
+                        + " after " + coverage.size() + " of " + tests.size() + " test cases");
+            }
+            return coverage;
+        } finally {
+            for (File file : Objects.requireNonNull(dir.toFile().listFiles())) {
+                file.delete();
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    /**
+     * Builds the tracer script, which loads the solution as a module, runs the function
+     * under test on each line of the cases file under sys.settrace, and prints the lines,
+     * arcs and exception sites of the solution executed by each on a marked line.
+     *
+     * @return the contents of the tracer script
+     */
+    private String buildTracer() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("import sys\nimport importlib.util\n\n");
+        sb.append("spec = importlib.util.spec_from_file_location('feat_solution', " +
+                "sys.argv[1])\n");
+        sb.append("mod = importlib.util.module_from_spec(spec)\n");
+        sb.append("spec.loader.exec_module(mod)\n");
+        sb.append("func = getattr(mod, sys.argv[2])\n");
+        sb.append("target = mod.__spec__.origin\n");
+        sb.append("covered = set()\n\n");
+
+        // Only frames executing the solution's code are traced line by line; each frame
+        // remembers its previous line so that the arcs between lines can be recorded
+        sb.append("def trace_calls(frame, event, arg):\n");
+        sb.append("    if frame.f_code.co_filename != target:\n");
+        sb.append("        return None\n");
+        sb.append("    prev = [-frame.f_code.co_firstlineno]\n");
+        sb.append("    def trace_lines(frame, event, arg):\n");
+        sb.append("        if event == 'line':\n");
+        sb.append("            covered.add('L%d' % frame.f_lineno)\n");
+        sb.append("            covered.add('A%d>%d' % (prev[0], frame.f_lineno))\n");
+        sb.append("            prev[0] = frame.f_lineno\n");
+        sb.append("        elif event == 'return':\n");
+        sb.append("            covered.add('A%d>%d' % (prev[0], -frame.f_code.co_firstlineno))\n");
+        sb.append("        elif event == 'exception':\n");
+        sb.append("            covered.add('E%d' % frame.f_lineno)\n");
+        sb.append("        return trace_lines\n");
+        sb.append("    return trace_lines\n\n");
+
+        sb.append("with open(sys.argv[3]) as cases:\n");
+        sb.append("    for case in cases:\n");
+        sb.append("        args = eval(case)\n");
+        sb.append("        covered = set()\n");
+        sb.append("        sys.settrace(trace_calls)\n");
+        sb.append("        try:\n");
+        sb.append("            func(*args)\n");
+        sb.append("        except BaseException:\n");
+        sb.append("            covered.add('X')\n");
+        sb.append("        finally:\n");
+        sb.append("            sys.settrace(None)\n");
+        sb.append("        print('").append(COVERAGE_MARKER)
+                .append(" ' + ' '.join(sorted(covered)), flush=True)\n");
+        return sb.toString();
+    }
+}
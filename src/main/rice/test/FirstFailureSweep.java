@@ -0,0 +1,112 @@
+package main.rice.test;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Computes the set of buggy implementations by running the test cases in a given order
+ * and stopping, for each implementation, at the first test case that catches it. The
+ * sweep proceeds one test case at a time over the implementations not yet caught, so each
+ * round still runs its implementations concurrently. When strong catchers come first (as
+ * ordered by a CatchHistory), most buggy implementations are caught within a handful of
+ * executions; only the implementations that no test case catches are run on all of them.
+ *
+ * <p>Since each implementation is attributed only to its first catcher, the results are
+ * not a fair input to ConciseSetGenerator.setCover(): a test case that catches many
+ * implementations after a weaker one got to them first would look redundant. To compute
+ * the concise set, hand getRanFiles() and the results to LazyGrader.setKnownCells(), which
+ * then runs only the cells the set cover still needs.
+ */
+public class FirstFailureSweep {
+
+    /**
+     * The indices of the test cases, in the order they are to be run.
+     */
+    private final List<Integer> order;
+
+    /**
+     * The implementations each test case was run on during the most recent call to
+     * sweep(), by test index.
+     */
+    private final List<Set<Integer>> ranFiles = new ArrayList<>();
+
+    /**
+     * Constructor for a FirstFailureSweep.
+     *
+     * @param order the indices of the test cases, in the order they are to be run
+     */
+    public FirstFailureSweep(List<Integer> order) {
+        this.order = order;
+    }
+
+    /**
+     * Runs the test cases in order on every implementation in the tester's directory,
+     * stopping at each implementation's first failure.
+     *
+     * @param tester the tester, whose expected results have already been computed
+     * @return the results of testing, in which each buggy implementation is caught by
+     * exactly one test case -- the first in order that catches it -- and cells that were
+     * never run count as passing
+     * @throws IllegalArgumentException if the order does not cover every test case exactly
+     *                                  once
+     * @throws IOException if the directory of buggy implementations cannot be accessed
+     * @throws InterruptedException if the process is interrupted
+     */
+    public TestResults sweep(Tester tester) throws IOException, InterruptedException {
+        List<TestCase> tests = tester.getTests();
+        if (this.order.size() != tests.size()
+                || !new HashSet<>(this.order).equals(new HashSet<>(range(tests.size())))) {
+            throw new IllegalArgumentException("Order " + this.order
+                    + " is not a permutation of " + tests.size() + " test cases");
+        }
+
+        List<Set<Integer>> caseToFiles = new ArrayList<>();
+        for (int i = 0; i < tests.size(); i++) {
+            caseToFiles.add(new HashSet<>());
+        }
+        this.ranFiles.clear();
+        for (int i = 0; i < tests.size(); i++) {
+            this.ranFiles.add(Set.of());
+        }
+        Set<Integer> wrongSet = new HashSet<>();
+
+        Set<Integer> remaining = new TreeSet<>(range(tester.getImplFilenames().size()));
+        for (int test : this.order) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+            Set<Integer> caught = tester.runTests(remaining, List.of(test))
+                    .getCaseToFiles().get(test);
+            this.ranFiles.set(test, new TreeSet<>(remaining));
+            caseToFiles.get(test).addAll(caught);
+            wrongSet.addAll(caught);
+            remaining.removeAll(caught);
+        }
+        return new TestResults(tests, caseToFiles, wrongSet);
+    }
+
+    /**
+     * Returns the implementations each test case was run on during the most recent call
+     * to sweep(), e.g. to be handed to LazyGrader.setKnownCells().
+     *
+     * @return a list where the i-th element is the set of files the i-th test case was
+     * run on
+     */
+    public List<Set<Integer>> getRanFiles() {
+        return this.ranFiles;
+    }
+
+    /**
+     * Helper for sweep(); lists the integers from 0 up to (but excluding) n.
+     *
+     * @param n the number of integers
+     * @return the list [0, n)
+     */
+    private static List<Integer> range(int n) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,88 @@
+package main.rice.test;
+
+import main.rice.concisegen.ConciseSetGenerator;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Grades the implementations by letting the greedy set cover decide which (implementation,
+ * test) cells to run, instead of running the full matrix before the cover is computed.
+ * Cells on implementations that are already covered, and cells of test cases that can no
+ * longer be selected, are never run. Every buggy implementation the base set could catch
+ * is still reported, and ConciseSetGenerator.setCover() selects the same concise set from
+ * the partial results as it would from the full matrix. Cells already run by an earlier
+ * pass, such as a FirstFailureSweep, may be supplied so that they are not run again.
+ */
+public class LazyGrader {
+
+    /**
+     * The files each test case has already been run on, by test index; empty if there
+     * are no known cells.
+     */
+    private List<? extends Set<Integer>> knownFiles = List.of();
+
+    /**
+     * The results of running the known cells; null if there are none.
+     */
+    private TestResults knownResults;
+
+    /**
+     * Supplies the cells that have already been run, so that grade() takes their
+     * outcomes from the given results instead of running them again.
+     *
+     * @param knownFiles   the files each test case has already been run on, by test index
+     * @param knownResults the results of running those cells
+     */
+    public void setKnownCells(List<? extends Set<Integer>> knownFiles,
+                              TestResults knownResults) {
+        this.knownFiles = knownFiles;
+        this.knownResults = knownResults;
+    }
+
+    /**
+     * Grades every implementation in the tester's directory, running cells only as the
+     * greedy set cover asks for them.
+     *
+     * @param tester the tester, whose expected results have already been computed
+     * @return the results of testing, in which every file caught by any test case in the
+     * base set is caught by at least one, along with every catch among the known cells;
+     * cells that were never run count as passing
+     * @throws IOException if the directory of buggy implementations cannot be accessed
+     * @throws InterruptedException if the process is interrupted
+     */
+    public TestResults grade(Tester tester) throws IOException, InterruptedException {
+        List<TestCase> tests = tester.getTests();
+        List<Set<Integer>> caseToFiles = new ArrayList<>();
+        for (int i = 0; i < tests.size(); i++) {
+            caseToFiles.add(this.knownResults == null ? new HashSet<>()
+                    : new HashSet<>(this.knownResults.getCaseToFiles().get(i)));
+        }
+        Set<Integer> wrongSet = this.knownResults == null ? new HashSet<>()
+                : new HashSet<>(this.knownResults.getWrongSet());
+
+        ConciseSetGenerator.lazySetCover(tests, tester.getImplFilenames().size(),
+                (testIndex, files) -> {
+                    // Take the known cells' outcomes from the known results
+                    Set<Integer> known = testIndex < this.knownFiles.size()
+                            ? this.knownFiles.get(testIndex) : Set.of();
+                    Set<Integer> caught = new HashSet<>();
+                    List<Integer> unknown = new ArrayList<>();
+                    for (int file : files) {
+                        if (!known.contains(file)) {
+                            unknown.add(file);
+                        } else if (caseToFiles.get(testIndex).contains(file)) {
+                            caught.add(file);
+                        }
+                    }
+                    if (!unknown.isEmpty()) {
+                        caught.addAll(tester.runTests(unknown, List.of(testIndex))
+                                .getCaseToFiles().get(testIndex));
+                    }
+                    caseToFiles.get(testIndex).addAll(caught);
+                    wrongSet.addAll(caught);
+                    return caught;
+                });
+        return new TestResults(tests, caseToFiles, wrongSet);
+    }
+}
@@ -0,0 +1,266 @@
+package main.rice.test;
+
+import main.rice.obj.*;
+
+import java.util.*;
+
+/**
+ * Chooses a behaviourally diverse subset of the base set from the expected results of
+ * the reference solution, which are cheap to compute compared to running every buggy
+ * implementation on every test case. The subset keeps, in order of priority: the first
+ * test case producing each output shape (type, emptiness and rough length, or sign for
+ * numbers); the test cases at the boundaries of each argument (smallest and largest
+ * value, or shortest and longest length); and the first test case producing each
+ * distinct output. Only the subset then needs to be run on the implementations.
+ */
+public class OutputDiversityFilter {
+
+    /**
+     * The maximum number of test cases to keep; 0 for no limit.
+     */
+    private final int maxTests;
+
+    /**
+     * Constructor for an OutputDiversityFilter.
+     *
+     * @param maxTests the maximum number of test cases to keep; 0 for no limit
+     * @throws IllegalArgumentException if maxTests is negative
+     */
+    public OutputDiversityFilter(int maxTests) {
+        if (maxTests < 0) {
+            throw new IllegalArgumentException("Maximum number of tests must be "
+                    + "non-negative, got " + maxTests);
+        }
+        this.maxTests = maxTests;
+    }
+
+    /**
+     * Selects the diverse subset of the given test cases.
+     *
+     * @param tests    the test cases to choose from
+     * @param expected the expected result of each test case, as printed by the reference
+     *                 solution
+     * @return the indices of the selected test cases, in increasing order
+     * @throws IllegalArgumentException if tests and expected differ in size
+     */
+    public List<Integer> select(List<TestCase> tests, List<String> expected) {
+        if (tests.size() != expected.size()) {
+            throw new IllegalArgumentException(tests.size() + " test cases but "
+                    + expected.size() + " expected results");
+        }
+
+        // Each tier is filled before the next, so the cap drops distinct outputs first
+        Set<Integer> kept = new LinkedHashSet<>();
+        Map<String, Integer> byShape = new LinkedHashMap<>();
+        Map<String, Integer> byOutput = new LinkedHashMap<>();
+        for (int i = 0; i < tests.size(); i++) {
+            byShape.putIfAbsent(shapeOf(expected.get(i)), i);
+            byOutput.putIfAbsent(expected.get(i), i);
+        }
+        this.keepAll(kept, byShape.values());
+        this.keepAll(kept, boundaryTests(tests));
+        this.keepAll(kept, byOutput.values());
+
+        List<Integer> indices = new ArrayList<>(kept);
+        Collections.sort(indices);
+        return indices;
+    }
+
+    /**
+     * Helper for select(); adds the given indices to kept, until the cap is reached.
+     *
+     * @param kept    the indices kept so far; added to in place
+     * @param indices the indices to be kept, in order of preference
+     */
+    private void keepAll(Set<Integer> kept, Collection<Integer> indices) {
+        for (int index : indices) {
+            if (this.maxTests > 0 && kept.size() >= this.maxTests) {
+                return;
+            }
+            kept.add(index);
+        }
+    }
+
+    /**
+     * Returns the shape of an expected result: its type, followed by its sign if it is a
+     * number or its rough length if it is a string or collection. Lengths 0, 1 and 2 are
+     * told apart exactly, and longer lengths by the next power of two.
+     *
+     * @param result the result, as printed by the reference solution (via repr())
+     * @return the shape of the result, e.g. "tuple/2", "str/<=8" or "int/-"
+     */
+    public static String shapeOf(String result) {
+        String trimmed = result.strip();
+        if (trimmed.isEmpty()) {
+            // Nothing is printed when the solution raises an error
+            return "error";
+        } else if (trimmed.equals("None") || trimmed.equals("True")
+                || trimmed.equals("False")) {
+            return trimmed;
+        } else if (trimmed.equals("set()")) {
+            return "set/0";
+        }
+        switch (trimmed.charAt(0)) {
+            case '(':
+                return "tuple/" + lengthBucket(countElements(trimmed));
+            case '[':
+                return "list/" + lengthBucket(countElements(trimmed));
+            case '{':
+                return (isDict(trimmed) ? "dict/" : "set/")
+                        + lengthBucket(countElements(trimmed));
+            case '\'':
+            case '"':
+                return "str/" + lengthBucket(trimmed.length() - 2);
+            default:
+                break;
+        }
+        try {
+            double value = Double.parseDouble(trimmed);
+            String type = trimmed.matches("-?\\d+") ? "int/" : "float/";
+            return type + (value < 0 ? "-" : value > 0 ? "+" : "0");
+        } catch (NumberFormatException e) {
+            return "other";
+        }
+    }
+
+    /**
+     * Helper for select(); finds, for each argument position, the first test cases with
+     * the smallest and the largest measure (see measure()).
+     *
+     * @param tests the test cases
+     * @return the indices of the boundary test cases, argument by argument
+     */
+    private static Collection<Integer> boundaryTests(List<TestCase> tests) {
+        Set<Integer> boundaries = new LinkedHashSet<>();
+        int numArgs = tests.isEmpty() ? 0 : tests.get(0).getArgs().size();
+        for (int arg = 0; arg < numArgs; arg++) {
+            int minIndex = -1;
+            int maxIndex = -1;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < tests.size(); i++) {
+                double measure = measure(tests.get(i).getArgs().get(arg));
+                if (measure < min) {
+                    min = measure;
+                    minIndex = i;
+                }
+                if (measure > max) {
+                    max = measure;
+                    maxIndex = i;
+                }
+            }
+            if (minIndex >= 0) {
+                boundaries.add(minIndex);
+                boundaries.add(maxIndex);
+            }
+        }
+        return boundaries;
+    }
+
+    /**
+     * Helper for boundaryTests(); measures an argument: its value if it is a number, its
+     * code point if it is a character, or its length if it is a string or collection.
+     *
+     * @param arg the argument
+     * @return the measure, or NaN if it has none
+     */
+    private static double measure(APyObj<?> arg) {
+        if (arg instanceof PyIntObj intObj) {
+            return intObj.getValue();
+        } else if (arg instanceof PyFloatObj floatObj) {
+            return floatObj.getValue();
+        } else if (arg instanceof PyBoolObj boolObj) {
+            return boolObj.getValue() ? 1 : 0;
+        } else if (arg instanceof PyCharObj charObj) {
+            return charObj.getValue();
+        } else if (arg instanceof AIterablePyObj<?> iterable) {
+            return iterable.getValue().size();
+        } else if (arg instanceof PyDictObj<?, ?> dict) {
+            return dict.getValue().size();
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Helper for shapeOf(); buckets a length.
+     *
+     * @param length the length
+     * @return the length itself if at most 2; otherwise "<=" followed by the smallest
+     * power of two at least the length
+     */
+    private static String lengthBucket(int length) {
+        if (length <= 2) {
+            return String.valueOf(length);
+        }
+        return "<=" + Integer.highestOneBit(length - 1) * 2;
+    }
+
+    /**
+     * Helper for shapeOf(); counts the top-level elements of a printed collection by its
+     * top-level commas, skipping over nested collections and strings.
+     *
+     * @param repr the printed collection, including its enclosing brackets
+     * @return the number of elements
+     */
+    private static int countElements(String repr) {
+        String inner = repr.substring(1, repr.length() - 1).strip();
+        if (inner.isEmpty()) {
+            return 0;
+        }
+        int commas = 0;
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < inner.length(); i++) {
+            char c = inner.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                commas++;
+            }
+        }
+
+        // A trailing comma, as in the 1-tuple "(1,)", does not begin another element
+        return inner.endsWith(",") ? commas : commas + 1;
+    }
+
+    /**
+     * Helper for shapeOf(); returns whether a printed collection in braces is a dict
+     * rather than a set, i.e. whether it has a top-level colon.
+     *
+     * @param repr the printed collection, including its enclosing braces
+     * @return true if it is a dict; false if it is a set
+     */
+    private static boolean isDict(String repr) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = 1; i < repr.length() - 1; i++) {
+            char c = repr.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                depth--;
+            } else if (c == ':' && depth == 0) {
+                return true;
+            }
+        }
+        return repr.equals("{}");
+    }
+}
@@ -0,0 +1,231 @@
+package main.rice.test;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Grades a cohort of implementations that largely share the same bugs by clustering
+ * them on a cheap probe. First, a small, behaviourally diverse subset of the base set
+ * (chosen by an OutputDiversityFilter) is run on every implementation, and implementations
+ * caught by exactly the same probe test cases form a cluster. Second, the rest of the
+ * base set is run only on each cluster's representative (its first implementation) and
+ * on one randomly chosen audit member, and the representative's results are propagated
+ * to the other members. A cluster whose audit member disagrees with its representative
+ * is flagged, and its members are then run on the rest of the base set themselves, so
+ * propagated results are only ever trusted for clusters whose audit agreed. The cells
+ * actually run, without the propagated results, are kept apart for statistics that must
+ * only count what was observed, such as a CatchHistory.
+ */
+public class ProbeClusterGrader {
+
+    /**
+     * The maximum number of test cases in the probe.
+     */
+    private final int numProbes;
+
+    /**
+     * The RNG used to choose each cluster's audit member.
+     */
+    private final Random rand;
+
+    /**
+     * The clusters found by the most recent call to grade(), each a list of file indices
+     * whose first element is the representative.
+     */
+    private final List<List<Integer>> clusters = new ArrayList<>();
+
+    /**
+     * The indices (into clusters) of the clusters whose audit disagreed during the most
+     * recent call to grade().
+     */
+    private final Set<Integer> flagged = new TreeSet<>();
+
+    /**
+     * The results of the cells actually run by the most recent call to grade(), without
+     * the propagated ones.
+     */
+    private TestResults observedResults;
+
+    /**
+     * Constructor for a ProbeClusterGrader.
+     *
+     * @param numProbes the maximum number of test cases in the probe; must be positive
+     * @param seed      the seed for choosing the audit members
+     * @throws IllegalArgumentException if numProbes is not positive
+     */
+    public ProbeClusterGrader(int numProbes, long seed) {
+        if (numProbes < 1) {
+            throw new IllegalArgumentException("Number of probes must be positive, got "
+                    + numProbes);
+        }
+        this.numProbes = numProbes;
+        this.rand = new Random(seed);
+    }
+
+    /**
+     * Grades every implementation in the tester's directory by probing and clustering.
+     *
+     * @param tester the tester, whose expected results have already been computed
+     * @return the results of testing, where each member of an unflagged cluster is
+     * reported as caught by the same test cases as its representative
+     * @throws IllegalStateException if the tester's expected results have not been
+     *                               computed
+     * @throws IOException if the directory of buggy implementations cannot be accessed
+     * @throws InterruptedException if the process is interrupted
+     */
+    public TestResults grade(Tester tester) throws IOException, InterruptedException {
+        if (tester.getExpectedResults() == null) {
+            throw new IllegalStateException("Expected results must be computed before "
+                    + "choosing the probe");
+        }
+        this.clusters.clear();
+        this.flagged.clear();
+        List<TestCase> tests = tester.getTests();
+        int numFiles = tester.getImplFilenames().size();
+        List<Integer> files = new ArrayList<>();
+        for (int file = 0; file < numFiles; file++) {
+            files.add(file);
+        }
+
+        // Probe every implementation, and cluster them by the probe test cases that
+        // catch them
+        List<Integer> probes = new OutputDiversityFilter(this.numProbes).select(tests,
+                tester.getExpectedResults());
+        TestResults results = tester.runTests(files, probes);
+        Map<Set<Integer>, List<Integer>> byVerdicts = new LinkedHashMap<>();
+        for (int file : files) {
+            Set<Integer> verdicts = new TreeSet<>();
+            for (int probe : probes) {
+                if (results.getCaseToFiles().get(probe).contains(file)) {
+                    verdicts.add(probe);
+                }
+            }
+            byVerdicts.computeIfAbsent(verdicts, key -> new ArrayList<>()).add(file);
+        }
+        this.clusters.addAll(byVerdicts.values());
+        List<Set<Integer>> observed = new ArrayList<>();
+        for (Set<Integer> caught : results.getCaseToFiles()) {
+            observed.add(new HashSet<>(caught));
+        }
+
+        List<Integer> others = new ArrayList<>();
+        for (int test = 0; test < tests.size(); test++) {
+            if (!probes.contains(test)) {
+                others.add(test);
+            }
+        }
+        if (others.isEmpty()) {
+            this.observedResults = results;
+            return results;
+        }
+
+        // Run the rest of the base set on each representative and audit member
+        List<Integer> audits = new ArrayList<>();
+        List<Integer> sampled = new ArrayList<>();
+        for (List<Integer> cluster : this.clusters) {
+            int audit = cluster.size() > 1
+                    ? cluster.get(1 + this.rand.nextInt(cluster.size() - 1)) : -1;
+            audits.add(audit);
+            sampled.add(cluster.get(0));
+            if (audit >= 0) {
+                sampled.add(audit);
+            }
+        }
+        TestResults sampledResults = tester.runTests(sampled, others);
+        for (int test : others) {
+            observed.get(test).addAll(sampledResults.getCaseToFiles().get(test));
+        }
+
+        // Propagate each representative's results to its cluster, unless the audit
+        // disagrees, in which case the rest of the cluster is run in full
+        List<Set<Integer>> caseToFiles = new ArrayList<>();
+        for (Set<Integer> caught : results.getCaseToFiles()) {
+            caseToFiles.add(new HashSet<>(caught));
+        }
+        List<Integer> unpropagated = new ArrayList<>();
+        for (int c = 0; c < this.clusters.size(); c++) {
+            List<Integer> cluster = this.clusters.get(c);
+            int rep = cluster.get(0);
+            int audit = audits.get(c);
+            boolean agrees = true;
+            for (int test : others) {
+                Set<Integer> caught = sampledResults.getCaseToFiles().get(test);
+                if (audit >= 0 && caught.contains(audit) != caught.contains(rep)) {
+                    agrees = false;
+                }
+            }
+            if (!agrees) {
+                this.flagged.add(c);
+            }
+            for (int file : cluster) {
+                if (file != rep && file != audit && !agrees) {
+                    unpropagated.add(file);
+                    continue;
+                }
+                for (int test : others) {
+                    Set<Integer> caught = sampledResults.getCaseToFiles().get(test);
+                    if (file == audit ? caught.contains(audit) : caught.contains(rep)) {
+                        caseToFiles.get(test).add(file);
+                    }
+                }
+            }
+        }
+        if (!unpropagated.isEmpty()) {
+            TestResults fullResults = tester.runTests(unpropagated, others);
+            for (int test : others) {
+                caseToFiles.get(test).addAll(fullResults.getCaseToFiles().get(test));
+                observed.get(test).addAll(fullResults.getCaseToFiles().get(test));
+            }
+        }
+
+        this.observedResults = withWrongSet(tests, observed);
+        return withWrongSet(tests, caseToFiles);
+    }
+
+    /**
+     * Returns the clusters found by the most recent call to grade().
+     *
+     * @return a list of clusters, each a list of file indices whose first element is the
+     * representative, in order of their representatives
+     */
+    public List<List<Integer>> getClusters() {
+        return this.clusters;
+    }
+
+    /**
+     * Returns the clusters whose audit member disagreed with their representative during
+     * the most recent call to grade().
+     *
+     * @return the indices of the flagged clusters in getClusters(), in increasing order
+     */
+    public Set<Integer> getFlaggedClusters() {
+        return this.flagged;
+    }
+
+    /**
+     * Returns the results of the cells actually run by the most recent call to grade(),
+     * in which results propagated from a representative are left out.
+     *
+     * @return the observed results, with cells that were never run counting as passing
+     */
+    public TestResults getObservedResults() {
+        return this.observedResults;
+    }
+
+    /**
+     * Helper for grade(); builds results whose wrong set is every file caught by some
+     * test case.
+     *
+     * @param tests       the test cases
+     * @param caseToFiles the files caught by each test case
+     * @return the results
+     */
+    private static TestResults withWrongSet(List<TestCase> tests,
+                                            List<Set<Integer>> caseToFiles) {
+        Set<Integer> wrongSet = new HashSet<>();
+        for (Set<Integer> caught : caseToFiles) {
+            wrongSet.addAll(caught);
+        }
+        return new TestResults(tests, caseToFiles, wrongSet);
+    }
+}
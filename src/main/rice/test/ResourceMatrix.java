@@ -0,0 +1,237 @@
+package main.rice.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The resources consumed by every (implementation, test) execution of a run, kept
+ * alongside the TestResults of the same run. Offers per-implementation and per-test
+ * percentile summaries, so that expensive tests and expensive submissions stand out.
+ */
+public class ResourceMatrix {
+
+    /**
+     * The names of the implementation files, where the i-th name corresponds to file
+     * index i in the TestResults.
+     */
+    private final List<String> filenames;
+
+    /**
+     * The usage of each cell, indexed by [fileIndex][testIndex]; null for cells that
+     * were not executed.
+     */
+    private final ResourceUsage[][] usages;
+
+    /**
+     * Constructor for an empty ResourceMatrix.
+     *
+     * @param filenames the names of the implementation files, in file index order
+     * @param numTests  the number of test cases
+     */
+    public ResourceMatrix(List<String> filenames, int numTests) {
+        this.filenames = filenames;
+        this.usages = new ResourceUsage[filenames.size()][numTests];
+    }
+
+    /**
+     * Records the usage of a single cell. Distinct cells may be recorded concurrently.
+     *
+     * @param fileIndex the index of the implementation file
+     * @param testIndex the index of the test case
+     * @param usage     the resources consumed
+     */
+    public void record(int fileIndex, int testIndex, ResourceUsage usage) {
+        this.usages[fileIndex][testIndex] = usage;
+    }
+
+    /**
+     * Returns the usage of a single cell.
+     *
+     * @param fileIndex the index of the implementation file
+     * @param testIndex the index of the test case
+     * @return the resources consumed, or null if the cell was not executed
+     */
+    public ResourceUsage getUsage(int fileIndex, int testIndex) {
+        return this.usages[fileIndex][testIndex];
+    }
+
+    /**
+     * Returns the names of the implementation files, in file index order.
+     *
+     * @return the names of the implementation files
+     */
+    public List<String> getFilenames() {
+        return this.filenames;
+    }
+
+    /**
+     * Returns the number of test cases covered by this matrix.
+     *
+     * @return the number of test cases
+     */
+    public int getNumTests() {
+        return this.usages.length == 0 ? 0 : this.usages[0].length;
+    }
+
+    /**
+     * Combines this matrix with that of running further test cases on the same files, as
+     * if all of the test cases had been run together; these test cases come first.
+     *
+     * @param other the matrix of running further test cases on the same files
+     * @return the combined matrix
+     */
+    public ResourceMatrix merge(ResourceMatrix other) {
+        int numTests = this.getNumTests();
+        ResourceMatrix merged = new ResourceMatrix(this.filenames,
+                numTests + other.getNumTests());
+        for (int file = 0; file < this.usages.length; file++) {
+            System.arraycopy(this.usages[file], 0, merged.usages[file], 0, numTests);
+            System.arraycopy(other.usages[file], 0, merged.usages[file], numTests,
+                    other.getNumTests());
+        }
+        return merged;
+    }
+
+    /**
+     * Summarizes the usage of every test run on the given implementation.
+     *
+     * @param fileIndex the index of the implementation file
+     * @return the percentile summary across that file's executed cells
+     */
+    public Summary summarizeImpl(int fileIndex) {
+        List<ResourceUsage> cells = new ArrayList<>();
+        for (ResourceUsage usage : this.usages[fileIndex]) {
+            if (usage != null) {
+                cells.add(usage);
+            }
+        }
+        return new Summary(cells);
+    }
+
+    /**
+     * Summarizes the usage of the given test across every implementation.
+     *
+     * @param testIndex the index of the test case
+     * @return the percentile summary across that test's executed cells
+     */
+    public Summary summarizeTest(int testIndex) {
+        List<ResourceUsage> cells = new ArrayList<>();
+        for (ResourceUsage[] row : this.usages) {
+            if (row[testIndex] != null) {
+                cells.add(row[testIndex]);
+            }
+        }
+        return new Summary(cells);
+    }
+
+    /**
+     * Percentiles of each resource over a group of cells.
+     */
+    public static class Summary {
+
+        /**
+         * The sorted CPU times, wall times and peak RSS values of the group.
+         */
+        private final double[] cpuMillis;
+        private final double[] wallMillis;
+        private final double[] peakRssKb;
+
+        /**
+         * Constructor for a Summary; sorts each resource for percentile lookups.
+         * Resources a process did not report are left out of that resource's values.
+         *
+         * @param cells the usages of the cells in the group
+         */
+        private Summary(List<ResourceUsage> cells) {
+            this.wallMillis = new double[cells.size()];
+            List<Double> cpu = new ArrayList<>();
+            List<Double> rss = new ArrayList<>();
+            for (int i = 0; i < cells.size(); i++) {
+                ResourceUsage usage = cells.get(i);
+                this.wallMillis[i] = usage.getWallMillis();
+                if (usage.getCpuMillis() >= 0) {
+                    cpu.add(usage.getCpuMillis());
+                }
+                if (usage.getPeakRssKb() >= 0) {
+                    rss.add((double) usage.getPeakRssKb());
+                }
+            }
+            this.cpuMillis = cpu.stream().mapToDouble(Double::doubleValue).toArray();
+            this.peakRssKb = rss.stream().mapToDouble(Double::doubleValue).toArray();
+            Arrays.sort(this.wallMillis);
+            Arrays.sort(this.cpuMillis);
+            Arrays.sort(this.peakRssKb);
+        }
+
+        /**
+         * Returns the number of cells in the group.
+         *
+         * @return the number of cells summarized
+         */
+        public int getCount() {
+            return this.wallMillis.length;
+        }
+
+        /**
+         * Returns the given percentile of CPU time, in milliseconds.
+         *
+         * @param percentile a percentile in [0, 100]
+         * @return the CPU time at that percentile, or NaN if there are no values
+         */
+        public double cpuMillis(double percentile) {
+            return percentile(this.cpuMillis, percentile);
+        }
+
+        /**
+         * Returns the given percentile of wall time, in milliseconds.
+         *
+         * @param percentile a percentile in [0, 100]
+         * @return the wall time at that percentile, or NaN if there are no values
+         */
+        public double wallMillis(double percentile) {
+            return percentile(this.wallMillis, percentile);
+        }
+
+        /**
+         * Returns the given percentile of peak resident memory, in kilobytes.
+         *
+         * @param percentile a percentile in [0, 100]
+         * @return the peak RSS at that percentile, or NaN if there are no values
+         */
+        public double peakRssKb(double percentile) {
+            return percentile(this.peakRssKb, percentile);
+        }
+
+        /**
+         * Returns a one-line string representation of the median, 90th percentile and
+         * maximum of each resource.
+         *
+         * @return a string representation of this summary
+         */
+        @Override
+        public String toString() {
+            return String.format("n=%d cpu(ms) p50=%.1f p90=%.1f max=%.1f | "
+                            + "wall(ms) p50=%.1f p90=%.1f max=%.1f | "
+                            + "rss(KB) p50=%.0f p90=%.0f max=%.0f", this.getCount(),
+                    this.cpuMillis(50), this.cpuMillis(90), this.cpuMillis(100),
+                    this.wallMillis(50), this.wallMillis(90), this.wallMillis(100),
+                    this.peakRssKb(50), this.peakRssKb(90), this.peakRssKb(100));
+        }
+
+        /**
+         * Nearest-rank percentile of a sorted array.
+         *
+         * @param sorted     the values, in ascending order
+         * @param percentile a percentile in [0, 100]
+         * @return the value at that percentile, or NaN if there are no values
+         */
+        private static double percentile(double[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+    }
+}
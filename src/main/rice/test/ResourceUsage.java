@@ -0,0 +1,77 @@
+package main.rice.test;
+
+/**
+ * The resources consumed by a single test process: CPU time and peak resident memory
+ * as reported by the process itself (via Python's resource.getrusage), plus the wall
+ * time between spawning the process and its exit.
+ */
+public class ResourceUsage {
+
+    /**
+     * The user plus system CPU time, in milliseconds; negative if not reported.
+     */
+    private final double cpuMillis;
+
+    /**
+     * The peak resident set size, in kilobytes; negative if not reported.
+     */
+    private final long peakRssKb;
+
+    /**
+     * The wall time from spawn to exit, in milliseconds.
+     */
+    private final double wallMillis;
+
+    /**
+     * Constructor for a ResourceUsage; initializes all fields.
+     *
+     * @param cpuMillis  the user plus system CPU time, in milliseconds; negative if not
+     *                   reported
+     * @param peakRssKb  the peak resident set size, in kilobytes; negative if not
+     *                   reported
+     * @param wallMillis the wall time from spawn to exit, in milliseconds
+     */
+    public ResourceUsage(double cpuMillis, long peakRssKb, double wallMillis) {
+        this.cpuMillis = cpuMillis;
+        this.peakRssKb = peakRssKb;
+        this.wallMillis = wallMillis;
+    }
+
+    /**
+     * Returns the user plus system CPU time, in milliseconds.
+     *
+     * @return the CPU time, or a negative number if the process did not report it
+     */
+    public double getCpuMillis() {
+        return this.cpuMillis;
+    }
+
+    /**
+     * Returns the peak resident set size, in kilobytes.
+     *
+     * @return the peak RSS, or a negative number if the process did not report it
+     */
+    public long getPeakRssKb() {
+        return this.peakRssKb;
+    }
+
+    /**
+     * Returns the wall time from spawn to exit, in milliseconds.
+     *
+     * @return the wall time
+     */
+    public double getWallMillis() {
+        return this.wallMillis;
+    }
+
+    /**
+     * Returns a string representation of this usage.
+     *
+     * @return a string representation of this usage
+     */
+    @Override
+    public String toString() {
+        return String.format("cpu=%.1fms rss=%dKB wall=%.1fms", this.cpuMillis,
+                this.peakRssKb, this.wallMillis);
+    }
+}
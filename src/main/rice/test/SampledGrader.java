@@ -0,0 +1,136 @@
+package main.rice.test;
+
+import main.rice.concisegen.ConciseSetGenerator;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Grades a large cohort of implementations in two phases instead of running every test
+ * case on every implementation. First, the whole base set is run on a random sample of
+ * the implementations, and the concise set of that sample becomes the candidate tests.
+ * Second, the remaining implementations are run only on the candidates; those that no
+ * candidate catches are then swept with the rest of the base set, so that every buggy
+ * implementation the base set could catch is still reported. The savings come from the
+ * implementations that the candidates catch, which are never run on the rest.
+ */
+public class SampledGrader {
+
+    /**
+     * The number of implementations on which the whole base set is run.
+     */
+    private final int sampleSize;
+
+    /**
+     * The RNG used to draw the sample.
+     */
+    private final Random rand;
+
+    /**
+     * Constructor for a SampledGrader.
+     *
+     * @param sampleSize the number of implementations on which the whole base set is
+     *                   run; must be positive
+     * @param seed       the seed for drawing the sample
+     * @throws IllegalArgumentException if sampleSize is not positive
+     */
+    public SampledGrader(int sampleSize, long seed) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("Sample size must be positive, got "
+                    + sampleSize);
+        }
+        this.sampleSize = sampleSize;
+        this.rand = new Random(seed);
+    }
+
+    /**
+     * Grades every implementation in the tester's directory in two phases.
+     *
+     * @param tester the tester, whose expected results have already been computed
+     * @return the results of testing, in which every file caught by any test case in the
+     * base set is caught by at least one; cells that were never run count as passing
+     * @throws IOException if the directory of buggy implementations cannot be accessed
+     * @throws InterruptedException if the process is interrupted
+     */
+    public TestResults grade(Tester tester) throws IOException, InterruptedException {
+        int numFiles = tester.getImplFilenames().size();
+        int numTests = tester.getTests().size();
+        List<Integer> allTests = range(numTests);
+        List<Integer> files = range(numFiles);
+        if (numFiles <= this.sampleSize) {
+            return tester.runTests(files, allTests);
+        }
+
+        // Phase one: run the whole base set on the sample, and find its concise set
+        Collections.shuffle(files, this.rand);
+        List<Integer> sample = files.subList(0, this.sampleSize);
+        List<Integer> rest = files.subList(this.sampleSize, numFiles);
+        TestResults results = tester.runTests(sample, allTests);
+        Map<TestCase, Integer> indices = new HashMap<>();
+        for (int i = 0; i < numTests; i++) {
+            indices.putIfAbsent(tester.getTests().get(i), i);
+        }
+        Set<Integer> candidates = new TreeSet<>();
+        for (TestCase test : ConciseSetGenerator.setCover(results)) {
+            candidates.add(indices.get(test));
+        }
+
+        // Phase two: run only the candidates on the rest of the implementations
+        TestResults candidateResults = tester.runTests(rest, candidates);
+        results = union(results, candidateResults);
+
+        // Sweep the implementations no candidate caught with the other test cases
+        List<Integer> uncaught = new ArrayList<>();
+        for (int file : rest) {
+            if (!candidateResults.getWrongSet().contains(file)) {
+                uncaught.add(file);
+            }
+        }
+        List<Integer> others = new ArrayList<>();
+        for (int test : allTests) {
+            if (!candidates.contains(test)) {
+                others.add(test);
+            }
+        }
+        if (!uncaught.isEmpty() && !others.isEmpty()) {
+            results = union(results, tester.runTests(uncaught, others));
+        }
+        return results;
+    }
+
+    /**
+     * Helper for grade(); combines the results of running disjoint cells of the same
+     * test cases on the same files.
+     *
+     * @param first  the results of running some cells
+     * @param second the results of running other cells
+     * @return the results of running all of them
+     */
+    private static TestResults union(TestResults first, TestResults second) {
+        List<TestCase> tests = new ArrayList<>();
+        List<Set<Integer>> caseToFiles = new ArrayList<>();
+        for (int i = 0; i < first.getCaseToFiles().size(); i++) {
+            tests.add(first.getTestCase(i));
+            Set<Integer> caught = new HashSet<>(first.getCaseToFiles().get(i));
+            caught.addAll(second.getCaseToFiles().get(i));
+            caseToFiles.add(caught);
+        }
+        Set<Integer> wrongSet = new HashSet<>(first.getWrongSet());
+        wrongSet.addAll(second.getWrongSet());
+        return new TestResults(tests, caseToFiles, wrongSet);
+    }
+
+    /**
+     * Helper for grade(); lists the integers from 0 up to (but excluding) n.
+     *
+     * @param n the number of integers
+     * @return the list [0, n)
+     */
+    private static List<Integer> range(int n) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+}
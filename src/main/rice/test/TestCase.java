@@ -70,4 +70,19 @@ public class TestCase {
     public int hashCode() {
         return this.args.hashCode();
     }
+
+    /**
+     * Computes a 64-bit fingerprint of this test case from the fingerprints of its
+     * arguments, in order, such that two test cases that are considered equal by
+     * .equals() will also have the same fingerprint.
+     *
+     * @return the fingerprint of this test case
+     */
+    public long fingerprint() {
+        long h = this.args.size();
+        for (APyObj<?> arg : this.args) {
+            h = APyObj.mix(h * 31 + arg.fingerprint());
+        }
+        return h;
+    }
 }
\ No newline at end of file
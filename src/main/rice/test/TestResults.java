@@ -1,5 +1,7 @@
 package main.rice.test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -76,4 +78,21 @@ public class TestResults {
     public List<Set<Integer>> getCaseToFiles() {
         return this.caseToFiles;
     }
-}
\ No newline at end of file
+
+    /**
+     * Combines these results with those of running further test cases on the same files,
+     * as if all of the test cases had been run together; these test cases come first.
+     *
+     * @param other the results of running further test cases on the same files
+     * @return the combined results
+     */
+    public TestResults merge(TestResults other) {
+        List<TestCase> mergedCases = new ArrayList<>(this.allCases);
+        mergedCases.addAll(other.allCases);
+        List<Set<Integer>> mergedCaseToFiles = new ArrayList<>(this.caseToFiles);
+        mergedCaseToFiles.addAll(other.caseToFiles);
+        Set<Integer> mergedWrongSet = new HashSet<>(this.wrongSet);
+        mergedWrongSet.addAll(other.wrongSet);
+        return new TestResults(mergedCases, mergedCaseToFiles, mergedWrongSet);
+    }
+}
@@ -1,8 +1,12 @@
 package main.rice.test;
 
+import main.rice.monitor.MetricsRegistry;
+import main.rice.monitor.ProcessEvent;
+import main.rice.monitor.TraceRecorder;
 import main.rice.obj.APyObj;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * A class for running a test suite. Encapsulates the ability to run the test suite on a
@@ -13,6 +17,18 @@ import java.util.*;
  */
 public class Tester {
 
+    /**
+     * The prefix of the line on which the wrapper reports the resources consumed by a
+     * test process.
+     */
+    private static final String USAGE_MARKER = "#FEAT-USAGE";
+
+    /**
+     * The upper bounds (in seconds) of the buckets of the per-test latency histogram.
+     */
+    private static final double[] LATENCY_BUCKETS =
+            {0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+
     /**
      * The name of the function under test.
      */
@@ -32,7 +48,51 @@ public class Tester {
     /**
      * The set of test cases to be executed on the reference solution.
      */
-    private final List<TestCase> tests;
+    private List<TestCase> tests;
+
+    /**
+     * The expected result of each test case; null if computeExpectedResults() has not
+     * been called.
+     */
+    private List<String> expectedResults;
+
+    /**
+     * The wall time, in milliseconds, the solution took on each test case; null if
+     * computeExpectedResults() has not been called.
+     */
+    private List<Double> solutionMillis;
+
+    /**
+     * The controller limiting how many test processes may run at once; null if tests
+     * should be run sequentially on the calling thread.
+     */
+    private ConcurrencyController concurrency;
+
+    /**
+     * The resources consumed by each cell run on the current test cases, across every
+     * call to runTests() since they were last set; null if runTests() has not been called
+     * on them yet.
+     */
+    private ResourceMatrix resourceMatrix;
+
+    /**
+     * The number of implementations each current test case has been run on, across every
+     * call to runTests() since the test cases were last set; null if runTests() has not
+     * been called on them yet.
+     */
+    private List<Integer> runsPerTest;
+
+    /**
+     * The recorder to which a span is added for each process and phase; null if the
+     * timeline is not being traced.
+     */
+    private TraceRecorder trace;
+
+    /**
+     * The registry in which process and test counts are kept; null if the run is not
+     * being monitored.
+     */
+    private MetricsRegistry metrics;
 
     /**
      * Constructor for a Tester, which initializes all of the fields using the given
@@ -53,6 +113,49 @@ public class Tester {
         this.tests = tests;
     }
 
+    /**
+     * Sets the controller used to run the buggy implementations in parallel; passing
+     * null restores sequential execution.
+     *
+     * @param concurrency the controller limiting how many test processes may run at once
+     */
+    public void setConcurrency(ConcurrencyController concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Sets the recorder to which a span is added for each test process, as well as for
+     * the expected-result computation and testing phases; passing null disables tracing.
+     *
+     * @param trace the recorder for the timeline of this Tester
+     */
+    public void setTraceRecorder(TraceRecorder trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * Sets the registry in which this Tester counts tests executed, processes spawned,
+     * non-zero exits, per-test latency, workers in flight and bytes of output read;
+     * passing null disables monitoring.
+     *
+     * @param metrics the registry to be updated
+     */
+    public void setMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the resources consumed by each (implementation, test) cell run on the
+     * current test cases, across every call to runTests() since the expected results were
+     * computed or the test cases narrowed. Cells that were not run are null.
+     *
+     * @return the resource matrix, or null if runTests() has not been called on the
+     * current test cases
+     */
+    public ResourceMatrix getResourceMatrix() {
+        return this.resourceMatrix;
+    }
+
     /**
      * Computes the expected results by running each test case on the solution file.
      * Stores the results in a list (which is returned) and also creates a .py file
@@ -64,27 +167,128 @@ public class Tester {
      * @throws InterruptedException if the process is interrupted
      */
     public List<String> computeExpectedResults() throws IOException, InterruptedException {
+        long start = this.trace == null ? 0 : this.trace.now();
+
         // Write an appropriate footer to the solution file to make it executable from
         // the command-line, if the footer doesn't exist already
         this.appendToSolution();
 
-        // Run each test case on the solution file and gather the results in a map
+        // Run each test case on the solution file and gather the results in a map,
+        // measuring how long each takes so that expensive test cases can be pruned
         List<String> results = new ArrayList<>();
+        List<Double> millis = new ArrayList<>();
         for (int i = 0; i < this.tests.size(); i++) {
             List<String> args = this.getExpTestArgs(i);
-            String result = this.runTestHelper(args);
-            results.add(result);
+            Outcome outcome = this.runTestHelper(args, "solution", i);
+            results.add(outcome.result());
+            millis.add(outcome.usage().getWallMillis());
         }
 
         // Write the expected results to a .py file, so that they can be accessed via
         // the wrapper. These cached results allow us to only run the solution once per
         // test rather than having to run it once per test per buggy implementation.
         this.outputExpectedResults(results);
+        this.expectedResults = results;
+        this.solutionMillis = millis;
+        this.resourceMatrix = null;
+        this.runsPerTest = null;
+        this.addPhaseSpan("computeExpectedResults", start);
 
         // Return the results
         return results;
     }
 
+    /**
+     * Returns the expected results computed by the most recent call to
+     * computeExpectedResults() (narrowed along with the test cases).
+     *
+     * @return a list where the i-th element is the result of running the i-th test case
+     * on the reference solution, or null if computeExpectedResults() has not been called
+     */
+    public List<String> getExpectedResults() {
+        return this.expectedResults;
+    }
+
+    /**
+     * Returns the wall time the solution took on each test case during the most recent
+     * call to computeExpectedResults() (narrowed along with the test cases).
+     *
+     * @return a list where the i-th element is the time, in milliseconds, the solution
+     * took on the i-th test case, or null if computeExpectedResults() has not been called
+     */
+    public List<Double> getSolutionMillis() {
+        return this.solutionMillis;
+    }
+
+    /**
+     * Narrows the test cases to the diverse subset chosen by the given filter from their
+     * expected results, so that runTests() only runs that subset on the implementations.
+     * The expected results of the subset are rewritten, so the solution is not run again.
+     *
+     * @param filter the filter choosing which test cases to keep
+     * @return the test cases kept, in their original order
+     * @throws IllegalStateException if computeExpectedResults() has not been called
+     * @throws IOException if the results file cannot be written
+     */
+    public List<TestCase> retainDiverseTests(OutputDiversityFilter filter) throws IOException {
+        this.checkExpectedResults();
+        return this.retainTests(filter.select(this.tests, this.expectedResults));
+    }
+
+    /**
+     * Narrows the test cases to those the given pruner can fit in its time budget, based
+     * on how long the solution took on each; otherwise the same as retainDiverseTests().
+     *
+     * @param pruner the pruner choosing which test cases to keep
+     * @return the test cases kept, in their original order
+     * @throws IllegalStateException if computeExpectedResults() has not been called
+     * @throws IOException if the results file cannot be written
+     */
+    public List<TestCase> retainAffordableTests(CostAwarePruner pruner) throws IOException {
+        this.checkExpectedResults();
+        return this.retainTests(pruner.select(this.tests, this.expectedResults,
+                this.solutionMillis));
+    }
+
+    /**
+     * Helper for the retain methods; makes sure that there are expected results to
+     * filter the test cases by.
+     *
+     * @throws IllegalStateException if computeExpectedResults() has not been called
+     */
+    private void checkExpectedResults() {
+        if (this.expectedResults == null) {
+            throw new IllegalStateException("Expected results must be computed before "
+                    + "filtering the test cases");
+        }
+    }
+
+    /**
+     * Helper for the retain methods; narrows the test cases, their expected results and
+     * their solution times to the given indices, and rewrites the expected results.
+     *
+     * @param indices the indices of the test cases to keep, in increasing order
+     * @return the test cases kept
+     * @throws IOException if the results file cannot be written
+     */
+    private List<TestCase> retainTests(List<Integer> indices) throws IOException {
+        List<TestCase> keptTests = new ArrayList<>();
+        List<String> keptResults = new ArrayList<>();
+        List<Double> keptMillis = new ArrayList<>();
+        for (int index : indices) {
+            keptTests.add(this.tests.get(index));
+            keptResults.add(this.expectedResults.get(index));
+            keptMillis.add(this.solutionMillis.get(index));
+        }
+        this.tests = keptTests;
+        this.expectedResults = keptResults;
+        this.solutionMillis = keptMillis;
+        this.resourceMatrix = null;
+        this.runsPerTest = null;
+        this.outputExpectedResults(keptResults);
+        return keptTests;
+    }
+
     /**
      * Runs all tests on all files in the directory of buggy implementations, comparing
      * the outputs to the pre-generated expected results and returning the results in the
@@ -96,6 +300,34 @@ public class Tester {
      * @throws InterruptedException if the process is interrupted
      */
     public TestResults runTests() throws IOException, InterruptedException {
+        int numFiles = this.getImplFiles().size();
+        List<Integer> fileIndices = new ArrayList<>();
+        for (int fileIndex = 0; fileIndex < numFiles; fileIndex++) {
+            fileIndices.add(fileIndex);
+        }
+        List<Integer> testIndices = new ArrayList<>();
+        for (int testIndex = 0; testIndex < this.tests.size(); testIndex++) {
+            testIndices.add(testIndex);
+        }
+        return this.runTests(fileIndices, testIndices);
+    }
+
+    /**
+     * Runs only the given tests on only the given files in the directory of buggy
+     * implementations; otherwise the same as runTests(). Files are indexed as in
+     * getImplFilenames(), and cells that are not run are reported as passing.
+     *
+     * @param fileIndices the indices of the files to be tested
+     * @param testIndices the indices of the test cases to be run on each of them
+     * @return the results of testing, over all of the test cases
+     * @throws IOException if the path to the directory of buggy implementations is
+     *                     invalid
+     * @throws InterruptedException if the process is interrupted
+     */
+    public TestResults runTests(Collection<Integer> fileIndices, Collection<Integer> testIndices)
+            throws IOException, InterruptedException {
+        long start = this.trace == null ? 0 : this.trace.now();
+
         // Create the wrapper file
         this.createWrapperFile();
 
@@ -106,7 +338,98 @@ public class Tester {
         }
         Set<Integer> wrongSet = new HashSet<>();
 
-        // Get the list of all files in the input directory
+        // Get the list of all implementation files in the input directory; the cells of
+        // every call on the same test cases are kept in the same matrix
+        List<String> filenames = this.getImplFiles();
+        if (this.resourceMatrix == null) {
+            this.resourceMatrix = new ResourceMatrix(filenames, this.tests.size());
+            this.runsPerTest = new ArrayList<>(Collections.nCopies(this.tests.size(), 0));
+        }
+
+        // Run each test case on each file, keeping track of which ones caught errors
+        List<Cell> cells = new ArrayList<>();
+        for (int fileIndex : fileIndices) {
+            for (int testIndex : testIndices) {
+                cells.add(new Cell(fileIndex, testIndex));
+            }
+        }
+        for (int testIndex : testIndices) {
+            this.runsPerTest.set(testIndex, this.runsPerTest.get(testIndex) + fileIndices.size());
+        }
+        boolean[] caught = this.runCells(filenames, cells);
+        for (int i = 0; i < cells.size(); i++) {
+            if (caught[i]) {
+                caseToFiles.get(cells.get(i).testIndex()).add(cells.get(i).fileIndex());
+                wrongSet.add(cells.get(i).fileIndex());
+            }
+        }
+
+        // Clean up the pycache that was created
+        this.deletePyCache();
+        this.addPhaseSpan("runTests", start);
+
+        // Return the results
+        return new TestResults(this.tests, caseToFiles, wrongSet);
+    }
+
+    /**
+     * Returns the number of implementations each test case has been run on, across every
+     * call to runTests() since the expected results were computed or the test cases
+     * narrowed, so that graders running only some of the cells need not count them.
+     *
+     * @return a list where the i-th element is the number of implementations the i-th
+     * test case was run on
+     */
+    public List<Integer> getRunsPerTest() {
+        return this.runsPerTest == null ? Collections.nCopies(this.tests.size(), 0)
+                : this.runsPerTest;
+    }
+
+    /**
+     * Returns the number of (implementation, test) cells run on the current test cases,
+     * to be compared with the number of implementations times test cases.
+     *
+     * @return the number of cells run
+     */
+    public long getNumCellsRun() {
+        long numCellsRun = 0;
+        for (int runs : this.getRunsPerTest()) {
+            numCellsRun += runs;
+        }
+        return numCellsRun;
+    }
+
+    /**
+     * Returns the names of the implementation files in the directory of buggy
+     * implementations, in the order by which runTests() indexes them.
+     *
+     * @return the sorted names of all implementation files
+     * @throws IOException if the path to the directory of buggy implementations is
+     *                     invalid
+     */
+    public List<String> getImplFilenames() throws IOException {
+        return this.getImplFiles();
+    }
+
+    /**
+     * Returns the test cases this Tester runs, narrowed by any call to a retain method.
+     *
+     * @return the test cases
+     */
+    public List<TestCase> getTests() {
+        return this.tests;
+    }
+
+    /**
+     * Returns the names of all implementation files in the directory of buggy
+     * implementations, sorted so that the index of each file is stable across runs.
+     *
+     * @return the sorted names of all implementation files
+     * @throws IOException if the path to the directory of buggy implementations is
+     *                     invalid
+     */
+    private List<String> getImplFiles() throws IOException {
+        // If implDirPath didn't actually point to a directory, filenames would be null
         var dir = new File(this.implDirPath);
         String[] filenames = dir.list();
         if (filenames == null) {
@@ -114,40 +437,131 @@ public class Tester {
         }
         Arrays.sort(filenames);
 
-        // If implDirPath didn't actually point to a directory, files would be null
-        int trueIndex = 0;
-
-        // Test each individual file using all tests in the base test set
+        // Skip non-Python files, as well as the files we generate ourselves
+        List<String> implFiles = new ArrayList<>();
         for (String filename : filenames) {
             if (!filename.endsWith(".py") || filename.equals("wrapper.py")
                     || filename.equals("expected.py")) {
                 continue;
             }
+            implFiles.add(filename);
+        }
+        return implFiles;
+    }
 
-            // Run each test case on this file, keeping track of which ones caught
-            // errors
-            HashSet<Integer> caughtBy = new HashSet<>();
-            for (int testIndex = 0; testIndex < this.tests.size(); testIndex++) {
-                List<String> args = this.getTestArgs(testIndex, filename);
-                String result = this.runTestHelper(args);
-                if (!result.equals("True")) {
-                    caseToFiles.get(testIndex).add(trueIndex);
-                    caughtBy.add(testIndex);
-                }
+    /**
+     * Runs the given (file, test) cells, either sequentially or -- if a concurrency
+     * controller has been set -- on a pool of workers whose number of running processes
+     * is limited by that controller.
+     *
+     * @param filenames the names of the implementation files, indexed by Cell.fileIndex
+     * @param cells     the cells to be run
+     * @return an array where the i-th element is true if the i-th cell's test caught an
+     * error in its file
+     * @throws IOException if a file to run or its output cannot be accessed
+     * @throws InterruptedException if the process is interrupted
+     */
+    private boolean[] runCells(List<String> filenames, List<Cell> cells)
+            throws IOException, InterruptedException {
+        boolean[] caught = new boolean[cells.size()];
+        if (this.concurrency == null) {
+            for (int i = 0; i < cells.size(); i++) {
+                caught[i] = this.runCell(filenames, cells.get(i));
             }
+            return caught;
+        }
 
-            // Add to wrongSet if applicable
-            if (caughtBy.size() > 0) {
-                wrongSet.add(trueIndex);
+        // Submit every cell up front; the controller decides how many actually run at
+        // once, and may change its mind while the run is in progress
+        ExecutorService pool =
+                Executors.newFixedThreadPool(this.concurrency.getMaxWorkers());
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Cell cell : cells) {
+                futures.add(pool.submit(() -> {
+                    this.concurrency.acquire();
+                    try {
+                        return this.runCell(filenames, cell);
+                    } finally {
+                        this.concurrency.release();
+                    }
+                }));
+            }
+            for (int i = 0; i < cells.size(); i++) {
+                caught[i] = futures.get(i).get();
             }
-            trueIndex++;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof InterruptedException cause) {
+                throw cause;
+            }
+            throw new IOException("test process failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
         }
+        return caught;
+    }
 
-        // Clean up the pycache that was created
-        this.deletePyCache();
+    /**
+     * Runs a single test on a single implementation file.
+     *
+     * @param filenames the names of the implementation files, indexed by Cell.fileIndex
+     * @param cell      the cell to be run
+     * @return true if the test caught an error in the file; false if it passed
+     * @throws IOException if the file to run or its output cannot be accessed
+     * @throws InterruptedException if the process is interrupted
+     */
+    private boolean runCell(List<String> filenames, Cell cell)
+            throws IOException, InterruptedException {
+        List<String> args = this.getTestArgs(cell.testIndex(),
+                filenames.get(cell.fileIndex()));
+        Outcome outcome = this.runTestHelper(args, filenames.get(cell.fileIndex()),
+                cell.testIndex());
+        this.resourceMatrix.record(cell.fileIndex(), cell.testIndex(), outcome.usage());
+        if (this.metrics != null) {
+            this.metrics.counter("feat_tests_executed_total",
+                    "Tests run on buggy implementations.").inc();
+        }
+        return !outcome.result().equals("True");
+    }
 
-        // Return the results
-        return new TestResults(this.tests, caseToFiles, wrongSet);
+    /**
+     * Updates the per-process metrics after a process has exited.
+     *
+     * @param impl       the name of the file under test, or "solution"
+     * @param exitCode   the exit code of the process
+     * @param wallMillis the wall time of the process, in milliseconds
+     * @param bytesRead  the number of bytes of output read from the process
+     */
+    private void recordProcessMetrics(String impl, int exitCode, double wallMillis,
+                                      long bytesRead) {
+        String kind = impl.equals("solution") ? "solution" : "impl";
+        this.metrics.counter("feat_process_spawns_total", "Python processes spawned.",
+                "kind", kind).inc();
+        if (exitCode != 0) {
+            this.metrics.counter("feat_process_nonzero_exits_total",
+                    "Python processes that exited with a non-zero code.", "kind", kind).inc();
+        }
+        this.metrics.histogram("feat_test_latency_seconds",
+                "Wall time of each test process, from spawn to exit.", LATENCY_BUCKETS)
+                .observe(wallMillis / 1000);
+        this.metrics.counter("feat_output_bytes_total",
+                "Bytes of output read from test processes.").inc(bytesRead);
+    }
+
+    /**
+     * Adds a span for a phase of this Tester that started at the given time and ends now,
+     * if the timeline is being traced.
+     *
+     * @param name  the name of the phase
+     * @param start the start of the phase, as returned by the trace recorder
+     */
+    private void addPhaseSpan(String name, long start) {
+        if (this.trace != null) {
+            this.trace.addSpan(name, "phase", start, this.trace.now(),
+                    Map.of("tests", this.tests.size()));
+        }
     }
 
     /**
@@ -211,35 +625,82 @@ public class Tester {
     /**
      * A helper function for runTest and runExpTest which runs a Python process (using a
      * list of arguments, as output by getTestArgs or getExpTestArgs) and reads its
-     * output.
+     * output, along with the resources it reported consuming.
      *
-     * @param args the arguments for the process to be created
-     * @return the result of reading from the process
+     * @param args      the arguments for the process to be created
+     * @param impl      the name of the file under test, or "solution"; only used for
+     *                  monitoring
+     * @param testIndex the index of the test case being run; only used for monitoring
+     * @return the result of reading from the process, and the resources it consumed
      * @throws IOException if the file to run or its output cannot be accessed
      * @throws InterruptedException if the process is interrupted
      */
-    private String runTestHelper(List<String> args) throws IOException, InterruptedException {
-        ProcessBuilder pb = new ProcessBuilder();
-        pb.command(args);
-        Process process = pb.start();
-
-        // Redirect the output of the process to here
-        var sb = new StringBuilder();
-        var reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-
-        // Wait until the process has exited
-        process.waitFor();
+    private Outcome runTestHelper(List<String> args, String impl, int testIndex)
+            throws IOException, InterruptedException {
+        ProcessEvent event = new ProcessEvent();
+        event.impl = impl;
+        event.testIndex = testIndex;
+        event.exitCode = -1;
+        event.begin();
+        long traceStart = this.trace == null ? 0 : this.trace.now();
+        MetricsRegistry.Gauge inFlight = this.metrics == null ? null : this.metrics.gauge(
+                "feat_workers_in_flight", "Test processes currently running.");
+        if (inFlight != null) {
+            inFlight.inc();
+        }
 
-        // Read the output of the process, the last line of which should be the result
-        String line;
+        // Even if the process cannot be spawned or read, it is no longer in flight
+        double wallMillis;
         String prevLine = "";
-        while ((line = reader.readLine()) != null) {
-            prevLine = line;
+        double cpuMillis = -1;
+        long peakRssKb = -1;
+        long bytesRead = 0;
+        try {
+            ProcessBuilder pb = new ProcessBuilder();
+            pb.command(args);
+            long startNanos = System.nanoTime();
+            Process process = pb.start();
+
+            // Redirect the output of the process to here
+            var sb = new StringBuilder();
+            var reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+
+            // Wait until the process has exited
+            process.waitFor();
+            wallMillis = (System.nanoTime() - startNanos) / 1e6;
+
+            // Read the output of the process, the last line of which should be the result;
+            // the wrapper reports resource usage on a marked line just before it. If the
+            // marked line comes last, no result was printed, which counts as a failure.
+            String line;
+            while ((line = reader.readLine()) != null) {
+                bytesRead += line.length() + 1;
+                if (line.startsWith(USAGE_MARKER)) {
+                    String[] fields = line.split(" ");
+                    cpuMillis = Double.parseDouble(fields[1]) * 1000;
+                    peakRssKb = Long.parseLong(fields[2]);
+                }
+                prevLine = line;
+            }
+            reader.close();
+            event.exitCode = process.exitValue();
+        } finally {
+            event.commit();
+            if (inFlight != null) {
+                inFlight.dec();
+            }
+        }
+        if (inFlight != null) {
+            this.recordProcessMetrics(impl, event.exitCode, wallMillis, bytesRead);
+        }
+        if (this.trace != null) {
+            this.trace.addSpan(impl + " #" + testIndex, "test", traceStart,
+                    this.trace.now(), Map.of("impl", impl, "test", testIndex,
+                            "exitCode", event.exitCode, "result", prevLine));
         }
-        reader.close();
 
         // Return the result
-        return prevLine;
+        return new Outcome(prevLine, new ResourceUsage(cpuMillis, peakRssKb, wallMillis));
     }
 
     /**
@@ -255,7 +716,19 @@ public class Tester {
 
         // Import the expected results, plus the other modules we'll need
         sb.append("import sys\nfrom importlib import import_module\nfrom expected " +
-                "import results\n\n");
+                "import results\n");
+        sb.append("try:\n    import resource\nexcept ImportError:\n    resource = None\n\n");
+
+        // Function for reporting the CPU time (in seconds) and peak RSS (in KB) consumed
+        // by this process on a marked line, so that the Tester can account for it
+        sb.append("def report_usage():\n");
+        sb.append("    if resource is None:\n");
+        sb.append("        return\n");
+        sb.append("    usage = resource.getrusage(resource.RUSAGE_SELF)\n");
+        sb.append("    rss = usage.ru_maxrss // 1024 if sys.platform == 'darwin' " +
+                "else usage.ru_maxrss\n");
+        sb.append("    print ('").append(USAGE_MARKER).append(" %f %d' % " +
+                "(usage.ru_utime + usage.ru_stime, rss))\n\n");
 
         // Function for comparing the buggy implementation's results to the
         // pre-determined expected results
@@ -274,7 +747,13 @@ public class Tester {
         sb.append("    fname = sys.argv[3]\n");
         sb.append("    args = sys.argv[4:]\n");
         sb.append("    args = [eval(arg) for arg in args]\n");
-        sb.append("    print (test_buggy_impl(case_num, impl_name, fname, args))");
+        sb.append("    try:\n");
+        sb.append("        passed = test_buggy_impl(case_num, impl_name, fname, args)\n");
+        sb.append("    except BaseException:\n");
+        sb.append("        report_usage()\n");
+        sb.append("        raise\n");
+        sb.append("    report_usage()\n");
+        sb.append("    print (passed)");
         String wrapperContents = sb.toString();
 
         // Create the Python wrapper file including the above code
@@ -371,4 +850,22 @@ public class Tester {
         }
         pyCacheDir.delete();
     }
-}
\ No newline at end of file
+
+    /**
+     * A single unit of work for runTests: one test case run on one implementation file.
+     *
+     * @param fileIndex the index of the implementation file
+     * @param testIndex the index of the test case
+     */
+    private record Cell(int fileIndex, int testIndex) {
+    }
+
+    /**
+     * The outcome of running a single Python process.
+     *
+     * @param result the last line printed by the process
+     * @param usage  the resources consumed by the process
+     */
+    private record Outcome(String result, ResourceUsage usage) {
+    }
+}
@@ -1,12 +1,17 @@
 package test.rice;
 
 import main.rice.Main;
+import main.rice.corpus.CatchHistory;
+import main.rice.corpus.CorpusReader;
+import main.rice.corpus.CorpusWriter;
 import main.rice.obj.*;
 import main.rice.parse.InvalidConfigException;
 import main.rice.test.TestCase;
 import org.junit.jupiter.api.*;
 import test.rice.node.APyNodeTest;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -153,6 +158,199 @@ class MainTest {
         }
     }
 
+    /**
+     * Tests that running the buggy implementations in parallel under an adaptive
+     * controller yields the same concise set as running them sequentially.
+     */
+    @Test
+    @Order(7)
+    void testMultipleCasesDeterministicAdaptive() {
+        String[] args = buildArgs("func0", "func0simple", "f0multipleMixedDeterministic",
+                "--adaptive", "--workers=4");
+        Set<TestCase> expected = Set.of(new TestCase(Collections.singletonList(
+                new PyIntObj(2))), new TestCase(Collections.singletonList(new PyIntObj(7))));
+        mainTestHelper(args, expected);
+    }
+
+    /**
+     * Tests that a dry run generates and runs nothing.
+     */
+    @Test
+    @Order(8)
+    void testDryRun() {
+        String[] args = buildArgs("func0", "func0simple", "f0multipleMixedDeterministic",
+                "--dry-run");
+        mainTestHelper(args, Set.of());
+    }
+
+    /**
+     * Tests that a base set saved with --save-corpus can be reloaded with --load-corpus,
+     * and that a loaded corpus replaces generation entirely.
+     */
+    @Test
+    @Order(9)
+    void testSaveAndLoadCorpus() throws IOException {
+        Path corpus = Files.createTempFile("corpus", ".bin");
+        try {
+            Set<TestCase> expected = Set.of(new TestCase(Collections.singletonList(
+                    new PyIntObj(2))), new TestCase(Collections.singletonList(new PyIntObj(7))));
+            mainTestHelper(buildArgs("func0", "func0simple", "f0multipleMixedDeterministic",
+                    "--save-corpus=" + corpus), expected);
+            assertTrue(CorpusReader.readAll(corpus.toString()).containsAll(expected));
+            mainTestHelper(buildArgs("func0", "func0simple", "f0multipleMixedDeterministic",
+                    "--load-corpus=" + corpus), expected);
+
+            // A corpus holding only the concise set yields the same concise set
+            CorpusWriter.writeAll(corpus.toString(), new ArrayList<>(expected));
+            mainTestHelper(buildArgs("func0", "func0simple", "f0multipleMixedDeterministic",
+                    "--load-corpus=" + corpus), expected);
+        } finally {
+            Files.deleteIfExists(corpus);
+        }
+    }
+
+    /**
+     * Tests that adaptive random generation, allowed to run until the random space is
+     * exhausted, yields the same concise set as generating the whole base set at once.
+     */
+    @Test
+    @Order(10)
+    void testAdaptiveRandom() {
+        String[] args = buildArgs("func0", "func0simple", "f0multipleMixedDeterministic",
+                "--adaptive-random=1", "--patience=10");
+        Set<TestCase> expected = Set.of(new TestCase(Collections.singletonList(
+                new PyIntObj(2))), new TestCase(Collections.singletonList(new PyIntObj(7))));
+        mainTestHelper(args, expected);
+    }
+
+    /**
+     * Tests that sampled grading yields a concise set that still catches every buggy
+     * implementation.
+     */
+    @Test
+    @Order(11)
+    void testSampledGrading() {
+        // The ints on which each implementation in f0multipleMixedDeterministic is wrong
+        List<Set<Integer>> wrongOn = List.of(Set.of(1, 2, 5, 6), Set.of(1, 2, 4, 6),
+                Set.of(6, 7, 8, 9), Set.of(2, 3), Set.of(2, 4), Set.of(4, 5, 7));
+        for (int seed = 0; seed < 3; seed++) {
+            Set<TestCase> actual = runMain(buildArgs("func0", "func0simple",
+                    "f0multipleMixedDeterministic", "--sample=2", "--seed=" + seed));
+            for (Set<Integer> values : wrongOn) {
+                assertTrue(actual.stream().anyMatch(test -> values.contains(
+                        ((PyIntObj) test.getArgs().get(0)).getValue())));
+            }
+        }
+    }
+
+    /**
+     * Tests that the lazy set cover selects the same concise set as the eager one.
+     */
+    @Test
+    @Order(12)
+    void testLazyCover() {
+        Set<TestCase> eager = runMain(buildArgs("func0", "func0simple",
+                "f0multipleMixedDeterministic", "--seed=0"));
+        Set<TestCase> lazy = runMain(buildArgs("func0", "func0simple",
+                "f0multipleMixedDeterministic", "--seed=0", "--lazy-cover"));
+        assertEquals(eager, lazy);
+    }
+
+    /**
+     * Tests that the first-failure sweep, prioritized by a catch history that persists
+     * across runs, still yields the same concise set as running the full matrix, and that
+     * the history only counts catches that were actually observed.
+     */
+    @Test
+    @Order(13)
+    void testHistoryFirstFailure() throws IOException {
+        List<Set<Integer>> wrongOn = List.of(Set.of(1, 2, 5, 6), Set.of(1, 2, 4, 6),
+                Set.of(6, 7, 8, 9), Set.of(2, 3), Set.of(2, 4), Set.of(4, 5, 7));
+        Set<TestCase> eager = runMain(buildArgs("func0", "func0simple",
+                "f0multipleMixedDeterministic", "--seed=0"));
+        Path history = Files.createTempFile("history", ".bin");
+        Files.delete(history);
+        try {
+            for (int run = 0; run < 2; run++) {
+                Set<TestCase> actual = runMain(buildArgs("func0", "func0simple",
+                        "f0multipleMixedDeterministic", "--seed=0", "--first-failure",
+                        "--history=" + history));
+                assertEquals(eager, actual);
+            }
+
+            // Each run credits each buggy implementation to at least one test case, and
+            // to no more than the full matrix would
+            CatchHistory loaded = CatchHistory.load(history.toString());
+            long catches = 0;
+            long maxCatches = 0;
+            for (int i = 0; i < 10; i++) {
+                catches += loaded.getCatches(new TestCase(List.of(new PyIntObj(i))));
+            }
+            for (Set<Integer> values : wrongOn) {
+                maxCatches += 2 * values.size();
+            }
+            assertTrue(catches >= 2 * wrongOn.size());
+            assertTrue(catches <= maxCatches);
+        } finally {
+            Files.deleteIfExists(history);
+        }
+    }
+
+    /**
+     * Tests that shrinking the concise set keeps it catching every buggy implementation,
+     * without making any test case larger.
+     */
+    @Test
+    @Order(14)
+    void testShrink() {
+        List<Set<Integer>> wrongOn = List.of(Set.of(1, 2, 5, 6), Set.of(1, 2, 4, 6),
+                Set.of(6, 7, 8, 9), Set.of(2, 3), Set.of(2, 4), Set.of(4, 5, 7));
+        Set<TestCase> original = runMain(buildArgs("func0", "func0simple",
+                "f0multipleMixedDeterministic", "--seed=0"));
+        Set<TestCase> shrunk = runMain(buildArgs("func0", "func0simple",
+                "f0multipleMixedDeterministic", "--seed=0", "--shrink=4"));
+        for (Set<Integer> values : wrongOn) {
+            assertTrue(shrunk.stream().anyMatch(test -> values.contains(
+                    ((PyIntObj) test.getArgs().get(0)).getValue())));
+        }
+        assertTrue(shrunk.size() <= original.size());
+        assertTrue(sum(shrunk) <= sum(original));
+    }
+
+    /**
+     * Tests that flags which only apply to a generated base set are rejected alongside
+     * --load-corpus, rather than silently ignored.
+     */
+    @Test
+    @Order(15)
+    void testLoadCorpusConflicts() {
+        assertThrows(IllegalArgumentException.class, () -> Main.generateTests(buildArgs(
+                "func0", "func0simple", "f0multipleMixedDeterministic",
+                "--load-corpus=corpus.bin", "--adaptive-random=2")));
+        assertThrows(IllegalArgumentException.class, () -> Main.generateTests(buildArgs(
+                "func0", "func0simple", "f0multipleMixedDeterministic",
+                "--load-corpus=corpus.bin", "--patience=2")));
+    }
+
+    /**
+     * Tests that misspelled flags, and more than one grading mode, are rejected rather
+     * than silently running the full matrix or whichever mode comes first.
+     */
+    @Test
+    @Order(16)
+    void testParseOptionsRejects() {
+        assertEquals(Map.of("sample", "3", "seed", "0"), Main.parseOptions(buildArgs("func0",
+                "func0simple", "f0multipleMixedDeterministic", "--sample=3", "--seed=0")));
+        assertThrows(IllegalArgumentException.class, () -> Main.parseOptions(buildArgs("func0",
+                "func0simple", "f0multipleMixedDeterministic", "--sampel=3")));
+        assertThrows(IllegalArgumentException.class, () -> Main.parseOptions(buildArgs("func0",
+                "func0simple", "f0multipleMixedDeterministic", "--lazycover")));
+        assertThrows(IllegalArgumentException.class, () -> Main.parseOptions(buildArgs("func0",
+                "func0simple", "f0multipleMixedDeterministic", "--sample=3", "--lazy-cover")));
+        assertThrows(IllegalArgumentException.class, () -> Main.parseOptions(buildArgs("func0",
+                "func0simple", "f0multipleMixedDeterministic", "--probe=2", "--first-failure")));
+    }
+
     /**
      * Helper function for building the array of args for Main.main() by adding absolute
      * path information.
@@ -161,9 +359,11 @@ class MainTest {
      * @param configName the name of the config file to be used
      * @param implDir    the name of the implementation directory, which should be found
      *                   in the test.rice.test.pyfiles directory
+     * @param flags      optional flags to append after the positional args
      * @return an array of args encapsulating the input information
      */
-    private static String[] buildArgs(String funcName, String configName, String implDir) {
+    private static String[] buildArgs(String funcName, String configName, String implDir,
+                                      String... flags) {
         // Build config file path
         String configFilePath = userDir + "/src/test/rice/parse/config/"
                 + configName + ".json";
@@ -173,7 +373,12 @@ class MainTest {
 
         // Build implDir path
         String implDirPath = userDir + "/src/test/rice/test/pyfiles/" + implDir;
-        return new String[]{configFilePath, solutionPath, implDirPath};
+        String[] args = new String[3 + flags.length];
+        args[0] = configFilePath;
+        args[1] = solutionPath;
+        args[2] = implDirPath;
+        System.arraycopy(flags, 0, args, 3, flags.length);
+        return args;
     }
 
     /**
@@ -251,4 +456,18 @@ class MainTest {
         // Return the distribution
         return actual;
     }
-}
\ No newline at end of file
+
+    /**
+     * Helper function; sums the int arguments of single-int test cases.
+     *
+     * @param tests the test cases
+     * @return the sum of their arguments
+     */
+    private static int sum(Set<TestCase> tests) {
+        int sum = 0;
+        for (TestCase test : tests) {
+            sum += ((PyIntObj) test.getArgs().get(0)).getValue();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,119 @@
+package test.rice.basegen;
+
+import main.rice.basegen.ArgConstraint;
+import main.rice.basegen.ArgConstraint.Comparison;
+import main.rice.basegen.ArgConstraint.Operand;
+import main.rice.obj.*;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the ArgConstraint class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ArgConstraintTest {
+
+    /**
+     * Tests each comparison between two int arguments.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testCompareInts() {
+        List<APyObj<?>> args = List.of(new PyIntObj(1), new PyIntObj(2));
+        Map<Comparison, Boolean> expected = Map.of(Comparison.LT, true, Comparison.LE, true,
+                Comparison.GT, false, Comparison.GE, false, Comparison.EQ, false,
+                Comparison.NE, true);
+        for (Map.Entry<Comparison, Boolean> entry : expected.entrySet()) {
+            ArgConstraint constraint = new ArgConstraint(Operand.arg(0), entry.getKey(),
+                    Operand.arg(1));
+            assertEquals(entry.getValue(), constraint.test(args), constraint.toString());
+        }
+    }
+
+    /**
+     * Tests that ints, floats and bools compare by value, as in Python.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(2)
+    void testCompareMixedNumbers() {
+        List<APyObj<?>> args = List.of(new PyIntObj(1), new PyFloatObj(1.0),
+                new PyBoolObj(true), new PyFloatObj(-0.0), new PyIntObj(0));
+        assertTrue(new ArgConstraint(Operand.arg(0), Comparison.EQ, Operand.arg(1)).test(args));
+        assertTrue(new ArgConstraint(Operand.arg(2), Comparison.EQ, Operand.arg(0)).test(args));
+        assertTrue(new ArgConstraint(Operand.arg(3), Comparison.EQ, Operand.arg(4)).test(args));
+        assertTrue(new ArgConstraint(Operand.arg(1), Comparison.GT, Operand.literal(0.5))
+                .test(args));
+    }
+
+    /**
+     * Tests len() of each sized type.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(3)
+    void testLength() {
+        List<APyObj<?>> args = List.of(new PyIntObj(2),
+                new PyListObj<>(List.of(new PyIntObj(1), new PyIntObj(2))),
+                new PyStringObj("ab"),
+                new PySetObj<>(Set.of(new PyIntObj(1), new PyIntObj(2))),
+                new PyDictObj<>(Map.of(new PyIntObj(1), new PyIntObj(2))));
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(new ArgConstraint(Operand.length(i), Comparison.EQ, Operand.arg(0))
+                    .test(args));
+        }
+        assertTrue(new ArgConstraint(Operand.length(4), Comparison.LT, Operand.arg(0))
+                .test(args));
+        assertThrows(IllegalArgumentException.class, () -> new ArgConstraint(
+                Operand.length(0), Comparison.EQ, Operand.arg(0)).test(args));
+    }
+
+    /**
+     * Tests that non-numeric arguments may be compared for equality but not ordered.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(4)
+    void testCompareNonNumeric() {
+        List<APyObj<?>> args = List.of(new PyStringObj("ab"), new PyStringObj("ab"),
+                new PyStringObj("b"));
+        assertTrue(new ArgConstraint(Operand.arg(0), Comparison.EQ, Operand.arg(1)).test(args));
+        assertTrue(new ArgConstraint(Operand.arg(0), Comparison.NE, Operand.arg(2)).test(args));
+        assertThrows(IllegalArgumentException.class, () -> new ArgConstraint(
+                Operand.arg(0), Comparison.LT, Operand.arg(2)).test(args));
+    }
+
+    /**
+     * Tests that getLastArg() returns the last argument either side depends on, and that a
+     * constraint must depend on some argument.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(5)
+    void testGetLastArg() {
+        assertEquals(3, new ArgConstraint(Operand.length(3), Comparison.EQ, Operand.arg(1))
+                .getLastArg());
+        assertEquals(2, new ArgConstraint(Operand.literal(4), Comparison.GE, Operand.arg(2))
+                .getLastArg());
+        assertThrows(IllegalArgumentException.class, () -> new ArgConstraint(
+                Operand.literal(1), Comparison.EQ, Operand.literal(1)));
+    }
+
+    /**
+     * Tests that toString() uses the syntax of the config file.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(6)
+    void testToString() {
+        assertEquals("len(arg2) == arg0", new ArgConstraint(Operand.length(2),
+                Comparison.EQ, Operand.arg(0)).toString());
+        assertEquals("arg1 < 2.5", new ArgConstraint(Operand.arg(1), Comparison.LT,
+                Operand.literal(2.5)).toString());
+        assertEquals(Comparison.GE, Comparison.fromSymbol(">="));
+    }
+}
@@ -0,0 +1,170 @@
+package test.rice.basegen;
+
+import main.rice.basegen.BaseSetEstimator;
+import main.rice.node.*;
+import main.rice.obj.*;
+import org.junit.jupiter.api.*;
+
+import java.math.BigInteger;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the BaseSetEstimator class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BaseSetEstimatorTest {
+
+    /**
+     * Tests that leaves count each distinct value of their domain once.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testCountLeaves() {
+        PyIntNode intNode = intNode(1, 2, 2, 3);
+        PyFloatNode floatNode = new PyFloatNode();
+        floatNode.setExDomain(List.of(1.5, 2, 2.0));
+        PyBoolNode boolNode = new PyBoolNode();
+        boolNode.setExDomain(List.of(0, 1, 1));
+
+        assertCountMatches(intNode);
+        assertCountMatches(floatNode);
+        assertCountMatches(boolNode);
+        assertEquals(BigInteger.valueOf(3), BaseSetEstimator.countExVals(intNode));
+    }
+
+    /**
+     * Tests the counts of lists, tuples and strings: n^L for each length L.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testCountSequences() {
+        PyListNode<PyIntObj> listNode = new PyListNode<>(intNode(0, 1, 2));
+        listNode.setExDomain(List.of(0, 1, 2));
+        PyTupleNode<PyIntObj> tupleNode = new PyTupleNode<>(intNode(0, 1));
+        tupleNode.setExDomain(List.of(1, 3));
+        PyStringNode stringNode = new PyStringNode(Set.of('a', 'b', 'c'));
+        stringNode.setExDomain(List.of(2));
+
+        assertEquals(BigInteger.valueOf(1 + 3 + 9), BaseSetEstimator.countExVals(listNode));
+        assertCountMatches(listNode);
+        assertCountMatches(tupleNode);
+        assertCountMatches(stringNode);
+    }
+
+    /**
+     * Tests the counts of sets, C(n, L) for each length L, including lengths longer than
+     * the number of possible elements.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testCountSets() {
+        PySetNode<PyIntObj> contiguous = new PySetNode<>(intNode(0, 1, 2));
+        contiguous.setExDomain(List.of(0, 1, 2, 3));
+        PySetNode<PyIntObj> sparse = new PySetNode<>(intNode(0, 1, 2, 3));
+        sparse.setExDomain(List.of(1, 3, 5));
+
+        assertEquals(BigInteger.valueOf(8), BaseSetEstimator.countExVals(contiguous));
+        assertCountMatches(contiguous);
+        assertCountMatches(sparse);
+    }
+
+    /**
+     * Tests the counts of dicts, C(K, L) * V^L for each length L, including nested ones.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(4)
+    void testCountDictsAndNesting() {
+        PyDictNode<PyIntObj, PyBoolObj> dictNode = new PyDictNode<>(intNode(0, 1, 2),
+                boolNode());
+        dictNode.setExDomain(List.of(0, 2));
+        PyListNode<PyIntObj> inner = new PyListNode<>(intNode(0, 1));
+        inner.setExDomain(List.of(0, 1));
+        PyListNode<PyListObj<PyIntObj>> outer = new PyListNode<>(inner);
+        outer.setExDomain(List.of(2));
+
+        assertEquals(BigInteger.valueOf(1 + 3 * 4), BaseSetEstimator.countExVals(dictNode));
+        assertCountMatches(dictNode);
+        assertEquals(BigInteger.valueOf(9), BaseSetEstimator.countExVals(outer));
+        assertCountMatches(outer);
+    }
+
+    /**
+     * Tests that the exhaustive size is the product of the parameters' sizes, even when
+     * it is far too large to generate.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(5)
+    void testHugeProduct() {
+        PyIntNode elems = intNode(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        PyListNode<PyIntObj> listNode = new PyListNode<>(elems);
+        listNode.setExDomain(List.of(10));
+        BaseSetEstimator estimator = new BaseSetEstimator(List.of(listNode, listNode), 5);
+
+        assertEquals(List.of(BigInteger.TEN.pow(10), BigInteger.TEN.pow(10)),
+                estimator.getParamSizes());
+        assertEquals(BigInteger.TEN.pow(20), estimator.getExhaustiveSize());
+        assertTrue(estimator.getHeapBytes().compareTo(BigInteger.TEN.pow(20)) > 0);
+        assertTrue(estimator.toString().contains("exhaustive test cases: " + BigInteger.TEN.pow(20)));
+    }
+
+    /**
+     * Tests the number of exhaustive test cases that fit within a budget.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(6)
+    void testCasesWithinBudget() {
+        BaseSetEstimator estimator = new BaseSetEstimator(List.of(intNode(0, 1, 2, 3),
+                intNode(0, 1, 2, 3)), 2);
+        long caseBytes = estimator.getCaseBytes();
+        long fixedBytes = estimator.getValueBytes().longValue() + 2 * caseBytes;
+
+        assertEquals(BigInteger.valueOf(16),
+                estimator.exhaustiveCasesWithin(estimator.getHeapBytes().longValue()));
+        assertEquals(BigInteger.valueOf(5),
+                estimator.exhaustiveCasesWithin(fixedBytes + 5 * caseBytes + 1));
+        assertEquals(BigInteger.ZERO, estimator.exhaustiveCasesWithin(fixedBytes));
+        assertTrue(estimator.exhaustiveCasesWithin(fixedBytes - 1).signum() < 0);
+    }
+
+    /**
+     * Asserts that the estimated count of a node's exhaustive values matches the number
+     * actually generated.
+     *
+     * @param node the node to be checked
+     */
+    private static void assertCountMatches(APyNode<?> node) {
+        assertEquals(BigInteger.valueOf(node.genExVals().size()),
+                BaseSetEstimator.countExVals(node));
+    }
+
+    /**
+     * Creates a PyIntNode with the given exhaustive domain.
+     *
+     * @param values the exhaustive domain
+     * @return the node
+     */
+    private static PyIntNode intNode(Integer... values) {
+        PyIntNode node = new PyIntNode();
+        node.setExDomain(List.of(values));
+        return node;
+    }
+
+    /**
+     * Creates a PyBoolNode whose exhaustive domain includes both values.
+     *
+     * @return the node
+     */
+    private static PyBoolNode boolNode() {
+        PyBoolNode node = new PyBoolNode();
+        node.setExDomain(List.of(0, 1));
+        return node;
+    }
+}
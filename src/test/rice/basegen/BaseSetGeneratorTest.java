@@ -1,10 +1,18 @@
 package test.rice.basegen;
 
+import main.rice.basegen.ArgConstraint;
+import main.rice.basegen.ArgConstraint.Comparison;
+import main.rice.basegen.ArgConstraint.Operand;
 import main.rice.basegen.BaseSetGenerator;
+import main.rice.basegen.ExhaustiveIterator;
 import main.rice.node.*;
 import main.rice.obj.*;
 import main.rice.test.TestCase;
 import org.junit.jupiter.api.*;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.time.Duration;
 import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -308,6 +316,698 @@ class BaseSetGeneratorTest {
                 oneArgSimpleOverlapRandVals, 3, 100, true));
     }
 
+    /**
+     * Tests that streaming exhaustive generation yields every exhaustive test case
+     * exactly once.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(18)
+    void testStreamExMultipleArgsNested() {
+        BaseSetGenerator generator = new BaseSetGenerator(multipleArgsNested, 0);
+        List<TestCase> streamed = generator.streamExTests().toList();
+        assertEquals(multipleArgsNestedExVals.size(), streamed.size());
+        assertEquals(multipleArgsNestedExVals, new HashSet<>(streamed));
+    }
+
+    /**
+     * Tests that the odometer turns the last parameter fastest.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(19)
+    void testOdometerOrder() {
+        Iterator<TestCase> iter = new ExhaustiveIterator(List.of(
+                List.of(new PyIntObj(0), new PyIntObj(1)),
+                List.of(new PyBoolObj(false), new PyBoolObj(true))));
+        List<TestCase> expected = List.of(
+                new TestCase(List.of(new PyIntObj(0), new PyBoolObj(false))),
+                new TestCase(List.of(new PyIntObj(0), new PyBoolObj(true))),
+                new TestCase(List.of(new PyIntObj(1), new PyBoolObj(false))),
+                new TestCase(List.of(new PyIntObj(1), new PyBoolObj(true))));
+        for (TestCase test : expected) {
+            assertTrue(iter.hasNext());
+            assertEquals(test, iter.next());
+        }
+        assertFalse(iter.hasNext());
+        assertThrows(NoSuchElementException.class, iter::next);
+    }
+
+    /**
+     * Tests the odometer's edge cases: no parameters yields a single empty test case,
+     * and a parameter with no values yields none.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(20)
+    void testOdometerEdgeCases() {
+        Iterator<TestCase> noParams = new ExhaustiveIterator(List.of());
+        assertTrue(noParams.hasNext());
+        assertEquals(new TestCase(new ArrayList<>()), noParams.next());
+        assertFalse(noParams.hasNext());
+
+        Iterator<TestCase> noValues = new ExhaustiveIterator(List.of(
+                List.of(new PyIntObj(0)), List.of()));
+        assertFalse(noValues.hasNext());
+    }
+
+    /**
+     * Tests that the size of the exhaustive space matches the number of exhaustive test
+     * cases.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(21)
+    void testExhaustiveSize() {
+        assertEquals(multipleArgsSimpleExVals.size(),
+                new BaseSetGenerator(multipleArgsSimple, 0).exhaustiveSize());
+        assertEquals(multipleArgsNestedExVals.size(),
+                new BaseSetGenerator(multipleArgsNested, 0).exhaustiveSize());
+        assertEquals(1, new BaseSetGenerator(new ArrayList<>(), 0).exhaustiveSize());
+    }
+
+    /**
+     * Tests that the test case at each index is the one the iterator yields at that
+     * position, so that unranking covers the exhaustive space exactly once.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(22)
+    void testExhaustiveCaseAt() {
+        BaseSetGenerator generator = new BaseSetGenerator(multipleArgsNested, 0);
+        Iterator<TestCase> iter = generator.iterExTests();
+        long index = 0;
+        while (iter.hasNext()) {
+            assertEquals(iter.next(), generator.exhaustiveCaseAt(index));
+            index++;
+        }
+        assertEquals(generator.exhaustiveSize(), index);
+    }
+
+    /**
+     * Tests that indices outside the exhaustive space are rejected.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(23)
+    void testExhaustiveCaseAtOutOfBounds() {
+        BaseSetGenerator generator = new BaseSetGenerator(multipleArgsSimple, 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> generator.exhaustiveCaseAt(-1));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> generator.exhaustiveCaseAt(generator.exhaustiveSize()));
+    }
+
+    /**
+     * Tests that a budget too small for the exhaustive space yields a sample of it that
+     * fits, alongside the requested random tests.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(24)
+    void testBudgetDownSamples() {
+        BaseSetGenerator generator = new BaseSetGenerator(multipleArgsSimple, 2);
+        long caseBytes = generator.estimate().getCaseBytes();
+        long budget = generator.estimate().getValueBytes().longValue() + 7 * caseBytes;
+        generator.setMemoryBudget(budget);
+
+        List<TestCase> baseSet = generator.genBaseSet();
+        assertEquals(7, baseSet.size());
+        assertEquals(7, new HashSet<>(baseSet).size());
+        int numExhaustive = 0;
+        for (TestCase test : baseSet) {
+            if (multipleArgsSimpleExVals.contains(test)) {
+                numExhaustive++;
+            }
+        }
+        assertEquals(5, numExhaustive);
+    }
+
+    /**
+     * Tests that a budget large enough for the whole plan changes nothing, and that a
+     * budget too small for even the per-parameter values is refused.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(25)
+    void testBudgetFitsOrRefuses() {
+        BaseSetGenerator generator = new BaseSetGenerator(multipleArgsSimple, 0);
+        generator.setMemoryBudget(generator.estimate().getHeapBytes().longValue());
+        assertEquals(multipleArgsSimpleExVals, new HashSet<>(generator.genBaseSet()));
+
+        generator.setMemoryBudget(1);
+        assertThrows(IllegalStateException.class, generator::genBaseSet);
+    }
+
+    /**
+     * Tests that a covering array of strength 2 is a subset of the exhaustive tests that
+     * still covers every pair of argument values.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(26)
+    void testExPairwise() {
+        BaseSetGenerator generator = new BaseSetGenerator(multipleArgsSimple, 0);
+        generator.setStrength(2);
+        Set<TestCase> tests = generator.genExTests();
+        assertTrue(multipleArgsSimpleExVals.containsAll(tests));
+        assertTrue(tests.size() < multipleArgsSimpleExVals.size());
+
+        Set<List<Object>> pairs = new HashSet<>();
+        for (TestCase test : tests) {
+            List<APyObj<?>> args = test.getArgs();
+            pairs.add(List.of("01", args.get(0), args.get(1)));
+            pairs.add(List.of("02", args.get(0), args.get(2)));
+            pairs.add(List.of("12", args.get(1), args.get(2)));
+        }
+        assertEquals(3 * 3 + 3 * 2 + 3 * 2, pairs.size());
+        assertThrows(IllegalArgumentException.class, () -> generator.setStrength(-1));
+    }
+
+    /**
+     * Tests that indexing the random space enumerates every test case random generation
+     * can produce, exactly once.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(27)
+    void testRanCaseAt() {
+        BaseSetGenerator generator = new BaseSetGenerator(multipleArgsNested, 0);
+        long size = generator.ranSpaceSize();
+        Set<TestCase> tests = new HashSet<>();
+        for (long i = 0; i < size; i++) {
+            tests.add(generator.ranCaseAt(i));
+        }
+        assertEquals(size, tests.size());
+        assertEquals(multipleArgsNestedRandVals, tests);
+    }
+
+    /**
+     * Tests that requesting more random tests than exist outside the exhaustive set
+     * returns all of them rather than spinning forever.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(28)
+    void testRandExhausted() {
+        PyIntNode node = new PyIntNode();
+        node.setExDomain(List.of(1, 2, 3));
+        node.setRanDomain(List.of(1, 2, 3, 4));
+        BaseSetGenerator generator = new BaseSetGenerator(List.of(node), 5);
+        List<TestCase> baseSet = generator.genBaseSet();
+        assertEquals(Set.of(new TestCase(List.of(new PyIntObj(1))),
+                new TestCase(List.of(new PyIntObj(2))), new TestCase(List.of(new PyIntObj(3))),
+                new TestCase(List.of(new PyIntObj(4)))), new HashSet<>(baseSet));
+        assertEquals(4, baseSet.size());
+    }
+
+    /**
+     * Tests that a random space mostly covered by the exhaustive set still yields the
+     * requested number of distinct random tests.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(29)
+    void testRandMostlyCovered() {
+        PyIntNode first = new PyIntNode();
+        first.setExDomain(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        first.setRanDomain(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        PyIntNode second = new PyIntNode();
+        second.setExDomain(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8));
+        second.setRanDomain(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        BaseSetGenerator generator = new BaseSetGenerator(List.of(first, second), 10);
+        Set<TestCase> exTests = generator.genExTests();
+        Set<TestCase> randTests = generator.genRandTests(exTests);
+        assertEquals(10, randTests.size());
+        for (TestCase test : randTests) {
+            assertEquals(new PyIntObj(9), test.getArgs().get(1));
+        }
+    }
+
+    /**
+     * Tests that seeded generation yields the same base set for the same seed,
+     * regardless of the number of threads, and a different one for a different seed.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(30)
+    void testSeededReproducible() {
+        List<TestCase> baseSet = seededBaseSet(42, 1);
+        assertEquals(7 + 200, baseSet.size());
+        assertEquals(baseSet, seededBaseSet(42, 1));
+        assertEquals(baseSet, seededBaseSet(42, 4));
+        assertNotEquals(new HashSet<>(baseSet), new HashSet<>(seededBaseSet(43, 4)));
+    }
+
+    /**
+     * Tests that seeded generation still returns every random test case when the random
+     * space is exhausted.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(31)
+    void testSeededExhausted() {
+        BaseSetGenerator generator = new BaseSetGenerator(multipleArgsSimple, 100);
+        generator.setSeed(7);
+        assertEquals(multipleArgsSimpleRandVals,
+                generator.genRandTests(multipleArgsSimpleExVals));
+    }
+
+    /**
+     * Tests that exhaustive generation under constraints yields exactly the test cases of
+     * the full product that satisfy them, and that a failing prefix prunes its subtree.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(32)
+    void testConstrainedExTests() {
+        List<APyNode<?>> nodes = constrainedNodes();
+        List<ArgConstraint> constraints = List.of(
+                new ArgConstraint(Operand.arg(0), Comparison.LE, Operand.arg(1)),
+                new ArgConstraint(Operand.length(2), Comparison.EQ, Operand.arg(0)));
+
+        Set<TestCase> expected = new HashSet<>();
+        for (TestCase test : new BaseSetGenerator(nodes, 0).genExTests()) {
+            if (ArgConstraint.testAll(constraints, test.getArgs())) {
+                expected.add(test);
+            }
+        }
+        // arg0 <= arg1 leaves 3 + 2 + 1 pairs; len(arg2) == arg0 leaves 2, 4 or 8 lists
+        assertEquals(3 * 2 + 2 * 4 + 1 * 8, expected.size());
+
+        BaseSetGenerator generator = new BaseSetGenerator(nodes, 0);
+        generator.setConstraints(constraints);
+        assertEquals(expected, generator.genExTests());
+
+        // Constraints whose prefix can never hold yield nothing
+        generator.setConstraints(List.of(
+                new ArgConstraint(Operand.arg(0), Comparison.GT, Operand.literal(5))));
+        assertFalse(generator.iterExTests().hasNext());
+    }
+
+    /**
+     * Tests that random and sampled test cases satisfy the constraints too.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(33)
+    void testConstrainedRandTests() {
+        List<ArgConstraint> constraints = List.of(
+                new ArgConstraint(Operand.arg(0), Comparison.LT, Operand.arg(1)),
+                new ArgConstraint(Operand.length(2), Comparison.NE, Operand.literal(1)));
+        BaseSetGenerator generator = new BaseSetGenerator(constrainedNodes(), 10);
+        generator.setConstraints(constraints);
+        Set<TestCase> randTests = generator.genRandTests(new HashSet<>());
+        assertEquals(10, randTests.size());
+        for (TestCase test : randTests) {
+            assertTrue(ArgConstraint.testAll(constraints, test.getArgs()));
+        }
+        for (TestCase test : generator.sampleExTests(20)) {
+            assertTrue(ArgConstraint.testAll(constraints, test.getArgs()));
+        }
+    }
+
+    /**
+     * Tests that constraints referring to a missing parameter are rejected.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(34)
+    void testConstraintOutOfRange() {
+        BaseSetGenerator generator = new BaseSetGenerator(constrainedNodes(), 0);
+        assertThrows(IllegalArgumentException.class, () -> generator.setConstraints(List.of(
+                new ArgConstraint(Operand.arg(0), Comparison.EQ, Operand.arg(3)))));
+    }
+
+    /**
+     * Tests that a symmetric pair yields one ordering of each pair of values, covering
+     * every combination of the full product up to swapping the pair.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(35)
+    void testSymmetricPair() {
+        List<APyNode<?>> nodes = constrainedNodes();
+        Set<TestCase> full = new BaseSetGenerator(nodes, 0).genExTests();
+
+        BaseSetGenerator generator = new BaseSetGenerator(nodes, 0);
+        generator.setSymmetricGroups(List.of(List.of(0, 1)));
+        Set<TestCase> reduced = generator.genExTests();
+        // 3 * 4 / 2 unordered pairs of 3 values, times 14 lists
+        assertEquals(6 * 14, reduced.size());
+        for (TestCase test : full) {
+            List<APyObj<?>> swapped = new ArrayList<>(test.getArgs());
+            Collections.swap(swapped, 0, 1);
+            boolean hasTest = reduced.contains(test);
+            boolean hasSwapped = reduced.contains(new TestCase(swapped));
+            if (swapped.equals(test.getArgs())) {
+                assertTrue(hasTest);
+            } else {
+                assertTrue(hasTest ^ hasSwapped);
+            }
+        }
+    }
+
+    /**
+     * Tests that a symmetric group of three parameters yields one sorted assignment per
+     * multiset of values, and combines with constraints.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(36)
+    void testSymmetricTriple() {
+        PyIntNode node = new PyIntNode();
+        node.setExDomain(List.of(0, 1, 2, 3));
+        node.setRanDomain(List.of(0, 1, 2, 3));
+        BaseSetGenerator generator = new BaseSetGenerator(List.of(node, node, node), 0);
+        generator.setSymmetricGroups(List.of(List.of(2, 0, 1)));
+        Set<TestCase> reduced = generator.genExTests();
+        // C(4 + 3 - 1, 3) multisets of 3 values out of 4
+        assertEquals(20, reduced.size());
+
+        // No two assignments are permutations of each other
+        Set<List<Integer>> multisets = new HashSet<>();
+        for (TestCase test : reduced) {
+            List<Integer> sorted = new ArrayList<>();
+            for (APyObj<?> arg : test.getArgs()) {
+                sorted.add((Integer) arg.getValue());
+            }
+            Collections.sort(sorted);
+            multisets.add(sorted);
+        }
+        assertEquals(20, multisets.size());
+
+        // Constraints keep every multiset with an ordering that satisfies them, here all
+        // but {3, 3, 3}
+        List<ArgConstraint> constraints = List.of(
+                new ArgConstraint(Operand.arg(1), Comparison.NE, Operand.literal(3)));
+        generator.setConstraints(constraints);
+        Set<TestCase> constrained = generator.genExTests();
+        assertEquals(19, constrained.size());
+        multisets.clear();
+        for (TestCase test : constrained) {
+            assertTrue(ArgConstraint.testAll(constraints, test.getArgs()));
+            List<Integer> sorted = new ArrayList<>();
+            for (APyObj<?> arg : test.getArgs()) {
+                sorted.add((Integer) arg.getValue());
+            }
+            Collections.sort(sorted);
+            multisets.add(sorted);
+        }
+        assertEquals(19, multisets.size());
+        assertFalse(multisets.contains(List.of(3, 3, 3)));
+    }
+
+    /**
+     * Tests that invalid symmetric groups are rejected.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(37)
+    void testSymmetricGroupsInvalid() {
+        BaseSetGenerator generator = new BaseSetGenerator(constrainedNodes(), 0);
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.setSymmetricGroups(List.of(List.of(0))));
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.setSymmetricGroups(List.of(List.of(0, 3))));
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.setSymmetricGroups(List.of(List.of(0, 2))));
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.setSymmetricGroups(List.of(List.of(0, 1), List.of(1, 0))));
+    }
+
+    /**
+     * Tests that a random selector chooses from poolFactor times numRand candidates
+     * outside the exhaustive set, and that only the candidates it selects are kept.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(38)
+    void testRandomSelector() {
+        BaseSetGenerator generator = new BaseSetGenerator(constrainedNodes(), 5);
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.setRandomSelector((kept, candidates, numTests) -> candidates, 0));
+
+        List<List<TestCase>> pools = new ArrayList<>();
+        generator.setRandomSelector((kept, candidates, numTests) -> {
+            assertEquals(126, kept.size());
+            assertEquals(5, numTests);
+            pools.add(candidates);
+            return candidates.subList(0, 2);
+        }, 4);
+        List<TestCase> baseSet = generator.genBaseSet();
+
+        List<TestCase> pool = pools.get(0);
+        assertEquals(20, pool.size());
+        assertEquals(20, new HashSet<>(pool).size());
+        Set<TestCase> exTests = generator.genExTests();
+        for (TestCase test : pool) {
+            assertFalse(exTests.contains(test));
+        }
+        assertEquals(126 + 2, baseSet.size());
+        assertTrue(baseSet.containsAll(pool.subList(0, 2)));
+    }
+
+    /**
+     * Tests that, under Python equality, exhaustive values Python cannot tell apart are
+     * generated once: a set of floats holding both zeroes is the set holding just one,
+     * and the float -0.0 is the float 0.0.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(39)
+    void testPythonEqualityExTests() {
+        PyFloatNode floatNode = new PyFloatNode();
+        floatNode.setExDomain(List.of(-0.0, 0.0, 1.0));
+        floatNode.setRanDomain(List.of(-0.0, 0.0, 1.0));
+        PyFloatNode elemNode = new PyFloatNode();
+        elemNode.setExDomain(List.of(-0.0, 0.0));
+        elemNode.setRanDomain(List.of(-0.0, 0.0));
+        PySetNode<PyFloatObj> setNode = new PySetNode<>(elemNode);
+        setNode.setExDomain(List.of(1, 2));
+        setNode.setRanDomain(List.of(1, 2));
+        BaseSetGenerator generator = new BaseSetGenerator(List.of(floatNode, setNode), 0);
+
+        // {0.0}, {-0.0} and {0.0, -0.0} for each of the three floats
+        assertEquals(9, generator.genExTests().size());
+        generator.setPythonEquality(true);
+        Set<TestCase> exTests = generator.genExTests();
+        assertEquals(2, exTests.size());
+        Set<Long> fingerprints = new HashSet<>();
+        for (TestCase test : exTests) {
+            assertTrue(fingerprints.add(PyEquality.fingerprint(test.getArgs())));
+        }
+        assertEquals(2, generator.genBaseSet().size());
+    }
+
+    /**
+     * Tests that dropPythonDuplicates() keeps the first of each group of test cases that
+     * Python considers equal, in order.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(40)
+    void testDropPythonDuplicates() {
+        TestCase one = new TestCase(List.of(new PyIntObj(1)));
+        TestCase oneFloat = new TestCase(List.of(new PyFloatObj(1.0)));
+        TestCase two = new TestCase(List.of(new PyIntObj(2)));
+        TestCase oneBool = new TestCase(List.of(new PyBoolObj(true)));
+        assertEquals(List.of(oneFloat, two),
+                BaseSetGenerator.dropPythonDuplicates(List.of(oneFloat, one, two, oneBool)));
+        assertEquals(List.of(), BaseSetGenerator.dropPythonDuplicates(List.of()));
+    }
+
+    /**
+     * Tests that a symmetric pair combined with an ordering constraint keeps one ordering
+     * of every pair that satisfies it, whichever way the constraint points.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(41)
+    void testSymmetricPairOrdered() {
+        PyIntNode node = new PyIntNode();
+        List<Integer> domain = new ArrayList<>();
+        for (int i = -5; i <= 5; i++) {
+            domain.add(i);
+        }
+        node.setExDomain(domain);
+        node.setRanDomain(domain);
+        for (Comparison comparison : List.of(Comparison.LE, Comparison.GE, Comparison.LT)) {
+            List<ArgConstraint> constraints = List.of(
+                    new ArgConstraint(Operand.arg(0), comparison, Operand.arg(1)));
+            BaseSetGenerator full = new BaseSetGenerator(List.of(node, node), 0);
+            full.setConstraints(constraints);
+            BaseSetGenerator reduced = new BaseSetGenerator(List.of(node, node), 0);
+            reduced.setConstraints(constraints);
+            reduced.setSymmetricGroups(List.of(List.of(0, 1)));
+
+            // Every pair satisfying the constraint has exactly one ordering that does
+            Set<TestCase> expected = full.genExTests();
+            assertEquals(comparison == Comparison.LT ? 55 : 66, expected.size());
+            assertEquals(expected, reduced.genExTests());
+        }
+    }
+
+    /**
+     * Tests that a budget the estimate says is too small, but which fits the exhaustive
+     * space left after Python equality, yields the whole space rather than sampling
+     * forever for test cases that don't exist.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(42)
+    void testBudgetBeyondRealSpace() {
+        PyFloatNode node = new PyFloatNode();
+        node.setExDomain(List.of(-0.0, 0.0, 1.0));
+        node.setRanDomain(List.of(-0.0, 0.0, 1.0));
+        BaseSetGenerator generator = new BaseSetGenerator(List.of(node, node), 0);
+        generator.setPythonEquality(true);
+        assertEquals(BigInteger.valueOf(9), generator.estimate().getExhaustiveSize());
+        assertEquals(4, generator.exhaustiveSize());
+
+        long caseBytes = generator.estimate().getCaseBytes();
+        generator.setMemoryBudget(generator.estimate().getValueBytes().longValue()
+                + 6 * caseBytes);
+        Set<TestCase> exTests = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                generator::genBudgetedExTests);
+        assertEquals(4, exTests.size());
+        assertEquals(4, generator.sampleExTests(Integer.MAX_VALUE).size());
+    }
+
+    /**
+     * Tests that constraints rejecting every index of a large, indexable random space
+     * give up after a bounded walk, warning that fewer random tests were found.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(43)
+    void testSelectiveConstraintBounded() {
+        PyIntNode node = new PyIntNode();
+        List<Integer> domain = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            domain.add(i);
+        }
+        node.setExDomain(List.of(0));
+        node.setRanDomain(domain);
+        List<ArgConstraint> constraints = List.of(
+                new ArgConstraint(Operand.arg(0), Comparison.EQ, Operand.arg(1)),
+                new ArgConstraint(Operand.arg(0), Comparison.LT, Operand.literal(0)));
+        BaseSetGenerator generator = new BaseSetGenerator(List.of(node, node), 5);
+        generator.setConstraints(constraints);
+        generator.setSeed(0);
+
+        PrintStream err = System.err;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(captured));
+        try {
+            Set<TestCase> randTests = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> generator.genRandTests(new HashSet<>()));
+            assertEquals(Set.of(), randTests);
+        } finally {
+            System.setErr(err);
+        }
+        assertTrue(captured.toString().contains("Warning: only"));
+    }
+
+    /**
+     * Tests that, under Python equality, random generation rejects candidates Python
+     * cannot tell apart from an exhaustive or earlier random test case and draws others
+     * in their place, so the requested number of random test cases is still honoured.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(44)
+    void testPythonEqualityRandTests() {
+        PyFloatNode node = new PyFloatNode();
+        node.setExDomain(List.of(1.0));
+        node.setRanDomain(List.of(-0.0, 0.0, 1.0, 2.0, 3.0));
+        for (int seed = 0; seed < 10; seed++) {
+            BaseSetGenerator generator = new BaseSetGenerator(List.of(node), 3);
+            generator.setPythonEquality(true);
+            generator.setSeed(seed);
+
+            // Only 0, 2 and 3 remain outside the exhaustive set
+            List<TestCase> baseSet = generator.genBaseSet();
+            assertEquals(4, baseSet.size());
+            assertEquals(baseSet, BaseSetGenerator.dropPythonDuplicates(baseSet));
+            Set<TestCase> randTests = generator.genRandTests(generator.genExTests(), 3);
+            assertEquals(3, randTests.size());
+            assertEquals(3, BaseSetGenerator.dropPythonDuplicates(
+                    new ArrayList<>(randTests)).size());
+        }
+    }
+
+    /**
+     * Tests that a budget admitting more exhaustive test cases than a set can hold is
+     * refused, rather than overflowing the number of test cases to sample.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(45)
+    void testBudgetBeyondSetCapacity() {
+        PyIntNode node = new PyIntNode();
+        List<Integer> domain = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            domain.add(i);
+        }
+        node.setExDomain(domain);
+        node.setRanDomain(domain);
+        BaseSetGenerator generator = new BaseSetGenerator(
+                Collections.nCopies(7, node), 0);
+        generator.setMemoryBudget(Long.MAX_VALUE);
+        BigInteger fit = generator.estimate().exhaustiveCasesWithin(Long.MAX_VALUE);
+        assertTrue(fit.compareTo(BigInteger.valueOf(Integer.MAX_VALUE)) > 0);
+        assertTrue(fit.compareTo(generator.estimate().getExhaustiveSize()) < 0);
+        assertThrows(IllegalStateException.class, generator::genBudgetedExTests);
+        assertThrows(IllegalStateException.class, generator::genBaseSet);
+    }
+
+    /**
+     * Helper function for testing constraints; builds nodes for an int in 1~3, an int in
+     * 1~3 (random domain 0~9) and a list of bools of length 1~3.
+     *
+     * @return the nodes
+     */
+    private static List<APyNode<?>> constrainedNodes() {
+        PyIntNode first = new PyIntNode();
+        first.setExDomain(List.of(1, 2, 3));
+        first.setRanDomain(List.of(1, 2, 3));
+        PyIntNode second = new PyIntNode();
+        second.setExDomain(List.of(1, 2, 3));
+        second.setRanDomain(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        PyBoolNode elem = new PyBoolNode();
+        elem.setExDomain(List.of(0, 1));
+        elem.setRanDomain(List.of(0, 1));
+        PyListNode<PyBoolObj> list = new PyListNode<>(elem);
+        list.setExDomain(List.of(1, 2, 3));
+        list.setRanDomain(List.of(0, 1, 2, 3));
+        return List.of(first, second, list);
+    }
+
+    /**
+     * Helper function for testing seeded generation; generates a base set over nested
+     * arguments with a large random domain.
+     *
+     * @param seed        the seed
+     * @param parallelism the number of threads to use
+     * @return the base set
+     */
+    private static List<TestCase> seededBaseSet(long seed, int parallelism) {
+        PyIntNode inner = new PyIntNode();
+        inner.setExDomain(List.of(0, 1));
+        inner.setRanDomain(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        PyListNode<PyIntObj> list = new PyListNode<>(inner);
+        list.setExDomain(List.of(0, 1, 2));
+        list.setRanDomain(List.of(3, 4, 5));
+        PyIntNode num = new PyIntNode();
+        num.setExDomain(List.of(0));
+        num.setRanDomain(List.of(-5, -4, -3, -2, -1, 0, 1, 2, 3, 4, 5));
+
+        BaseSetGenerator generator = new BaseSetGenerator(List.of(list, num), 200);
+        generator.setSeed(seed);
+        generator.setParallelism(parallelism);
+        return generator.genBaseSet();
+    }
+
     /**
      * Sets up oneArgOneOption, oneArgOneOptionExVals, and oneArgOneOptionRandVals.
      */
@@ -0,0 +1,113 @@
+package test.rice.basegen;
+
+import main.rice.basegen.CoveringArrayGenerator;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the CoveringArrayGenerator class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CoveringArrayGeneratorTest {
+
+    /**
+     * Tests that with no more parameters than the strength, the array is the full
+     * product.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testFullProductWhenFewParams() {
+        List<int[]> rows = new CoveringArrayGenerator(List.of(2, 3), 2).generate();
+        assertEquals(6, rows.size());
+        assertCovers(List.of(2, 3), 2, rows);
+        assertEquals(1, new CoveringArrayGenerator(List.of(), 2).generate().size());
+    }
+
+    /**
+     * Tests that a pairwise array over many parameters covers every pair of values while
+     * being far smaller than the full product.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testPairwise() {
+        List<Integer> sizes = Collections.nCopies(10, 3);
+        List<int[]> rows = new CoveringArrayGenerator(sizes, 2).generate();
+        assertCovers(sizes, 2, rows);
+        assertTrue(rows.size() <= 20, "Got " + rows.size() + " rows");
+    }
+
+    /**
+     * Tests a 3-wise array over parameters of mixed sizes.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testThreeWiseMixedSizes() {
+        List<Integer> sizes = List.of(2, 4, 3, 1, 3, 2, 4);
+        List<int[]> rows = new CoveringArrayGenerator(sizes, 3).generate();
+        assertCovers(sizes, 3, rows);
+        assertTrue(rows.size() < 2 * 4 * 3 * 3 * 2 * 4);
+    }
+
+    /**
+     * Tests that strength 1 uses every value of every parameter, and that a parameter
+     * with no values yields no rows.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(4)
+    void testEdgeCases() {
+        List<Integer> sizes = List.of(3, 5, 2);
+        List<int[]> rows = new CoveringArrayGenerator(sizes, 1).generate();
+        assertCovers(sizes, 1, rows);
+        assertEquals(5, rows.size());
+        assertTrue(new CoveringArrayGenerator(List.of(3, 0, 2), 2).generate().isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> new CoveringArrayGenerator(sizes, 0));
+    }
+
+    /**
+     * Asserts that every row assigns a valid value to every parameter, and that every
+     * combination of values of every t parameters appears in some row.
+     *
+     * @param sizes    the number of values of each parameter
+     * @param strength the strength t
+     * @param rows     the rows of the array
+     */
+    private static void assertCovers(List<Integer> sizes, int strength, List<int[]> rows) {
+        for (int[] row : rows) {
+            assertEquals(sizes.size(), row.length);
+            for (int i = 0; i < row.length; i++) {
+                assertTrue(row[i] >= 0 && row[i] < sizes.get(i));
+            }
+        }
+        int t = Math.min(strength, sizes.size());
+        for (int mask = 0; mask < (1 << sizes.size()); mask++) {
+            if (Integer.bitCount(mask) != t) {
+                continue;
+            }
+            int numCombos = 1;
+            for (int i = 0; i < sizes.size(); i++) {
+                if ((mask & (1 << i)) != 0) {
+                    numCombos *= sizes.get(i);
+                }
+            }
+            Set<List<Integer>> seen = new HashSet<>();
+            for (int[] row : rows) {
+                List<Integer> combo = new ArrayList<>();
+                for (int i = 0; i < sizes.size(); i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        combo.add(row[i]);
+                    }
+                }
+                seen.add(combo);
+            }
+            assertEquals(numCombos, seen.size(), "Uncovered combination for mask " + mask);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package test.rice.basegen;
+
+import main.rice.basegen.FingerprintSet;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the FingerprintSet class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class FingerprintSetTest {
+
+    /**
+     * Tests that add() reports whether the fingerprint was new, and contains() finds it.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testAddContains() {
+        FingerprintSet set = new FingerprintSet();
+        assertFalse(set.contains(42));
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(43));
+        assertEquals(1, set.size());
+    }
+
+    /**
+     * Tests that 0, which marks empty slots internally, is stored like any other
+     * fingerprint.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(2)
+    void testZero() {
+        FingerprintSet set = new FingerprintSet();
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertTrue(set.contains(0));
+        assertFalse(set.add(0));
+        assertEquals(1, set.size());
+    }
+
+    /**
+     * Tests that the set grows past its expected size, with and without a Bloom filter,
+     * and agrees with a HashSet throughout.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testGrowthMatchesHashSet() {
+        for (boolean useBloomFilter : new boolean[]{false, true}) {
+            FingerprintSet set = new FingerprintSet(100, useBloomFilter);
+            Set<Long> expected = new HashSet<>();
+            Random rand = new Random(1);
+            for (int i = 0; i < 10000; i++) {
+                // Draw from a small range so that there are many duplicates
+                long fingerprint = rand.nextInt(5000) * 0x9e3779b97f4a7c15L;
+                assertEquals(expected.add(fingerprint), set.add(fingerprint));
+            }
+            assertEquals(expected.size(), set.size());
+            for (long i = 0; i < 5000; i++) {
+                long fingerprint = i * 0x9e3779b97f4a7c15L;
+                assertEquals(expected.contains(fingerprint), set.contains(fingerprint));
+            }
+        }
+    }
+}
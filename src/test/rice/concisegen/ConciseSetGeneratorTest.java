@@ -12,6 +12,7 @@ import org.junit.jupiter.api.*;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test cases for the ConciseSetGenerator class.
@@ -311,6 +312,86 @@ class ConciseSetGeneratorTest {
         assertEquals(expected, actual);
     }
 
+    /**
+     * Tests that lazySetCover() selects the same test cases as setCover(), including when
+     * the greedy choice is sub-optimal, and runs no cell twice.
+     */
+    @Test
+    @Tag("2.0")
+    @Order(12)
+    void testLazyMatchesEager() throws Exception {
+        List<TestCase> allCases = generateIntegerCases(6);
+        List<Set<Integer>> caseToFiles = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            caseToFiles.add(new HashSet<>(Set.of(i, i + 5)));
+        }
+        caseToFiles.add(new HashSet<>(Set.of(0, 1, 2, 3, 4)));
+        Set<TestCase> expected = ConciseSetGenerator.setCover(
+                new TestResults(allCases, caseToFiles, generateAllWrong(10)));
+
+        Set<List<Integer>> cellsRun = new HashSet<>();
+        Set<TestCase> actual = ConciseSetGenerator.lazySetCover(allCases, 10,
+                (testIndex, files) -> {
+                    for (int file : files) {
+                        assertTrue(cellsRun.add(List.of(testIndex, file)));
+                    }
+                    return caseToFiles.get(testIndex);
+                });
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Tests that lazySetCover() skips cells that cannot change the selection, and breaks
+     * ties the same way as setCover().
+     */
+    @Test
+    @Tag("2.0")
+    @Order(13)
+    void testLazySkipsCoveredCells() throws Exception {
+        // Case 0 catches every file; the others catch one file each, and file 3 is correct
+        List<TestCase> allCases = generateIntegerCases(4);
+        List<Set<Integer>> caseToFiles = List.of(Set.of(0, 1, 2), Set.of(0), Set.of(1),
+                Set.of(2));
+        int[] numCellsRun = {0};
+        Set<TestCase> actual = ConciseSetGenerator.lazySetCover(allCases, 4,
+                (testIndex, files) -> {
+                    numCellsRun[0] += files.size();
+                    return caseToFiles.get(testIndex);
+                });
+        assertEquals(Set.of(allCases.get(0)), actual);
+
+        // The other cases fall below case 0 after a miss or two, and after it is selected
+        // only file 3 is left to run them on
+        assertTrue(numCellsRun[0] < 16);
+
+        // Equal gains are broken by index, as in setCover()
+        List<Set<Integer>> tied = List.of(Set.of(0), Set.of(1), Set.of(0, 1), Set.of(0, 1));
+        Set<TestCase> expected = ConciseSetGenerator.setCover(new TestResults(allCases,
+                tied, generateAllWrong(2)));
+        assertEquals(expected, ConciseSetGenerator.lazySetCover(allCases, 2,
+                (testIndex, files) -> tied.get(testIndex)));
+        assertEquals(Set.of(allCases.get(2)), expected);
+    }
+
+    /**
+     * Tests that lazySetCover() selects nothing, after running every cell once, when no
+     * file is wrong.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(14)
+    void testLazyAllCorrect() throws Exception {
+        List<TestCase> allCases = generateIntegerCases(3);
+        int[] numCellsRun = {0};
+        Set<TestCase> actual = ConciseSetGenerator.lazySetCover(allCases, 5,
+                (testIndex, files) -> {
+                    numCellsRun[0] += files.size();
+                    return Set.of();
+                });
+        assertEquals(Set.of(), actual);
+        assertEquals(15, numCellsRun[0]);
+    }
+
     /**
      * Helper function which generates an allCases list containing integers from 0 to
      * numTests - 1, inclusive.
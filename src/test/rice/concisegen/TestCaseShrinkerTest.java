@@ -0,0 +1,241 @@
+package test.rice.concisegen;
+
+import main.rice.basegen.ArgConstraint;
+import main.rice.basegen.ArgConstraint.Comparison;
+import main.rice.basegen.ArgConstraint.Operand;
+import main.rice.concisegen.TestCaseShrinker;
+import main.rice.node.*;
+import main.rice.obj.*;
+import main.rice.test.TestCase;
+import main.rice.test.TestResults;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the TestCaseShrinker class. Candidates are run by stubs rather than on
+ * real implementations, so that what each candidate catches is known in advance.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TestCaseShrinkerTest {
+
+    /**
+     * Tests that a list shrinks to the shortest list, with the smallest elements, that
+     * still catches the same implementations: file 0 needs an element of at least 5, and
+     * file 1 needs at least three elements.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(1)
+    void testShrinkList() throws Exception {
+        TestCaseShrinker shrinker = new TestCaseShrinker(List.of(intListNode()), 16);
+        TestCase original = new TestCase(List.of(intList(1, 7, 2, 9, 3, 8)));
+        List<Integer> batchSizes = new ArrayList<>();
+        Map<TestCase, TestCase> shrunk = shrinker.shrinkAll(List.of(original), tests -> {
+            batchSizes.add(tests.size());
+            return catching(tests, test -> {
+                List<Integer> values = intValues(test.getArgs().get(0));
+                Set<Integer> caught = new HashSet<>();
+                if (values.stream().anyMatch(value -> value >= 5)) {
+                    caught.add(0);
+                }
+                if (values.size() >= 3) {
+                    caught.add(1);
+                }
+                return caught;
+            });
+        });
+
+        List<Integer> values = intValues(shrunk.get(original).getArgs().get(0));
+        assertEquals(3, values.size());
+        assertEquals(5, values.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(values.contains(5));
+
+        // The originals run once, then one batch per round, none over the batch size
+        assertEquals(1, batchSizes.get(0));
+        assertEquals(shrinker.getNumRounds() + 1, batchSizes.size());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 16));
+    }
+
+    /**
+     * Tests that several test cases shrink together, each to its own target, and that a
+     * test case which is already as small as possible is returned as is.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testShrinkSeveral() throws Exception {
+        PyStringNode stringNode = new PyStringNode(Set.of('a', 'b', 'c'));
+        stringNode.setExDomain(List.of(0, 1, 2, 3, 4, 5));
+        stringNode.setRanDomain(List.of(0, 1, 2, 3, 4, 5));
+        PyDictNode<PyIntObj, PyIntObj> dictNode = new PyDictNode<>(intNode(), intNode());
+        dictNode.setExDomain(List.of(0, 1, 2, 3));
+        dictNode.setRanDomain(List.of(0, 1, 2, 3));
+        TestCaseShrinker shrinker = new TestCaseShrinker(List.of(stringNode, dictNode), 8);
+
+        // File 0 needs a 'c'; file 1 needs some value of at least 2
+        Function<TestCase, Set<Integer>> catches = test -> {
+            Set<Integer> caught = new HashSet<>();
+            if (test.getArgs().get(0).toString().contains("c")) {
+                caught.add(0);
+            }
+            PyDictObj<?, ?> dict = (PyDictObj<?, ?>) test.getArgs().get(1);
+            if (dict.getValue().values().stream()
+                    .anyMatch(value -> ((PyIntObj) value).getValue() >= 2)) {
+                caught.add(1);
+            }
+            return caught;
+        };
+        TestCase first = new TestCase(List.of(new PyStringObj("abcab"),
+                intDict(Map.of(1, 4, 2, 9, 3, 0))));
+        TestCase second = new TestCase(List.of(new PyStringObj("ba"),
+                intDict(Map.of(5, 1))));
+        TestCase smallest = new TestCase(List.of(new PyStringObj(""), intDict(Map.of())));
+        Map<TestCase, TestCase> shrunk = shrinker.shrinkAll(List.of(first, second, smallest),
+                tests -> catching(tests, catches));
+
+        assertEquals(List.of(first, second, smallest), new ArrayList<>(shrunk.keySet()));
+        assertEquals(new TestCase(List.of(new PyStringObj("c"), intDict(Map.of(0, 2)))),
+                shrunk.get(first));
+        assertEquals(smallest, shrunk.get(second));
+        assertEquals(smallest, shrunk.get(smallest));
+    }
+
+    /**
+     * Tests that variants stay within the domains of the nodes and satisfy the
+     * constraints, and are all strictly smaller than the test case.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testVariantsWithinDomains() {
+        PyIntNode evens = new PyIntNode();
+        evens.setExDomain(List.of(-4, 2, 6));
+        evens.setRanDomain(List.of(8, 10));
+        PyListNode<PyIntObj> listNode = intListNode();
+        listNode.setExDomain(List.of(2, 4));
+        listNode.setRanDomain(List.of(4));
+        TestCaseShrinker shrinker = new TestCaseShrinker(List.of(evens, listNode), 100);
+        shrinker.setConstraints(List.of(
+                new ArgConstraint(Operand.length(1), Comparison.LE, Operand.arg(0))));
+
+        TestCase test = new TestCase(List.of(new PyIntObj(10), intList(3, 0, 7, 1)));
+        List<TestCase> variants = shrinker.variants(test);
+        assertFalse(variants.isEmpty());
+        for (TestCase variant : variants) {
+            int arg0 = ((PyIntObj) variant.getArgs().get(0)).getValue();
+            List<Integer> arg1 = intValues(variant.getArgs().get(1));
+            assertTrue(List.of(2, 6, 8, 10).contains(arg0), variant.toString());
+            assertTrue(arg1.size() == 2 || arg1.size() == 4, variant.toString());
+            assertTrue(arg1.size() <= arg0, variant.toString());
+            assertNotEquals(test, variant);
+        }
+
+        // 2 would break the constraint, and the list can only lose two elements at once
+        assertTrue(variants.stream().noneMatch(variant ->
+                ((PyIntObj) variant.getArgs().get(0)).getValue() == 2));
+        assertTrue(variants.contains(new TestCase(List.of(new PyIntObj(10), intList(7, 1)))));
+        assertTrue(variants.contains(new TestCase(List.of(new PyIntObj(6), intList(3, 0, 7, 1)))));
+        assertEquals(variants.size(), new HashSet<>(variants).size());
+    }
+
+    /**
+     * Tests that invalid batch sizes are rejected.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(4)
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TestCaseShrinker(List.of(intNode()), 0));
+    }
+
+    /**
+     * Helper function; builds a node for ints from 0 through 9.
+     *
+     * @return the node
+     */
+    private static PyIntNode intNode() {
+        PyIntNode node = new PyIntNode();
+        node.setExDomain(List.of(0, 1, 2, 3, 4));
+        node.setRanDomain(List.of(5, 6, 7, 8, 9));
+        return node;
+    }
+
+    /**
+     * Helper function; builds a node for lists of 0 through 8 ints from 0 through 9.
+     *
+     * @return the node
+     */
+    private static PyListNode<PyIntObj> intListNode() {
+        PyListNode<PyIntObj> node = new PyListNode<>(intNode());
+        node.setExDomain(List.of(0, 1, 2, 3, 4));
+        node.setRanDomain(List.of(5, 6, 7, 8));
+        return node;
+    }
+
+    /**
+     * Helper function; builds a list of ints.
+     *
+     * @param values the values of the elements
+     * @return the list
+     */
+    private static PyListObj<PyIntObj> intList(int... values) {
+        List<PyIntObj> elems = new ArrayList<>();
+        for (int value : values) {
+            elems.add(new PyIntObj(value));
+        }
+        return new PyListObj<>(elems);
+    }
+
+    /**
+     * Helper function; builds a dict from ints to ints.
+     *
+     * @param entries the entries
+     * @return the dict
+     */
+    private static PyDictObj<PyIntObj, PyIntObj> intDict(Map<Integer, Integer> entries) {
+        Map<PyIntObj, PyIntObj> map = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : entries.entrySet()) {
+            map.put(new PyIntObj(entry.getKey()), new PyIntObj(entry.getValue()));
+        }
+        return new PyDictObj<>(map);
+    }
+
+    /**
+     * Helper function; extracts the values of a list of ints.
+     *
+     * @param obj the list
+     * @return the values of its elements
+     */
+    private static List<Integer> intValues(APyObj<?> obj) {
+        List<Integer> values = new ArrayList<>();
+        for (APyObj<?> elem : ((PyListObj<?>) obj).getValue()) {
+            values.add(((PyIntObj) elem).getValue());
+        }
+        return values;
+    }
+
+    /**
+     * Helper function; fakes running test cases, where each test case catches the files
+     * given by a function of it.
+     *
+     * @param tests   the test cases
+     * @param catches the files caught by a test case
+     * @return the results of "running" the test cases
+     */
+    private static TestResults catching(List<TestCase> tests,
+                                        Function<TestCase, Set<Integer>> catches) {
+        List<Set<Integer>> caseToFiles = new ArrayList<>();
+        Set<Integer> wrongSet = new HashSet<>();
+        for (TestCase test : tests) {
+            Set<Integer> caught = catches.apply(test);
+            caseToFiles.add(caught);
+            wrongSet.addAll(caught);
+        }
+        return new TestResults(tests, caseToFiles, wrongSet);
+    }
+}
@@ -0,0 +1,145 @@
+package test.rice.corpus;
+
+import main.rice.corpus.CatchHistory;
+import main.rice.obj.PyIntObj;
+import main.rice.test.TestCase;
+import main.rice.test.TestResults;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the CatchHistory class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CatchHistoryTest {
+
+    /**
+     * The history file written by each test.
+     */
+    private Path file;
+
+    /**
+     * Picks a path for the history file, without creating it.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        this.file = Files.createTempFile("history", ".bin");
+        Files.delete(this.file);
+    }
+
+    /**
+     * Deletes the history file.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    /**
+     * Tests that loading a history that does not exist yet starts an empty one.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testLoadMissing() throws IOException {
+        CatchHistory history = CatchHistory.load(this.file.toString());
+        assertEquals(0, history.getRuns(intCase(1)));
+        assertEquals(0, history.getCatches(intCase(1)));
+        assertEquals(0.5, history.getCatchRate(intCase(1)));
+    }
+
+    /**
+     * Tests that catch counts accumulate across runs and survive a round trip through the
+     * history file, keyed by the test case's value rather than its position.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testRecordAndReload() throws IOException {
+        CatchHistory history = CatchHistory.load(this.file.toString());
+        history.record(results(List.of(intCase(1), intCase(2)),
+                List.of(Set.of(0, 1, 2), Set.of())), List.of(4, 4));
+        history.save(this.file.toString());
+
+        history = CatchHistory.load(this.file.toString());
+        history.record(results(List.of(intCase(3), intCase(1)),
+                List.of(Set.of(), Set.of(0))), List.of(2, 1));
+        history.save(this.file.toString());
+
+        history = CatchHistory.load(this.file.toString());
+        assertEquals(5, history.getRuns(intCase(1)));
+        assertEquals(4, history.getCatches(intCase(1)));
+        assertEquals(4, history.getRuns(intCase(2)));
+        assertEquals(0, history.getCatches(intCase(2)));
+        assertEquals(2, history.getRuns(intCase(3)));
+        assertEquals(5.0 / 7.0, history.getCatchRate(intCase(1)));
+    }
+
+    /**
+     * Tests that test cases are ordered from the strongest catcher to the weakest, with
+     * test cases that have no history between them and ties broken by index.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testPrioritize() {
+        CatchHistory history = new CatchHistory();
+        history.record(results(List.of(intCase(1), intCase(2), intCase(3)),
+                List.of(Set.of(), Set.of(0, 1, 2), Set.of(0))), List.of(3, 3, 3));
+        List<TestCase> tests = List.of(intCase(1), intCase(4), intCase(3), intCase(2),
+                intCase(5));
+        assertEquals(List.of(3, 1, 4, 2, 0), history.prioritize(tests));
+    }
+
+    /**
+     * Tests that malformed history files and mismatched run counts are rejected.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(4)
+    void testInvalid() throws IOException {
+        Files.write(this.file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        assertThrows(IOException.class, () -> CatchHistory.load(this.file.toString()));
+
+        CatchHistory history = new CatchHistory();
+        history.record(results(List.of(intCase(1)), List.of(Set.of(0))), List.of(1));
+        history.save(this.file.toString());
+        byte[] bytes = Files.readAllBytes(this.file);
+        Files.write(this.file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> CatchHistory.load(this.file.toString()));
+
+        assertThrows(IllegalArgumentException.class, () -> history.record(
+                results(List.of(intCase(1)), List.of(Set.of(0))), List.of(1, 1)));
+    }
+
+    /**
+     * Helper function; builds a test case with a single int argument.
+     *
+     * @param value the value of the argument
+     * @return the test case
+     */
+    private static TestCase intCase(int value) {
+        return new TestCase(Collections.singletonList(new PyIntObj(value)));
+    }
+
+    /**
+     * Helper function; builds the results of running the given test cases.
+     *
+     * @param tests       the test cases
+     * @param caseToFiles the files caught by each test case
+     * @return the results
+     */
+    private static TestResults results(List<TestCase> tests, List<Set<Integer>> caseToFiles) {
+        Set<Integer> wrongSet = new HashSet<>();
+        for (Set<Integer> caught : caseToFiles) {
+            wrongSet.addAll(caught);
+        }
+        return new TestResults(tests, caseToFiles, wrongSet);
+    }
+}
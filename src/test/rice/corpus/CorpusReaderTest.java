@@ -0,0 +1,146 @@
+package test.rice.corpus;
+
+import main.rice.corpus.CorpusReader;
+import main.rice.corpus.CorpusWriter;
+import main.rice.obj.*;
+import main.rice.test.TestCase;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the CorpusReader class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CorpusReaderTest {
+
+    /**
+     * The test cases written to the corpus, covering every type of object.
+     */
+    private static List<TestCase> testCases;
+
+    /**
+     * The corpus file read by each test.
+     */
+    private Path corpus;
+
+    /**
+     * Sets up the test cases.
+     */
+    @BeforeAll
+    static void setUpTestCases() {
+        PyIntObj one = new PyIntObj(1);
+        PyIntObj two = new PyIntObj(2);
+        testCases = List.of(
+                new TestCase(List.of()),
+                new TestCase(List.of(one, new PyFloatObj(-0.5), new PyBoolObj(false))),
+                new TestCase(List.of(new PyStringObj(""), new PyStringObj("h\u00e9llo"))),
+                new TestCase(List.of(new PyListObj<>(List.of(one, two)),
+                        new PyTupleObj<>(List.of(new PyBoolObj(true))))),
+                new TestCase(List.of(new PySetObj<>(Set.of(one, two)),
+                        new PyDictObj<>(Map.of(one, new PyListObj<>(List.of(two)),
+                                two, new PyListObj<>(List.of()))))),
+                new TestCase(List.of(new PyListObj<>(List.of(new PySetObj<>(Set.of(
+                        new PyTupleObj<>(List.of(new PyStringObj("x"), one)))))))));
+    }
+
+    /**
+     * Writes the test cases to a new corpus file.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        this.corpus = Files.createTempFile("corpus", ".bin");
+        CorpusWriter.writeAll(this.corpus.toString(), testCases);
+    }
+
+    /**
+     * Deletes the corpus file.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(this.corpus);
+    }
+
+    /**
+     * Tests that readAll() returns exactly the test cases that were written, in order.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(1)
+    void testReadAllRoundTrip() throws IOException {
+        assertEquals(testCases, CorpusReader.readAll(this.corpus.toString()));
+    }
+
+    /**
+     * Tests that get() reads any test case by index, in any order, and rejects indices
+     * out of range.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testGetByIndex() throws IOException {
+        try (CorpusReader reader = new CorpusReader(this.corpus.toString())) {
+            assertEquals(testCases.size(), reader.size());
+            for (int i = testCases.size() - 1; i >= 0; i--) {
+                assertEquals(testCases.get(i), reader.get(i));
+            }
+            assertEquals(testCases.get(4), reader.get(4));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.get(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.get(testCases.size()));
+        }
+    }
+
+    /**
+     * Tests that the iterator visits every test case in order, and may be interleaved
+     * with readAll() and get().
+     */
+    @Test
+    @Tag("0.5")
+    @Order(3)
+    void testIterator() throws IOException {
+        try (CorpusReader reader = new CorpusReader(this.corpus.toString())) {
+            List<TestCase> actual = new ArrayList<>();
+            for (TestCase testCase : reader) {
+                actual.add(testCase);
+                assertEquals(testCases, reader.readAll());
+            }
+            assertEquals(testCases, actual);
+        }
+    }
+
+    /**
+     * Tests that an empty corpus can be read.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(4)
+    void testReadEmpty() throws IOException {
+        CorpusWriter.writeAll(this.corpus.toString(), List.of());
+        try (CorpusReader reader = new CorpusReader(this.corpus.toString())) {
+            assertEquals(0, reader.size());
+            assertEquals(List.of(), reader.readAll());
+            assertFalse(reader.iterator().hasNext());
+        }
+    }
+
+    /**
+     * Tests that files which are not corpora, or whose offset table has been cut off,
+     * are rejected when opened.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(5)
+    void testRejectInvalidFile() throws IOException {
+        byte[] bytes = Files.readAllBytes(this.corpus);
+        Files.write(this.corpus, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> new CorpusReader(this.corpus.toString()));
+
+        Files.writeString(this.corpus, "[1, 2]\n[3, 4]\n and some more text to fill");
+        assertThrows(IOException.class, () -> new CorpusReader(this.corpus.toString()));
+    }
+}
@@ -0,0 +1,102 @@
+package test.rice.corpus;
+
+import main.rice.corpus.CorpusWriter;
+import main.rice.obj.*;
+import main.rice.test.TestCase;
+import org.junit.jupiter.api.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the CorpusWriter class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CorpusWriterTest {
+
+    /**
+     * The corpus file written by each test.
+     */
+    private Path corpus;
+
+    /**
+     * Creates an empty file for the corpus.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        this.corpus = Files.createTempFile("corpus", ".bin");
+    }
+
+    /**
+     * Deletes the corpus file.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(this.corpus);
+    }
+
+    /**
+     * Tests that an empty corpus consists of just the header, an empty offset table and
+     * the trailer.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testWriteEmpty() throws IOException {
+        CorpusWriter.writeAll(this.corpus.toString(), List.of());
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(this.corpus))) {
+            in.readLong();
+            assertEquals(1, in.readInt());
+            assertEquals(0, in.readLong());
+            assertEquals(12, in.readLong());
+            assertEquals(-1, in.read());
+        }
+    }
+
+    /**
+     * Tests that getNumWritten() counts the test cases written, and that the trailer
+     * points at an offset table holding the start of each record.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testOffsetTable() throws IOException {
+        try (CorpusWriter writer = new CorpusWriter(this.corpus.toString())) {
+            writer.write(new TestCase(List.of(new PyIntObj(1))));
+            writer.write(new TestCase(List.of(new PyBoolObj(true), new PyFloatObj(2.5))));
+            assertEquals(2, writer.getNumWritten());
+        }
+
+        // Header, then [1 arg][int tag][int], then [2 args][bool tag][bool][float tag][double]
+        long first = 12;
+        long second = first + 4 + 1 + 4;
+        long table = second + 4 + 1 + 1 + 1 + 8;
+        byte[] bytes = Files.readAllBytes(this.corpus);
+        assertEquals(table + 2 * 8 + 8 + 8, bytes.length);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(this.corpus))) {
+            in.skipNBytes(table);
+            assertEquals(first, in.readLong());
+            assertEquals(second, in.readLong());
+            assertEquals(2, in.readLong());
+            assertEquals(table, in.readLong());
+        }
+    }
+
+    /**
+     * Tests that strings are stored compactly, at two bytes per character.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(3)
+    void testStringEncoding() throws IOException {
+        CorpusWriter.writeAll(this.corpus.toString(),
+                List.of(new TestCase(List.of(new PyStringObj("abcd")))));
+        // Header, [1 arg][string tag][length][4 chars], one offset, trailer
+        assertEquals(12 + 4 + 1 + 4 + 4 * 2 + 8 + 16, Files.size(this.corpus));
+    }
+}
@@ -0,0 +1,64 @@
+package test.rice.monitor;
+
+import main.rice.monitor.MetricsExporter;
+import main.rice.monitor.MetricsRegistry;
+import org.junit.jupiter.api.*;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the MetricsExporter class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MetricsExporterTest {
+
+    /**
+     * Tests that the metrics file is written while the exporter runs and reflects the
+     * final values once it is closed.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(1)
+    void testFileWrittenOnClose() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        Path file = Files.createTempDirectory("metrics").resolve("feat.prom");
+        MetricsRegistry.Counter tests = registry.counter("tests_total", "Tests run.");
+        try (MetricsExporter exporter = new MetricsExporter(registry)) {
+            exporter.startFile(file.toString(), 10);
+            tests.inc();
+            Thread.sleep(100);
+            assertTrue(Files.exists(file));
+            tests.inc();
+        }
+        assertTrue(Files.readString(file).contains("tests_total 2\n"));
+    }
+
+    /**
+     * Tests that the server exposes the registry at /metrics.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testServer() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.gauge("base_set_size", "Size.").set(12);
+        try (MetricsExporter exporter = new MetricsExporter(registry)) {
+            int port = exporter.startServer(0);
+            HttpURLConnection conn = (HttpURLConnection)
+                    new URL("http://127.0.0.1:" + port + "/metrics").openConnection();
+            assertEquals(200, conn.getResponseCode());
+            assertTrue(conn.getContentType().startsWith("text/plain"));
+            InputStream in = conn.getInputStream();
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            in.close();
+            assertEquals(registry.expose(), body);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package test.rice.monitor;
+
+import main.rice.monitor.MetricsRegistry;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the MetricsRegistry class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MetricsRegistryTest {
+
+    /**
+     * Tests that looking up a metric twice returns the same metric, and that labeled
+     * counters in the same family are kept apart.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testGetOrCreate() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("spawns_total", "Spawns.", "kind", "impl").inc();
+        registry.counter("spawns_total", "Spawns.", "kind", "impl").inc(2);
+        registry.counter("spawns_total", "Spawns.", "kind", "solution").inc();
+        assertEquals(3.0, registry.counter("spawns_total", "Spawns.", "kind", "impl").get());
+        assertEquals(1.0, registry.counter("spawns_total", "Spawns.", "kind", "solution").get());
+    }
+
+    /**
+     * Tests that reusing a name with a different type is rejected.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(2)
+    void testTypeMismatch() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("tests_total", "Tests.");
+        assertThrows(IllegalArgumentException.class, () -> registry.gauge("tests_total", "Tests."));
+    }
+
+    /**
+     * Tests the text exposition of a counter, a gauge and a labeled counter.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testExposeCounterAndGauge() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("tests_total", "Tests run.").inc();
+        MetricsRegistry.Gauge inFlight = registry.gauge("in_flight", "Running.");
+        inFlight.inc();
+        inFlight.inc();
+        inFlight.dec();
+        registry.counter("exits_total", "Exits.", "kind", "impl").inc(4);
+
+        String expected = "# HELP tests_total Tests run.\n"
+                + "# TYPE tests_total counter\n"
+                + "tests_total 1\n"
+                + "# HELP in_flight Running.\n"
+                + "# TYPE in_flight gauge\n"
+                + "in_flight 1\n"
+                + "# HELP exits_total Exits.\n"
+                + "# TYPE exits_total counter\n"
+                + "exits_total{kind=\"impl\"} 4\n";
+        assertEquals(expected, registry.expose());
+    }
+
+    /**
+     * Tests that histogram buckets are cumulative and include the +Inf bucket, sum and
+     * count.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(4)
+    void testExposeHistogram() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Histogram latency = registry.histogram("latency_seconds", "Latency.", 0.5, 1);
+        latency.observe(0.25);
+        latency.observe(0.5);
+        latency.observe(0.75);
+        latency.observe(3);
+        assertEquals(4, latency.getCount());
+
+        String expected = "# HELP latency_seconds Latency.\n"
+                + "# TYPE latency_seconds histogram\n"
+                + "latency_seconds_bucket{le=\"0.5\"} 2\n"
+                + "latency_seconds_bucket{le=\"1\"} 3\n"
+                + "latency_seconds_bucket{le=\"+Inf\"} 4\n"
+                + "latency_seconds_sum 4.5\n"
+                + "latency_seconds_count 4\n";
+        assertEquals(expected, registry.expose());
+    }
+
+    /**
+     * Tests that writeTo() replaces the file with the current exposition and leaves no
+     * temporary file behind.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(5)
+    void testWriteTo() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.gauge("size", "Size.").set(7);
+        Path dir = Files.createTempDirectory("metrics");
+        Path file = dir.resolve("feat.prom");
+        registry.writeTo(file.toString());
+        registry.gauge("size", "Size.").set(9);
+        registry.writeTo(file.toString());
+
+        assertEquals(registry.expose(), Files.readString(file));
+        assertFalse(Files.exists(dir.resolve("feat.prom.tmp")));
+    }
+}
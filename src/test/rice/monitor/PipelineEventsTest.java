@@ -0,0 +1,157 @@
+package test.rice.monitor;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import main.rice.basegen.BaseSetGenerator;
+import main.rice.concisegen.ConciseSetGenerator;
+import main.rice.obj.PyIntObj;
+import main.rice.parse.ConfigFile;
+import main.rice.parse.ConfigFileParser;
+import main.rice.test.TestCase;
+import main.rice.test.TestResults;
+import main.rice.test.Tester;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the flight recorder events emitted by each pipeline phase.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PipelineEventsTest {
+
+    /**
+     * The absolute path to this project directory, which we'll use to find the provided
+     * config files and pyfiles.
+     */
+    private static final String userDir = System.getProperty("user.dir");
+
+    /**
+     * Tests that parsing, generation and set cover each emit one event with the expected
+     * fields.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(1)
+    void testPipelineEvents() throws Exception {
+        List<RecordedEvent> events = record(() -> {
+            ConfigFile config = ConfigFileParser.parse(ConfigFileParser.readFile(
+                    userDir + "/src/test/rice/parse/config/func0simple.json"));
+            List<TestCase> tests =
+                    new BaseSetGenerator(config.getNodes(), config.getNumRand()).genBaseSet();
+            List<Set<Integer>> caseToFiles = new ArrayList<>();
+            for (int i = 0; i < tests.size(); i++) {
+                caseToFiles.add(i == 0 ? Set.of(0) : Set.of());
+            }
+            ConciseSetGenerator.setCover(new TestResults(tests, caseToFiles, Set.of(0)));
+        });
+
+        RecordedEvent parse = findOne(events, "main.rice.ConfigParse");
+        assertEquals("func0", parse.getString("funcName"));
+        assertEquals(1, parse.getInt("numParams"));
+
+        RecordedEvent baseSet = findOne(events, "main.rice.BaseSetGeneration");
+        assertEquals(5, baseSet.getInt("numExhaustive"));
+        assertEquals(5, baseSet.getInt("numRandom"));
+
+        RecordedEvent cover = findOne(events, "main.rice.SetCover");
+        assertEquals(10, cover.getInt("numCandidates"));
+        assertEquals(1, cover.getInt("numWrong"));
+        assertEquals(1, cover.getInt("numSelected"));
+    }
+
+    /**
+     * Tests that each test process emits an event naming its implementation, test index
+     * and exit code.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testProcessEvents() throws Exception {
+        String implDir = userDir + "/src/test/rice/test/pyfiles/f0oneWrong";
+        List<TestCase> tests = List.of(new TestCase(List.of(new PyIntObj(0))),
+                new TestCase(List.of(new PyIntObj(1))));
+        try {
+            FileWriter writer = new FileWriter(implDir + "/expected.py");
+            writer.write("results = [0, 1]");
+            writer.close();
+
+            List<RecordedEvent> events = record(() ->
+                    new Tester("func0", null, implDir, tests).runTests());
+            List<RecordedEvent> processes = new ArrayList<>();
+            for (RecordedEvent event : events) {
+                if (event.getEventType().getName().equals("main.rice.TestProcess")) {
+                    processes.add(event);
+                }
+            }
+            assertEquals(2, processes.size());
+            Set<Integer> testIndices = new HashSet<>();
+            for (RecordedEvent event : processes) {
+                assertEquals("impl0.py", event.getString("impl"));
+                assertEquals(0, event.getInt("exitCode"));
+                assertFalse(event.getDuration().isNegative());
+                testIndices.add(event.getInt("testIndex"));
+            }
+            assertEquals(Set.of(0, 1), testIndices);
+        } finally {
+            new File(implDir + "/expected.py").delete();
+        }
+    }
+
+    /**
+     * A body of code to be run under a recording.
+     */
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs the given code under a recording of all FEAT events, and returns the events
+     * that were recorded.
+     *
+     * @param body the code to be run
+     * @return the events recorded while running it
+     * @throws Exception if the code or the recording fails
+     */
+    private static List<RecordedEvent> record(Body body) throws Exception {
+        Path dump = Files.createTempFile("feat", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("main.rice.ConfigParse", "main.rice.BaseSetGeneration",
+                    "main.rice.TestProcess", "main.rice.SetCover")) {
+                recording.enable(name).withoutThreshold();
+            }
+            recording.start();
+            body.run();
+            recording.stop();
+            recording.dump(dump);
+            return RecordingFile.readAllEvents(dump);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    /**
+     * Returns the only event of the given type.
+     *
+     * @param events all recorded events
+     * @param name   the name of the event type
+     * @return the only event of that type
+     */
+    private static RecordedEvent findOne(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matches = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                matches.add(event);
+            }
+        }
+        assertEquals(1, matches.size());
+        return matches.get(0);
+    }
+}
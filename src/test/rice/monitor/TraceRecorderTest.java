@@ -0,0 +1,84 @@
+package test.rice.monitor;
+
+import main.rice.monitor.TraceRecorder;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the TraceRecorder class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TraceRecorderTest {
+
+    /**
+     * Tests that timestamps are relative to the recorder's creation and never go
+     * backwards.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testNowIsMonotonic() {
+        TraceRecorder trace = new TraceRecorder();
+        long first = trace.now();
+        long second = trace.now();
+        assertTrue(first >= 0);
+        assertTrue(second >= first);
+    }
+
+    /**
+     * Tests that the written file contains one complete event per span, with the given
+     * fields, plus a named lane per recording thread.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testWriteSpansAndLanes() throws Exception {
+        TraceRecorder trace = new TraceRecorder();
+        trace.addSpan("phase", "phase", 0, 100, Map.of("tests", 3));
+        Thread worker = new Thread(() -> trace.addSpan("impl0.py #1", "test", 10, 60,
+                Map.of("impl", "impl0.py")), "worker-thread");
+        worker.start();
+        worker.join();
+        assertEquals(2, trace.getNumSpans());
+
+        Path path = Files.createTempFile("trace", ".json");
+        try {
+            trace.write(path.toString());
+            JSONArray events = new JSONObject(Files.readString(path))
+                    .getJSONArray("traceEvents");
+
+            Map<String, JSONObject> spans = new HashMap<>();
+            Map<Integer, String> laneNames = new HashMap<>();
+            for (int i = 0; i < events.length(); i++) {
+                JSONObject event = events.getJSONObject(i);
+                if (event.getString("ph").equals("X")) {
+                    spans.put(event.getString("name"), event);
+                } else {
+                    assertEquals("M", event.getString("ph"));
+                    laneNames.put(event.getInt("tid"),
+                            event.getJSONObject("args").getString("name"));
+                }
+            }
+
+            assertEquals(Set.of("phase", "impl0.py #1"), spans.keySet());
+            JSONObject span = spans.get("impl0.py #1");
+            assertEquals("test", span.getString("cat"));
+            assertEquals(10, span.getLong("ts"));
+            assertEquals(50, span.getLong("dur"));
+            assertEquals("impl0.py", span.getJSONObject("args").getString("impl"));
+            assertNotEquals(spans.get("phase").getInt("tid"), span.getInt("tid"));
+            assertEquals("worker-thread", laneNames.get(span.getInt("tid")));
+            assertEquals(Thread.currentThread().getName(),
+                    laneNames.get(spans.get("phase").getInt("tid")));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
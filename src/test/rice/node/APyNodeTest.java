@@ -4,6 +4,7 @@ import main.rice.node.APyNode;
 import main.rice.obj.APyObj;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -88,6 +89,25 @@ public class APyNodeTest {
         return actualCopy.size() <= 0;
     }
 
+    /**
+     * Helper function for testing countRanVals() and genRanValAt() on a node whose random
+     * domain equals its exhaustive domain. Returns true if every index of the random
+     * space yields a distinct object, and those objects are exactly the ones generated by
+     * genExVals(); false otherwise.
+     *
+     * @param node the node being tested, whose random and exhaustive domains are equal
+     * @return true if the random space matches the exhaustive values; false otherwise
+     * @param <T>  the type of object being generated by genRanValAt()
+     */
+    public static <T extends APyObj<?>> boolean ranSpaceMatchesEx(APyNode<T> node) {
+        long count = node.countRanVals();
+        Set<T> actual = new HashSet<>();
+        for (long i = 0; i < count; i++) {
+            actual.add(node.genRanValAt(i));
+        }
+        return actual.size() == count && actual.equals(node.genExVals());
+    }
+
     /**
      * Converts the expected results of exhaustive generation to the expected results of
      * random generation. Only works for simple PyNodes and compound PyNodes whose domains
@@ -468,6 +468,27 @@ class PyDictNodeTest extends APyNodeTest {
         assertTrue(compareDistribution(expected, actual, 0.01));
     }
 
+    /**
+     * Tests that countRanVals() and genRanValAt() enumerate the random space exactly
+     * once, using a node whose random domain matches its exhaustive domain.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(21)
+    void testGenRanValAt() {
+        PyIntNode keys = new PyIntNode();
+        keys.setExDomain(List.of(0, 1, 2));
+        keys.setRanDomain(List.of(0, 1, 2));
+        PyBoolNode vals = new PyBoolNode();
+        vals.setExDomain(List.of(0, 1));
+        vals.setRanDomain(List.of(0, 1));
+        PyDictNode<PyIntObj, PyBoolObj> node = new PyDictNode<>(keys, vals);
+        node.setExDomain(List.of(0, 1, 2));
+        node.setRanDomain(List.of(0, 1, 2));
+        assertEquals(1 + 3 * 2 + 3 * 4, node.countRanVals());
+        assertTrue(ranSpaceMatchesEx(node));
+    }
+
     /**
      * Sets up emptyOnly and oneLenOne.
      */
@@ -179,4 +179,19 @@ class PyIntNodeTest extends APyNodeTest {
         }
         assertTrue(compareDistribution(expected, actual, 0.01));
     }
+
+    /**
+     * Tests that countRanVals() and genRanValAt() enumerate the random space exactly
+     * once, using a node whose random domain matches its exhaustive domain.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(11)
+    void testGenRanValAt() {
+        PyIntNode node = new PyIntNode();
+        node.setExDomain(List.of(3, -1, 3, 0));
+        node.setRanDomain(List.of(3, -1, 3, 0));
+        assertEquals(3, node.countRanVals());
+        assertTrue(ranSpaceMatchesEx(node));
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package test.rice.node;
 
+import main.rice.node.PyIntNode;
+import main.rice.node.PyListNode;
 import main.rice.obj.PyBoolObj;
 import main.rice.obj.PyFloatObj;
 import main.rice.obj.PyIntObj;
@@ -310,4 +312,52 @@ class PyListNodeTest extends AIterablePyNodeTest {
         // Compare the actual and expected distributions
         assertTrue(compareDistribution(expectedRandNested, actual, 0.01));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that countRanVals() and genRanValAt() enumerate the random space exactly
+     * once, using a node whose random domain matches its exhaustive domain.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(21)
+    void testGenRanValAt() {
+        PyIntNode inner = new PyIntNode();
+        inner.setExDomain(List.of(0, 1, 2));
+        inner.setRanDomain(List.of(0, 1, 2));
+        PyListNode<PyIntObj> node = new PyListNode<>(inner);
+        node.setExDomain(List.of(0, 2, 3));
+        node.setRanDomain(List.of(0, 2, 3));
+        assertEquals(1 + 9 + 27, node.countRanVals());
+        assertTrue(ranSpaceMatchesEx(node));
+    }
+
+    /**
+     * Tests that hasSameExDomain() compares the shapes and exhaustive domains of two
+     * trees, ignoring the order of the domains and their random domains.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(22)
+    void testHasSameExDomain() {
+        PyIntNode inner = new PyIntNode();
+        inner.setExDomain(List.of(0, 1, 2));
+        PyListNode<PyIntObj> node = new PyListNode<>(inner);
+        node.setExDomain(List.of(0, 2));
+
+        PyIntNode sameInner = new PyIntNode();
+        sameInner.setExDomain(List.of(2, 1, 0));
+        sameInner.setRanDomain(List.of(5));
+        PyListNode<PyIntObj> same = new PyListNode<>(sameInner);
+        same.setExDomain(List.of(2, 0));
+        assertTrue(node.hasSameExDomain(same));
+        assertTrue(same.hasSameExDomain(node));
+
+        PyIntNode otherInner = new PyIntNode();
+        otherInner.setExDomain(List.of(0, 1));
+        PyListNode<PyIntObj> otherChild = new PyListNode<>(otherInner);
+        otherChild.setExDomain(List.of(0, 2));
+        assertFalse(node.hasSameExDomain(otherChild));
+        assertFalse(node.hasSameExDomain(inner));
+        assertFalse(node.hasSameExDomain(null));
+    }
+}
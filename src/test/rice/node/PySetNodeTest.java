@@ -462,6 +462,24 @@ class PySetNodeTest extends APyNodeTest {
         assertTrue(compareDistribution(expected, actual, 0.01));
     }
 
+    /**
+     * Tests that countRanVals() and genRanValAt() enumerate the random space exactly
+     * once, using a node whose random domain matches its exhaustive domain.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(21)
+    void testGenRanValAt() {
+        PyIntNode inner = new PyIntNode();
+        inner.setExDomain(List.of(0, 1, 2, 3, 4));
+        inner.setRanDomain(List.of(0, 1, 2, 3, 4));
+        PySetNode<PyIntObj> node = new PySetNode<>(inner);
+        node.setExDomain(List.of(1, 3));
+        node.setRanDomain(List.of(1, 3));
+        assertEquals(5 + 10, node.countRanVals());
+        assertTrue(ranSpaceMatchesEx(node));
+    }
+
     /**
      * Sets up emptyOnly.
      */
@@ -360,4 +360,37 @@ class PyStringNodeTest extends APyNodeTest {
         // Compare the actual and expected distributions
         assertTrue(compareDistribution(expected, actual, 0.005));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that countRanVals() and genRanValAt() enumerate the random space exactly
+     * once, using a node whose random domain matches its exhaustive domain.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(17)
+    void testGenRanValAt() {
+        PyStringNode node = new PyStringNode(Set.of('a', 'b', 'c'));
+        node.setExDomain(List.of(1, 2));
+        node.setRanDomain(List.of(1, 2));
+        assertEquals(3 + 9, node.countRanVals());
+        assertTrue(ranSpaceMatchesEx(node));
+    }
+
+    /**
+     * Tests that hasSameExDomain() requires the same characters as well as the same
+     * lengths.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(18)
+    void testHasSameExDomain() {
+        PyStringNode node = new PyStringNode(Set.of('a', 'b'));
+        node.setExDomain(List.of(1, 2));
+        PyStringNode same = new PyStringNode(Set.of('b', 'a'));
+        same.setExDomain(List.of(2, 1));
+        PyStringNode otherChars = new PyStringNode(Set.of('a', 'c'));
+        otherChars.setExDomain(List.of(1, 2));
+        assertTrue(node.hasSameExDomain(same));
+        assertFalse(node.hasSameExDomain(otherChars));
+    }
+}
@@ -0,0 +1,94 @@
+package test.rice.obj;
+
+import main.rice.obj.*;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the PyEquality class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PyEqualityTest {
+
+    /**
+     * Tests that bools, ints and floats denoting the same number are equal, including
+     * both zeroes, and that different numbers are not.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(1)
+    void testNumbers() {
+        assertTrue(PyEquality.equal(new PyBoolObj(true), new PyIntObj(1)));
+        assertTrue(PyEquality.equal(new PyIntObj(1), new PyFloatObj(1.0)));
+        assertTrue(PyEquality.equal(new PyBoolObj(false), new PyFloatObj(-0.0)));
+        assertTrue(PyEquality.equal(new PyFloatObj(0.0), new PyFloatObj(-0.0)));
+        assertFalse(PyEquality.equal(new PyIntObj(1), new PyFloatObj(1.5)));
+        assertFalse(PyEquality.equal(new PyBoolObj(true), new PyIntObj(2)));
+        assertNotEquals(new PyIntObj(1), new PyFloatObj(1.0));
+    }
+
+    /**
+     * Tests that set members Python considers equal collapse, so that {1, True} is {1},
+     * and that sets of different members stay distinct.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testSets() {
+        PySetObj<APyObj<?>> mixed = new PySetObj<>(Set.of(new PyIntObj(1), new PyBoolObj(true)));
+        PySetObj<APyObj<?>> one = new PySetObj<>(Set.of(new PyFloatObj(1.0)));
+        assertTrue(PyEquality.equal(mixed, one));
+        assertFalse(PyEquality.equal(one, new PySetObj<>(Set.of(new PyIntObj(2)))));
+        assertFalse(PyEquality.equal(one, new PySetObj<>(Set.of(new PyIntObj(1),
+                new PyIntObj(2)))));
+    }
+
+    /**
+     * Tests that dict keys Python considers equal collapse, keeping the last value, and
+     * that dicts compare regardless of entry order.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testDicts() {
+        Map<APyObj<?>, APyObj<?>> collapsing = new LinkedHashMap<>();
+        collapsing.put(new PyIntObj(1), new PyStringObj("a"));
+        collapsing.put(new PyBoolObj(true), new PyStringObj("b"));
+        Map<APyObj<?>, APyObj<?>> last = Map.of(new PyFloatObj(1.0), new PyStringObj("b"));
+        Map<APyObj<?>, APyObj<?>> first = Map.of(new PyIntObj(1), new PyStringObj("a"));
+        assertTrue(PyEquality.equal(new PyDictObj<>(collapsing), new PyDictObj<>(last)));
+        assertFalse(PyEquality.equal(new PyDictObj<>(collapsing), new PyDictObj<>(first)));
+
+        Map<APyObj<?>, APyObj<?>> forward = new LinkedHashMap<>();
+        forward.put(new PyIntObj(1), new PyIntObj(2));
+        forward.put(new PyIntObj(3), new PyIntObj(4));
+        Map<APyObj<?>, APyObj<?>> backward = new LinkedHashMap<>();
+        backward.put(new PyIntObj(3), new PyFloatObj(4.0));
+        backward.put(new PyBoolObj(true), new PyIntObj(2));
+        assertTrue(PyEquality.equal(new PyDictObj<>(forward), new PyDictObj<>(backward)));
+    }
+
+    /**
+     * Tests that sequences compare element by element under Python's equality, that
+     * lists and tuples are never equal, and that a character equals the string of it.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(4)
+    void testSequences() {
+        List<APyObj<?>> ints = List.of(new PyIntObj(1), new PyIntObj(0));
+        List<APyObj<?>> mixed = List.of(new PyBoolObj(true), new PyFloatObj(0.0));
+        assertTrue(PyEquality.equal(new PyListObj<>(ints), new PyListObj<>(mixed)));
+        assertTrue(PyEquality.equal(new PyTupleObj<>(ints), new PyTupleObj<>(mixed)));
+        assertFalse(PyEquality.equal(new PyListObj<>(ints), new PyTupleObj<>(ints)));
+        assertFalse(PyEquality.equal(new PyListObj<>(ints),
+                new PyListObj<>(List.of(new PyIntObj(0), new PyIntObj(1)))));
+        assertTrue(PyEquality.equal(new PyCharObj('a'), new PyStringObj("a")));
+        assertFalse(PyEquality.equal(new PyStringObj("ab"), new PyStringObj("ba")));
+        assertEquals(PyEquality.fingerprint(ints), PyEquality.fingerprint(mixed));
+        assertNotEquals(PyEquality.fingerprint(ints), PyEquality.fingerprint(ints.subList(0, 1)));
+    }
+}
@@ -205,4 +205,32 @@ class PySetObjTest {
     void testHashCodeNotEqual() {
         assertNotEquals(nonEmptyFloatSet.hashCode(), nonEmptyIntSet.hashCode());
     }
+
+    /**
+     * Tests that fingerprint() agrees for equal sets, regardless of iteration order.
+     */
+    @Test
+    @Tag("0.3")
+    @Order(12)
+    void testFingerprintEqual() {
+        List<PyFloatObj> elems = new ArrayList<>(nonEmptyFloatVal);
+        Set<PyFloatObj> forward = new LinkedHashSet<>(elems);
+        Collections.reverse(elems);
+        Set<PyFloatObj> backward = new LinkedHashSet<>(elems);
+        assertEquals(new PySetObj<>(forward).fingerprint(),
+                new PySetObj<>(backward).fingerprint());
+        assertEquals(nonEmptyFloatSet.fingerprint(), nonEmptyFloatSet2.fingerprint());
+    }
+
+    /**
+     * Tests that fingerprint() differs for sets containing different elements.
+     */
+    @Test
+    @Tag("0.3")
+    @Order(13)
+    void testFingerprintNotEqual() {
+        assertNotEquals(nonEmptyFloatSet.fingerprint(), nonEmptyFloatSet3.fingerprint());
+        assertNotEquals(nonEmptyIntSet.fingerprint(), nonEmptyIntSubset.fingerprint());
+        assertNotEquals(emptyFloatSet.fingerprint(), nonEmptyFloatSet.fingerprint());
+    }
 }
@@ -246,6 +246,27 @@ class PyTupleObjTest {
         assertNotEquals(nestedTup.hashCode(), nonEmptyFloatTup.hashCode());
     }
 
+    /**
+     * Tests that fingerprint() agrees for equal tuples, but tells a tuple apart from a
+     * list or string of the same elements, just as equals() does.
+     */
+    @Test
+    @Tag("0.3")
+    @Order(14)
+    void testFingerprintNotList() {
+        assertEquals(nestedTup.fingerprint(), nestedTup2.fingerprint());
+        PyTupleObj<PyIntObj> tuple = new PyTupleObj<>(List.of(new PyIntObj(1)));
+        PyListObj<PyIntObj> list = new PyListObj<>(List.of(new PyIntObj(1)));
+        assertNotEquals(tuple, list);
+        assertNotEquals(tuple.fingerprint(), list.fingerprint());
+
+        List<PyCharObj> chars = List.of(new PyCharObj('a'), new PyCharObj('b'));
+        PyStringObj string = new PyStringObj(chars);
+        assertNotEquals(string.fingerprint(), new PyTupleObj<>(chars).fingerprint());
+        assertNotEquals(string.fingerprint(), new PyListObj<>(chars).fingerprint());
+        assertEquals(string.fingerprint(), new PyStringObj("ab").fingerprint());
+    }
+
     /**
      * Sets up and returns value that will be used for nestedVal and nestedVal2.
      *
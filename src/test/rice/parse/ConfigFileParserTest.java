@@ -1,5 +1,6 @@
 package test.rice.parse;
 
+import main.rice.basegen.ArgConstraint;
 import main.rice.node.*;
 import main.rice.obj.*;
 import main.rice.parse.*;
@@ -1016,6 +1017,122 @@ class ConfigFileParserTest {
         assertTrue(correctDomains(retval.getNodes(), nestedDictNodes, true));
     }
 
+    /**
+     * Tests that a config file without constraints parses to an empty list of them.
+     */
+    @Test
+    @Order(68)
+    void testParseNoConstraints() throws InvalidConfigException {
+        ConfigFile retval = ConfigFileParser.parse(multipleSimpleConfig);
+        assertEquals(List.of(), retval.getConstraints());
+        retval = ConfigFileParser.parse(withConstraints("[]"));
+        assertEquals(List.of(), retval.getConstraints());
+    }
+
+    /**
+     * Tests that each constraint in the config file is compiled into a predicate.
+     */
+    @Test
+    @Order(69)
+    void testParseConstraints() throws InvalidConfigException {
+        ConfigFile retval = ConfigFileParser.parse(withConstraints(
+                "[\"arg0 <= arg1\", \"len(arg2) == arg1\", \"arg1 != -1.5\"]"));
+        List<ArgConstraint> constraints = retval.getConstraints();
+        assertEquals(3, constraints.size());
+        assertEquals("arg0 <= arg1", constraints.get(0).toString());
+        assertEquals("len(arg2) == arg1", constraints.get(1).toString());
+        assertEquals("arg1 != -1.5", constraints.get(2).toString());
+
+        List<APyObj<?>> args = List.of(new PyIntObj(1), new PyIntObj(2),
+                new PyListObj<>(List.of(new PyIntObj(0), new PyIntObj(0))));
+        assertTrue(ArgConstraint.testAll(constraints, args));
+        args = List.of(new PyIntObj(3), new PyIntObj(2),
+                new PyListObj<>(List.of(new PyIntObj(0), new PyIntObj(0))));
+        assertFalse(ArgConstraint.testAll(constraints, args));
+    }
+
+    /**
+     * Tests that malformed or meaningless constraints are rejected.
+     */
+    @Test
+    @Order(70)
+    void testParseInvalidConstraints() {
+        invalidConfigHelper(withConstraints("\"arg0 <= arg1\""));
+        invalidConfigHelper(withConstraints("[\"arg0 <=> arg1\"]"));
+        invalidConfigHelper(withConstraints("[\"arg0 + 1 < arg1\"]"));
+        invalidConfigHelper(withConstraints("[\"arg3 < arg1\"]"));
+        invalidConfigHelper(withConstraints("[\"len(arg0) < arg1\"]"));
+        invalidConfigHelper(withConstraints("[\"arg2 < arg2\"]"));
+        invalidConfigHelper(withConstraints("[\"arg2 == arg0\"]"));
+        invalidConfigHelper(withConstraints("[\"1 < 2\"]"));
+    }
+
+    /**
+     * Tests that symmetric groups are parsed, and default to none.
+     */
+    @Test
+    @Order(71)
+    void testParseSymmetricGroups() throws InvalidConfigException {
+        assertEquals(List.of(), ConfigFileParser.parse(multipleSimpleConfig).getSymmetricGroups());
+        assertEquals(List.of(List.of(0, 1)), ConfigFileParser.parse(
+                withKey("symmetric", "[[0, 1]]")).getSymmetricGroups());
+        assertEquals(List.of(), ConfigFileParser.parse(
+                withKey("symmetric", "[]")).getSymmetricGroups());
+    }
+
+    /**
+     * Tests that malformed or meaningless symmetric groups are rejected.
+     */
+    @Test
+    @Order(72)
+    void testParseInvalidSymmetricGroups() {
+        invalidConfigHelper(withKey("symmetric", "[0, 1]"));
+        invalidConfigHelper(withKey("symmetric", "[[0]]"));
+        invalidConfigHelper(withKey("symmetric", "[[0, 3]]"));
+        invalidConfigHelper(withKey("symmetric", "[[0, 1], [1, 0]]"));
+        invalidConfigHelper(withKey("symmetric", "[[0, 2]]"));
+    }
+
+    /**
+     * Tests that symmetric groups are checked without generating the exhaustive values of
+     * their parameters, which would not fit in memory here.
+     */
+    @Test
+    @Order(73)
+    void testParseSymmetricGroupsLargeDomain() throws InvalidConfigException {
+        String config = buildConfigText("large", "[\"list(list(int\", \"list(list(int\"]",
+                "[\"0~20(0~20(0~99\", \"0~20(0~20(0~99\"]",
+                "[\"0~1(0~1(0~1\", \"0~1(0~1(0~1\"]", "2");
+        config = config.substring(0, config.lastIndexOf("}")) + ",\n\t\"symmetric\": [[0, 1]]\n}";
+        assertEquals(List.of(List.of(0, 1)), ConfigFileParser.parse(config).getSymmetricGroups());
+    }
+
+    /**
+     * Helper function for building the text of a config file with an int, an int and a
+     * list of ints as parameters, along with the given constraints.
+     *
+     * @param constraints the value of the constraints key
+     * @return the config file text
+     */
+    private static String withConstraints(String constraints) {
+        return withKey("constraints", constraints);
+    }
+
+    /**
+     * Helper function for building the text of a config file with an int, an int and a
+     * list of ints as parameters, along with an optional key.
+     *
+     * @param key   the name of the optional key
+     * @param value the value of the optional key
+     * @return the config file text
+     */
+    private static String withKey(String key, String value) {
+        String config = buildConfigText("constrained", "[\"int\", \"int\", \"list(int\"]",
+                "[\"0~1\", \"0~1\", \"0~2(0~1\"]", "[\"0~1\", \"0~1\", \"0~2(0~1\"]", "2");
+        return config.substring(0, config.lastIndexOf("}"))
+                + ",\n\t\"" + key + "\": " + value + "\n}";
+    }
+
     /**
      * Helper function for building a ConfigFile object.
      *
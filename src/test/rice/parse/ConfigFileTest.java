@@ -1,5 +1,6 @@
 package test.rice.parse;
 
+import main.rice.basegen.ArgConstraint;
 import main.rice.node.*;
 import main.rice.parse.ConfigFile;
 import org.junit.jupiter.api.*;
@@ -45,4 +46,26 @@ class ConfigFileTest {
         List<APyNode<?>> nodes = List.of(node1, node2);
         assertEquals(new ArrayList<>(nodes), new ConfigFile(null, nodes, 0).getNodes());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the getConstraints() method of the ConfigFile class.
+     */
+    @Test
+    void testGetConstraints() {
+        assertEquals(List.of(), new ConfigFile(null, null, 0).getConstraints());
+        List<ArgConstraint> constraints = List.of(new ArgConstraint(
+                ArgConstraint.Operand.arg(0), ArgConstraint.Comparison.LT,
+                ArgConstraint.Operand.arg(1)));
+        assertEquals(constraints, new ConfigFile(null, null, 0, constraints).getConstraints());
+    }
+
+    /**
+     * Tests the getSymmetricGroups() method of the ConfigFile class.
+     */
+    @Test
+    void testGetSymmetricGroups() {
+        assertEquals(List.of(), new ConfigFile(null, null, 0).getSymmetricGroups());
+        List<List<Integer>> groups = List.of(List.of(0, 2));
+        assertEquals(groups, new ConfigFile(null, null, 0, List.of(), groups).getSymmetricGroups());
+    }
+}
@@ -0,0 +1,86 @@
+package test.rice.test;
+
+import main.rice.obj.PyIntObj;
+import main.rice.test.TestCase;
+import main.rice.test.Tester;
+import org.junit.jupiter.api.AfterAll;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shared fixture for the tests of the graders that run only some of the cells, all of
+ * which grade func0 on the six buggy implementations in f0multipleMixedDeterministic
+ * (each of which is wrong on a different set of ints) or on a cohort built from them.
+ */
+abstract class AGraderTest {
+
+    /**
+     * The absolute path to this project directory, which we'll use to find the provided
+     * pyfiles.
+     */
+    protected static final String userDir = System.getProperty("user.dir");
+
+    /**
+     * The directory containing the buggy implementations.
+     */
+    protected static final String implDir =
+            userDir + "/src/test/rice/test/pyfiles/f0multipleMixedDeterministic";
+
+    /**
+     * Test cases for func0 on each int from 0 through 9.
+     */
+    protected static final List<TestCase> tests =
+            intTests(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+    /**
+     * Deletes the expected results written by the tests.
+     */
+    @AfterAll
+    static void cleanUpExpected() {
+        new File(implDir + "/expected.py").delete();
+    }
+
+    /**
+     * Helper function; builds a test case for func0 on each of the given ints.
+     *
+     * @param values the ints, in order
+     * @return the test cases
+     */
+    protected static List<TestCase> intTests(int... values) {
+        List<TestCase> intTests = new ArrayList<>();
+        for (int value : values) {
+            intTests.add(new TestCase(Collections.singletonList(new PyIntObj(value))));
+        }
+        return intTests;
+    }
+
+    /**
+     * Helper function; builds a tester for func0 on the test cases, and computes its
+     * expected results.
+     *
+     * @return the tester
+     * @throws Exception if the expected results cannot be computed
+     */
+    protected static Tester newTester() throws Exception {
+        return newTester(implDir, tests);
+    }
+
+    /**
+     * Helper function; builds a tester for func0 on the given implementations and test
+     * cases, and computes its expected results.
+     *
+     * @param dir   the directory containing the implementations
+     * @param cases the test cases
+     * @return the tester
+     * @throws Exception if the expected results cannot be computed
+     */
+    protected static Tester newTester(String dir, List<TestCase> cases) throws Exception {
+        Tester tester = new Tester("func0",
+                userDir + "/src/test/rice/test/pyfiles/sols/func0sol.py", dir, cases);
+        tester.computeExpectedResults();
+        return tester;
+    }
+}
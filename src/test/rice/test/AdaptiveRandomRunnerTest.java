@@ -0,0 +1,157 @@
+package test.rice.test;
+
+import main.rice.basegen.BaseSetGenerator;
+import main.rice.node.PyIntNode;
+import main.rice.obj.PyIntObj;
+import main.rice.test.AdaptiveRandomRunner;
+import main.rice.test.TestCase;
+import main.rice.test.TestResults;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the AdaptiveRandomRunner class. Rounds are run by stubs rather than on
+ * real implementations, so that what each round catches is known in advance.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AdaptiveRandomRunnerTest {
+
+    /**
+     * Tests that generation stops after patience rounds that catch nothing.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(1)
+    void testStopsWhenFlat() throws Exception {
+        AdaptiveRandomRunner runner = new AdaptiveRandomRunner(intGenerator(99), 5, 2, 50);
+        List<Integer> roundSizes = new ArrayList<>();
+        TestResults results = runner.run(tests -> {
+            roundSizes.add(tests.size());
+            return catching(tests, value -> Set.of());
+        });
+        assertEquals(List.of(1, 5, 5), roundSizes);
+        assertEquals(List.of(0, 0), runner.getRoundYields());
+        assertEquals(11, results.getCaseToFiles().size());
+        assertEquals(11, distinctCases(results).size());
+    }
+
+    /**
+     * Tests that rounds which keep finding new failure signatures run until the ceiling
+     * on random test cases is reached, and that idle rounds are forgiven once a later
+     * round yields something.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testRunsToCeiling() throws Exception {
+        AdaptiveRandomRunner runner = new AdaptiveRandomRunner(intGenerator(99), 5, 2, 23);
+        TestResults results = runner.run(tests -> catching(tests, value -> Set.of(value)));
+        assertEquals(List.of(5, 5, 5, 5, 3), runner.getRoundYields().stream()
+                .map(yield -> yield / 2).toList());
+        assertEquals(24, distinctCases(results).size());
+        assertEquals(24, results.getWrongSet().size());
+
+        // Only the first test case of each value mod 4 catches anything new, and stopping
+        // requires three idle rounds in a row
+        runner = new AdaptiveRandomRunner(intGenerator(99), 1, 3, 50);
+        runner.run(tests -> catching(tests, value -> Set.of(value % 4)));
+        List<Integer> yields = runner.getRoundYields();
+        assertEquals(List.of(0, 0, 0), yields.subList(yields.size() - 3, yields.size()));
+        int idle = 0;
+        for (int yield : yields.subList(0, yields.size() - 3)) {
+            idle = yield == 0 ? idle + 1 : 0;
+            assertTrue(idle < 3);
+        }
+        assertTrue(yields.stream().mapToInt(Integer::intValue).sum() <= 6);
+    }
+
+    /**
+     * Tests that generation stops once the random space is exhausted.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(3)
+    void testStopsWhenExhausted() throws Exception {
+        AdaptiveRandomRunner runner = new AdaptiveRandomRunner(intGenerator(3), 5, 2, 50);
+        TestResults results = runner.run(tests -> catching(tests, value -> Set.of(value)));
+        assertEquals(1, runner.getRoundYields().size());
+        assertEquals(Set.of(0, 1, 2, 3), distinctCases(results).stream()
+                .map(test -> ((PyIntObj) test.getArgs().get(0)).getValue())
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Tests that invalid settings are rejected.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(4)
+    void testInvalid() {
+        BaseSetGenerator generator = intGenerator(3);
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveRandomRunner(generator, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveRandomRunner(generator, 1, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveRandomRunner(generator, 1, 1, -1));
+    }
+
+    /**
+     * Helper function; builds a generator of single ints, with an exhaustive domain of
+     * just 0 and a random domain of 0 through max.
+     *
+     * @param max the largest value in the random domain
+     * @return the generator
+     */
+    private static BaseSetGenerator intGenerator(int max) {
+        PyIntNode node = new PyIntNode();
+        node.setExDomain(List.of(0));
+        List<Integer> ranDomain = new ArrayList<>();
+        for (int i = 0; i <= max; i++) {
+            ranDomain.add(i);
+        }
+        node.setRanDomain(ranDomain);
+        BaseSetGenerator generator = new BaseSetGenerator(List.of(node), 0);
+        generator.setSeed(42);
+        return generator;
+    }
+
+    /**
+     * Helper function; fakes running single-int test cases, where each test case catches
+     * the files given by a function of its value.
+     *
+     * @param tests   the test cases
+     * @param catches the files caught by a test case with a given value
+     * @return the results of "running" the test cases
+     */
+    private static TestResults catching(List<TestCase> tests,
+                                        IntFunction<Set<Integer>> catches) {
+        List<Set<Integer>> caseToFiles = new ArrayList<>();
+        Set<Integer> wrongSet = new HashSet<>();
+        for (TestCase test : tests) {
+            Set<Integer> caught = catches.apply(((PyIntObj) test.getArgs().get(0)).getValue());
+            caseToFiles.add(caught);
+            wrongSet.addAll(caught);
+        }
+        return new TestResults(tests, caseToFiles, wrongSet);
+    }
+
+    /**
+     * Helper function; collects the distinct test cases in some results.
+     *
+     * @param results the results
+     * @return the set of test cases
+     */
+    private static Set<TestCase> distinctCases(TestResults results) {
+        Set<TestCase> cases = new HashSet<>();
+        for (int i = 0; i < results.getCaseToFiles().size(); i++) {
+            cases.add(results.getTestCase(i));
+        }
+        return cases;
+    }
+}
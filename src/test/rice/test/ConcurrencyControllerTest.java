@@ -0,0 +1,141 @@
+package test.rice.test;
+
+import main.rice.test.ConcurrencyController;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the ConcurrencyController class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ConcurrencyControllerTest {
+
+    /**
+     * Tests that a fixed controller never changes its limit.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testFixedNeverAdjusts() {
+        ConcurrencyController controller = new ConcurrencyController(4);
+        assertEquals(4, controller.getLimit());
+        assertEquals(4, controller.getMaxWorkers());
+        controller.recordWindow(10.0, 0.0);
+        controller.recordWindow(100.0, 0.0);
+        assertEquals(4, controller.getLimit());
+    }
+
+    /**
+     * Tests that an adaptive controller starts at its minimum and grows additively
+     * while throughput keeps improving.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testAdditiveIncrease() {
+        ConcurrencyController controller = new ConcurrencyController(1, 8);
+        assertEquals(1, controller.getLimit());
+        controller.recordWindow(10.0, 0.0);
+        assertEquals(2, controller.getLimit());
+        controller.recordWindow(20.0, 0.0);
+        assertEquals(3, controller.getLimit());
+        controller.recordWindow(30.0, 0.0);
+        assertEquals(4, controller.getLimit());
+    }
+
+    /**
+     * Tests that an adaptive controller cuts its limit multiplicatively when an increase
+     * makes throughput worse.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testMultiplicativeDecreaseOnRegression() {
+        ConcurrencyController controller = new ConcurrencyController(1, 16);
+        double throughput = 10.0;
+        for (int i = 0; i < 7; i++) {
+            controller.recordWindow(throughput, 0.0);
+            throughput += 10.0;
+        }
+        assertEquals(8, controller.getLimit());
+        controller.recordWindow(10.0, 0.0);
+        assertEquals(4, controller.getLimit());
+    }
+
+    /**
+     * Tests that an adaptive controller holds its limit when an increase doesn't help,
+     * and then probes again.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(4)
+    void testHoldOnPlateau() {
+        ConcurrencyController controller = new ConcurrencyController(1, 8);
+        controller.recordWindow(10.0, 0.0);
+        controller.recordWindow(10.1, 0.0);
+        assertEquals(2, controller.getLimit());
+        controller.recordWindow(10.1, 0.0);
+        assertEquals(3, controller.getLimit());
+    }
+
+    /**
+     * Tests that an adaptive controller backs off when the host is overloaded, and never
+     * leaves its bounds.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(5)
+    void testBoundsAndOverload() {
+        ConcurrencyController controller = new ConcurrencyController(2, 3);
+        for (int i = 0; i < 5; i++) {
+            controller.recordWindow(10.0 * (i + 1), 0.0);
+        }
+        assertEquals(3, controller.getLimit());
+
+        double overload = 100.0 * Runtime.getRuntime().availableProcessors();
+        controller.recordWindow(100.0, overload);
+        assertEquals(2, controller.getLimit());
+        controller.recordWindow(100.0, overload);
+        assertEquals(2, controller.getLimit());
+    }
+
+    /**
+     * Tests that invalid bounds are rejected.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(6)
+    void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyController(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConcurrencyController(4, 2));
+    }
+
+    /**
+     * Tests that acquire() blocks once the limit is reached, until a slot is released.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(7)
+    void testAcquireBlocksAtLimit() throws InterruptedException {
+        ConcurrencyController controller = new ConcurrencyController(1);
+        controller.acquire();
+
+        Thread waiter = new Thread(() -> {
+            try {
+                controller.acquire();
+                controller.release();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        waiter.join(200);
+        assertTrue(waiter.isAlive());
+
+        controller.release();
+        waiter.join(2000);
+        assertFalse(waiter.isAlive());
+    }
+}
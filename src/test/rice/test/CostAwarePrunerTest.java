@@ -0,0 +1,134 @@
+package test.rice.test;
+
+import main.rice.obj.*;
+import main.rice.test.CostAwarePruner;
+import main.rice.test.TestCase;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the CostAwarePruner class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CostAwarePrunerTest {
+
+    /**
+     * Four test cases with a single int argument, so that all share a signature.
+     */
+    private static List<TestCase> intTests;
+
+    /**
+     * The expected results of intTests: tests 0 and 1 share an output, as do 2 and 3.
+     */
+    private static final List<String> intResults = List.of("'a'", "'a'", "'b'", "'b'");
+
+    /**
+     * The solution times of intTests, in milliseconds.
+     */
+    private static final List<Double> intCosts = List.of(10.0, 1.0, 5.0, 50.0);
+
+    /**
+     * Sets up all static fields for use in the test cases.
+     */
+    @BeforeAll
+    static void setUp() {
+        intTests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            intTests.add(new TestCase(List.of(new PyIntObj(i))));
+        }
+    }
+
+    /**
+     * Tests that signatureOf() ignores the values of leaves and the order of sets, but
+     * not the lengths or types of arguments.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testSignatureOf() {
+        TestCase first = new TestCase(List.of(
+                new PyListObj<>(List.of(new PyIntObj(1), new PyIntObj(2))),
+                new PyStringObj("ab")));
+        TestCase second = new TestCase(List.of(
+                new PyListObj<>(List.of(new PyIntObj(3), new PyIntObj(4))),
+                new PyStringObj("cd")));
+        TestCase longer = new TestCase(List.of(
+                new PyListObj<>(List.of(new PyIntObj(3))), new PyStringObj("cd")));
+        assertEquals("list[int,int],str[2]", CostAwarePruner.signatureOf(first));
+        assertEquals(CostAwarePruner.signatureOf(first), CostAwarePruner.signatureOf(second));
+        assertNotEquals(CostAwarePruner.signatureOf(first), CostAwarePruner.signatureOf(longer));
+
+        TestCase set = new TestCase(List.of(new PySetObj<>(Set.of(new PyIntObj(1),
+                new PyFloatObj(1.5)))));
+        assertEquals("set[float,int]", CostAwarePruner.signatureOf(set));
+        TestCase dict = new TestCase(List.of(new PyDictObj<>(Map.of(new PyIntObj(1),
+                new PyTupleObj<>(List.of(new PyBoolObj(true)))))));
+        assertEquals("dict{int:tuple[bool]}", CostAwarePruner.signatureOf(dict));
+    }
+
+    /**
+     * Tests that select() keeps everything when the budget allows it.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(2)
+    void testSelectWithinBudget() {
+        assertEquals(List.of(0, 1, 2, 3),
+                new CostAwarePruner(66).select(intTests, intResults, intCosts));
+    }
+
+    /**
+     * Tests that select() drops redundant test cases before unique ones, and expensive
+     * ones before cheap ones.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testSelectPrunes() {
+        // Test 1 is the cheapest; 0 and 3 share its output or signature, and 2 its
+        // signature, so the rest are redundant and kept from cheapest to most expensive
+        assertEquals(List.of(0, 1, 2),
+                new CostAwarePruner(16).select(intTests, intResults, intCosts));
+        assertEquals(List.of(1, 2),
+                new CostAwarePruner(15).select(intTests, intResults, intCosts));
+        assertEquals(List.of(1),
+                new CostAwarePruner(5.5).select(intTests, intResults, intCosts));
+    }
+
+    /**
+     * Tests that a test case sharing only its output with a cheaper one is redundant, as
+     * is one sharing only its signature, while one sharing neither outranks both.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(4)
+    void testSelectSharedOutputOrSignature() {
+        List<TestCase> tests = List.of(new TestCase(List.of(new PyStringObj("x"))),
+                new TestCase(List.of(new PyStringObj("xy"))),
+                new TestCase(List.of(new PyStringObj("z"))),
+                new TestCase(List.of(new PyStringObj("abc"))));
+        List<String> results = List.of("True", "True", "False", "None");
+        List<Double> costs = List.of(1.0, 2.0, 3.0, 4.0);
+
+        // Test 1 shares test 0's output and test 2 its signature, so the more expensive
+        // test 3, unique in both, comes before either of them
+        assertEquals(List.of(0, 3), new CostAwarePruner(5).select(tests, results, costs));
+        assertEquals(List.of(0, 1, 3), new CostAwarePruner(7).select(tests, results, costs));
+    }
+
+    /**
+     * Tests that invalid arguments are rejected.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(5)
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new CostAwarePruner(0));
+        assertThrows(IllegalArgumentException.class, () -> new CostAwarePruner(Double.NaN));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CostAwarePruner(1).select(intTests, intResults, List.of(1.0)));
+    }
+}
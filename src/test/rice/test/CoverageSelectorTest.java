@@ -0,0 +1,133 @@
+package test.rice.test;
+
+import main.rice.obj.*;
+import main.rice.test.CoverageSelector;
+import main.rice.test.TestCase;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the CoverageSelector class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CoverageSelectorTest {
+
+    /**
+     * The path to the reference solution for func3, which returns from one of four
+     * branches depending on which of its arguments are empty.
+     */
+    private static final String SOL_PATH = System.getProperty("user.dir")
+            + "/src/test/rice/test/pyfiles/sols/func3sol.py";
+
+    /**
+     * A selector over func3.
+     */
+    private static CoverageSelector selector;
+
+    /**
+     * Test cases reaching the set, list, tuple and fall-through branches of func3.
+     */
+    private static TestCase setBranch;
+    private static TestCase setBranch2;
+    private static TestCase listBranch;
+    private static TestCase listBranch2;
+    private static TestCase tupleBranch;
+    private static TestCase fallThrough;
+
+    /**
+     * Sets up all static fields for use in the test cases.
+     */
+    @BeforeAll
+    static void setUp() {
+        selector = new CoverageSelector("func3", SOL_PATH);
+        setBranch = func3Case(Set.of(1), List.of(), List.of());
+        setBranch2 = func3Case(Set.of(2, 3), List.of(4), List.of());
+        listBranch = func3Case(Set.of(), List.of(5), List.of());
+        listBranch2 = func3Case(Set.of(), List.of(6, 7), List.of(8));
+        tupleBranch = func3Case(Set.of(), List.of(), List.of(9));
+        fallThrough = func3Case(Set.of(), List.of(), List.of());
+    }
+
+    /**
+     * Tests that traceCoverage() gives test cases reaching the same branch the same
+     * coverage, and those reaching different branches different coverage.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testTraceCoverage() throws Exception {
+        List<Set<String>> coverage = selector.traceCoverage(List.of(setBranch, setBranch2,
+                listBranch, listBranch2, tupleBranch, fallThrough));
+        assertEquals(6, coverage.size());
+        assertEquals(coverage.get(0), coverage.get(1));
+        assertEquals(coverage.get(2), coverage.get(3));
+        assertEquals(4, new HashSet<>(List.of(coverage.get(0), coverage.get(2),
+                coverage.get(4), coverage.get(5))).size());
+        assertTrue(coverage.get(0).contains("L2"));
+        assertFalse(coverage.get(0).contains("L4"));
+    }
+
+    /**
+     * Tests that select() picks one test case per branch from a redundant pool, and stops
+     * once every branch is covered even if more test cases were requested.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testSelectSaturates() {
+        List<TestCase> pool = List.of(setBranch, setBranch2, listBranch, listBranch2,
+                tupleBranch, fallThrough);
+        List<TestCase> selected = selector.select(List.of(), pool, 10);
+        assertEquals(4, selected.size());
+        assertEquals(4, new HashSet<>(selected).size());
+        assertTrue(selected.contains(tupleBranch));
+        assertTrue(selected.contains(fallThrough));
+        assertTrue(selected.contains(setBranch) || selected.contains(setBranch2));
+        assertTrue(selected.contains(listBranch) || selected.contains(listBranch2));
+    }
+
+    /**
+     * Tests that select() skips branches already covered by the kept test cases, and
+     * never selects more than requested.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testSelectComplementsKept() {
+        List<TestCase> pool = List.of(setBranch2, listBranch2, tupleBranch);
+        assertEquals(List.of(tupleBranch),
+                selector.select(List.of(setBranch, listBranch), pool, 3));
+        assertEquals(1, selector.select(List.of(), pool, 1).size());
+        assertEquals(List.of(), selector.select(List.of(setBranch, listBranch,
+                tupleBranch), List.of(setBranch2, listBranch2), 2));
+    }
+
+    /**
+     * Helper function; builds a test case for func3 from the set, list and tuple of ints.
+     *
+     * @param set   the elements of the set
+     * @param list  the elements of the list
+     * @param tuple the elements of the tuple
+     * @return the test case
+     */
+    private static TestCase func3Case(Set<Integer> set, List<Integer> list,
+                                      List<Integer> tuple) {
+        Set<PyIntObj> setObjs = new HashSet<>();
+        for (int val : set) {
+            setObjs.add(new PyIntObj(val));
+        }
+        List<PyIntObj> listObjs = new ArrayList<>();
+        for (int val : list) {
+            listObjs.add(new PyIntObj(val));
+        }
+        List<PyIntObj> tupleObjs = new ArrayList<>();
+        for (int val : tuple) {
+            tupleObjs.add(new PyIntObj(val));
+        }
+        return new TestCase(List.of(new PySetObj<>(setObjs), new PyListObj<>(listObjs),
+                new PyTupleObj<>(tupleObjs)));
+    }
+}
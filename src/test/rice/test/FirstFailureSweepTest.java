@@ -0,0 +1,67 @@
+package test.rice.test;
+
+import main.rice.test.FirstFailureSweep;
+import main.rice.test.TestResults;
+import main.rice.test.Tester;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the FirstFailureSweep class, using the six buggy implementations of
+ * func0 in f0multipleMixedDeterministic, each of which is wrong on a different set of
+ * ints.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class FirstFailureSweepTest extends AGraderTest {
+
+    /**
+     * Tests that the sweep finds every buggy implementation, crediting each to the first
+     * test case in order that catches it, and stops running each implementation there.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(1)
+    void testSweep() throws Exception {
+        TestResults full = newTester().runTests();
+
+        // 2 catches impl0, impl1, impl3 and impl4; then 7 catches impl2 and impl5
+        List<Integer> order = List.of(2, 7, 0, 1, 3, 4, 5, 6, 8, 9);
+        FirstFailureSweep sweep = new FirstFailureSweep(order);
+        Tester tester = newTester();
+        TestResults results = sweep.sweep(tester);
+        assertEquals(full.getWrongSet(), results.getWrongSet());
+        assertEquals(Set.of(0, 1, 3, 4), results.getCaseToFiles().get(2));
+        assertEquals(Set.of(2, 5), results.getCaseToFiles().get(7));
+        assertEquals(List.of(0, 0, 6, 0, 0, 0, 0, 2, 0, 0), tester.getRunsPerTest());
+        assertEquals(8, tester.getNumCellsRun());
+        assertEquals(Set.of(0, 1, 2, 3, 4, 5), sweep.getRanFiles().get(2));
+        assertEquals(Set.of(2, 5), sweep.getRanFiles().get(7));
+        assertEquals(Set.of(), sweep.getRanFiles().get(0));
+
+        // In index order, 0 catches nothing, so every implementation runs on it
+        sweep = new FirstFailureSweep(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        tester = newTester();
+        results = sweep.sweep(tester);
+        assertEquals(full.getWrongSet(), results.getWrongSet());
+        assertEquals(6, tester.getRunsPerTest().get(0));
+        assertTrue(tester.getNumCellsRun() > 8);
+    }
+
+    /**
+     * Tests that orders which are not permutations of the test cases are rejected.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(2)
+    void testInvalidOrder() {
+        Tester tester = new Tester("func0",
+                userDir + "/src/test/rice/test/pyfiles/sols/func0sol.py", implDir, tests);
+        assertThrows(IllegalArgumentException.class,
+                () -> new FirstFailureSweep(List.of(0, 1, 2)).sweep(tester));
+        assertThrows(IllegalArgumentException.class, () -> new FirstFailureSweep(
+                List.of(0, 0, 2, 3, 4, 5, 6, 7, 8, 9)).sweep(tester));
+    }
+}
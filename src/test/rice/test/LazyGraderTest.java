@@ -0,0 +1,77 @@
+package test.rice.test;
+
+import main.rice.concisegen.ConciseSetGenerator;
+import main.rice.test.FirstFailureSweep;
+import main.rice.test.LazyGrader;
+import main.rice.test.TestResults;
+import main.rice.test.Tester;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the LazyGrader class, using the six buggy implementations of func0 in
+ * f0multipleMixedDeterministic, each of which is wrong on a different set of ints.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LazyGraderTest extends AGraderTest {
+
+    /**
+     * Tests that lazy grading reports every buggy implementation, only catches that
+     * really happen, and the same concise set as the full matrix, while running fewer
+     * cells than the full matrix.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(1)
+    void testGrade() throws Exception {
+        TestResults full = newTester().runTests();
+        LazyGrader grader = new LazyGrader();
+        Tester tester = newTester();
+        TestResults lazy = grader.grade(tester);
+        assertEquals(full.getWrongSet(), lazy.getWrongSet());
+        for (int i = 0; i < tests.size(); i++) {
+            assertTrue(full.getCaseToFiles().get(i).containsAll(
+                    lazy.getCaseToFiles().get(i)));
+        }
+        assertEquals(ConciseSetGenerator.setCover(full), ConciseSetGenerator.setCover(lazy));
+        assertTrue(tester.getNumCellsRun() < 6 * tests.size());
+        for (int runs : tester.getRunsPerTest()) {
+            assertTrue(runs <= 6);
+        }
+    }
+
+    /**
+     * Tests that cells known from a first-failure sweep are not run again, and that the
+     * concise set is still the same as from the full matrix even though the sweep credits
+     * each implementation to its first catcher only.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testGradeKnownCells() throws Exception {
+        TestResults full = newTester().runTests();
+
+        // 2 catches impl0, impl1, impl3 and impl4 first, leaving 7 only impl2 and impl5
+        FirstFailureSweep sweep = new FirstFailureSweep(List.of(2, 7, 0, 1, 3, 4, 5, 6, 8, 9));
+        Tester tester = newTester();
+        TestResults swept = sweep.sweep(tester);
+        LazyGrader grader = new LazyGrader();
+        grader.setKnownCells(sweep.getRanFiles(), swept);
+        TestResults lazy = grader.grade(tester);
+        assertEquals(full.getWrongSet(), lazy.getWrongSet());
+        for (int i = 0; i < tests.size(); i++) {
+            assertTrue(full.getCaseToFiles().get(i).containsAll(
+                    lazy.getCaseToFiles().get(i)));
+            assertTrue(lazy.getCaseToFiles().get(i).containsAll(
+                    swept.getCaseToFiles().get(i)));
+            assertTrue(tester.getRunsPerTest().get(i) <= 6);
+        }
+        assertEquals(ConciseSetGenerator.setCover(full), ConciseSetGenerator.setCover(lazy));
+
+        // 2 already ran on every implementation, so it is not run again
+        assertEquals(6, tester.getRunsPerTest().get(2));
+    }
+}
@@ -0,0 +1,127 @@
+package test.rice.test;
+
+import main.rice.obj.*;
+import main.rice.test.OutputDiversityFilter;
+import main.rice.test.TestCase;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the OutputDiversityFilter class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class OutputDiversityFilterTest {
+
+    /**
+     * Test cases with a single int argument, 0 through 9.
+     */
+    private static List<TestCase> intTests;
+
+    /**
+     * Sets up all static fields for use in the test cases.
+     */
+    @BeforeAll
+    static void setUp() {
+        intTests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            intTests.add(new TestCase(List.of(new PyIntObj(i))));
+        }
+    }
+
+    /**
+     * Tests shapeOf() on numbers, None, bools and errors.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(1)
+    void testShapeOfScalars() {
+        assertEquals("int/-", OutputDiversityFilter.shapeOf("-3"));
+        assertEquals("int/0", OutputDiversityFilter.shapeOf("0"));
+        assertEquals("int/+", OutputDiversityFilter.shapeOf("12"));
+        assertEquals("float/+", OutputDiversityFilter.shapeOf("0.5"));
+        assertEquals("None", OutputDiversityFilter.shapeOf("None"));
+        assertEquals("True", OutputDiversityFilter.shapeOf("True"));
+        assertEquals("error", OutputDiversityFilter.shapeOf(""));
+        assertEquals("other", OutputDiversityFilter.shapeOf("<object at 0x1>"));
+    }
+
+    /**
+     * Tests shapeOf() on strings and collections, including nested ones and strings
+     * containing separators.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(2)
+    void testShapeOfCollections() {
+        assertEquals("tuple/0", OutputDiversityFilter.shapeOf("()"));
+        assertEquals("tuple/1", OutputDiversityFilter.shapeOf("(1,)"));
+        assertEquals("tuple/2", OutputDiversityFilter.shapeOf("('3', '4')"));
+        assertEquals("list/2", OutputDiversityFilter.shapeOf("[[1, 2], (3, 4)]"));
+        assertEquals("list/1", OutputDiversityFilter.shapeOf("['a, b']"));
+        assertEquals("list/<=4", OutputDiversityFilter.shapeOf("[1, 2, 3]"));
+        assertEquals("list/<=8", OutputDiversityFilter.shapeOf("[1, 2, 3, 4, 5]"));
+        assertEquals("set/0", OutputDiversityFilter.shapeOf("set()"));
+        assertEquals("set/2", OutputDiversityFilter.shapeOf("{1, 2}"));
+        assertEquals("dict/0", OutputDiversityFilter.shapeOf("{}"));
+        assertEquals("dict/1", OutputDiversityFilter.shapeOf("{'a:': {1: 2}}"));
+        assertEquals("str/0", OutputDiversityFilter.shapeOf("''"));
+        assertEquals("str/<=4", OutputDiversityFilter.shapeOf("'abc'"));
+    }
+
+    /**
+     * Tests that select() keeps one test case per output shape and per distinct output,
+     * plus the boundaries of each argument.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testSelect() {
+        // Outputs: 0 -> "0"; 1~4 -> "5"; 5~8 -> "[1]"; 9 -> "[2]"
+        List<String> expected = List.of("0", "5", "5", "5", "5", "[1]", "[1]", "[1]", "[1]",
+                "[2]");
+        OutputDiversityFilter filter = new OutputDiversityFilter(0);
+        assertEquals(List.of(0, 1, 5, 9), filter.select(intTests, expected));
+    }
+
+    /**
+     * Tests that select() keeps the boundaries of every argument, even where all outputs
+     * are identical.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(4)
+    void testSelectBoundaries() {
+        List<TestCase> tests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            List<PyBoolObj> elems = new ArrayList<>();
+            for (int j = 0; j < (i + 2) % 4; j++) {
+                elems.add(new PyBoolObj(true));
+            }
+            tests.add(new TestCase(List.of(new PyIntObj(i), new PyListObj<>(elems))));
+        }
+        OutputDiversityFilter filter = new OutputDiversityFilter(0);
+        assertEquals(List.of(0, 1, 2, 3), filter.select(tests, List.of("1", "1", "1", "1")));
+    }
+
+    /**
+     * Tests that select() respects its cap, dropping distinct outputs before shapes, and
+     * that invalid arguments are rejected.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(5)
+    void testSelectCapped() {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            expected.add(i == 7 ? "-1" : String.valueOf(i + 1));
+        }
+        assertEquals(List.of(0, 7), new OutputDiversityFilter(2).select(intTests, expected));
+        assertEquals(10, new OutputDiversityFilter(0).select(intTests, expected).size());
+        assertThrows(IllegalArgumentException.class, () -> new OutputDiversityFilter(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OutputDiversityFilter(0).select(intTests, List.of("1")));
+    }
+}
@@ -0,0 +1,156 @@
+package test.rice.test;
+
+import main.rice.test.ProbeClusterGrader;
+import main.rice.test.TestCase;
+import main.rice.test.TestResults;
+import main.rice.test.Tester;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the ProbeClusterGrader class, using a cohort built from the buggy
+ * implementations of func0 in f0multipleMixedDeterministic in which two bugs are each
+ * submitted twice.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ProbeClusterGraderTest extends AGraderTest {
+
+    /**
+     * Test cases for func0; the diverse probe of size two is the first two of them, the
+     * ints 3 and 0.
+     */
+    private static final List<TestCase> cohortTests = intTests(3, 0, 2, 4, 5, 6);
+
+    /**
+     * The temporary directory holding the cohort.
+     */
+    private static Path cohortDir;
+
+    /**
+     * Sets up the temporary cohort: impl0 (wrong on 1, 2, 5 and 6), a copy of it, impl3
+     * (wrong on 2 and 3), impl4 (wrong on 2 and 4) and a copy of impl3.
+     */
+    @BeforeAll
+    static void setUpCohort() throws Exception {
+        cohortDir = Files.createTempDirectory("probe");
+        String[] sources = {"impl0", "impl0", "impl3", "impl4", "impl3"};
+        for (int i = 0; i < sources.length; i++) {
+            Files.copy(Path.of(implDir, sources[i] + ".py"),
+                    cohortDir.resolve("member" + i + ".py"));
+        }
+    }
+
+    /**
+     * Deletes the temporary cohort.
+     */
+    @AfterAll
+    static void cleanUpCohort() {
+        for (File file : Objects.requireNonNull(cohortDir.toFile().listFiles())) {
+            file.delete();
+        }
+        cohortDir.toFile().delete();
+    }
+
+    /**
+     * Tests that implementations are clustered by their probe verdicts, that results are
+     * propagated within clusters whose audit agrees, and that a cluster whose audit
+     * disagrees is flagged and run in full. impl4 shares impl0's probe verdicts, so its
+     * results are only right when it happens to be the audit member. Propagated results
+     * are left out of the observed ones.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(1)
+    void testGrade() throws Exception {
+        TestResults full = newCohortTester().runTests();
+        Set<Set<Integer>> flaggings = new HashSet<>();
+        Random seeds = new Random(0);
+        for (int i = 0; i < 10; i++) {
+            ProbeClusterGrader grader = new ProbeClusterGrader(2, seeds.nextLong());
+            Tester tester = newCohortTester();
+            TestResults results = grader.grade(tester);
+            assertEquals(List.of(List.of(0, 1, 3), List.of(2, 4)), grader.getClusters());
+            flaggings.add(new TreeSet<>(grader.getFlaggedClusters()));
+
+            // Five files on the probe, then four representatives and audit members on
+            // the other four test cases, and the fifth file too if its audit disagreed
+            if (grader.getFlaggedClusters().isEmpty()) {
+                assertEquals(26, tester.getNumCellsRun());
+                assertEquals(List.of(5, 5, 4, 4, 4, 4), tester.getRunsPerTest());
+                for (int test = 0; test < cohortTests.size(); test++) {
+                    Set<Integer> expected = new HashSet<>(full.getCaseToFiles().get(test));
+                    expected.remove(3);
+                    if (expected.contains(0)) {
+                        expected.add(3);
+                    }
+                    assertEquals(expected, results.getCaseToFiles().get(test));
+
+                    // The fifth file, sitting in impl0's cluster, was only run on the probe
+                    Set<Integer> observed = new HashSet<>(full.getCaseToFiles().get(test));
+                    if (test >= 2) {
+                        observed.remove(3);
+                    }
+                    assertEquals(observed,
+                            grader.getObservedResults().getCaseToFiles().get(test));
+                }
+            } else {
+                assertEquals(30, tester.getNumCellsRun());
+                assertEquals(Collections.nCopies(cohortTests.size(), 5),
+                        tester.getRunsPerTest());
+                assertEquals(full.getCaseToFiles(), results.getCaseToFiles());
+                assertEquals(full.getWrongSet(), results.getWrongSet());
+                assertEquals(full.getCaseToFiles(),
+                        grader.getObservedResults().getCaseToFiles());
+            }
+        }
+        assertEquals(Set.of(Set.of(), Set.of(0)), flaggings);
+    }
+
+    /**
+     * Tests that a probe covering the whole base set runs it exactly once.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(2)
+    void testProbeWholeBaseSet() throws Exception {
+        ProbeClusterGrader grader = new ProbeClusterGrader(cohortTests.size(), 0);
+        Tester tester = newCohortTester();
+        TestResults results = grader.grade(tester);
+        assertEquals(newCohortTester().runTests().getCaseToFiles(), results.getCaseToFiles());
+        assertEquals(5 * cohortTests.size(), tester.getNumCellsRun());
+    }
+
+    /**
+     * Tests that invalid probe sizes, and testers without expected results, are rejected.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(3)
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new ProbeClusterGrader(0, 0));
+        Tester tester = new Tester("func0",
+                userDir + "/src/test/rice/test/pyfiles/sols/func0sol.py",
+                cohortDir.toString(), cohortTests);
+        assertThrows(IllegalStateException.class,
+                () -> new ProbeClusterGrader(2, 0).grade(tester));
+    }
+
+    /**
+     * Helper function; builds a tester for func0 on the cohort, and computes its expected
+     * results.
+     *
+     * @return the tester
+     * @throws Exception if the expected results cannot be computed
+     */
+    private static Tester newCohortTester() throws Exception {
+        Tester tester = newTester(cohortDir.toString(), cohortTests);
+        assertEquals(List.of("3", "0", "2", "4", "5", "6"), tester.getExpectedResults());
+        return tester;
+    }
+}
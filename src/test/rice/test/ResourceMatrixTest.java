@@ -0,0 +1,116 @@
+package test.rice.test;
+
+import main.rice.test.ResourceMatrix;
+import main.rice.test.ResourceUsage;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the ResourceMatrix class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ResourceMatrixTest {
+
+    /**
+     * A matrix of two files by ten tests, where the usage of cell (file, test) grows
+     * with both indices.
+     */
+    private static ResourceMatrix matrix;
+
+    /**
+     * Sets up the shared matrix.
+     */
+    @BeforeAll
+    static void setUp() {
+        matrix = new ResourceMatrix(List.of("impl0.py", "impl1.py"), 10);
+        for (int file = 0; file < 2; file++) {
+            for (int test = 0; test < 10; test++) {
+                matrix.record(file, test, new ResourceUsage(10.0 * (test + 1) + file,
+                        1000 * (test + 1) + file, 100.0 * (test + 1) + file));
+            }
+        }
+    }
+
+    /**
+     * Tests that recorded cells can be read back.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(1)
+    void testGetUsage() {
+        ResourceUsage usage = matrix.getUsage(1, 4);
+        assertEquals(51.0, usage.getCpuMillis());
+        assertEquals(5001, usage.getPeakRssKb());
+        assertEquals(501.0, usage.getWallMillis());
+        assertEquals(10, matrix.getNumTests());
+    }
+
+    /**
+     * Tests nearest-rank percentiles across one implementation's tests.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(2)
+    void testSummarizeImpl() {
+        ResourceMatrix.Summary summary = matrix.summarizeImpl(0);
+        assertEquals(10, summary.getCount());
+        assertEquals(50.0, summary.cpuMillis(50));
+        assertEquals(90.0, summary.cpuMillis(90));
+        assertEquals(100.0, summary.cpuMillis(100));
+        assertEquals(10.0, summary.cpuMillis(0));
+        assertEquals(9000.0, summary.peakRssKb(90));
+        assertEquals(500.0, summary.wallMillis(50));
+    }
+
+    /**
+     * Tests percentiles across one test's implementations.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(3)
+    void testSummarizeTest() {
+        ResourceMatrix.Summary summary = matrix.summarizeTest(2);
+        assertEquals(2, summary.getCount());
+        assertEquals(30.0, summary.cpuMillis(50));
+        assertEquals(31.0, summary.cpuMillis(100));
+    }
+
+    /**
+     * Tests that unexecuted cells and unreported resources are left out of summaries.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(4)
+    void testMissingValues() {
+        ResourceMatrix sparse = new ResourceMatrix(List.of("impl0.py"), 3);
+        sparse.record(0, 0, new ResourceUsage(-1, -1, 7.0));
+        ResourceMatrix.Summary summary = sparse.summarizeImpl(0);
+        assertEquals(1, summary.getCount());
+        assertEquals(7.0, summary.wallMillis(50));
+        assertTrue(Double.isNaN(summary.cpuMillis(50)));
+        assertTrue(Double.isNaN(summary.peakRssKb(50)));
+    }
+
+    /**
+     * Tests that merging appends the other matrix's test cases after this one's, leaving
+     * both matrices unchanged.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(5)
+    void testMerge() {
+        ResourceMatrix other = new ResourceMatrix(List.of("impl0.py", "impl1.py"), 2);
+        other.record(1, 1, new ResourceUsage(1.0, 2, 3.0));
+        ResourceMatrix merged = matrix.merge(other);
+        assertEquals(12, merged.getNumTests());
+        assertEquals(matrix.getUsage(1, 4), merged.getUsage(1, 4));
+        assertNull(merged.getUsage(1, 10));
+        assertEquals(other.getUsage(1, 1), merged.getUsage(1, 11));
+        assertEquals(10, merged.summarizeImpl(0).getCount());
+        assertEquals(11, merged.summarizeImpl(1).getCount());
+        assertEquals(10, matrix.getNumTests());
+    }
+}
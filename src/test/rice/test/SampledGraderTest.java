@@ -0,0 +1,69 @@
+package test.rice.test;
+
+import main.rice.test.SampledGrader;
+import main.rice.test.TestResults;
+import main.rice.test.Tester;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the SampledGrader class, using the six buggy implementations of func0
+ * in f0multipleMixedDeterministic, each of which is wrong on a different set of ints.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SampledGraderTest extends AGraderTest {
+
+    /**
+     * Tests that grading a sample still reports every buggy implementation, each caught
+     * by a test case that really does catch it, and never runs more cells than the full
+     * matrix.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(1)
+    void testGradeSample() throws Exception {
+        TestResults full = newTester().runTests();
+        for (long seed = 0; seed < 3; seed++) {
+            SampledGrader grader = new SampledGrader(2, seed);
+            Tester tester = newTester();
+            TestResults sampled = grader.grade(tester);
+            assertEquals(full.getWrongSet(), sampled.getWrongSet());
+            for (int i = 0; i < tests.size(); i++) {
+                assertTrue(full.getCaseToFiles().get(i).containsAll(
+                        sampled.getCaseToFiles().get(i)));
+            }
+            assertTrue(tester.getNumCellsRun() <= 6 * tests.size());
+            for (int runs : tester.getRunsPerTest()) {
+                assertTrue(runs >= 2 && runs <= 6);
+            }
+        }
+    }
+
+    /**
+     * Tests that a sample at least as large as the cohort runs the full matrix.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(2)
+    void testGradeWholeCohort() throws Exception {
+        SampledGrader grader = new SampledGrader(6, 0);
+        Tester tester = newTester();
+        TestResults sampled = grader.grade(tester);
+        assertEquals(newTester().runTests().getCaseToFiles(), sampled.getCaseToFiles());
+        assertEquals(6 * tests.size(), tester.getNumCellsRun());
+        assertEquals(Collections.nCopies(tests.size(), 6), tester.getRunsPerTest());
+    }
+
+    /**
+     * Tests that invalid sample sizes are rejected.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(3)
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new SampledGrader(0, 0));
+    }
+}
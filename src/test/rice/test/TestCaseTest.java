@@ -347,6 +347,53 @@ class TestCaseTest {
         assertNotEquals(oneArgSimple.hashCode(), multipleArgsSimple.hashCode());
     }
 
+    /**
+     * Tests that fingerprint() agrees for identical test cases.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(26)
+    void testFingerprintEqual() {
+        assertEquals(noArgs.fingerprint(), noArgs2.fingerprint());
+        assertEquals(oneArgNested.fingerprint(), oneArgNested2.fingerprint());
+        assertEquals(multipleArgsNested.fingerprint(), multipleArgsNested2.fingerprint());
+    }
+
+    /**
+     * Tests that fingerprint() differs for test cases with different args, including
+     * args that differ only in order or in Python type.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(27)
+    void testFingerprintNotEqual() {
+        assertNotEquals(oneArgSimple.fingerprint(), multipleArgsSimple.fingerprint());
+        assertNotEquals(oneArgSimple.fingerprint(), oneArgNested.fingerprint());
+        assertNotEquals(new TestCase(List.of(new PyIntObj(1), new PyIntObj(2))).fingerprint(),
+                new TestCase(List.of(new PyIntObj(2), new PyIntObj(1))).fingerprint());
+        assertNotEquals(new TestCase(List.of(new PyIntObj(1))).fingerprint(),
+                new TestCase(List.of(new PyBoolObj(true))).fingerprint());
+        assertNotEquals(new TestCase(List.of(new PyIntObj(1))).fingerprint(),
+                new TestCase(List.of(new PyFloatObj(1.0))).fingerprint());
+    }
+
+    /**
+     * Tests that fingerprints of many distinct test cases do not collide.
+     */
+    @Test
+    @Tag("0.2")
+    @Order(28)
+    void testFingerprintNoCollisions() {
+        Set<Long> fingerprints = new HashSet<>();
+        for (int i = -100; i < 100; i++) {
+            for (int j = -100; j < 100; j++) {
+                fingerprints.add(new TestCase(List.of(new PyIntObj(i), new PyListObj<>(
+                        List.of(new PyIntObj(j))))).fingerprint());
+            }
+        }
+        assertEquals(200 * 200, fingerprints.size());
+    }
+
     /**
      * Set up oneArgSimple, oneArgSimple2, and oneArgSimpleVal for use in the test cases.
      */
@@ -175,4 +175,26 @@ class TestResultsTest {
     void testGetCaseToFilesNonEmpty() {
         assertEquals(new ArrayList<>(someFilesFail), someFail.getCaseToFiles());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that merge() appends the other results' test cases and caseToFiles, and
+     * unions the wrong sets, leaving both inputs unchanged.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(10)
+    void testMerge() {
+        TestResults first = new TestResults(testCases.subList(0, 2),
+                List.of(Set.of(1), Set.of()), Set.of(1));
+        TestResults second = new TestResults(testCases.subList(2, 3),
+                List.of(Set.of(1, 2)), Set.of(1, 2));
+        TestResults merged = first.merge(second);
+        assertEquals(testCases.get(2), merged.getTestCase(2));
+        assertNull(merged.getTestCase(3));
+        assertEquals(List.of(Set.of(1), Set.of(), Set.of(1, 2)), merged.getCaseToFiles());
+        assertEquals(Set.of(1, 2), merged.getWrongSet());
+        assertEquals(Set.of(1), first.getWrongSet());
+        assertEquals(2, first.getCaseToFiles().size());
+        assertEquals(someFilesFail, noTests.merge(someFail).getCaseToFiles());
+    }
+}
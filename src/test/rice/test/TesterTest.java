@@ -1,6 +1,13 @@
 package test.rice.test;
 
+import main.rice.monitor.MetricsRegistry;
+import main.rice.monitor.TraceRecorder;
 import main.rice.obj.*;
+import main.rice.test.ConcurrencyController;
+import main.rice.test.CostAwarePruner;
+import main.rice.test.OutputDiversityFilter;
+import main.rice.test.ResourceMatrix;
+import main.rice.test.ResourceUsage;
 import main.rice.test.TestCase;
 import main.rice.test.TestResults;
 import main.rice.test.Tester;
@@ -910,6 +917,293 @@ class TesterTest {
                 f3resultStr, Set.of(0, 1, 2), expected, 1);
     }
 
+    /**
+     * Tests running a mix of passing and failing tests on multiple implementations on a
+     * fixed pool of workers; checks caseToFiles.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(46)
+    void testRunTestsParallelFixed() {
+        runTestsHelper("func0", f0Tests, "f0multipleMixed",
+                "results = [0, 1, 2, 3, 4]", Set.of(0, 1),
+                List.of(Set.of(0), Set.of(1), Set.of(0), Set.of(1), Set.of(0)), 1,
+                new ConcurrencyController(4));
+    }
+
+    /**
+     * Tests running multiple nested tests on multiple implementations under an adaptive
+     * controller; checks caseToFiles.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(47)
+    void testRunTestsParallelAdaptive() {
+        List<Set<Integer>> expected = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            expected.add(Set.of(0, 1, 2));
+        }
+        runTestsHelper("func3", f3Tests, "f3malformed",
+                f3resultStr, Set.of(0, 1, 2), expected, 1,
+                new ConcurrencyController(1, 4));
+    }
+
+    /**
+     * Tests that runTests() records the resources consumed by every cell, including
+     * cells whose implementation crashes.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(48)
+    void testRunTestsRecordsResources() {
+        String implDir = userDir + "/src/test/rice/test/pyfiles/f3malformed";
+        Tester tester = new Tester("func3", null, implDir, f3Tests);
+        try {
+            FileWriter writer = new FileWriter(implDir + "/expected.py");
+            writer.write(f3resultStr);
+            writer.close();
+
+            assertNull(tester.getResourceMatrix());
+            tester.runTests();
+            ResourceMatrix matrix = tester.getResourceMatrix();
+            assertEquals(List.of("impl0.py", "impl1.py", "impl2.py"), matrix.getFilenames());
+            for (int file = 0; file < 3; file++) {
+                for (int test = 0; test < f3Tests.size(); test++) {
+                    ResourceUsage usage = matrix.getUsage(file, test);
+                    assertTrue(usage.getWallMillis() > 0);
+                    assertTrue(usage.getCpuMillis() >= 0);
+                    assertTrue(usage.getPeakRssKb() > 0);
+                }
+                assertEquals(f3Tests.size(), matrix.summarizeImpl(file).getCount());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail();
+        } finally {
+            deletedExpected("f3malformed");
+        }
+    }
+
+    /**
+     * Tests that a traced parallel run records one span per (impl, test) execution plus
+     * one for the testing phase.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(49)
+    void testRunTestsTraced() {
+        String implDir = userDir + "/src/test/rice/test/pyfiles/f0multipleMixed";
+        Tester tester = new Tester("func0", null, implDir, f0Tests);
+        TraceRecorder trace = new TraceRecorder();
+        tester.setConcurrency(new ConcurrencyController(3));
+        tester.setTraceRecorder(trace);
+        try {
+            FileWriter writer = new FileWriter(implDir + "/expected.py");
+            writer.write("results = [0, 1, 2, 3, 4]");
+            writer.close();
+
+            tester.runTests();
+            assertEquals(2 * f0Tests.size() + 1, trace.getNumSpans());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail();
+        } finally {
+            deletedExpected("f0multipleMixed");
+        }
+    }
+
+    /**
+     * Tests that runTests() counts every test, process and latency observation in the
+     * registry, and leaves no workers in flight.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(50)
+    void testRunTestsMetrics() {
+        String implDir = userDir + "/src/test/rice/test/pyfiles/f0multipleMixed";
+        Tester tester = new Tester("func0", null, implDir, f0Tests);
+        MetricsRegistry metrics = new MetricsRegistry();
+        tester.setConcurrency(new ConcurrencyController(3));
+        tester.setMetrics(metrics);
+        try {
+            FileWriter writer = new FileWriter(implDir + "/expected.py");
+            writer.write("results = [0, 1, 2, 3, 4]");
+            writer.close();
+
+            tester.runTests();
+            int cells = tester.getResourceMatrix().getFilenames().size() * f0Tests.size();
+            assertEquals(cells, metrics.counter("feat_tests_executed_total", "").get());
+            assertEquals(cells, metrics.counter("feat_process_spawns_total", "", "kind", "impl").get());
+            assertEquals(cells, metrics.histogram("feat_test_latency_seconds", "").getCount());
+            assertEquals(0, metrics.gauge("feat_workers_in_flight", "").get());
+            assertTrue(metrics.counter("feat_output_bytes_total", "").get() > 0);
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail();
+        } finally {
+            deletedExpected("f0multipleMixed");
+        }
+    }
+
+    /**
+     * Tests that retainDiverseTests() narrows runTests() to the diverse subset, reusing
+     * the expected results rather than running the solution again, and that the subset
+     * still catches every buggy implementation.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(51)
+    void testRetainDiverseTests() {
+        Tester tester = new Tester("func3", userDir + "/src/test/rice/test/pyfiles/sols/func3sol.py",
+                userDir + "/src/test/rice/test/pyfiles/f3multipleMixed", f3Tests);
+        try {
+            assertThrows(IllegalStateException.class,
+                    () -> tester.retainDiverseTests(new OutputDiversityFilter(0)));
+            writeSolContents(3);
+            tester.computeExpectedResults();
+            List<TestCase> kept = tester.retainDiverseTests(new OutputDiversityFilter(0));
+            assertEquals(List.of(f3Tests.get(0), f3Tests.get(1), f3Tests.get(2),
+                    f3Tests.get(4)), kept);
+
+            TestResults results = tester.runTests();
+            assertEquals(Set.of(0, 1, 2), results.getWrongSet());
+            assertEquals(List.of(Set.of(0, 1), Set.of(0, 1), Set.of(1), Set.of(2)),
+                    results.getCaseToFiles());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail();
+        } finally {
+            deletedExpected("f3multipleMixed");
+        }
+    }
+
+    /**
+     * Tests that computeExpectedResults() measures the solution's time on each test case,
+     * and that retainAffordableTests() narrows the test cases (and their times) to those
+     * fitting in the budget.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(52)
+    void testRetainAffordableTests() {
+        Tester tester = new Tester("func3", userDir + "/src/test/rice/test/pyfiles/sols/func3sol.py",
+                userDir + "/src/test/rice/test/pyfiles/f3multipleMixed", f3Tests);
+        try {
+            assertNull(tester.getSolutionMillis());
+            writeSolContents(3);
+            tester.computeExpectedResults();
+            List<Double> millis = tester.getSolutionMillis();
+            assertEquals(f3Tests.size(), millis.size());
+            double cheapest = Double.POSITIVE_INFINITY;
+            double total = 0;
+            for (double time : millis) {
+                assertTrue(time > 0);
+                cheapest = Math.min(cheapest, time);
+                total += time;
+            }
+
+            // Leave some slack, since the pruner adds up the times in a different order
+            assertEquals(f3Tests, tester.retainAffordableTests(new CostAwarePruner(total + 1)));
+            List<TestCase> kept = tester.retainAffordableTests(new CostAwarePruner(cheapest));
+            assertEquals(1, kept.size());
+            assertEquals(List.of(cheapest), tester.getSolutionMillis());
+            assertEquals(f3Tests.get(millis.indexOf(cheapest)), kept.get(0));
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail();
+        } finally {
+            deletedExpected("f3multipleMixed");
+        }
+    }
+
+    /**
+     * Tests that runTests() on a subset of files and tests only runs those cells, and
+     * indexes files as getImplFilenames() does.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(53)
+    void testRunTestsSubset() {
+        String implDir = userDir + "/src/test/rice/test/pyfiles/f3multipleMixed";
+        Tester tester = new Tester("func3", null, implDir, f3Tests);
+        try {
+            FileWriter writer = new FileWriter(implDir + "/expected.py");
+            writer.write(f3resultStr);
+            writer.close();
+
+            assertEquals(List.of("impl0.py", "impl1.py", "impl2.py"), tester.getImplFilenames());
+            assertEquals(f3Tests, tester.getTests());
+            TestResults results = tester.runTests(List.of(1, 2), List.of(2, 4));
+            List<Set<Integer>> expected = new ArrayList<>();
+            for (int i = 0; i < f3Tests.size(); i++) {
+                expected.add(i == 2 ? Set.of(1) : i == 4 ? Set.of(2) : Set.of());
+            }
+            assertEquals(expected, results.getCaseToFiles());
+            assertEquals(Set.of(1, 2), results.getWrongSet());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail();
+        } finally {
+            deletedExpected("f3multipleMixed");
+        }
+    }
+
+    /**
+     * Tests that the resource matrix and the per-test run counts keep the cells of every
+     * call to runTests() on the same test cases, rather than only those of the most
+     * recent one.
+     */
+    @Test
+    @Tag("1.0")
+    @Order(54)
+    void testRunTestsAccumulatesResources() {
+        String implDir = userDir + "/src/test/rice/test/pyfiles/f3multipleMixed";
+        Tester tester = new Tester("func3", null, implDir, f3Tests);
+        try {
+            FileWriter writer = new FileWriter(implDir + "/expected.py");
+            writer.write(f3resultStr);
+            writer.close();
+
+            tester.runTests(List.of(0), List.of(1, 3));
+            ResourceMatrix matrix = tester.getResourceMatrix();
+            tester.runTests(List.of(1, 2), List.of(2));
+            assertSame(matrix, tester.getResourceMatrix());
+            for (int file = 0; file < 3; file++) {
+                for (int test = 0; test < f3Tests.size(); test++) {
+                    boolean ran = (file == 0 && (test == 1 || test == 3))
+                            || (file > 0 && test == 2);
+                    assertEquals(ran, matrix.getUsage(file, test) != null);
+                }
+            }
+            assertEquals(2, matrix.summarizeImpl(0).getCount());
+            assertEquals(2, matrix.summarizeTest(2).getCount());
+            assertEquals(4, tester.getNumCellsRun());
+            assertEquals(List.of(0, 1, 2, 1), tester.getRunsPerTest().subList(0, 4));
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail();
+        } finally {
+            deletedExpected("f3multipleMixed");
+        }
+    }
+
+    /**
+     * Tests that a test process which cannot be spawned still leaves no workers in
+     * flight. An argument containing a NUL character is refused by the OS.
+     */
+    @Test
+    @Tag("0.5")
+    @Order(55)
+    void testSpawnFailureMetrics() {
+        Tester tester = new Tester("func0", userDir + "/src/test/rice/test/pyfiles/sols/func0sol.py",
+                userDir + "/src/test/rice/test/pyfiles/f0multipleMixed",
+                List.of(new TestCase(List.of(new PyStringObj("a\u0000b")))));
+        MetricsRegistry metrics = new MetricsRegistry();
+        tester.setMetrics(metrics);
+        assertThrows(IOException.class, tester::computeExpectedResults);
+        assertEquals(0, metrics.gauge("feat_workers_in_flight", "").get());
+    }
+
     /**
      * Sets up the test cases for function f0, which takes one simple argument.
      */
@@ -1047,8 +1341,31 @@ class TesterTest {
     private static void runTestsHelper(String funcName, List<TestCase> tests, String implDir,
                                 String solResults, Set<Integer> expWrongSet, List<Set<Integer>> expResults,
                                 int outputToCheck) {
+        runTestsHelper(funcName, tests, implDir, solResults, expWrongSet, expResults,
+                outputToCheck, null);
+    }
+
+    /**
+     * Helper function for testing the runTests() function with the given concurrency
+     * controller; otherwise identical to the helper above.
+     *
+     * @param funcName      name of the function under test
+     * @param tests         the set of tests to be run
+     * @param implDir       the path to the directory containing the buggy implementations
+     * @param solResults    the expected contents of expected.py, assuming
+     *                      computeExpectedResults() is correct
+     * @param expWrongSet   the expected wrongSet
+     * @param expResults    the expected caseToFile list
+     * @param outputToCheck an integer representing which output to check
+     * @param concurrency   the controller to run the tests with, or null to run them
+     *                      sequentially
+     */
+    private static void runTestsHelper(String funcName, List<TestCase> tests, String implDir,
+                                String solResults, Set<Integer> expWrongSet, List<Set<Integer>> expResults,
+                                int outputToCheck, ConcurrencyController concurrency) {
         Tester tester = new Tester(funcName, null,
                 userDir + "/src/test/rice/test/pyfiles/" + implDir, tests);
+        tester.setConcurrency(concurrency);
         try {
             // Generate the expected.py file (to fake computing the expected results
             // without creating a dependency on computeExpectedResults())